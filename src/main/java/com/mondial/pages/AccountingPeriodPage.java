@@ -8,6 +8,8 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import com.mondial.utils.DriverManager;
+import com.mondial.utils.TestLog;
 
 /**
  * Accounting Period Page Object
@@ -55,31 +57,35 @@ public class AccountingPeriodPage extends BasePage {
      * @param companyName - Company to navigate into
      */
     public void navigateToAccountingPeriod(String companyName) {
+        if (DriverManager.getCompanyRoutes().navigate(driver, companyName, "Accounting Periods")) {
+            wait.until(ExpectedConditions.visibilityOf(dateBox));
+            return;
+        }
         waitForPageLoad();
         WebElement link = wait.until(ExpectedConditions.elementToBeClickable(
                 By.xpath("//table[@class='table table-striped']//tr[contains(., '"
                         + companyName
                         + "')]//td//a[@data-original-title='Accounting Periods']")));
         String hrefBefore = link.getAttribute("href");
-        System.out.println("[DEBUG] Accounting Periods link href: " + hrefBefore);
-        System.out.println("[DEBUG] URL before click: " + driver.getCurrentUrl());
+        TestLog.info("[DEBUG] Accounting Periods link href: " + hrefBefore);
+        TestLog.info("[DEBUG] URL before click: " + driver.getCurrentUrl());
         int windowsBefore = driver.getWindowHandles().size();
         scrollToElement(link);
         clickElement(link);
         waitForPageLoad();
         int windowsAfter = driver.getWindowHandles().size();
-        System.out.println("[DEBUG] URL after click: " + driver.getCurrentUrl());
-        System.out.println("[DEBUG] Windows before: " + windowsBefore + ", after: " + windowsAfter);
+        TestLog.info("[DEBUG] URL after click: " + driver.getCurrentUrl());
+        TestLog.info("[DEBUG] Windows before: " + windowsBefore + ", after: " + windowsAfter);
         if (windowsAfter > windowsBefore) {
             // Link opened a new tab — switch to it
-            System.out.println("[DEBUG] New tab detected, switching...");
+            TestLog.info("[DEBUG] New tab detected, switching...");
             String newTab = driver.getWindowHandles().stream()
                     .filter(h -> !h.equals(driver.getWindowHandle()))
                     .findFirst().orElse(null);
             if (newTab != null) {
                 driver.switchTo().window(newTab);
                 waitForPageLoad();
-                System.out.println("[DEBUG] Switched to new tab, URL: " + driver.getCurrentUrl());
+                TestLog.info("[DEBUG] Switched to new tab, URL: " + driver.getCurrentUrl());
             }
         }
         // Wait for the date-entry form to be visible — more reliable than the submit button
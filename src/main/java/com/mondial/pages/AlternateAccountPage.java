@@ -45,9 +45,6 @@ public class AlternateAccountPage extends BasePage {
 	@FindBy(xpath = "//a[contains(text(),'Cancel')]")
 	private WebElement cancelBtn;
 
-	@FindBy(xpath = "//div[@class='alert alert-success']")
-	private WebElement successMessage;
-
 	@FindBy(xpath = "//div[@class='alert alert-danger']")
 	private WebElement warningMessage;
 
@@ -239,12 +236,11 @@ public class AlternateAccountPage extends BasePage {
 	}
 
 	/**
-	 * Get success message text
-	 * @return Success message text
+	 * Get success message text from the flash message buffer
+	 * @return Success message text or empty string if not found
 	 */
 	public String getSuccessMessage() {
-		wait.until(ExpectedConditions.visibilityOf(successMessage));
-		return successMessage.getAttribute("innerText");
+		return awaitFlashMessage("success");
 	}
 
 	/**
@@ -264,7 +260,7 @@ public class AlternateAccountPage extends BasePage {
 	 * Wait for success message to disappear
 	 */
 	public void waitForSuccessMessageToDisappear() {
-		dismissAlert();
+		dismissFlashMessages();
 	}
 
 	// ============================================
@@ -9,10 +9,32 @@ import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import com.mondial.utils.ConfigReader;
 import com.mondial.utils.DriverManager;
+import com.mondial.utils.FlashMessageBuffer;
+import com.mondial.utils.PagePerformance;
+import com.mondial.utils.TestLog;
 
 import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
 public class BasePage {
+    private static final String AWAIT_FLASH_SCRIPT = FlashMessageBuffer.INSTALL_SCRIPT +
+        "var type = arguments[0], deadline = Date.now() + arguments[1], done = arguments[arguments.length - 1];" +
+        "(function poll() {" +
+        "  var message = window.__mondialFlash.take(type);" +
+        "  if (message || Date.now() > deadline) { done(message); return; }" +
+        "  setTimeout(poll, 100);" +
+        "})();";
+    // A page without a flash must not hold the step for a whole explicitWait
+    private static final long DISMISS_FLASH_MILLIS = 3000;
+    private static final String DISMISS_FLASH_SCRIPT = FlashMessageBuffer.INSTALL_SCRIPT +
+        "var deadline = Date.now() + arguments[0], done = arguments[arguments.length - 1];" +
+        "(function poll() {" +
+        "  if (window.__mondialFlash.dismiss() || Date.now() > deadline) { done(null); return; }" +
+        "  setTimeout(poll, 100);" +
+        "})();";
+
     protected WebDriver driver;
     protected WebDriverWait wait;
     protected ConfigReader config;
@@ -20,16 +42,14 @@ public class BasePage {
     public BasePage() {
         this.driver = DriverManager.getDriver();
         this.config = new ConfigReader();
-        int explicitWait = Integer.parseInt(config.getProperty("explicitWait"));
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(explicitWait));
+        this.wait = new WebDriverWait(driver, config.getSeconds("explicitWait"));
         PageFactory.initElements(driver, this);
     }
 
     public BasePage(WebDriver driver) {
         this.driver = driver;
         this.config = new ConfigReader();
-        int explicitWait = Integer.parseInt(config.getProperty("explicitWait"));
-        this.wait = new WebDriverWait(driver, Duration.ofSeconds(explicitWait));
+        this.wait = new WebDriverWait(driver, config.getSeconds("explicitWait"));
         PageFactory.initElements(driver, this);
     }
 
@@ -65,7 +85,7 @@ public class BasePage {
             wait.until(ExpectedConditions.elementToBeClickable(element));
             element.click();
         } catch (Exception e) {
-            System.out.println("Regular click failed, using JavaScript click");
+            TestLog.info("Regular click failed, using JavaScript click");
             ((JavascriptExecutor) driver).executeScript("arguments[0].scrollIntoView(true);", element);
             ((JavascriptExecutor) driver).executeScript("arguments[0].click();", element);
         }
@@ -74,6 +94,10 @@ public class BasePage {
     protected void scrollToElement(WebElement element) {
         ((JavascriptExecutor) driver).executeScript(
             "arguments[0].scrollIntoView({block: 'center', behavior: 'instant'});", element);
+        // Without animations the scroll and any sticky header transition settle immediately
+        if (DriverManager.areAnimationsDisabled()) {
+            return;
+        }
         try {
             Thread.sleep(300);
         } catch (InterruptedException e) {
@@ -81,14 +105,24 @@ public class BasePage {
         }
     }
 
+    /**
+     * Wait for document.readyState complete; with pagePerformance on, the first wait on a
+     * new document also records its timings under this page object's name
+     */
     public void waitForPageLoad() {
         try {
-            int pageLoadTimeout = Integer.parseInt(config.getProperty("pageLoadTimeout"));
-            new WebDriverWait(driver, Duration.ofSeconds(pageLoadTimeout)).until(
+            if (PagePerformance.isEnabled()) {
+                Object timeOrigin = new WebDriverWait(driver, config.getSeconds("pageLoadTimeout")).until(
+                    d -> ((JavascriptExecutor) d).executeScript(PagePerformance.READY_SCRIPT)
+                );
+                PagePerformance.capture(driver, getClass().getSimpleName(), timeOrigin);
+                return;
+            }
+            new WebDriverWait(driver, config.getSeconds("pageLoadTimeout")).until(
                 d -> ((JavascriptExecutor) d).executeScript("return document.readyState").equals("complete")
             );
         } catch (Exception e) {
-            System.out.println("Page load wait timed out");
+            TestLog.info("Page load wait timed out");
         }
     }
 
@@ -144,4 +178,93 @@ public class BasePage {
             return false;
         }
     }
-}
\ No newline at end of file
+
+    /**
+     * Await the newest unread flash message of a type from the in-page buffer.
+     * Returns as soon as the alert has been inserted, without waiting for it to disappear,
+     * and also sees messages that already faded out.
+     * @param type - Bootstrap alert type: success, danger, warning, info (null for any)
+     * @return Message text, or empty string if none arrived within the explicit wait
+     */
+    @SuppressWarnings("unchecked")
+    public String awaitFlashMessage(String type) {
+        long deadline = System.currentTimeMillis() + explicitWaitMillis();
+        while (System.currentTimeMillis() < deadline) {
+            try {
+                Object message = ((JavascriptExecutor) driver).executeAsyncScript(
+                    AWAIT_FLASH_SCRIPT, type, deadline - System.currentTimeMillis());
+                return message != null ? String.valueOf(((Map<String, Object>) message).get("text")) : "";
+            } catch (Exception e) {
+                // Document unloaded while waiting (form submit redirect), poll the new page
+            }
+        }
+        return "";
+    }
+
+    /**
+     * Get every flash message recorded in the current document
+     * @return Message texts in insertion order
+     */
+    @SuppressWarnings("unchecked")
+    public List<String> getFlashMessages() {
+        List<String> texts = new ArrayList<>();
+        Object messages = ((JavascriptExecutor) driver).executeScript(
+            FlashMessageBuffer.INSTALL_SCRIPT + "return window.__mondialFlash.all();");
+        if (messages instanceof List) {
+            for (Object message : (List<Object>) messages) {
+                texts.add(String.valueOf(((Map<String, Object>) message).get("text")));
+            }
+        }
+        return texts;
+    }
+
+    /**
+     * Remove success and notice flash messages from the page in one call once at least one
+     * was recorded, instead of waiting for Bootstrap to fade them out. Gives up after
+     * DISMISS_FLASH_MILLIS when none appears.
+     */
+    public void dismissFlashMessages() {
+        try {
+            ((JavascriptExecutor) driver).executeAsyncScript(DISMISS_FLASH_SCRIPT, DISMISS_FLASH_MILLIS);
+        } catch (Exception e) {
+            // Page navigated meanwhile, the alerts went with it
+        }
+    }
+
+    /**
+     * Delete the matching listing rows through their data-method="delete" links, several
+     * requests at a time (bulkDeleteConcurrency), then refresh once and count what is left.
+     * @param rowSelector - CSS selector of the rows, e.g. RowIndex.TABLE_ROWS
+     * @param filter - Text the row must contain, ignoring case; null for all rows
+     * @return Requests sent, and the rows deleted and left according to the refresh. Nothing is
+     *         requested when no row has a delete link; the caller then uses its click path.
+     */
+    protected BulkDelete.Result bulkDeleteRows(String rowSelector, String filter) {
+        BulkDelete bulkDelete = new BulkDelete(driver, config.getInt("bulkDeleteConcurrency", 0));
+        BulkDelete.Result result = bulkDelete.delete(rowSelector, filter);
+        if (result.getRequested() == 0) {
+            return result;
+        }
+        // refresh() returns at once under page load strategy none; count only on the new listing
+        WebElement previous = driver.findElement(By.tagName("html"));
+        driver.navigate().refresh();
+        wait.until(ExpectedConditions.stalenessOf(previous));
+        waitForPageLoad();
+        result.setRemaining(bulkDelete.count(rowSelector, filter));
+        TestLog.info((result.getRemaining() == 0 ? "✓ " : "✗ ") + result.getRemaining()
+            + " matching row(s) left after bulk delete");
+        return result;
+    }
+
+    /**
+     * Form fixtures of this session, submitting up to fixtureConcurrency forms at a time
+     * @return Fixture builder for creating preconditions over HTTP
+     */
+    protected FormFixtures fixtures() {
+        return new FormFixtures(driver, config.getInt("fixtureConcurrency", 0));
+    }
+
+    protected long explicitWaitMillis() {
+        return config.getSeconds("explicitWait").toMillis();
+    }
+}
@@ -0,0 +1,201 @@
+package com.mondial.pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import com.mondial.utils.TestLog;
+
+/**
+ * Bulk cleanup of listing rows through the app's own delete requests.
+ *
+ * Rails renders delete actions as &lt;a data-method="delete"&gt; links; clicking one makes
+ * rails-ujs post a hidden form with _method=delete and the page's CSRF token. This class
+ * collects those links from the rows on screen in one script and sends the same requests
+ * with fetch from the authenticated page, a bounded number at a time, without following
+ * the redirect back to the listing. The confirm dialog is not shown and nothing is
+ * re-rendered per row; callers refresh once afterwards and check what is left.
+ *
+ * An unfollowed redirect looks the same whether it goes back to the listing or to the
+ * login page, so a request is only counted as rejected on an error status; how many rows
+ * were actually deleted is known only from the recount after the refresh.
+ *
+ * Rows without a data-method="delete" link (e.g. grids with script-only delete cells)
+ * are not collected, callers keep their UI path for those.
+ */
+public class BulkDelete {
+	private static final int DEFAULT_CONCURRENCY = 4;
+	// Requests per script call, so one call stays well within the session's script timeout
+	private static final int BATCH_SIZE = 40;
+
+	private static final String COLLECT_SCRIPT =
+			"var rows = document.querySelectorAll(arguments[0]), filter = arguments[1], seen = {}, targets = [];" +
+			"for (var i = 0; i < rows.length; i++) {" +
+			"  var text = (rows[i].innerText || rows[i].textContent || '').trim();" +
+			"  if (filter && text.toLowerCase().indexOf(filter) < 0) { continue; }" +
+			"  var links = rows[i].querySelectorAll(\"a[data-method='delete'][href]\");" +
+			"  for (var j = 0; j < links.length; j++) {" +
+			"    var url = links[j].href;" +
+			"    if (!seen[url]) { seen[url] = true; targets.push({ url: url, text: text.substring(0, 80) }); }" +
+			"  }" +
+			"}" +
+			"return targets;";
+
+	private static final String COUNT_SCRIPT =
+			"var rows = document.querySelectorAll(arguments[0]), filter = arguments[1], count = 0;" +
+			"for (var i = 0; i < rows.length; i++) {" +
+			"  var text = (rows[i].innerText || rows[i].textContent || '').trim().toLowerCase();" +
+			"  if (text && (!filter || text.indexOf(filter) >= 0)) { count++; }" +
+			"}" +
+			"return count;";
+
+	private static final String SEND_SCRIPT =
+			"var urls = arguments[0], limit = arguments[1], done = arguments[arguments.length - 1];" +
+			"var token = document.querySelector('meta[name=\"csrf-token\"]');" +
+			"var param = document.querySelector('meta[name=\"csrf-param\"]');" +
+			"token = token ? token.getAttribute('content') : null;" +
+			"param = param ? param.getAttribute('content') : 'authenticity_token';" +
+			"var results = [], next = 0, running = 0;" +
+			// Same request rails-ujs sends for a data-method link: form post with _method and the CSRF param
+			"function send(url) {" +
+			"  var body = new URLSearchParams();" +
+			"  body.append('_method', 'delete');" +
+			"  if (token) { body.append(param, token); }" +
+			"  var headers = { 'Accept': 'text/html,application/xhtml+xml' };" +
+			"  if (token) { headers['X-CSRF-Token'] = token; }" +
+			"  return fetch(url, { method: 'POST', body: body, headers: headers, credentials: 'same-origin', redirect: 'manual' })" +
+			"    .then(function (response) {" +
+			// A redirect is Rails' normal answer to a destroy, but also to a lost session; the recount decides
+			"      var ok = response.type === 'opaqueredirect' || (response.status >= 200 && response.status < 300);" +
+			"      results.push({ url: url, ok: ok, status: response.status });" +
+			"    }, function (error) {" +
+			"      results.push({ url: url, ok: false, status: -1, error: String(error) });" +
+			"    });" +
+			"}" +
+			"function pump() {" +
+			"  if (next >= urls.length && running === 0) { done(results); return; }" +
+			"  while (running < limit && next < urls.length) {" +
+			"    running++;" +
+			"    send(urls[next++]).then(function () { running--; pump(); });" +
+			"  }" +
+			"}" +
+			"pump();";
+
+	private final WebDriver driver;
+	private final int concurrency;
+
+	/**
+	 * Outcome of one bulk delete
+	 */
+	public static class Result {
+		private final int requested;
+		private final int matched;
+		private final List<String> failures;
+		private final long millis;
+		private int remaining = -1;
+
+		private Result(int requested, int matched, List<String> failures, long millis) {
+			this.requested = requested;
+			this.matched = matched;
+			this.failures = Collections.unmodifiableList(failures);
+			this.millis = millis;
+		}
+
+		/** Number of delete requests sent */
+		public int getRequested() {
+			return requested;
+		}
+
+		/** Matching rows removed according to the verifying refresh, 0 before it */
+		public int getDeleted() {
+			return remaining >= 0 ? Math.max(0, matched - remaining) : 0;
+		}
+
+		/** URL and status of every request answered with an error */
+		public List<String> getFailures() {
+			return failures;
+		}
+
+		public long getMillis() {
+			return millis;
+		}
+
+		/** Matching rows left after the verifying refresh, -1 before it */
+		public int getRemaining() {
+			return remaining;
+		}
+
+		void setRemaining(int remaining) {
+			this.remaining = remaining;
+		}
+	}
+
+	/**
+	 * @param driver - Session driver, on the listing page
+	 * @param concurrency - Maximum delete requests in flight, values below 1 use the default
+	 */
+	public BulkDelete(WebDriver driver, int concurrency) {
+		this.driver = driver;
+		this.concurrency = concurrency > 0 ? concurrency : DEFAULT_CONCURRENCY;
+	}
+
+	/**
+	 * Send the delete request of every matching row on screen
+	 * @param rowSelector - CSS selector of the rows, e.g. RowIndex.TABLE_ROWS
+	 * @param filter - Text the row must contain, ignoring case; null for all rows
+	 * @return Requests sent and rejected
+	 */
+	@SuppressWarnings("unchecked")
+	public Result delete(String rowSelector, String filter) {
+		long started = System.currentTimeMillis();
+		JavascriptExecutor jse = (JavascriptExecutor) driver;
+		List<Map<String, Object>> targets = (List<Map<String, Object>>) jse.executeScript(COLLECT_SCRIPT,
+				rowSelector, normalize(filter));
+
+		int matched = count(rowSelector, filter);
+		List<String> urls = new ArrayList<>();
+		for (Map<String, Object> target : targets) {
+			urls.add((String) target.get("url"));
+		}
+		List<String> failures = new ArrayList<>();
+		for (int from = 0; from < urls.size(); from += BATCH_SIZE) {
+			List<String> batch = urls.subList(from, Math.min(urls.size(), from + BATCH_SIZE));
+			List<Map<String, Object>> results = (List<Map<String, Object>>) jse.executeAsyncScript(SEND_SCRIPT,
+					new ArrayList<>(batch), concurrency);
+			for (Map<String, Object> result : results) {
+				if (!Boolean.TRUE.equals(result.get("ok"))) {
+					Object error = result.get("error");
+					failures.add(result.get("url") + " -> " + (error != null ? error : "HTTP " + result.get("status")));
+				}
+			}
+		}
+
+		Result result = new Result(urls.size(), matched, failures, System.currentTimeMillis() - started);
+		if (result.getRequested() > 0) {
+			TestLog.info("✓ Bulk delete: " + (result.getRequested() - failures.size()) + "/" + result.getRequested()
+					+ " requests not rejected in " + result.getMillis() + " ms (" + concurrency + " concurrent)");
+		}
+		for (String failure : failures) {
+			TestLog.warn("✗ Bulk delete rejected: " + failure);
+		}
+		return result;
+	}
+
+	/**
+	 * Count the matching rows on screen, e.g. after the refresh that follows a bulk delete
+	 * @param rowSelector - CSS selector of the rows
+	 * @param filter - Text the row must contain, ignoring case; null for all rows
+	 * @return Number of non-empty matching rows
+	 */
+	public int count(String rowSelector, String filter) {
+		Object count = ((JavascriptExecutor) driver).executeScript(COUNT_SCRIPT, rowSelector, normalize(filter));
+		return ((Number) count).intValue();
+	}
+
+	private static String normalize(String filter) {
+		return filter == null ? "" : filter.toLowerCase();
+	}
+}
@@ -16,6 +16,9 @@ import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 
+import com.mondial.utils.DriverManager;
+import com.mondial.utils.TestLog;
+
 /**
  * Chart of Accounts Page Object
  * Represents the Chart of Accounts page and its CRUD operations for GL Accounts
@@ -70,9 +73,6 @@ public class ChartOfAccountsPage extends BasePage {
 	@FindBy(xpath = "//a[contains(text(),'Cancel')]")
 	private WebElement cancelBtn;
 
-	@FindBy(xpath = "//div[@class='alert alert-success']")
-	private WebElement successMessage;
-
 	@FindBy(xpath = "//div[@class='alert-danger']")
 	private WebElement failureMessage;
 
@@ -94,10 +94,13 @@ public class ChartOfAccountsPage extends BasePage {
 	@FindBy(xpath = "//div[@class='spinner']")
 	private WebElement pageSpinner;
 
+	private final RowIndex grid;
+
 	// Constructor
 	public ChartOfAccountsPage(WebDriver driver) {
 		super(driver);
 		PageFactory.initElements(driver, this);
+		grid = new RowIndex(driver, RowIndex.GRID_ROWS);
 	}
 
 	// ============================================
@@ -109,6 +112,9 @@ public class ChartOfAccountsPage extends BasePage {
 	 * @param companyName - Name of the company
 	 */
 	public void navigateToChartOfAccounts(String companyName) {
+		if (DriverManager.getCompanyRoutes().navigate(driver, companyName, "Chart of Accounts")) {
+			return;
+		}
 		waitForPageLoad();
 		wait.until(ExpectedConditions.visibilityOf(companyHeading));
 		((org.openqa.selenium.JavascriptExecutor) driver).executeScript("window.scrollTo(0, document.body.scrollHeight);");
@@ -121,7 +127,7 @@ public class ChartOfAccountsPage extends BasePage {
 						+ companyName + "')]//td//a[@data-original-title='Chart of Accounts']"));
 				clickElement(link);
 				if (!waitForTextChange(pageHeading, "Companies", 10)) {
-					System.out.println("First click did not navigate, retrying...");
+					TestLog.info("First click did not navigate, retrying...");
 					link = driver.findElement(By.xpath(
 							"//table[@class='table table-striped']//tr[contains(., '"
 							+ companyName + "')]//td//a[@data-original-title='Chart of Accounts']"));
@@ -133,7 +139,7 @@ public class ChartOfAccountsPage extends BasePage {
 				return;
 			}
 		}
-		System.out.println("WARNING: Company '" + companyName + "' not found in table.");
+		TestLog.warn("WARNING: Company '" + companyName + "' not found in table.");
 	}
 
 	/**
@@ -141,17 +147,13 @@ public class ChartOfAccountsPage extends BasePage {
 	 * @param name - Name/number of the GL Account to edit
 	 */
 	public void navigateToEdit(String name) {
-		for (int i = 0; i < container.size(); i++) {
-			if (container.get(i).getAttribute("innerText").contains(name)) {
-				WebElement editLink = driver.findElement(By.xpath(
-						"//div[@ref='eContainer']//div[@role='row'][.//*[contains(text(),'"
-						+ name + "')]]//div[contains(text(),'Edit')]"));
-				scrollToElement(editLink);
-				wait.until(ExpectedConditions.elementToBeClickable(editLink));
-				editLink.click();
-				waitForPageLoad();
-				break;
-			}
+		RowIndex.Row row = grid.find(name);
+		if (row != null) {
+			WebElement editLink = row.getAction("Edit");
+			scrollToElement(editLink);
+			wait.until(ExpectedConditions.elementToBeClickable(editLink));
+			editLink.click();
+			waitForPageLoad();
 		}
 	}
 
@@ -252,24 +254,20 @@ public class ChartOfAccountsPage extends BasePage {
 	 * @param name - Name/number of the GL Account to delete
 	 */
 	public void clickDelete(String name) {
-		for (int i = 0; i < container.size(); i++) {
-			if (container.get(i).getAttribute("innerText").contains(name)) {
-				WebElement deleteLink = driver.findElement(By.xpath(
-						"//div[@ref='eContainer']//div[@role='row']//div[contains(., '"
-						+ name + "')]//following-sibling::div[contains(.,'Delete')]"));
-				scrollToElement(deleteLink);
-				wait.until(ExpectedConditions.elementToBeClickable(deleteLink));
-				deleteLink.click();
-				// Wait for and accept the browser confirmation dialog
-				try {
-					wait.until(ExpectedConditions.alertIsPresent());
-					driver.switchTo().alert().accept();
-				} catch (Exception e) {
-					System.out.println("No confirmation dialog present");
-				}
-				waitForPageLoad();
-				break;
+		RowIndex.Row row = grid.find(name);
+		if (row != null) {
+			WebElement deleteLink = row.getAction("Delete");
+			scrollToElement(deleteLink);
+			wait.until(ExpectedConditions.elementToBeClickable(deleteLink));
+			deleteLink.click();
+			// Wait for and accept the browser confirmation dialog
+			try {
+				wait.until(ExpectedConditions.alertIsPresent());
+				driver.switchTo().alert().accept();
+			} catch (Exception e) {
+				TestLog.info("No confirmation dialog present");
 			}
+			waitForPageLoad();
 		}
 	}
 
@@ -279,8 +277,14 @@ public class ChartOfAccountsPage extends BasePage {
 	 */
 	public void deleteAllGLAccounts() {
 		waitForPageLoad();
+		BulkDelete.Result bulk = bulkDeleteRows(RowIndex.GRID_ROWS, null);
+		if (bulk.getRequested() > 0 && bulk.getRemaining() == 0) {
+			TestLog.info("All GL Accounts deleted");
+			return;
+		}
+		// Grid without delete links, or rows the bulk delete left behind: delete them one by one
 		int rowCount = container.size();
-		System.out.println("Records to delete: " + rowCount);
+		TestLog.info("Records to delete: " + rowCount);
 		for (int i = 0; i < rowCount; i++) {
 			try {
 				WebElement deleteLink = driver.findElement(By.xpath(
@@ -293,7 +297,7 @@ public class ChartOfAccountsPage extends BasePage {
 							.until(ExpectedConditions.alertIsPresent());
 					driver.switchTo().alert().accept();
 				} catch (Exception e) {
-					System.out.println("No confirmation dialog present");
+					TestLog.info("No confirmation dialog present");
 				}
 				// Wait for success message and dismiss it
 				waitForSuccessMessageToDisappear();
@@ -302,11 +306,11 @@ public class ChartOfAccountsPage extends BasePage {
 				driver.navigate().refresh();
 				waitForPageLoad();
 			} catch (Exception e) {
-				System.out.println("No more records to delete or error: " + e.getMessage());
+				TestLog.info("No more records to delete or error: " + e.getMessage());
 				break;
 			}
 		}
-		System.out.println("All GL Accounts deleted");
+		TestLog.info("All GL Accounts deleted");
 	}
 
 	/**
@@ -408,7 +412,7 @@ public class ChartOfAccountsPage extends BasePage {
 			java.io.File[] matches = dir.listFiles((d, name) ->
 					name.toLowerCase().contains(keyword.toLowerCase()) && name.endsWith(".csv"));
 			if (matches != null && matches.length > 0) {
-				System.out.println("Found downloaded file: " + matches[0].getAbsolutePath());
+				TestLog.info("Found downloaded file: " + matches[0].getAbsolutePath());
 				return matches[0].getAbsolutePath();
 			}
 			try {
@@ -418,7 +422,7 @@ public class ChartOfAccountsPage extends BasePage {
 				break;
 			}
 		}
-		System.out.println("No file containing '" + keyword + "' found in " + downloadDir);
+		TestLog.info("No file containing '" + keyword + "' found in " + downloadDir);
 		return null;
 	}
 
@@ -441,11 +445,9 @@ public class ChartOfAccountsPage extends BasePage {
 	 */
 	public boolean verifyGLAccount(String name) {
 		waitForPageLoad();
-		for (int i = 0; i < container.size(); i++) {
-			if (container.get(i).getAttribute("innerText").contains(name)) {
-				System.out.println("GL Account found: " + name);
-				return true;
-			}
+		if (grid.contains(name)) {
+			TestLog.info("GL Account found: " + name);
+			return true;
 		}
 		return false;
 	}
@@ -486,16 +488,11 @@ public class ChartOfAccountsPage extends BasePage {
 	}
 
 	/**
-	 * Get success message text
+	 * Get success message text from the flash message buffer
 	 * @return Success message text or empty string if not found
 	 */
 	public String getSuccessMessage() {
-		try {
-			wait.until(ExpectedConditions.visibilityOf(successMessage));
-			return successMessage.getText();
-		} catch (Exception e) {
-			return "";
-		}
+		return awaitFlashMessage("success");
 	}
 
 	/**
@@ -528,7 +525,7 @@ public class ChartOfAccountsPage extends BasePage {
 	 * Wait for success message to disappear
 	 */
 	public void waitForSuccessMessageToDisappear() {
-		dismissAlert();
+		dismissFlashMessages();
 	}
 
 	// ============================================
@@ -666,7 +663,7 @@ public class ChartOfAccountsPage extends BasePage {
 					By.xpath("//span[contains(@class,'ag-tab')][.//span[contains(@class,'ag-icon-filter')]]")));
 			filterTab.click();
 		} catch (Exception e) {
-			System.out.println("Filter tab not found, filter input may be directly visible");
+			TestLog.info("Filter tab not found, filter input may be directly visible");
 		}
 	}
 
@@ -689,7 +686,7 @@ public class ChartOfAccountsPage extends BasePage {
 					By.xpath("//span[contains(@class,'ag-tab')][.//span[contains(@class,'ag-icon-filter')]]")));
 			filterTab.click();
 		} catch (Exception e) {
-			System.out.println("Filter tab not found, filter input may be directly visible");
+			TestLog.info("Filter tab not found, filter input may be directly visible");
 		}
 	}
 
@@ -716,7 +713,7 @@ public class ChartOfAccountsPage extends BasePage {
 			filterInput.sendKeys(Keys.DELETE);
 			waitForPageLoad();
 		} catch (Exception e) {
-			System.out.println("Filter already cleared or not present");
+			TestLog.info("Filter already cleared or not present");
 		}
 	}
 
@@ -767,7 +764,7 @@ public class ChartOfAccountsPage extends BasePage {
 					wait.until(ExpectedConditions.alertIsPresent());
 					driver.switchTo().alert().accept();
 				} catch (Exception e) {
-					System.out.println("No confirmation dialog present");
+					TestLog.info("No confirmation dialog present");
 				}
 				waitForPageLoad();
 			}
@@ -0,0 +1,296 @@
+package com.mondial.pages;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebDriverException;
+
+/**
+ * Driver for Chosen.js backed dropdowns.
+ *
+ * Instead of opening the widget, typing into its search box and pressing ENTER
+ * (5-7 round trips per field), the underlying &lt;select&gt; is set from script,
+ * the same change event Chosen fires is dispatched and chosen:updated refreshes the widget.
+ * Several selects are applied in one asynchronous script, in order: each one waits
+ * (MutationObserver) until its option exists, and after each change the script waits
+ * for jQuery's ajaxStop before moving on, so dependent dropdowns repopulate without sleeps.
+ *
+ * Selects are addressed by CSS selector, or by XPath when the selector starts with "/".
+ * Options match on exact visible text first, then on the first option containing the text,
+ * which is what the Chosen search box would have picked.
+ */
+public class ChosenSelect {
+	// One script call never runs longer than this, well within the session's script timeout
+	private static final long SLICE_MILLIS = 10000;
+
+	private static final String APPLY_SCRIPT =
+			"var entries = arguments[0], slice = arguments[1], done = arguments[arguments.length - 1];" +
+			"var results = [], observers = [], finished = false;" +
+			"function finish(pending) {" +
+			"  if (finished) { return; }" +
+			"  finished = true;" +
+			"  for (var i = 0; i < observers.length; i++) { observers[i].disconnect(); }" +
+			"  done({ results: results, pending: pending });" +
+			"}" +
+			"setTimeout(function () { finish(true); }, slice);" +
+			"function find(selector) {" +
+			"  if (selector.charAt(0) === '/') {" +
+			"    return document.evaluate(selector, document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue;" +
+			"  }" +
+			"  return document.querySelector(selector);" +
+			"}" +
+			"function label(option) { return (option.text || '').replace(/\\s+/g, ' ').trim(); }" +
+			"function findOption(select, entry) {" +
+			"  if (entry.index >= 0) { return select.options[entry.index] || null; }" +
+			"  var wanted = entry.text.replace(/\\s+/g, ' ').trim(), lower = wanted.toLowerCase(), partial = null;" +
+			"  for (var i = 0; i < select.options.length; i++) {" +
+			"    var text = label(select.options[i]);" +
+			"    if (text === wanted) { return select.options[i]; }" +
+			"    if (!partial && select.options[i].value !== '' && text.toLowerCase().indexOf(lower) >= 0) { partial = select.options[i]; }" +
+			"  }" +
+			"  return partial;" +
+			"}" +
+			// A dependent select is ready once it holds a real (non-placeholder) option
+			"function populated(selector) {" +
+			"  var el = find(selector);" +
+			"  if (!el) { return false; }" +
+			"  if (el.tagName !== 'SELECT') { return true; }" +
+			"  for (var i = 0; i < el.options.length; i++) { if (el.options[i].value !== '') { return true; } }" +
+			"  return false;" +
+			"}" +
+			"function when(check, next) {" +
+			"  var value = check();" +
+			"  if (value) { next(value); return; }" +
+			"  var observer = new MutationObserver(function () {" +
+			"    var current = check();" +
+			"    if (current) { observer.disconnect(); next(current); }" +
+			"  });" +
+			"  observers.push(observer);" +
+			"  observer.observe(document, { childList: true, subtree: true });" +
+			"}" +
+			"function settled(next) {" +
+			"  if (window.jQuery && jQuery.active > 0) {" +
+			"    jQuery(document).one('ajaxStop', function () { setTimeout(next, 0); });" +
+			"  } else {" +
+			"    setTimeout(next, 0);" +
+			"  }" +
+			"}" +
+			"function shown(select) {" +
+			"  var container = select.id ? document.getElementById(select.id + '_chosen') : null;" +
+			"  var sibling = select.nextElementSibling;" +
+			"  if (!container && sibling && /\\bchosen-container\\b/.test(sibling.className)) { container = sibling; }" +
+			"  var single = container ? container.querySelector('.chosen-single span') : null;" +
+			"  return single ? single.textContent.replace(/\\s+/g, ' ').trim() : null;" +
+			"}" +
+			"function step(i) {" +
+			"  if (finished) { return; }" +
+			"  if (i >= entries.length) { finish(false); return; }" +
+			"  var entry = entries[i];" +
+			"  if (entry.optional && !find(entry.selector)) {" +
+			"    results.push({ selector: entry.selector, skipped: true });" +
+			"    step(i + 1);" +
+			"    return;" +
+			"  }" +
+			"  when(function () {" +
+			"    var select = find(entry.selector);" +
+			"    return select && findOption(select, entry) ? select : null;" +
+			"  }, function (select) {" +
+			"    var option = findOption(select, entry), expected = label(option);" +
+			// Like a user re-picking the current value, an already selected option fires nothing
+			"    var changed = !option.selected;" +
+			"    if (changed) {" +
+			"      option.selected = true;" +
+			"      select.dispatchEvent(new Event('change', { bubbles: true }));" +
+			"      if (window.jQuery) { jQuery(select).trigger('chosen:updated'); }" +
+			"    }" +
+			"    settled(function () {" +
+			"      var record = function () {" +
+			"        var current = find(entry.selector) || select;" +
+			"        results.push({ selector: entry.selector, expected: expected, changed: changed, shown: shown(current)," +
+			"          selected: current.selectedIndex >= 0 ? label(current.options[current.selectedIndex]) : '' });" +
+			"        step(i + 1);" +
+			"      };" +
+			"      if (entry.awaiting) { when(function () { return populated(entry.awaiting); }, record); } else { record(); }" +
+			"    });" +
+			"  });" +
+			"}" +
+			"step(0);";
+
+	private final WebDriver driver;
+	private final Duration timeout;
+
+	/**
+	 * One Chosen-backed select and the option to pick in it
+	 */
+	public static class Choice {
+		private final String selector;
+		private final String text;
+		private final int index;
+		private final boolean optional;
+		private String awaiting;
+
+		private Choice(String selector, String text, int index, boolean optional) {
+			this.selector = selector;
+			this.text = text;
+			this.index = index;
+			this.optional = optional;
+		}
+
+		/**
+		 * Pick an option by visible text, waiting for the select and option to appear
+		 * @param selector - CSS selector or XPath of the &lt;select&gt;
+		 * @param text - Visible option text
+		 */
+		public static Choice of(String selector, String text) {
+			return new Choice(selector, text, -1, false);
+		}
+
+		/**
+		 * Pick an option by visible text if the select is on the page, skip it otherwise
+		 * @param selector - CSS selector or XPath of the &lt;select&gt;
+		 * @param text - Visible option text
+		 */
+		public static Choice ifPresent(String selector, String text) {
+			return new Choice(selector, text, -1, true);
+		}
+
+		/**
+		 * Pick an option by position, waiting for the select and option to appear
+		 * @param selector - CSS selector or XPath of the &lt;select&gt;
+		 * @param index - Zero based option index
+		 */
+		public static Choice atIndex(String selector, int index) {
+			return new Choice(selector, null, index, false);
+		}
+
+		/**
+		 * After the change, also wait until the given element exists (and, if it is a select,
+		 * holds a real option) before moving on. Use for fields the change repopulates.
+		 * @param dependentSelector - CSS selector or XPath of the dependent element
+		 */
+		public Choice awaiting(String dependentSelector) {
+			this.awaiting = dependentSelector;
+			return this;
+		}
+
+		private Map<String, Object> toScriptArgument() {
+			Map<String, Object> entry = new HashMap<>();
+			entry.put("selector", selector);
+			entry.put("text", text);
+			entry.put("index", index);
+			entry.put("optional", optional);
+			entry.put("awaiting", awaiting);
+			return entry;
+		}
+
+		@Override
+		public String toString() {
+			return selector + " = " + (text != null ? "'" + text + "'" : "option #" + index);
+		}
+	}
+
+	public ChosenSelect(WebDriver driver, Duration timeout) {
+		this.driver = driver;
+		this.timeout = timeout;
+	}
+
+	/**
+	 * Set a single Chosen select
+	 * @param selector - CSS selector or XPath of the &lt;select&gt;
+	 * @param text - Visible option text
+	 * @return Text of the option now selected
+	 */
+	public String select(String selector, String text) {
+		return apply(Choice.of(selector, text)).get(selector);
+	}
+
+	/**
+	 * Set a Chosen select when it is rendered for the current form
+	 * @param selector - CSS selector or XPath of the &lt;select&gt;
+	 * @param text - Visible option text
+	 * @return Text of the option now selected, or null when the select is absent
+	 */
+	public String selectIfPresent(String selector, String text) {
+		return apply(Choice.ifPresent(selector, text)).get(selector);
+	}
+
+	public Map<String, String> apply(Choice... choices) {
+		return apply(Arrays.asList(choices));
+	}
+
+	/**
+	 * Set several Chosen selects in order and verify each one, both the &lt;select&gt;
+	 * and the text the widget displays
+	 * @param choices - Selects to set, dependencies first
+	 * @return Selected option text per selector, in order (skipped optional selects are absent)
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, String> apply(List<Choice> choices) {
+		List<Map<String, Object>> entries = new ArrayList<>();
+		for (Choice choice : choices) {
+			entries.add(choice.toScriptArgument());
+		}
+
+		long deadline = System.currentTimeMillis() + timeout.toMillis();
+		Map<String, Object> outcome = null;
+		WebDriverException lastError = null;
+		while (System.currentTimeMillis() < deadline) {
+			long slice = Math.max(1, Math.min(SLICE_MILLIS, deadline - System.currentTimeMillis()));
+			try {
+				outcome = (Map<String, Object>) ((JavascriptExecutor) driver).executeAsyncScript(APPLY_SCRIPT, entries, slice);
+			} catch (WebDriverException e) {
+				// Document unloaded mid-way (a change that reloads the page), resume on the new one.
+				// Selects already holding their option are not changed again. Any other error fails the step.
+				if (!isUnload(e)) {
+					throw e;
+				}
+				lastError = e;
+				continue;
+			}
+			if (!Boolean.TRUE.equals(outcome.get("pending"))) {
+				return verify((List<Map<String, Object>>) outcome.get("results"));
+			}
+		}
+
+		int completed = outcome != null ? ((List<Object>) outcome.get("results")).size() : 0;
+		String stuckAt = completed < choices.size() ? choices.get(completed).toString() : choices.toString();
+		throw new RuntimeException("Timed out after " + timeout.getSeconds() + "s setting Chosen select " + stuckAt,
+				lastError);
+	}
+
+	/**
+	 * Chrome reports "document unloaded while waiting for result", Firefox "Document was unloaded"
+	 */
+	private static boolean isUnload(WebDriverException e) {
+		String message = e.getMessage();
+		return message != null && message.toLowerCase().contains("unloaded");
+	}
+
+		private Map<String, String> verify(List<Map<String, Object>> results) {
+		Map<String, String> selected = new LinkedHashMap<>();
+		for (Map<String, Object> result : results) {
+			if (Boolean.TRUE.equals(result.get("skipped"))) {
+				continue;
+			}
+			String selector = (String) result.get("selector");
+			String expected = (String) result.get("expected");
+			String actual = (String) result.get("selected");
+			Object shown = result.get("shown");
+			if (!expected.equals(actual)) {
+				throw new RuntimeException("Chosen select " + selector + " holds '" + actual + "' instead of '" + expected + "'");
+			}
+			if (shown != null && !expected.equals(shown)) {
+				throw new RuntimeException("Chosen widget for " + selector + " shows '" + shown + "' instead of '" + expected + "'");
+			}
+			selected.put(selector, actual);
+		}
+		return selected;
+	}
+}
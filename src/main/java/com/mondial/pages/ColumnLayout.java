@@ -18,6 +18,7 @@ import org.testng.Assert;
 public class ColumnLayout extends BasePage {
 
     private JavascriptExecutor jse;
+    private final RowIndex listing;
 
     @FindBy(xpath = "//span[contains(text(), 'Report')]")
     private WebElement reportMenu;
@@ -66,6 +67,7 @@ public class ColumnLayout extends BasePage {
         super(driver);
         PageFactory.initElements(driver, this);
         jse = (JavascriptExecutor) driver;
+        listing = new RowIndex(driver, RowIndex.TABLE_ROWS);
     }
 
     // ============================================
@@ -120,9 +122,7 @@ public class ColumnLayout extends BasePage {
      * @return Updated name (original + "Updated")
      */
     public String editColumnLayout(String name) {
-        WebElement editLink = driver.findElement(By.xpath(
-                "//table//tbody//td[contains(text(), '" + name
-                + "')]//preceding-sibling::td//div//a[1]"));
+        WebElement editLink = listing.get(name).getLink(0);
         editLink.click();
         wait.until(ExpectedConditions.visibilityOf(cancelBtn));
         String updatedName = name + "Updated";
@@ -142,9 +142,7 @@ public class ColumnLayout extends BasePage {
      * @return New copied name (original + "Copied")
      */
     public String copyColumnLayout(String name) {
-        WebElement copyLink = driver.findElement(By.xpath(
-                "//table//tbody//td[contains(text(), '" + name
-                + "')]//preceding-sibling::td//div//a[2]"));
+        WebElement copyLink = listing.get(name).getLink(1);
         copyLink.click();
         wait.until(ExpectedConditions.visibilityOf(cancelBtn));
         String newName = name + "Copied";
@@ -163,9 +161,7 @@ public class ColumnLayout extends BasePage {
      * @param name - Name of the column layout to delete
      */
     public void deleteColumnLayout(String name) {
-        WebElement deleteLink = driver.findElement(By.xpath(
-                "//table//tbody//td[contains(text(), '" + name
-                + "')]//preceding-sibling::td//div//a[3]"));
+        WebElement deleteLink = listing.get(name).getLink(2);
         deleteLink.click();
         driver.switchTo().alert().accept();
         dismissAlert();
@@ -255,9 +251,7 @@ public class ColumnLayout extends BasePage {
      */
     public boolean verifyRecordPresent(String name) {
         waitForPageLoad();
-        return driver.findElements(By.xpath(
-                "//table//tbody//td[contains(text(), '" + name + "')]"))
-                .size() > 0;
+        return listing.contains(name);
     }
 
     /**
@@ -13,6 +13,9 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+
+import com.mondial.utils.DriverManager;
+import com.mondial.utils.TestLog;
 import java.time.Duration;
 
 /**
@@ -74,6 +77,9 @@ public class CustomersVendorsPage extends BasePage {
 	 * @param page - Resource page name (e.g., "Customers", "Vendors")
 	 */
 	public void navigateToResourcePage(String companyName, String page) {
+		if (DriverManager.getCompanyRoutes().navigate(driver, companyName, page)) {
+			return;
+		}
 		waitForPageLoad();
 		wait.until(ExpectedConditions.visibilityOf(companyHeading));
 		((org.openqa.selenium.JavascriptExecutor) driver).executeScript("window.scrollTo(0, document.body.scrollHeight);");
@@ -87,7 +93,7 @@ public class CustomersVendorsPage extends BasePage {
 				clickElement(link);
 				// Wait for heading to change from "Companies" (up to 10s)
 				if (!waitForTextChange(pageHeading, "Companies", 10)) {
-					System.out.println("First click did not navigate, retrying...");
+					TestLog.info("First click did not navigate, retrying...");
 					link = driver.findElement(By.xpath(
 							"//table[@class='table table-striped']//tr[contains(., '"
 							+ companyName + "')]//td//a[@data-original-title='" + page + "']"));
@@ -99,7 +105,7 @@ public class CustomersVendorsPage extends BasePage {
 				return;
 			}
 		}
-		System.out.println("WARNING: Company '" + companyName + "' not found in table.");
+		TestLog.warn("WARNING: Company '" + companyName + "' not found in table.");
 	}
 
 	// ============================================
@@ -166,6 +172,11 @@ public class CustomersVendorsPage extends BasePage {
 	 */
 	public void deleteAllRecords() {
 		waitForPageLoad();
+		BulkDelete.Result bulk = bulkDeleteRows(RowIndex.GRID_ROWS, null);
+		if (bulk.getRequested() > 0 && bulk.getRemaining() == 0) {
+			return;
+		}
+		// Delete cells without a data-method link, or leftovers: click through the grid
 		int safetyCount = 0;
 		try {
 			while (container.size() > 0 && safetyCount < 100) {
@@ -183,7 +194,7 @@ public class CustomersVendorsPage extends BasePage {
 						new WebDriverWait(driver, Duration.ofSeconds(3)).until(ExpectedConditions.alertIsPresent());
 						driver.switchTo().alert().accept();
 					} catch (Exception e) {
-						System.out.println("No confirmation dialog present");
+						TestLog.info("No confirmation dialog present");
 					}
 					// Wait for success message to appear
 					try {
@@ -203,14 +214,14 @@ public class CustomersVendorsPage extends BasePage {
 						try { Thread.sleep(2000); } catch (InterruptedException ie) { Thread.currentThread().interrupt(); }
 					}
 				} catch (Exception e) {
-					System.out.println("Delete iteration error: " + e.getMessage());
+					TestLog.info("Delete iteration error: " + e.getMessage());
 					break;
 				}
 			}
 		} catch (Exception e) {
 			// Catches invalid session id or any other fatal WebDriver error thrown by
 			// container.size() in the while condition (outside the inner try-catch).
-			System.out.println("deleteAllRecords interrupted: " + e.getMessage());
+			TestLog.info("deleteAllRecords interrupted: " + e.getMessage());
 		}
 	}
 
@@ -230,7 +241,7 @@ public class CustomersVendorsPage extends BasePage {
 			wait.until(ExpectedConditions.presenceOfElementLocated(
 					By.xpath("//div[@role='gridcell'][@col-id='company_name']")));
 		} catch (Exception e) {
-			System.out.println("No grid cells found after waiting");
+			TestLog.info("No grid cells found after waiting");
 			return false;
 		}
 		List<String> expectedRecords = new ArrayList<>(Arrays.asList("Raiders of the Lost Ark LLC"));
@@ -240,8 +251,8 @@ public class CustomersVendorsPage extends BasePage {
 		for (WebElement element : records) {
 			tableContent.add(element.getAttribute("innerText").trim());
 		}
-		System.out.println("Expected records: " + expectedRecords);
-		System.out.println("Table records: " + tableContent);
+		TestLog.info("Expected records: " + expectedRecords);
+		TestLog.info("Table records: " + tableContent);
 		return tableContent.containsAll(expectedRecords);
 	}
 
@@ -362,7 +373,7 @@ public class CustomersVendorsPage extends BasePage {
 					By.xpath("//span[contains(@class,'ag-tab')][.//span[contains(@class,'ag-icon-filter')]]")));
 			filterTab.click();
 		} catch (Exception e) {
-			System.out.println("Filter tab not found, filter input may be directly visible");
+			TestLog.info("Filter tab not found, filter input may be directly visible");
 		}
 	}
 
@@ -390,7 +401,7 @@ public class CustomersVendorsPage extends BasePage {
 			waitForPageLoad();
 		} catch (Exception e) {
 			// Filter may have already been cleared
-			System.out.println("Filter already cleared or not present");
+			TestLog.info("Filter already cleared or not present");
 		}
 	}
 
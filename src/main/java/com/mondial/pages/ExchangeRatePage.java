@@ -11,6 +11,7 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
+import com.mondial.utils.TestLog;
 
 /**
  * Exchange Rate Page Object
@@ -172,7 +173,7 @@ public class ExchangeRatePage extends BasePage {
         ersNameInput.sendKeys(name);
         clickElement(createBtn);
         wait.until(ExpectedConditions.visibilityOf(createERSButton));
-        System.out.println("New Exchange Rate Source ** " + name + " ** created successfully!");
+        TestLog.info("New Exchange Rate Source ** " + name + " ** created successfully!");
     }
 
     /**
@@ -264,7 +265,7 @@ public class ExchangeRatePage extends BasePage {
         try {
             driver.switchTo().alert().accept();
         } catch (Exception e) {
-            System.out.println("No confirmation dialog present");
+            TestLog.info("No confirmation dialog present");
         }
     }
 
@@ -350,20 +351,20 @@ public class ExchangeRatePage extends BasePage {
         // Wait for source dropdown to be populated with more than the default placeholder
         wait.until(driver -> new Select(driver.findElement(ersDDBy)).getOptions().size() > 1);
         selectByPartialText(ersDDBy, source);
-        System.out.println("Exchange Rate Source selected: " + source);
+        TestLog.info("Exchange Rate Source selected: " + source);
         waitForPageLoad();
 
         wait.until(driver -> new Select(driver.findElement(baseDDBy)).getOptions().size() > 1);
         selectByPartialText(baseDDBy, baseCurrency);
-        System.out.println("Base Currency selected: " + baseCurrency);
+        TestLog.info("Base Currency selected: " + baseCurrency);
 
         wait.until(ExpectedConditions.elementToBeClickable(targetDDBy));
         selectByPartialText(targetDDBy, targetCurrency);
-        System.out.println("Target Currency selected: " + targetCurrency);
+        TestLog.info("Target Currency selected: " + targetCurrency);
 
         clickElement(showCurrencyBtn);
         waitForPageLoad();
-        System.out.println("Table Size: " + tableResult.size());
+        TestLog.info("Table Size: " + tableResult.size());
         return tableResult.size();
     }
 
@@ -374,7 +375,7 @@ public class ExchangeRatePage extends BasePage {
      */
     public int showRates() {
         if (!selectExchangeRateSourceWithCurrencies()) {
-            System.out.println("No exchange rate source with currency data found");
+            TestLog.info("No exchange rate source with currency data found");
             return 0;
         }
         By baseDDBy   = By.xpath("//select[@id = 'exchange_rate_base_currency_id']");
@@ -387,7 +388,7 @@ public class ExchangeRatePage extends BasePage {
             int selectNum1 = baseSize > 1 ? (int) (Math.random() * (baseSize - 1)) + 1 : 1;
             baseDD.selectByIndex(selectNum1);
             value1 = baseDD.getFirstSelectedOption().getAttribute("innerText");
-            System.out.println("Base Currency Selected: " + value1);
+            TestLog.info("Base Currency Selected: " + value1);
 
             wait.until(ExpectedConditions.elementToBeClickable(targetDDBy));
             Select targetDD = new Select(driver.findElement(targetDDBy));
@@ -395,11 +396,11 @@ public class ExchangeRatePage extends BasePage {
             int selectNum2 = targetSize > 1 ? (int) (Math.random() * (targetSize - 1)) + 1 : 1;
             targetDD.selectByIndex(selectNum2);
             value2 = targetDD.getFirstSelectedOption().getAttribute("innerText");
-            System.out.println("Target Currency Selected: " + value2);
+            TestLog.info("Target Currency Selected: " + value2);
         }
         clickElement(showCurrencyBtn);
         waitForPageLoad();
-        System.out.println("Table Size: " + tableResult.size());
+        TestLog.info("Table Size: " + tableResult.size());
         return tableResult.size();
     }
 
@@ -417,7 +418,7 @@ public class ExchangeRatePage extends BasePage {
         List<String> expected = new ArrayList<>(actual);
         Collections.sort(expected);
         if (!actual.equals(expected)) {
-            System.out.println("Dates not sorted in ascending order");
+            TestLog.info("Dates not sorted in ascending order");
             return false;
         }
         dateColumn.click();
@@ -425,7 +426,7 @@ public class ExchangeRatePage extends BasePage {
         List<String> expectedDesc = new ArrayList<>(actual);
         Collections.sort(expectedDesc, Collections.reverseOrder());
         if (!actual.equals(expectedDesc)) {
-            System.out.println("Dates not sorted in descending order");
+            TestLog.info("Dates not sorted in descending order");
             return false;
         }
         return true;
@@ -441,7 +442,7 @@ public class ExchangeRatePage extends BasePage {
         List<String> expected = new ArrayList<>(actual);
         Collections.sort(expected);
         if (!actual.equals(expected)) {
-            System.out.println("Rates not sorted in ascending order");
+            TestLog.info("Rates not sorted in ascending order");
             return false;
         }
         rateColumn.click();
@@ -449,7 +450,7 @@ public class ExchangeRatePage extends BasePage {
         List<String> expectedDesc = new ArrayList<>(actual);
         Collections.sort(expectedDesc, Collections.reverseOrder());
         if (!actual.equals(expectedDesc)) {
-            System.out.println("Rates not sorted in descending order");
+            TestLog.info("Rates not sorted in descending order");
             return false;
         }
         return true;
@@ -531,7 +532,7 @@ public class ExchangeRatePage extends BasePage {
             Select ersDD = new Select(driver.findElement(ersDDBy));
             ersDD.selectByIndex(i);
             String sourceName = ersDD.getFirstSelectedOption().getAttribute("innerText");
-            System.out.println("Trying exchange rate source: " + sourceName);
+            TestLog.info("Trying exchange rate source: " + sourceName);
             waitForPageLoad();
             try {
                 wait.until(ExpectedConditions.elementToBeClickable(baseDDBy));
@@ -540,7 +541,7 @@ public class ExchangeRatePage extends BasePage {
             }
             Select baseDD = new Select(driver.findElement(baseDDBy));
             if (baseDD.getOptions().size() > 1) {
-                System.out.println("Found source with currencies: " + sourceName);
+                TestLog.info("Found source with currencies: " + sourceName);
                 return true;
             }
         }
@@ -8,6 +8,7 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import com.mondial.utils.TestLog;
 
 /**
  * Field Validators Page Object
@@ -82,7 +83,7 @@ public class FieldValidatorsPage extends BasePage {
 				return;
 			}
 		}
-		System.out.println("WARNING: Company '" + companyName + "' not found in table. Table has " + tableRows.size() + " rows.");
+		TestLog.warn("WARNING: Company '" + companyName + "' not found in table. Table has " + tableRows.size() + " rows.");
 	}
 
 	/**
@@ -0,0 +1,353 @@
+package com.mondial.pages;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import com.mondial.utils.TestLog;
+
+/**
+ * Creates test preconditions by submitting the app's own forms over HTTP.
+ *
+ * The form is read from the app (the page of the "Add ..." link, or the form on the current
+ * page) so the authenticity token, hidden fields and defaults are the server's; only the
+ * given fields are overridden before the form is posted with fetch from the logged-in page.
+ * Rails validation errors in the response mark the entity as rejected.
+ *
+ * Forms fetched from the same URL are read once per batch, and a batch is submitted with a
+ * bounded number of requests in flight. Use this for preconditions only; the UI path of
+ * each form stays covered by its CRUD test.
+ */
+public class FormFixtures {
+	private static final int DEFAULT_CONCURRENCY = 4;
+	// Submissions per script call, so one call stays well within the session's script timeout
+	private static final int BATCH_SIZE = 20;
+
+	private static final String SUBMIT_SCRIPT =
+			"var entries = arguments[0], limit = arguments[1], done = arguments[arguments.length - 1];" +
+			"var cache = {}, results = [], next = 0, running = 0;" +
+			"function load(entry) {" +
+			"  if (!entry.url) { return Promise.resolve(document); }" +
+			"  if (!entry.fresh && cache[entry.url]) { return cache[entry.url]; }" +
+			"  var loading = fetch(entry.url, { credentials: 'same-origin', headers: { 'Accept': 'text/html' } })" +
+			"    .then(function (response) {" +
+			"      if (!response.ok) { throw new Error('GET ' + entry.url + ' -> HTTP ' + response.status); }" +
+			"      return response.text();" +
+			"    }).then(function (html) { return new DOMParser().parseFromString(html, 'text/html'); });" +
+			"  if (!entry.fresh) { cache[entry.url] = loading; }" +
+			"  return loading;" +
+			"}" +
+			// Field key: element id, exact name, or the attribute part of a Rails name (model[key])
+			"function field(root, key) {" +
+			"  return root.querySelector('#' + CSS.escape(key)) || root.querySelector('[name=\"' + key + '\"]')" +
+			"    || root.querySelector('[name$=\"[' + key + ']\"]') || root.querySelector('[name*=\"' + key + '\"]');" +
+			"}" +
+			"function text(el) { return (el.textContent || '').replace(/\\s+/g, ' ').trim(); }" +
+			"function option(select, wanted) {" +
+			"  var partial = null, lower = wanted.toLowerCase();" +
+			"  for (var i = 0; i < select.options.length; i++) {" +
+			"    var label = text(select.options[i]);" +
+			"    if (label === wanted) { return select.options[i]; }" +
+			"    if (!partial && select.options[i].value !== '' && label.toLowerCase().indexOf(lower) >= 0) { partial = select.options[i]; }" +
+			"  }" +
+			"  return partial;" +
+			"}" +
+			// Values are applied to a FormData copy, the (possibly live) form itself is never changed
+			"function build(doc, entry) {" +
+			"  var first = entry.fields.length ? field(doc, entry.fields[0].key) : null;" +
+			"  var form = entry.form ? doc.querySelector(entry.form) : (first && first.form) || doc.querySelector('form');" +
+			"  if (!form) { throw new Error('No form found' + (entry.url ? ' at ' + entry.url : ' on the page')); }" +
+			"  var data = new FormData(form);" +
+			"  var submit = form.querySelector('[type=\"submit\"][name]');" +
+			"  if (submit && !data.has(submit.name)) { data.append(submit.name, submit.value); }" +
+			"  for (var i = 0; i < entry.fields.length; i++) {" +
+			"    var spec = entry.fields[i], el = field(form, spec.key);" +
+			"    if (!el) { throw new Error('No field ' + spec.key); }" +
+			"    if (spec.kind === 'option') {" +
+			"      var picked = option(el, spec.value);" +
+			"      if (!picked) { throw new Error('No option \\'' + spec.value + '\\' in ' + spec.key); }" +
+			"      data.set(el.name, picked.value);" +
+			"    } else if (spec.kind === 'check') {" +
+			// Rails pairs check boxes with a hidden field of the same name, address the box itself
+			"      el = form.querySelector('input[type=\"checkbox\"][name=\"' + el.name + '\"]') || el;" +
+			"      var kept = data.getAll(el.name).filter(function (value) { return value !== el.value; });" +
+			"      data.delete(el.name);" +
+			"      kept.forEach(function (value) { data.append(el.name, value); });" +
+			"      if (spec.value === 'true') { data.append(el.name, el.value); }" +
+			"    } else {" +
+			"      data.set(el.name, spec.value);" +
+			"    }" +
+			"  }" +
+			"  return { form: form, data: data };" +
+			"}" +
+			"function errors(html) {" +
+			"  var doc = new DOMParser().parseFromString(html, 'text/html'), found = [];" +
+			"  var nodes = doc.querySelectorAll('#error_explanation li, .alert-danger, .invalid-feedback, .field_with_errors + .help-block');" +
+			"  for (var i = 0; i < nodes.length; i++) { if (text(nodes[i])) { found.push(text(nodes[i])); } }" +
+			"  return found;" +
+			"}" +
+			"function submit(index) {" +
+			"  var entry = entries[index];" +
+			"  return load(entry).then(function (doc) {" +
+			"    var built = build(doc, entry);" +
+			"    var base = entry.url || location.href;" +
+			"    var action = new URL(built.form.getAttribute('action') || base, base).href;" +
+			"    return fetch(action, { method: 'POST', body: built.data, credentials: 'same-origin'," +
+			"      headers: { 'Accept': 'text/html,application/xhtml+xml' }, redirect: entry.follow ? 'follow' : 'manual' });" +
+			"  }).then(function (response) {" +
+			// A redirect is Rails' answer to a successful create; a re-rendered form carries the errors
+			"    if (response.type === 'opaqueredirect') { results.push({ index: index, ok: true, status: 302 }); return; }" +
+			"    return response.text().then(function (html) {" +
+			"      var found = errors(html);" +
+			"      var ok = response.status >= 200 && response.status < 300 && found.length === 0 && (!entry.follow || response.redirected);" +
+			"      results.push({ index: index, ok: ok, status: response.status, location: response.url, errors: found });" +
+			"    });" +
+			"  }).catch(function (error) {" +
+			"    results.push({ index: index, ok: false, status: -1, errors: [String(error.message || error)] });" +
+			"  });" +
+			"}" +
+			"function pump() {" +
+			"  if (next >= entries.length && running === 0) { done(results); return; }" +
+			"  while (running < limit && next < entries.length) {" +
+			"    running++;" +
+			"    submit(next++).then(function () { running--; pump(); });" +
+			"  }" +
+			"}" +
+			"pump();";
+
+	private final WebDriver driver;
+	private final int concurrency;
+
+	/**
+	 * One form submission: where the form comes from and the fields to override
+	 */
+	public static class Form {
+		private final String url;
+		private final String label;
+		private final List<Map<String, Object>> fields = new ArrayList<>();
+		private String formSelector;
+		private boolean fresh;
+		private boolean follow;
+
+		private Form(String url, String label) {
+			this.url = url;
+			this.label = label;
+		}
+
+		/**
+		 * Form on the page at a URL, typically the href of the "Add ..." link
+		 * @param url - Absolute URL of the new-record page
+		 * @param label - Name of the entity, for logs and results
+		 */
+		public static Form at(String url, String label) {
+			return new Form(url, label);
+		}
+
+		/**
+		 * Form currently shown in the browser, including values set through the UI
+		 * (e.g. hidden ids filled by an autocomplete)
+		 * @param label - Name of the entity, for logs and results
+		 */
+		public static Form onPage(String label) {
+			return new Form(null, label);
+		}
+
+		/**
+		 * Set a text or hidden field
+		 * @param key - Field id, name, or attribute part of the Rails name ("name" for "ledger[name]")
+		 * @param value - Value to submit
+		 */
+		public Form set(String key, String value) {
+			return add(key, value, "value");
+		}
+
+		/**
+		 * Set a field located by a page object element
+		 * @param element - Field element on the current page
+		 * @param value - Value to submit
+		 */
+		public Form set(WebElement element, String value) {
+			return set(element.getAttribute("name"), value);
+		}
+
+		/**
+		 * Choose a select option by visible text (exact match first, then contains)
+		 * @param key - Select id, name, or attribute part of the Rails name
+		 * @param visibleText - Option text as shown in the dropdown
+		 */
+		public Form option(String key, String visibleText) {
+			return add(key, visibleText, "option");
+		}
+
+		public Form option(WebElement element, String visibleText) {
+			return option(element.getAttribute("name"), visibleText);
+		}
+
+		/**
+		 * Tick or clear a checkbox
+		 * @param key - Checkbox id or name
+		 * @param checked - Whether the checkbox value is submitted
+		 */
+		public Form check(String key, boolean checked) {
+			return add(key, String.valueOf(checked), "check");
+		}
+
+		/**
+		 * Use the form matching a CSS selector instead of the one holding the first field
+		 * @param selector - CSS selector of the form
+		 */
+		public Form within(String selector) {
+			this.formSelector = selector;
+			return this;
+		}
+
+		/**
+		 * Read the form again for this submission instead of sharing one read per URL,
+		 * for forms whose defaults depend on the records already created (e.g. next ordinal)
+		 */
+		public Form fresh() {
+			this.fresh = true;
+			return this;
+		}
+
+		/**
+		 * Follow the redirect after a successful submission so the result carries the URL
+		 * of the created record
+		 */
+		public Form followRedirect() {
+			this.follow = true;
+			return this;
+		}
+
+		public String getLabel() {
+			return label;
+		}
+
+		private Form add(String key, String value, String kind) {
+			Map<String, Object> spec = new HashMap<>();
+			spec.put("key", key);
+			spec.put("value", value);
+			spec.put("kind", kind);
+			fields.add(spec);
+			return this;
+		}
+
+		private Map<String, Object> toScriptArgument() {
+			Map<String, Object> entry = new HashMap<>();
+			entry.put("url", url);
+			entry.put("form", formSelector);
+			entry.put("fresh", fresh);
+			entry.put("follow", follow);
+			entry.put("fields", fields);
+			return entry;
+		}
+	}
+
+	/**
+	 * Outcome of one form submission
+	 */
+	public static class Result {
+		private final Form form;
+		private final boolean created;
+		private final int status;
+		private final String location;
+		private final List<String> errors;
+
+		private Result(Form form, boolean created, int status, String location, List<String> errors) {
+			this.form = form;
+			this.created = created;
+			this.status = status;
+			this.location = location;
+			this.errors = errors;
+		}
+
+		public String getLabel() {
+			return form.getLabel();
+		}
+
+		public boolean isCreated() {
+			return created;
+		}
+
+		public int getStatus() {
+			return status;
+		}
+
+		/**
+		 * @return URL the submission redirected to, when followRedirect() was set
+		 */
+		public String getLocation() {
+			return location;
+		}
+
+		/**
+		 * @return Validation or transport errors of a rejected submission
+		 */
+		public List<String> getErrors() {
+			return errors;
+		}
+	}
+
+	/**
+	 * @param driver - Session driver, logged in on a page of the app
+	 * @param concurrency - Maximum submissions in flight, values below 1 use the default
+	 */
+	public FormFixtures(WebDriver driver, int concurrency) {
+		this.driver = driver;
+		this.concurrency = concurrency > 0 ? concurrency : DEFAULT_CONCURRENCY;
+	}
+
+	public Result submit(Form form) {
+		return submit(Collections.singletonList(form)).get(0);
+	}
+
+	public List<Result> submit(Form... forms) {
+		return submit(Arrays.asList(forms));
+	}
+
+	/**
+	 * Submit several forms, at most the configured number at a time
+	 * @param forms - Forms to submit; with concurrency 1 they are submitted in order
+	 * @return One result per form, in the order given
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Result> submit(List<Form> forms) {
+		long started = System.currentTimeMillis();
+		Result[] results = new Result[forms.size()];
+		for (int from = 0; from < forms.size(); from += BATCH_SIZE) {
+			List<Form> batch = forms.subList(from, Math.min(forms.size(), from + BATCH_SIZE));
+			List<Map<String, Object>> entries = new ArrayList<>();
+			for (Form form : batch) {
+				entries.add(form.toScriptArgument());
+			}
+			List<Map<String, Object>> outcomes = (List<Map<String, Object>>) ((JavascriptExecutor) driver)
+					.executeAsyncScript(SUBMIT_SCRIPT, entries, concurrency);
+			for (Map<String, Object> outcome : outcomes) {
+				int index = ((Number) outcome.get("index")).intValue();
+				Object errors = outcome.get("errors");
+				results[from + index] = new Result(batch.get(index), Boolean.TRUE.equals(outcome.get("ok")),
+						((Number) outcome.get("status")).intValue(), (String) outcome.get("location"),
+						errors != null ? (List<String>) errors : Collections.<String>emptyList());
+			}
+		}
+
+		int created = 0;
+		for (Result result : results) {
+			if (result.isCreated()) {
+				created++;
+			} else {
+				TestLog.warn("✗ Fixture '" + result.getLabel() + "' rejected (HTTP " + result.getStatus() + "): "
+						+ result.getErrors());
+			}
+		}
+		TestLog.info("✓ Fixtures: " + created + "/" + forms.size() + " created in "
+				+ (System.currentTimeMillis() - started) + " ms (" + concurrency + " concurrent)");
+		return Arrays.asList(results);
+	}
+}
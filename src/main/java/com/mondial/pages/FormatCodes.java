@@ -10,6 +10,7 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
+import com.mondial.utils.TestLog;
 
 /**
  * Format Codes Page Object
@@ -156,11 +157,11 @@ public class FormatCodes extends BasePage {
         editLink.click();
         wait.until(ExpectedConditions.visibilityOf(cancelBtn));
         for (WebElement label : descriptionList) {
-            System.out.println(label.getAttribute("innerText"));
+            TestLog.info(label.getAttribute("innerText"));
             label.click();
         }
         for (WebElement label : numberList) {
-            System.out.println(label.getAttribute("innerText"));
+            TestLog.info(label.getAttribute("innerText"));
             label.click();
         }
         currencySymbol.click();
@@ -1,6 +1,9 @@
 package com.mondial.pages;
 
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import org.openqa.selenium.By;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
@@ -9,6 +12,8 @@ import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 import org.openqa.selenium.JavascriptExecutor;
+import com.mondial.utils.DriverManager;
+import com.mondial.utils.TestLog;
 
 public class HomePage extends BasePage {
 	
@@ -42,9 +47,6 @@ public class HomePage extends BasePage {
 	@FindBy(xpath = "//a[@data-original-title='New Draft Transaction']")
 	private List<WebElement> newDraft;
 	
-	@FindBy(xpath = "//div[@class='alert alert-success']")
-	private WebElement successMessage;
-		
 	@FindBy(xpath = "//i[@class='ti-help ']")
 	private WebElement helpIcon;
 	
@@ -73,8 +75,7 @@ public class HomePage extends BasePage {
 	@FindBy(xpath = "//input[@type = 'submit']")
 	private WebElement newUserSubmit;
 	
-	@FindBy(xpath = "//table[@class='table table-striped']//tr")
-	private List<WebElement> usersTable;
+	private final RowIndex usersTable;
 	
 	@FindBy(xpath = "//li[contains(text(),'Email has already been taken')]")
 	private WebElement emailAlreadyPresent;
@@ -102,6 +103,7 @@ public class HomePage extends BasePage {
 	public HomePage(WebDriver driver) {
 		super(driver);
 		PageFactory.initElements(driver, this);
+		usersTable = new RowIndex(driver, RowIndex.STRIPED_TABLE_ROWS);
 	}
 	
 	// ============================================
@@ -169,9 +171,16 @@ public class HomePage extends BasePage {
 	 * @param companyName - Name of the company
 	 */
 	public void clickNewTransaction(String companyName) {
+		if (DriverManager.getCompanyRoutes().navigate(driver, companyName, "New Draft Transaction")) {
+			return;
+		}
 		clickAccountingAdjustmentMenu();
 		clickManagementMenu();
 		waitForPageLoad();
+		// The management listing carries the draft transaction links, later calls deep link
+		if (DriverManager.getCompanyRoutes().navigate(driver, companyName, "New Draft Transaction")) {
+			return;
+		}
 		for (int i = 0; i < companiesTable.size(); i++) {
 			if (companiesTable.get(i).getAttribute("innerText").contains(companyName)) {
 				scrollToElement(companiesTable.get(i));
@@ -266,17 +275,16 @@ public class HomePage extends BasePage {
 	 */
 	public void selectRole(String userName) {
 		waitForPageLoad();
-		for (int i = usersTable.size() - 1; i > 0; i--) {
-			if (usersTable.get(i).getAttribute("innerText").contains(userName.toLowerCase())) {
-				WebElement roleDropdown = driver.findElement(By.xpath("//table[@class='table table-striped']//tr//td[contains(text(), '" + userName.toLowerCase() + "')]//following-sibling::td[2]//select"));
-				wait.until(ExpectedConditions.elementToBeClickable(roleDropdown));
-				Select selectRole = new Select(roleDropdown);
-				selectRole.selectByVisibleText("Accountant");
-				
-				// Wait for role assignment to complete
-				waitForPageLoad();
-				break;
-			}
+		// Newest user is listed last
+		RowIndex.Row row = usersTable.findLast(userName.toLowerCase());
+		if (row != null) {
+			WebElement roleDropdown = row.getAction("select");
+			wait.until(ExpectedConditions.elementToBeClickable(roleDropdown));
+			Select selectRole = new Select(roleDropdown);
+			selectRole.selectByVisibleText("Accountant");
+			
+			// Wait for role assignment to complete
+			waitForPageLoad();
 		}
 	}
 	
@@ -303,7 +311,7 @@ public class HomePage extends BasePage {
 		// Find the row containing the user across ALL tables
 		List<WebElement> matchingRows = driver.findElements(
 			By.xpath("//table[@class='table table-striped']//tr[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), '" + userName.toLowerCase() + "')]"));
-		System.out.println("Found " + matchingRows.size() + " row(s) matching '" + userName + "'");
+		TestLog.info("Found " + matchingRows.size() + " row(s) matching '" + userName + "'");
 
 		if (matchingRows.size() > 0) {
 			WebElement row = matchingRows.get(0);
@@ -316,13 +324,13 @@ public class HomePage extends BasePage {
 				wait.until(ExpectedConditions.alertIsPresent());
 				driver.switchTo().alert().accept();
 			} catch (Exception e) {
-				System.out.println("No confirmation dialog present");
+				TestLog.info("No confirmation dialog present");
 			}
 
 			waitForPageLoad();
-			System.out.println("Deleted user: " + userName);
+			TestLog.info("Deleted user: " + userName);
 		} else {
-			System.out.println("WARNING: User '" + userName + "' not found in users table");
+			TestLog.warn("WARNING: User '" + userName + "' not found in users table");
 		}
 	}
 
@@ -357,26 +365,34 @@ public class HomePage extends BasePage {
 			}
 		});
 
-		System.out.println("Navigated to Users page: " + driver.getCurrentUrl());
+		TestLog.info("Navigated to Users page: " + driver.getCurrentUrl());
 
 		// Scroll to bottom to ensure all tables are loaded
 		((org.openqa.selenium.JavascriptExecutor) driver).executeScript("window.scrollTo(0, document.body.scrollHeight);");
 		waitForPageLoad();
 
 		int deletedCount = 0;
-		boolean found = true;
+		BulkDelete.Result bulk = bulkDeleteRows(RowIndex.STRIPED_TABLE_ROWS, prefix);
+		if (bulk.getRequested() > 0) {
+			deletedCount = bulk.getDeleted();
+			if (bulk.getRemaining() == 0) {
+				return deletedCount;
+			}
+			((org.openqa.selenium.JavascriptExecutor) driver).executeScript("window.scrollTo(0, document.body.scrollHeight);");
+		}
 
+		boolean found = true;
 		while (found) {
 			found = false;
 			// Find rows containing the prefix across ALL tables on the page
 			List<WebElement> matchingRows = driver.findElements(
 					By.xpath("//table[@class='table table-striped']//tr[contains(translate(., 'ABCDEFGHIJKLMNOPQRSTUVWXYZ', 'abcdefghijklmnopqrstuvwxyz'), '" + prefix.toLowerCase() + "')]"));
-			System.out.println("Found " + matchingRows.size() + " row(s) matching '" + prefix + "'");
+			TestLog.info("Found " + matchingRows.size() + " row(s) matching '" + prefix + "'");
 
 			if (matchingRows.size() > 0) {
 				WebElement row = matchingRows.get(0);
 				String rowText = row.getAttribute("innerText").trim();
-				System.out.println("Deleting user: " + rowText.substring(0, Math.min(80, rowText.length())));
+				TestLog.info("Deleting user: " + rowText.substring(0, Math.min(80, rowText.length())));
 				scrollToElement(row);
 				WebElement deleteBtn = row.findElement(
 						By.xpath(".//a[@data-method='delete']"));
@@ -387,7 +403,7 @@ public class HomePage extends BasePage {
 					wait.until(ExpectedConditions.alertIsPresent());
 					driver.switchTo().alert().accept();
 				} catch (Exception e) {
-					System.out.println("No confirmation dialog present");
+					TestLog.info("No confirmation dialog present");
 				}
 
 				waitForPageLoad();
@@ -428,16 +444,11 @@ public class HomePage extends BasePage {
 	}
 	
 	/**
-	 * Get success message text
+	 * Get success message text from the flash message buffer
 	 * @return Success message text or empty string if not found
 	 */
 	public String getSuccessMessage() {
-		try {
-			wait.until(ExpectedConditions.visibilityOf(successMessage));
-			return successMessage.getText();
-		} catch (Exception e) {
-			return "";
-		}
+		return awaitFlashMessage("success");
 	}
 	
 	/**
@@ -535,6 +546,52 @@ public class HomePage extends BasePage {
 		isCompanyHeadingDisplayed();
 	}
 
+	/**
+	 * Create a company over HTTP from the Add Company form, for tests that only need
+	 * it as a precondition. Same fields as createCompany; the browser ends on the
+	 * companies listing.
+	 *
+	 * @param name             - Unique company name
+	 * @param currency         - Currency visible text (e.g. "USD")
+	 * @param numSegments      - Number of account segments (e.g. "1")
+	 * @param reportingSymbol  - Reporting symbol (e.g. "xyz")
+	 */
+	public void seedCompany(String name, String currency, String numSegments, String reportingSymbol) {
+		Map<String, String> companies = new LinkedHashMap<>();
+		companies.put(name, reportingSymbol);
+		seedCompanies(companies, currency, numSegments);
+	}
+
+	/**
+	 * Create several companies over HTTP in parallel (fixtureConcurrency at a time).
+	 * Companies the app rejects are created through the UI instead.
+	 *
+	 * @param companies    - Company name to reporting symbol
+	 * @param currency     - Currency visible text (e.g. "USD")
+	 * @param numSegments  - Number of account segments (e.g. "1")
+	 */
+	public void seedCompanies(Map<String, String> companies, String currency, String numSegments) {
+		wait.until(ExpectedConditions.visibilityOf(addCompanyBtn));
+		String formUrl = addCompanyBtn.getAttribute("href");
+		List<FormFixtures.Form> forms = new ArrayList<>();
+		for (Map.Entry<String, String> company : companies.entrySet()) {
+			forms.add(FormFixtures.Form.at(formUrl, company.getKey())
+					.set("party_company_name", company.getKey())
+					.option("company_currency_id", currency)
+					.set("company_account_segments", numSegments)
+					.set("reporting_set_symbol", company.getValue()));
+		}
+		List<FormFixtures.Result> results = fixtures().submit(forms);
+		driver.navigate().refresh();
+		waitForPageLoad();
+		for (FormFixtures.Result result : results) {
+			if (!result.isCreated()) {
+				createCompany(result.getLabel(), currency, numSegments, companies.get(result.getLabel()));
+			}
+		}
+		isCompanyHeadingDisplayed();
+	}
+
 	/**
 	 * Delete a company from the companies listing table.
 	 * Handles the browser confirmation alert automatically.
@@ -552,7 +609,7 @@ public class HomePage extends BasePage {
 			wait.until(ExpectedConditions.alertIsPresent());
 			driver.switchTo().alert().accept();
 		} catch (Exception e) {
-			System.out.println("No confirmation dialog for company deletion");
+			TestLog.info("No confirmation dialog for company deletion");
 		}
 		waitForPageLoad();
 	}
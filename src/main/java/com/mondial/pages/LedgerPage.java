@@ -11,6 +11,7 @@ import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
+import com.mondial.utils.TestLog;
 
 /**
  * Ledger Page Object
@@ -48,16 +49,16 @@ public class LedgerPage extends BasePage {
 	@FindBy(xpath = "//div[contains(@class,'checkbox')]")
 	private List<WebElement> txnTypeList;
 
-	@FindBy(xpath = "//div[@class='alert alert-success']")
-	private WebElement successMessage;
-
 	@FindBy(xpath = "//div[@class='alert alert-danger']")
 	private WebElement warningMessage;
 
+	private final RowIndex ledgers;
+
 	// Constructor
 	public LedgerPage(WebDriver driver) {
 		super(driver);
 		PageFactory.initElements(driver, this);
+		ledgers = new RowIndex(driver, RowIndex.TABLE_ROWS);
 	}
 
 	// ============================================
@@ -166,6 +167,32 @@ public class LedgerPage extends BasePage {
 		clickElement(submitBtn);
 	}
 
+	/**
+	 * Create ledgers over HTTP from the Add Ledger form, for tests that only need them
+	 * as preconditions. Ledgers the app rejects are created through the UI instead.
+	 * The browser ends on the refreshed ledger listing.
+	 * @param names - Names of the new ledgers
+	 */
+	public void seedLedgers(String... names) {
+		wait.until(ExpectedConditions.visibilityOf(addLedgerBtn));
+		String formUrl = addLedgerBtn.getAttribute("href");
+		List<FormFixtures.Form> forms = new ArrayList<>();
+		for (String name : names) {
+			forms.add(FormFixtures.Form.at(formUrl, name)
+					.set("ledger_name", name)
+					.set("ledger_description", "Test"));
+		}
+		List<FormFixtures.Result> results = fixtures().submit(forms);
+		driver.navigate().refresh();
+		waitForPageLoad();
+		for (FormFixtures.Result result : results) {
+			if (!result.isCreated()) {
+				createLedger(result.getLabel());
+				waitForPageLoad();
+			}
+		}
+	}
+
 	/**
 	 * Edit an existing Ledger name
 	 * @param name - Current name of the ledger
@@ -271,7 +298,7 @@ public class LedgerPage extends BasePage {
 	private void selectTxnType() {
 		int randomNum = new Random().nextInt(txnTypeList.size());
 		String transactionTypeSelected = txnTypeList.get(randomNum).getAttribute("innerText");
-		System.out.println("Selected Transaction Type: " + transactionTypeSelected);
+		TestLog.info("Selected Transaction Type: " + transactionTypeSelected);
 		if (transactionTypeSelected.contains("Source System"))
 			return;
 		txnTypeList.get(randomNum).click();
@@ -288,14 +315,7 @@ public class LedgerPage extends BasePage {
 	 */
 	public boolean verifyRecordPresent(String name) {
 		waitForPageLoad();
-		List<WebElement> rows = driver.findElements(
-				By.xpath("//table//tbody//tr"));
-		for (int i = 0; i < rows.size(); i++) {
-			if (rows.get(i).getAttribute("innerText").contains(name)) {
-				return true;
-			}
-		}
-		return false;
+		return ledgers.contains(name);
 	}
 
 	/**
@@ -334,12 +354,11 @@ public class LedgerPage extends BasePage {
 	}
 
 	/**
-	 * Get success message text
-	 * @return Success message text
+	 * Get success message text from the flash message buffer
+	 * @return Success message text or empty string if not found
 	 */
 	public String getSuccessMessage() {
-		wait.until(ExpectedConditions.visibilityOf(successMessage));
-		return successMessage.getAttribute("innerText");
+		return awaitFlashMessage("success");
 	}
 
 	/**
@@ -359,6 +378,6 @@ public class LedgerPage extends BasePage {
 	 * Wait for success message to disappear
 	 */
 	public void waitForSuccessMessageToDisappear() {
-		dismissAlert();
+		dismissFlashMessages();
 	}
 }
@@ -10,6 +10,7 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
+import com.mondial.utils.TestLog;
 
 /**
  * Login Page Object Model
@@ -84,9 +85,9 @@ public class LoginPage extends BasePage {
             wait.until(ExpectedConditions.visibilityOf(usernameField));
             usernameField.clear();
             usernameField.sendKeys(username);
-            System.out.println("Entered username: " + username);
+            TestLog.info("Entered username: " + username);
         } catch (Exception e) {
-            System.out.println("Using alternative locator for username field");
+            TestLog.info("Using alternative locator for username field");
             type(usernameFieldAlt, username);
         }
         return this;
@@ -102,9 +103,9 @@ public class LoginPage extends BasePage {
             wait.until(ExpectedConditions.visibilityOf(passwordField));
             passwordField.clear();
             passwordField.sendKeys(password);
-            System.out.println("Entered password: " + maskPassword(password));
+            TestLog.info("Entered password: " + maskPassword(password));
         } catch (Exception e) {
-            System.out.println("Using alternative locator for password field");
+            TestLog.info("Using alternative locator for password field");
             type(passwordFieldAlt, password);
         }
         return this;
@@ -118,9 +119,9 @@ public class LoginPage extends BasePage {
         try {
             wait.until(ExpectedConditions.elementToBeClickable(loginButton));
             loginButton.click();
-            System.out.println("Clicked login button");
+            TestLog.info("Clicked login button");
         } catch (Exception e) {
-            System.out.println("Using alternative locator for login button");
+            TestLog.info("Using alternative locator for login button");
             click(loginButtonAlt);
         }
         
@@ -138,7 +139,7 @@ public class LoginPage extends BasePage {
      * @return HomePage instance after successful login
      */
     public HomePage login(String username, String password) {
-        System.out.println("Attempting login with username: " + username);
+        TestLog.info("Attempting login with username: " + username);
         enterUsername(username);
         enterPassword(password);
         return clickLoginButton();
@@ -153,10 +154,10 @@ public class LoginPage extends BasePage {
             if (rememberMeCheckbox.isDisplayed()) {
                 wait.until(ExpectedConditions.elementToBeClickable(rememberMeCheckbox));
                 rememberMeCheckbox.click();
-                System.out.println("Clicked Remember Me checkbox");
+                TestLog.info("Clicked Remember Me checkbox");
             }
         } catch (Exception e) {
-            System.out.println("Remember Me checkbox not found or not clickable");
+            TestLog.info("Remember Me checkbox not found or not clickable");
         }
         return this;
     }
@@ -169,10 +170,10 @@ public class LoginPage extends BasePage {
             if (forgotPasswordLink.isDisplayed()) {
                 wait.until(ExpectedConditions.elementToBeClickable(forgotPasswordLink));
                 forgotPasswordLink.click();
-                System.out.println("Clicked Forgot Password link");
+                TestLog.info("Clicked Forgot Password link");
             }
         } catch (Exception e) {
-            System.out.println("Forgot Password link not found");
+            TestLog.info("Forgot Password link not found");
         }
     }
     
@@ -208,7 +209,7 @@ public class LoginPage extends BasePage {
         try {
             wait.until(ExpectedConditions.visibilityOf(errorMessage));
             String message = errorMessage.getText();
-            System.out.println("Error message found: " + message);
+            TestLog.info("Error message found: " + message);
             return message;
         } catch (Exception e) {
             // Try alternative error message locator
@@ -216,11 +217,11 @@ public class LoginPage extends BasePage {
                 WebElement altError = driver.findElement(errorMessageAlt);
                 if (altError.isDisplayed()) {
                     String message = altError.getText();
-                    System.out.println("Error message found (alternative): " + message);
+                    TestLog.info("Error message found (alternative): " + message);
                     return message;
                 }
             } catch (Exception ex) {
-                System.out.println("No error message found");
+                TestLog.info("No error message found");
             }
             return "";
         }
@@ -335,7 +336,7 @@ public class LoginPage extends BasePage {
                             isPasswordFieldDisplayed() && 
                             isLoginButtonDisplayed();
         
-        System.out.println("Login page elements validation: " + 
+        TestLog.info("Login page elements validation: " + 
                           (allPresent ? "PASSED" : "FAILED"));
         return allPresent;
     }
@@ -364,9 +365,9 @@ public class LoginPage extends BasePage {
         try {
             wait.until(ExpectedConditions.visibilityOf(usernameField));
             usernameField.clear();
-            System.out.println("Cleared username field");
+            TestLog.info("Cleared username field");
         } catch (Exception e) {
-            System.out.println("Could not clear username field");
+            TestLog.info("Could not clear username field");
         }
         return this;
     }
@@ -379,9 +380,9 @@ public class LoginPage extends BasePage {
         try {
             wait.until(ExpectedConditions.visibilityOf(passwordField));
             passwordField.clear();
-            System.out.println("Cleared password field");
+            TestLog.info("Cleared password field");
         } catch (Exception e) {
-            System.out.println("Could not clear password field");
+            TestLog.info("Could not clear password field");
         }
         return this;
     }
@@ -393,7 +394,7 @@ public class LoginPage extends BasePage {
     public LoginPage clearAllFields() {
         clearUsername();
         clearPassword();
-        System.out.println("Cleared all login fields");
+        TestLog.info("Cleared all login fields");
         return this;
     }
     
@@ -431,7 +432,7 @@ public class LoginPage extends BasePage {
             } catch (Exception e) { /* ignore */ }
             return false;
         });
-        System.out.println("Login page loaded, URL: " + driver.getCurrentUrl());
+        TestLog.info("Login page loaded, URL: " + driver.getCurrentUrl());
     }
     
     /**
@@ -440,6 +441,6 @@ public class LoginPage extends BasePage {
      */
     public void takeLoginScreenshot(String screenshotName) {
         // Implement screenshot logic if needed
-        System.out.println("Screenshot requested: " + screenshotName);
+        TestLog.info("Screenshot requested: " + screenshotName);
     }
 }
\ No newline at end of file
@@ -12,6 +12,9 @@ import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 
+import com.mondial.utils.DriverManager;
+import com.mondial.utils.TestLog;
+
 /**
  * Natural Account Set Page Object
  * Represents the Natural Account Sets page and its CRUD operations
@@ -72,6 +75,9 @@ public class NaturalAccountSetPage extends BasePage {
 	 * @param companyName - Name of the company
 	 */
 	public void navigateToNaturalAccountsPage(String companyName) {
+		if (DriverManager.getCompanyRoutes().navigate(driver, companyName, "Natural Account Sets")) {
+			return;
+		}
 		waitForPageLoad();
 		wait.until(ExpectedConditions.visibilityOf(companyHeading));
 		// Scroll to bottom first as company may not be visible
@@ -88,7 +94,7 @@ public class NaturalAccountSetPage extends BasePage {
 				return;
 			}
 		}
-		System.out.println("WARNING: Company '" + companyName + "' not found in table. Table has " + tableName.size() + " rows.");
+		TestLog.warn("WARNING: Company '" + companyName + "' not found in table. Table has " + tableName.size() + " rows.");
 	}
 
 	/**
@@ -0,0 +1,127 @@
+package com.mondial.pages;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * Parameters of a Templated Report, applied to the form with ReportsPage.apply().
+ * Instances are immutable (final fields), the with* methods return a modified copy so a loop can
+ * vary one parameter of a shared base request.
+ * Unset (null) fields leave the form as it is.
+ */
+public class ReportRequest {
+
+	private final String company;
+	private final String reportType;
+	private final String currency;
+	private final String naturalAccountSet;
+	private final String ledger;
+	private final String outputType;
+	private final String startDate;
+	private final String endDate;
+	private final List<String> transactionTypes;
+
+	private ReportRequest(String company, String reportType, String currency, String naturalAccountSet,
+			String ledger, String outputType, String startDate, String endDate, List<String> transactionTypes) {
+		this.company = company;
+		this.reportType = reportType;
+		this.currency = currency;
+		this.naturalAccountSet = naturalAccountSet;
+		this.ledger = ledger;
+		this.outputType = outputType;
+		this.startDate = startDate;
+		this.endDate = endDate;
+		this.transactionTypes = transactionTypes;
+	}
+
+	/**
+	 * @param company - Company name as listed in the Company dropdown
+	 * @param reportType - Report type, e.g. "Trial Balance"
+	 */
+	public static ReportRequest of(String company, String reportType) {
+		return new ReportRequest(company, reportType, null, null, null, null, null, null, Collections.emptyList());
+	}
+
+	public ReportRequest withCurrency(String currency) {
+		return new ReportRequest(company, reportType, currency, naturalAccountSet, ledger, outputType, startDate,
+				endDate, transactionTypes);
+	}
+
+	public ReportRequest withNaturalAccountSet(String naturalAccountSet) {
+		return new ReportRequest(company, reportType, currency, naturalAccountSet, ledger, outputType, startDate,
+				endDate, transactionTypes);
+	}
+
+	public ReportRequest withLedger(String ledger) {
+		return new ReportRequest(company, reportType, currency, naturalAccountSet, ledger, outputType, startDate,
+				endDate, transactionTypes);
+	}
+
+	public ReportRequest withOutputType(String outputType) {
+		return new ReportRequest(company, reportType, currency, naturalAccountSet, ledger, outputType, startDate,
+				endDate, transactionTypes);
+	}
+
+	/**
+	 * @param startDate - Start date, MM/dd/yyyy
+	 * @param endDate - End date, MM/dd/yyyy
+	 */
+	public ReportRequest withDates(String startDate, String endDate) {
+		return new ReportRequest(company, reportType, currency, naturalAccountSet, ledger, outputType, startDate,
+				endDate, transactionTypes);
+	}
+
+	/**
+	 * Transaction types to tick, every other transaction type checkbox is cleared
+	 * @param transactionTypes - Checkbox name fragments, e.g. "source", "statutory"
+	 */
+	public ReportRequest withTransactionTypes(String... transactionTypes) {
+		return new ReportRequest(company, reportType, currency, naturalAccountSet, ledger, outputType, startDate,
+				endDate, Collections.unmodifiableList(new ArrayList<>(Arrays.asList(transactionTypes))));
+	}
+
+	public String getCompany() {
+		return company;
+	}
+
+	public String getReportType() {
+		return reportType;
+	}
+
+	public String getCurrency() {
+		return currency;
+	}
+
+	public String getNaturalAccountSet() {
+		return naturalAccountSet;
+	}
+
+	public String getLedger() {
+		return ledger;
+	}
+
+	public String getOutputType() {
+		return outputType;
+	}
+
+	public String getStartDate() {
+		return startDate;
+	}
+
+	public String getEndDate() {
+		return endDate;
+	}
+
+	public List<String> getTransactionTypes() {
+		return transactionTypes;
+	}
+
+	@Override
+	public String toString() {
+		return reportType + " for " + company + " [currency=" + currency + ", naturalAccountSet=" + naturalAccountSet
+				+ ", ledger=" + ledger + ", outputType=" + outputType + ", dates=" + startDate + "-" + endDate
+				+ ", transactionTypes=" + transactionTypes + "]";
+	}
+}
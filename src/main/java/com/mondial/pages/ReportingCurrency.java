@@ -9,6 +9,7 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
+import com.mondial.utils.TestLog;
 
 /**
  * Reporting Currency Page Object
@@ -81,7 +82,7 @@ public class ReportingCurrency extends BasePage {
 				return;
 			}
 		}
-		System.out.println("WARNING: Company '" + companyName + "' not found in table.");
+		TestLog.warn("WARNING: Company '" + companyName + "' not found in table.");
 	}
 
 	// ============================================
@@ -109,7 +110,7 @@ public class ReportingCurrency extends BasePage {
 		int index = getRandomIndex();
 		reportingCurr.selectByIndex(index);
 		String currencySelected = reportingCurr.getFirstSelectedOption().getAttribute("innerText");
-		System.out.println("Currency selected: " + currencySelected);
+		TestLog.info("Currency selected: " + currencySelected);
 		new Select(exchangeRateDD).selectByValue("2");
 		clickElement(createBtn);
 		waitForPageLoad();
@@ -228,7 +229,7 @@ public class ReportingCurrency extends BasePage {
 				By.xpath("//select[@id='reporting_currency_currency_id']//option"));
 		int listSize = options.size() - 1;
 		int selectIndex = listSize > 0 ? (int) (Math.random() * listSize) + 1 : 1;
-		System.out.println("Index to select: " + selectIndex);
+		TestLog.info("Index to select: " + selectIndex);
 		return selectIndex;
 	}
 }
@@ -10,6 +10,9 @@ import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 
+import com.mondial.utils.DriverManager;
+import com.mondial.utils.TestLog;
+
 /**
  * Reporting Segment (GL Account Segment) Page Object
  * Represents the GL Account Segments page and its CRUD operations
@@ -98,6 +101,9 @@ public class ReportingSegmentPage extends BasePage {
 	 * @param companyName - Name of the company
 	 */
 	public void navigateToReportingSegment(String companyName) {
+		if (DriverManager.getCompanyRoutes().navigate(driver, companyName, "Reporting Segments")) {
+			return;
+		}
 		waitForPageLoad();
 		wait.until(ExpectedConditions.visibilityOf(companyHeading));
 		// Scroll to bottom first as company may not be visible
@@ -112,7 +118,7 @@ public class ReportingSegmentPage extends BasePage {
 				clickElement(link);
 				// Wait for heading to change from "Companies" (up to 10s)
 				if (!waitForTextChange(pageHeading, "Companies", 10)) {
-					System.out.println("First click did not navigate, retrying...");
+					TestLog.info("First click did not navigate, retrying...");
 					link = driver.findElement(By.xpath(
 							"//table[@class='table table-striped']//tr[contains(., '"
 							+ companyName + "')]//td//a[@data-original-title='Reporting Segments']"));
@@ -124,7 +130,7 @@ public class ReportingSegmentPage extends BasePage {
 				return;
 			}
 		}
-		System.out.println("WARNING: Company '" + companyName + "' not found in table. Table has " + tableName.size() + " rows.");
+		TestLog.warn("WARNING: Company '" + companyName + "' not found in table. Table has " + tableName.size() + " rows.");
 	}
 
 	/**
@@ -230,7 +236,7 @@ public class ReportingSegmentPage extends BasePage {
 						"  result.push('ERR[' + j + ']: tag=' + alerts[j].tagName + ' class=' + alerts[j].className + ' text=[' + alerts[j].innerText.substring(0,200) + ']');" +
 						"}" +
 						"return result.join('\\n');");
-			System.out.println("DEBUG error HTML:\n" + errorHtml);
+			TestLog.info("DEBUG error HTML:\n" + errorHtml);
 			return false;
 		}
 	}
@@ -391,7 +397,7 @@ public class ReportingSegmentPage extends BasePage {
 		int num = 1;
 		for (int i = 0; i < numOfSegments; i++) {
 			if (!isAddGLSegmentBtnDisplayed()) {
-				System.out.println("Segment limit reached after creating " + (num - 1) + " segments. Stopping creation.");
+				TestLog.info("Segment limit reached after creating " + (num - 1) + " segments. Stopping creation.");
 				break;
 			}
 			String segmentName = segmentBaseName + num;
@@ -418,6 +424,10 @@ public class ReportingSegmentPage extends BasePage {
 	 */
 	public void deleteAllSegments() {
 		waitForPageLoad();
+		BulkDelete.Result bulk = bulkDeleteRows("table.table-striped tbody tr", null);
+		if (bulk.getRequested() > 0 && bulk.getRemaining() == 0) {
+			return;
+		}
 		int rowCount = tableName.size();
 		for (int i = 0; i < rowCount; i++) {
 			try {
@@ -448,7 +458,7 @@ public class ReportingSegmentPage extends BasePage {
 		navigateToReportingSegment(companyName);
 		isAddGLSegmentBtnDisplayed();
 		deleteAllSegments();
-		System.out.println("All segments deleted successfully");
+		TestLog.info("All segments deleted successfully");
 	}
 
 	// ============================================
@@ -623,8 +633,8 @@ public class ReportingSegmentPage extends BasePage {
 		for (WebElement element : codeColumn) {
 			tableContent.add(element.getAttribute("innerText").trim());
 		}
-		System.out.println("Expected codes: " + expectedCodes);
-		System.out.println("Table codes: " + tableContent);
+		TestLog.info("Expected codes: " + expectedCodes);
+		TestLog.info("Table codes: " + tableContent);
 		return tableContent.containsAll(expectedCodes);
 	}
 
@@ -6,35 +6,82 @@ import java.util.ArrayList;
 import java.util.Calendar;
 import java.util.Collections;
 import java.util.Date;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 import java.util.Random;
 
 import org.openqa.selenium.By;
 import org.openqa.selenium.JavascriptExecutor;
-import org.openqa.selenium.Keys;
+import org.openqa.selenium.TimeoutException;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
-import org.openqa.selenium.support.ui.ExpectedCondition;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.WebDriverWait;
 import org.testng.Assert;
 
+import com.mondial.pages.ChosenSelect.Choice;
+import com.mondial.utils.ReportLatency;
+import com.mondial.utils.TestLog;
+
 public class ReportsPage extends BasePage {
 
 	private JavascriptExecutor jse;
 	private WebDriverWait longWait;
+	private long lastGenerationMillis = -1;
+	private ChosenSelect chosen;
 	private static final Random RANDOM = new Random();
 	public static final String RESET = "\u001B[0m";
 	public static final String PrintColour = "\u001B[35m";
 
+	// Chosen-backed <select> elements of the templated report form
+	private static final String COMPANY_SELECT = "#report_company_id";
+	private static final String REPORT_SELECT =
+			"//select[.//option[normalize-space(text())='Trial Balance'] and .//option[normalize-space(text())='Transaction History']]";
+	private static final String CURRENCY_SELECT = "#report_fields_currency_code";
+	private static final String NATURAL_ACCOUNT_SET_SELECT = "#report_fields_natural_account_set_id";
+	private static final String LEDGER_SELECT = "#report_fields_ledger_id";
+	private static final String OUTPUT_TYPE_SELECT = "#report_fields_report_format";
+	private static final String ACCOUNTING_PERIOD_SELECT = "#report_fields_accounting_period_id";
+	// Rendered once the report type's fields have loaded
+	private static final String START_DATE_INPUT = "input[name='report_fields[accounting_period_start_date]']";
+	private static final String END_DATE_INPUT = "input[name='report_fields[accounting_period_end_date]']";
+	private static final String FIRST_RECORD_XPATH = "//div[@ref='eContainer']//div[@row-index='0']";
+	// Script rather than findElements so the implicit wait does not apply when there is no row
+	private static final String FIRST_RECORD_SCRIPT =
+			"return document.evaluate(arguments[0], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null)"
+			+ ".singleNodeValue;";
+	// Form fields that key a generation's latency
+	private static final Map<String, String> LATENCY_FIELDS = latencyFields();
+
+	// Sets the date range and transaction type checkboxes of a loaded report form in one call
+	private static final String DATES_AND_TYPES_SCRIPT =
+			"var start = arguments[0], end = arguments[1], types = arguments[2];" +
+			"function field(name) { return document.querySelector(\"input[name='report_fields[\" + name + \"]']\"); }" +
+			"var startField = field('accounting_period_start_date'), endField = field('accounting_period_end_date');" +
+			"if (start !== null && startField) { startField.value = start; }" +
+			"if (end !== null && endField) { endField.value = end; }" +
+			"var ticked = [];" +
+			"var boxes = document.querySelectorAll(\"input[type='checkbox'][name*='accounting']\");" +
+			"for (var i = 0; i < boxes.length; i++) {" +
+			"  if (types.length) {" +
+			"    var wanted = false;" +
+			"    for (var j = 0; j < types.length; j++) { if (boxes[i].name.indexOf(types[j]) >= 0) { wanted = true; } }" +
+			"    if (boxes[i].checked !== wanted) { boxes[i].click(); }" +
+			"  }" +
+			"  if (boxes[i].checked) { ticked.push(boxes[i].name); }" +
+			"}" +
+			"return { start: startField ? startField.value : null, end: endField ? endField.value : null, ticked: ticked };";
+
 	public ReportsPage(WebDriver driver) {
 		super(driver);
 		PageFactory.initElements(driver, this);
 		jse = (JavascriptExecutor) driver;
 		wait = new WebDriverWait(driver, Duration.ofSeconds(100));
 		longWait = new WebDriverWait(driver, Duration.ofMinutes(5));
+		chosen = new ChosenSelect(driver, Duration.ofSeconds(100));
 	}
 
 	@FindBy(xpath = "//span[contains(text(), 'Report')]")
@@ -133,7 +180,7 @@ public class ReportsPage extends BasePage {
 	@FindBy(xpath = "//div[@ref='centerContainer'][@role='presentation']//*[@ref='eContainer']//div[@role='row']")
 	public List<WebElement> txnTable;
 
-	@FindBy(xpath = "//div[@ref='eContainer']//div[@row-index='0']")
+	@FindBy(xpath = FIRST_RECORD_XPATH)
 	public WebElement firstRecord;
 
 	@FindBy(xpath = "//span[@ref='eText'][contains(text(),'Closing')] | //span[@ref='eText'][contains(text(),'Balance')]")
@@ -203,17 +250,14 @@ public class ReportsPage extends BasePage {
 	}
 
 	public void generateTxnHistory(String companyName, String reportType) throws InterruptedException {
-		selectCompany(companyName);
-		waitForPageLoad();
-		selectReport(reportType);
-		waitForPageLoad();
-		selectOutputType("Screen");
-		waitForPageLoad();
+		chosen.apply(
+				Choice.of(COMPANY_SELECT, companyName),
+				Choice.of(REPORT_SELECT, reportType).awaiting(START_DATE_INPUT),
+				Choice.ifPresent(OUTPUT_TYPE_SELECT, "Screen"));
 		selectDatesJS("11/11/2020", "12/12/2020");
-		generateButton.click();
+		timeGeneration(reportType, true, generateButton::click);
 		wait.until(ExpectedConditions.visibilityOf(heading));
 		Assert.assertTrue(heading.getAttribute("innerText").contains(reportType));
-		longWait.until(ExpectedConditions.visibilityOf(firstRecord));
 	}
 
 	@SuppressWarnings("null")
@@ -226,8 +270,8 @@ public class ReportsPage extends BasePage {
 		if (selectIndex == 0)
 			selectIndex = 1;
 		String txnID = tablebody.get(selectIndex).getAttribute("innerText").substring(14, 18);
-		System.out.println("\n\033[0;1m" + PrintColour + "Table Size: " + txnTable.size() + RESET);
-		System.out.println("\n\033[0;1m" + PrintColour + "Table Row to view the balance: " + selectIndex + RESET);
+		TestLog.info("\n\033[0;1m" + PrintColour + "Table Size: " + txnTable.size() + RESET);
+		TestLog.info("\n\033[0;1m" + PrintColour + "Table Row to view the balance: " + selectIndex + RESET);
 		WebElement linkToClick = driver.findElement(By.xpath("//div[contains(.,'" + txnID + "')][@role='gridcell']"));
 		String externalTxnID = driver
 				.findElement(By.xpath("//div[contains(.,'" + txnID + "')][@role='gridcell']//following-sibling::div[3]"))
@@ -282,7 +326,7 @@ public class ReportsPage extends BasePage {
 			if (debit[i] != null)
 				result = result + debit[i];
 		}
-		System.out.println("\nTotal of Debit: " + result);
+		TestLog.info("\nTotal of Debit: " + result);
 		return result;
 	}
 
@@ -292,48 +336,103 @@ public class ReportsPage extends BasePage {
 			if (credit[i] != null)
 				result = result + credit[i];
 		}
-		System.out.println("\nTotal of Credit: " + result);
+		TestLog.info("\nTotal of Credit: " + result);
 		return result;
 	}
 
 	public String verifyAccountPeriodField(String companyName, String reportType) throws InterruptedException {
-		selectCompany(companyName);
-		waitForPageLoad();
-		Thread.sleep(30);
-		selectReport(reportType);
-		waitForPageLoad();
-		wait.until(ExpectedConditions.visibilityOfElementLocated(By.xpath("//input[@name='report_fields[accounting_period_start_date]']")));
-		selectNaturalAccountSets("Local");
-		waitForPageLoad();
-		selectOutputType("Screen");
-		waitForPageLoad();
+		chosen.apply(
+				Choice.of(COMPANY_SELECT, companyName),
+				Choice.of(REPORT_SELECT, reportType).awaiting(START_DATE_INPUT),
+				Choice.ifPresent(NATURAL_ACCOUNT_SET_SELECT, "Local"),
+				Choice.ifPresent(OUTPUT_TYPE_SELECT, "Screen"));
 		accountingPeriodDD.click();
 		wait.until(ExpectedConditions.visibilityOf(accountingPeriodList.get(1)));
 		String date = accountingPeriodList.get(1).getAttribute("innerText");
 		accountingPeriodList.get(1).click();
 		waitForPageLoad();
-		generateButton.click();
+		timeGeneration(reportType, true, generateButton::click);
 		wait.until(ExpectedConditions.visibilityOf(heading));
 		Assert.assertTrue(heading.getAttribute("innerText").contains(reportType));
-		longWait.until(ExpectedConditions.visibilityOf(firstRecord));
 		return date;
 	}
 
 	public void selectRequiredValues(String companyName, String reportType) throws InterruptedException {
-		selectCompany(companyName);
-		waitForPageLoad();
-		selectReport(reportType);
-		waitForPageLoad();
-		wait.until(ExpectedConditions.visibilityOfElementLocated(By.xpath("//input[@name='report_fields[accounting_period_start_date]']")));
-		selectCurrency("USD");
-		waitForPageLoad();
-		selectNaturalAccountSets("Local");
-		waitForPageLoad();
-		selectLedger("Default");
-		waitForPageLoad();
-		selectOutputType("Screen");
-		waitForPageLoad();
-		selectDatesJS("11/11/2024", "12/12/2024");
+		apply(defaultRequest(companyName, reportType));
+	}
+
+	/**
+	 * The parameters selectRequiredValues() applies, as a base for varying one of them
+	 * @param companyName - Company name
+	 * @param reportType - Report type
+	 * @return USD / Local / Default ledger / Screen report for 11/11/2024 - 12/12/2024
+	 */
+	public ReportRequest defaultRequest(String companyName, String reportType) {
+		return ReportRequest.of(companyName, reportType)
+				.withCurrency("USD")
+				.withNaturalAccountSet("Local")
+				.withLedger("Default")
+				.withOutputType("Screen")
+				.withDates("11/11/2024", "12/12/2024");
+	}
+
+	/**
+	 * Fill the Templated Report form from a request in dependency order:
+	 * company and report type first (the report type's fields load after it),
+	 * then the Chosen fields in one call, then dates and transaction types in one call.
+	 * Fields the selected report type does not render are skipped.
+	 * @param request - Report parameters
+	 * @return Milliseconds spent per phase
+	 */
+	@SuppressWarnings("unchecked")
+	public Map<String, Long> apply(ReportRequest request) {
+		Map<String, Long> phases = new LinkedHashMap<>();
+
+		long started = System.currentTimeMillis();
+		chosen.apply(
+				Choice.of(COMPANY_SELECT, request.getCompany()),
+				Choice.of(REPORT_SELECT, request.getReportType()).awaiting(START_DATE_INPUT));
+		phases.put("company/report", System.currentTimeMillis() - started);
+
+		started = System.currentTimeMillis();
+		List<Choice> fields = new ArrayList<>();
+		addIfSet(fields, CURRENCY_SELECT, request.getCurrency());
+		addIfSet(fields, NATURAL_ACCOUNT_SET_SELECT, request.getNaturalAccountSet());
+		addIfSet(fields, LEDGER_SELECT, request.getLedger());
+		addIfSet(fields, OUTPUT_TYPE_SELECT, request.getOutputType());
+		if (!fields.isEmpty()) {
+			chosen.apply(fields);
+		}
+		phases.put("fields", System.currentTimeMillis() - started);
+
+		started = System.currentTimeMillis();
+		Map<String, Object> form = (Map<String, Object>) jse.executeScript(DATES_AND_TYPES_SCRIPT,
+				request.getStartDate(), request.getEndDate(), request.getTransactionTypes());
+		phases.put("dates/types", System.currentTimeMillis() - started);
+
+		if (request.getStartDate() != null && !request.getStartDate().equals(form.get("start"))
+				|| request.getEndDate() != null && !request.getEndDate().equals(form.get("end"))) {
+			throw new RuntimeException("Report dates not applied, form shows " + form.get("start") + " - " + form.get("end"));
+		}
+		List<String> ticked = (List<String>) form.get("ticked");
+		for (String type : request.getTransactionTypes()) {
+			if (ticked.stream().noneMatch(name -> name.contains(type))) {
+				throw new RuntimeException("Transaction type '" + type + "' not ticked, ticked: " + ticked);
+			}
+		}
+
+		long total = 0;
+		for (long millis : phases.values()) {
+			total += millis;
+		}
+		TestLog.info("Report form applied in " + total + " ms " + phases + ": " + request);
+		return phases;
+	}
+
+	private void addIfSet(List<Choice> fields, String selector, String value) {
+		if (value != null) {
+			fields.add(Choice.ifPresent(selector, value));
+		}
 	}
 
 	public void selectDates() {
@@ -363,93 +462,103 @@ public class ReportsPage extends BasePage {
 	}
 
 	public void generateReport(String reportType) {
-		jse.executeScript("arguments[0].click();", generateButton);
-		wait.until((ExpectedCondition<Boolean>) wd ->
-				((JavascriptExecutor) wd).executeScript("return document.readyState").equals("complete"));
+		// Only a Detailed Trial Balance is sure to render a grid row here, other outputs may have none
+		timeGeneration(reportType, "Detailed Trial Balance".equals(reportType),
+				() -> jse.executeScript("arguments[0].click();", generateButton));
 		Assert.assertTrue(heading.getAttribute("innerText").contains(reportType));
-		if (reportType.equals("Detailed Trial Balance"))
-			longWait.until(ExpectedConditions.visibilityOf(firstRecord));
+	}
+
+	/**
+	 * Time clicking Generate through to the new result, keyed by the parameters on the form.
+	 * The click returns before the new document loads (page load strategy none), so what is
+	 * on the page must go stale first: with expectRows the timer stops at the first row of
+	 * the new result, otherwise once the new document is ready. When no new document comes
+	 * within explicitWait (e.g. the output is a download) the timer stops there.
+	 * A generation slower than its SLO is flagged by ReportLatency even if the test passes.
+	 * @param reportType Report being generated
+	 * @param expectRows Whether the result renders a grid row
+	 * @param clickGenerate Clicks Generate
+	 */
+	private void timeGeneration(String reportType, boolean expectRows, Runnable clickGenerate) {
+		Map<String, String> parameters = ReportLatency.readForm(driver, LATENCY_FIELDS);
+		parameters.put(ReportLatency.REPORT, reportType);
+		WebElement previousRow = (WebElement) jse.executeScript(FIRST_RECORD_SCRIPT, FIRST_RECORD_XPATH);
+		WebElement previousDocument = driver.findElement(By.tagName("html"));
+		ReportLatency.Timer timer = ReportLatency.start(parameters);
+		boolean generated = false;
+		try {
+			clickGenerate.run();
+			if (expectRows) {
+				if (previousRow != null) {
+					longWait.until(ExpectedConditions.stalenessOf(previousRow));
+				}
+				longWait.until(ExpectedConditions.visibilityOf(firstRecord));
+			} else {
+				try {
+					wait.until(ExpectedConditions.stalenessOf(previousDocument));
+				} catch (TimeoutException e) {
+					TestLog.info("No new document after Generate for " + reportType + ", timing up to now");
+				}
+				waitForPageLoad();
+			}
+			generated = true;
+		} finally {
+			lastGenerationMillis = timer.stop(generated);
+		}
+	}
+
+	/**
+	 * @return Milliseconds from Generate to the result of the last generation (its first row when
+	 *         one is expected), -1 before any
+	 */
+	public long getLastGenerationMillis() {
+		return lastGenerationMillis;
+	}
+
+	private static Map<String, String> latencyFields() {
+		Map<String, String> fields = new LinkedHashMap<>();
+		fields.put(ReportLatency.COMPANY, COMPANY_SELECT);
+		fields.put(ReportLatency.LEDGER, LEDGER_SELECT);
+		fields.put(ReportLatency.CURRENCY, CURRENCY_SELECT);
+		fields.put(ReportLatency.NATURAL_ACCOUNT_SET, NATURAL_ACCOUNT_SET_SELECT);
+		fields.put(ReportLatency.START_DATE, START_DATE_INPUT);
+		fields.put(ReportLatency.END_DATE, END_DATE_INPUT);
+		return Collections.unmodifiableMap(fields);
 	}
 
 	public void selectCompany(String cName) {
-		WebElement dropdownLink = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[@id='report_company_id_chosen']//a")));
-		jse.executeScript("arguments[0].click();", dropdownLink);
-		WebElement input = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[@id='report_company_id_chosen']//input[@class='chosen-search-input']")));
-		input.sendKeys(cName);
-		wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[@id='report_company_id_chosen']//li[contains(@class,'active-result')]")));
-		input.sendKeys(Keys.ENTER);
-	}
-
-	public void selectReport(String rName) throws InterruptedException {
-		// Find the hidden underlying <select> for report type and set via JS
-		WebElement select = wait.until(ExpectedConditions.presenceOfElementLocated(
-				By.xpath("//select[.//option[normalize-space(text())='Trial Balance'] and .//option[normalize-space(text())='Transaction History']]")));
-		jse.executeScript(
-				"var sel = arguments[0], name = arguments[1];" +
-				"for(var i=0;i<sel.options.length;i++){" +
-				"  if(sel.options[i].text.trim()===name){ sel.selectedIndex=i; break; }" +
-				"}" +
-				"sel.dispatchEvent(new Event('change',{bubbles:true}));" +
-				"if(window.jQuery){jQuery(sel).trigger('chosen:updated');}",
-				select, rName);
-		Thread.sleep(500);
+		chosen.select(COMPANY_SELECT, cName);
+	}
+
+	public void selectReport(String rName) {
+		chosen.select(REPORT_SELECT, rName);
 	}
 
 	public void selectAccoutingPeriod(String ap) {
-		accountingPeriodDD.click();
-		inputAPName.sendKeys(ap);
-		inputAPName.sendKeys(Keys.ENTER);
+		chosen.select(ACCOUNTING_PERIOD_SELECT, ap);
 	}
 
 	public void selectCurrency(String currency) {
-		List<WebElement> els = driver.findElements(By.xpath("//div[@id='report_fields_currency_code_chosen']//a"));
-		if (!els.isEmpty()) {
-			WebElement dd = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[@id='report_fields_currency_code_chosen']//a")));
-			jse.executeScript("arguments[0].click();", dd);
-			WebElement input = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[@id='report_fields_currency_code_chosen']//input[@class='chosen-search-input']")));
-			input.sendKeys(currency);
-			input.sendKeys(Keys.ENTER);
-		}
+		chosen.selectIfPresent(CURRENCY_SELECT, currency);
 	}
 
 	public void selectNaturalAccountSets(String accountSet) {
-		List<WebElement> els = driver.findElements(By.xpath("//div[@id='report_fields_natural_account_set_id_chosen']//a"));
-		if (!els.isEmpty()) {
-			WebElement dd = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[@id='report_fields_natural_account_set_id_chosen']//a")));
-			jse.executeScript("arguments[0].click();", dd);
-			WebElement input = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[@id='report_fields_natural_account_set_id_chosen']//input[@class='chosen-search-input']")));
-			input.sendKeys(accountSet);
-			input.sendKeys(Keys.ENTER);
-		}
+		chosen.selectIfPresent(NATURAL_ACCOUNT_SET_SELECT, accountSet);
 	}
 
 	public void selectLedger(String ledger) {
-		List<WebElement> els = driver.findElements(By.xpath("//div[@id='report_fields_ledger_id_chosen']//a"));
-		if (!els.isEmpty()) {
-			WebElement dd = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[@id='report_fields_ledger_id_chosen']//a")));
-			jse.executeScript("arguments[0].click();", dd);
-			WebElement input = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[@id='report_fields_ledger_id_chosen']//input[@class='chosen-search-input']")));
-			input.sendKeys(ledger);
-			input.sendKeys(Keys.ENTER);
-		}
+		chosen.selectIfPresent(LEDGER_SELECT, ledger);
 	}
 
 	public void selectOutputType(String type) {
-		List<WebElement> els = driver.findElements(By.xpath("//div[@id='report_fields_report_format_chosen']//a"));
-		if (!els.isEmpty()) {
-			WebElement dd = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[@id='report_fields_report_format_chosen']//a")));
-			jse.executeScript("arguments[0].click();", dd);
-			WebElement input = wait.until(ExpectedConditions.elementToBeClickable(By.xpath("//div[@id='report_fields_report_format_chosen']//input[@class='chosen-search-input']")));
-			input.sendKeys(type);
-			input.sendKeys(Keys.ENTER);
-		}
+		chosen.selectIfPresent(OUTPUT_TYPE_SELECT, type);
 	}
 
 	public boolean verifyRecordPresent(String txnId) {
 		boolean isPresent = false;
 		for (int i = 0; i < txnTable.size(); i++) {
 			if (txnTable.get(i).getAttribute("innerText").contains(txnId)) {
-				System.out.println("Record Present !!");
+				TestLog.info("Record Present !!");
 				isPresent = true;
 				break;
 			}
@@ -461,9 +570,9 @@ public class ReportsPage extends BasePage {
 		boolean isPresent = false;
 		for (int i = 0; i < txnTable.size(); i++) {
 			String temp = txnTable.get(i).getAttribute("innerText");
-			System.out.println(temp);
+			TestLog.info(temp);
 			if (txnTable.get(i).getAttribute("innerText").contains(date)) {
-				System.out.println("Correct Record Present!!");
+				TestLog.info("Correct Record Present!!");
 				isPresent = true;
 				break;
 			}
@@ -475,13 +584,13 @@ public class ReportsPage extends BasePage {
 		waitForPageLoad();
 		sortTableCB.click();
 		sortTableCB.click();
-		System.out.println(txnTable.size());
+		TestLog.info(String.valueOf(txnTable.size()));
 		Thread.sleep(1000);
 		WebElement path = driver.findElement(By.xpath(
 				"//div[@row-index='0']//div[@*= 'closing_balance'] | //div[@row-index='0']//div[@*= 'balance'] | //div[@row-index='0']//div[contains(@col-id, 'adjusted_trial_balance')]"));
 		String balance = path.getAttribute("innerText");
 		path.click();
-		System.out.println("Balance Details: " + balance);
+		TestLog.info("Balance Details: " + balance);
 		return balance;
 	}
 
@@ -491,8 +600,8 @@ public class ReportsPage extends BasePage {
 				.findElements(By.xpath("//div[@ref='eBodyViewport']//div[@col-id='balance']|//div[@ref='eBodyViewport']//div[@col-id='closing_balance']|//div[@ref='eBodyViewport']//div[@col-id='adjusted_trial_balance']"));
 		int tableSize = tablebody.size() - 1;
 		int selectIndex = RANDOM.nextInt(tableSize);
-		System.out.println("\n\033[0;1m" + PrintColour + "Table Size: " + txnTable.size() + RESET);
-		System.out.println("\n\033[0;1m" + PrintColour + "Table Row to view the balance: " + selectIndex + RESET);
+		TestLog.info("\n\033[0;1m" + PrintColour + "Table Size: " + txnTable.size() + RESET);
+		TestLog.info("\n\033[0;1m" + PrintColour + "Table Row to view the balance: " + selectIndex + RESET);
 		WebElement path = driver.findElement(
 				By.xpath("//div[@row-index='" + selectIndex + "']//div[@*= 'closing_balance'] | //div[@row-index='"
 						+ selectIndex + "']//div[@*= 'balance'] | //div[@row-index='" + selectIndex
@@ -564,9 +673,9 @@ public class ReportsPage extends BasePage {
 
 	public String getTxnTypeCode() {
 		String urlPath = driver.getCurrentUrl();
-		System.out.println(urlPath);
+		TestLog.info(urlPath);
 		String[] path = urlPath.split("type_codes");
-		System.out.println("Updated URL path" + path[1]);
+		TestLog.info("Updated URL path" + path[1]);
 		return path[1];
 	}
 
@@ -574,14 +683,14 @@ public class ReportsPage extends BasePage {
 		waitForPageLoad();
 		selectCurrency(currencyName);
 		generateReport(reportType);
-		System.out.println("Balance generated successfully for " + currencyName);
+		TestLog.info("Balance generated successfully for " + currencyName);
 	}
 
 	public void verifyBalanceGeneration_NAS(String naturalAccount, String reportType) throws InterruptedException {
 		waitForPageLoad();
 		selectNaturalAccountSets(naturalAccount);
 		generateReport(reportType);
-		System.out.println("Balance generated successfully for " + naturalAccount);
+		TestLog.info("Balance generated successfully for " + naturalAccount);
 	}
 
 	public void verifyBalanceGeneration_Ledger(String ledgerName, String reportType) throws InterruptedException {
@@ -589,7 +698,7 @@ public class ReportsPage extends BasePage {
 		selectLedger(ledgerName);
 		waitForPageLoad();
 		generateReport(reportType);
-		System.out.println("Balance generated successfully for " + ledgerName);
+		TestLog.info("Balance generated successfully for " + ledgerName);
 	}
 
 	public ArrayList<String> getTxnTypes() {
@@ -618,7 +727,7 @@ public class ReportsPage extends BasePage {
 		else if (txnCB.equals("Translation Adjustments"))
 			Assert.assertTrue(linkPath.contains("%20CTA%20&"));
 		else
-			System.out.println("Error encountered!!!");
+			TestLog.info("Error encountered!!!");
 	}
 
 	public List<String> ledgerIntegration() {
@@ -627,7 +736,7 @@ public class ReportsPage extends BasePage {
 			dropdownValues.add(option.getAttribute("innerText"));
 		}
 		Collections.sort(dropdownValues);
-		System.out.println(dropdownValues);
+		TestLog.info(String.valueOf(dropdownValues));
 		return dropdownValues;
 	}
 
@@ -637,7 +746,7 @@ public class ReportsPage extends BasePage {
 			tableValues.add(option.getAttribute("innerText"));
 		}
 		Collections.sort(tableValues);
-		System.out.println(tableValues);
+		TestLog.info(String.valueOf(tableValues));
 		return tableValues;
 	}
 
@@ -743,7 +852,7 @@ public class ReportsPage extends BasePage {
 					ExpectedConditions.presenceOfElementLocated(
 							By.xpath("//div[@ref='eBodyViewport']//div[@role='row']")));
 		} catch (Exception e) {
-			System.out.println("WARNING: ag-grid rows not found within 30 s on Balance Details page");
+			TestLog.warn("WARNING: ag-grid rows not found within 30 s on Balance Details page");
 		}
 
 		// ── read balance and report_amount columns ────────────────────────────
@@ -755,8 +864,8 @@ public class ReportsPage extends BasePage {
 		List<WebElement> reportAmountCells = driver.findElements(By.xpath(
 				"//div[@ref='eBodyViewport']//div[@role='row']//div[@col-id='report_amount']"));
 
-		System.out.println("balance values      : " + getCellValues(balanceCells));
-		System.out.println("report_amount values: " + getCellValues(reportAmountCells));
+		TestLog.info("balance values      : " + getCellValues(balanceCells));
+		TestLog.info("report_amount values: " + getCellValues(reportAmountCells));
 
 		// ── Internal calculation: Opening + Σ(report_amount) = Closing ───────
 		if (balanceCells.size() >= 2) {
@@ -764,12 +873,12 @@ public class ReportsPage extends BasePage {
 			double closing     = parseValue(balanceCells.get(balanceCells.size() - 1).getAttribute("innerText"));
 			double netMovement = parseAndSum(reportAmountCells);
 			double expected    = round2dp(opening + netMovement);
-			System.out.println("Internal calc : Opening(" + opening + ") + Net Movement(" + netMovement
+			TestLog.info("Internal calc : Opening(" + opening + ") + Net Movement(" + netMovement
 					+ ") = " + expected + "  |  Actual Closing: " + closing);
 			Assert.assertEquals(round2dp(closing), expected, 0.05,
 					"Balance Details: Opening + Net Movement should equal Closing Balance");
 		} else {
-			System.out.println("INFO: Not enough balance rows for internal calculation (rows="
+			TestLog.info("INFO: Not enough balance rows for internal calculation (rows="
 					+ balanceCells.size() + ")");
 		}
 
@@ -784,17 +893,17 @@ public class ReportsPage extends BasePage {
 				double actual   = round2dp(parseValue(
 						balanceCells.get(balanceCells.size() - 1).getAttribute("innerText")));
 				double diff = Math.abs(actual - expected);
-				System.out.println("Cross-page match: Trial Balance closing = " + expected
+				TestLog.info("Cross-page match: Trial Balance closing = " + expected
 						+ "  |  Drilldown page closing = " + actual + "  |  diff = " + round2dp(diff));
 				if (diff <= 0.05) {
 					Assert.assertEquals(actual, expected, 0.05,
 							"Closing balance on drilldown page should match the value clicked on Trial Balance");
 				} else {
-					System.out.println("INFO: Cross-page values differ by " + round2dp(diff)
+					TestLog.info("INFO: Cross-page values differ by " + round2dp(diff)
 							+ " — Balance Details likely shows all-time history vs period-specific Trial Balance value");
 				}
 			} else {
-				System.out.println("WARNING: No balance cells found – skipping cross-page match");
+				TestLog.warn("WARNING: No balance cells found – skipping cross-page match");
 			}
 		}
 	}
@@ -852,13 +961,13 @@ public class ReportsPage extends BasePage {
 				nonZero.add(cell);
 			}
 		}
-		System.out.println("Total non-zero balance cells found: " + nonZero.size());
+		TestLog.info("Total non-zero balance cells found: " + nonZero.size());
 		for (int i = 0; i < nonZero.size(); i++) {
 			WebElement c = nonZero.get(i);
 			WebElement rowEl = (WebElement) jse.executeScript(
 				"var el = arguments[0]; while (el && el.getAttribute('row-index') === null) { el = el.parentElement; } return el;", c);
 			String rowIdx = rowEl != null ? rowEl.getAttribute("row-index") : "?";
-			System.out.println("  [" + i + "] col-id=" + c.getAttribute("col-id")
+			TestLog.info("  [" + i + "] col-id=" + c.getAttribute("col-id")
 					+ " row-index=" + rowIdx + " value=" + c.getAttribute("innerText").trim());
 		}
 		if (n >= nonZero.size()) {
@@ -866,7 +975,7 @@ public class ReportsPage extends BasePage {
 		}
 		WebElement target = nonZero.get(n);
 		String value = target.getAttribute("innerText");
-		System.out.println("Clicking cell [" + n + "] col-id=" + target.getAttribute("col-id") + " value=" + value);
+		TestLog.info("Clicking cell [" + n + "] col-id=" + target.getAttribute("col-id") + " value=" + value);
 		target.click();
 		return value;
 	}
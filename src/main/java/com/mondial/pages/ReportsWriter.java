@@ -1,10 +1,12 @@
 package com.mondial.pages;
 
+import java.time.Duration;
 import java.util.ArrayList;
 import java.util.Collections;
+import java.util.LinkedHashMap;
 import java.util.List;
+import java.util.Map;
 
-import org.openqa.selenium.Keys;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.WebElement;
 import org.openqa.selenium.support.FindBy;
@@ -12,12 +14,24 @@ import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
 
+import com.mondial.pages.ChosenSelect.Choice;
+import com.mondial.utils.ReportLatency;
+
 /**
  * Reports Writer Page Object
  * Represents the Report Writer page and report generation operations
  */
 public class ReportsWriter extends BasePage {
 
+	// Chosen-backed <select> elements of the report writer form
+	private static final String REPORT_SELECT = "#crx_report_id";
+	private static final String COMPANY_SELECT = "#crx_report_company_id";
+	private static final String LEDGER_SELECT = "#crx_report_ledger_id";
+	private static final String REPORTING_SET_SELECT = "#crx_report_reporting_set_id";
+	private static final String CURRENCY_SELECT = "#crx_report_reporting_currency_code";
+	// Form fields that key a generation's latency; the reporting set stands in for the natural account set
+	private static final Map<String, String> LATENCY_FIELDS = latencyFields();
+
 	@FindBy(xpath = "//span[contains(text(), 'Report')]")
 	private WebElement reportMainMenu;
 
@@ -42,21 +56,6 @@ public class ReportsWriter extends BasePage {
 	@FindBy(xpath = "//select[@id='crx_report_company_id']//option")
 	private List<WebElement> companyDDOptions;
 
-	@FindBy(xpath = "//div[@id='crx_report_id_chosen']//a")
-	private WebElement reportDD;
-
-	@FindBy(xpath = "//div[@id='crx_report_id_chosen']//input")
-	private WebElement reportTB;
-
-	@FindBy(xpath = "//select[@id='crx_report_ledger_id']")
-	private WebElement ledgerDD;
-
-	@FindBy(xpath = "//select[@id='crx_report_reporting_set_id']")
-	private WebElement reportingSetDD;
-
-	@FindBy(xpath = "//select[@id='crx_report_reporting_currency_code']")
-	private WebElement reportingCurrencyDD;
-
 	@FindBy(xpath = "//select[@id='crx_report_budget_version_id']")
 	private WebElement reportingBudgetDD;
 
@@ -125,11 +124,14 @@ public class ReportsWriter extends BasePage {
 
 	private String lastSelectedCurrency;
 	private String lastSelectedLedger;
+	private ReportLatency.Timer pendingGeneration;
+	private final ChosenSelect chosen;
 
 	// Constructor
 	public ReportsWriter(WebDriver driver) {
 		super(driver);
 		PageFactory.initElements(driver, this);
+		chosen = new ChosenSelect(driver, Duration.ofMillis(explicitWaitMillis()));
 	}
 
 	// ============================================
@@ -180,22 +182,20 @@ public class ReportsWriter extends BasePage {
 	 * @param companyName - Company name to select
 	 */
 	public void generateReport(String reportType, String companyName) {
-		clickElement(reportDD);
-		reportTB.sendKeys(reportType);
-		reportTB.sendKeys(Keys.ENTER);
-		new Select(companyDD).selectByVisibleText(companyName);
-		waitForPageLoad();
-		wait.until(ExpectedConditions.visibilityOf(reportingSetDD));
-		Select ledgerSelect = new Select(ledgerDD);
-		ledgerSelect.selectByVisibleText("Default");
-		lastSelectedLedger = ledgerSelect.getFirstSelectedOption().getText();
-		new Select(reportingSetDD).selectByVisibleText("OECC");
-		Select currencySelect = new Select(reportingCurrencyDD);
-		currencySelect.selectByIndex(1);
-		lastSelectedCurrency = currencySelect.getFirstSelectedOption().getText();
+		Map<String, String> selected = chosen.apply(
+				Choice.of(REPORT_SELECT, reportType),
+				Choice.of(COMPANY_SELECT, companyName).awaiting(REPORTING_SET_SELECT),
+				Choice.of(LEDGER_SELECT, "Default"),
+				Choice.of(REPORTING_SET_SELECT, "OECC"),
+				Choice.atIndex(CURRENCY_SELECT, 1));
+		lastSelectedLedger = selected.get(LEDGER_SELECT);
+		lastSelectedCurrency = selected.get(CURRENCY_SELECT);
 		//new Select(reportingBudgetDD).selectByIndex(1);
 		startDate.sendKeys("04/01/2018");
 		endDate.sendKeys("03/31/2019");
+		Map<String, String> parameters = ReportLatency.readForm(driver, LATENCY_FIELDS);
+		parameters.putIfAbsent(ReportLatency.REPORT, reportType);
+		pendingGeneration = ReportLatency.start(parameters);
 		clickElement(generateReportButton);
 	}
 
@@ -211,18 +211,10 @@ public class ReportsWriter extends BasePage {
 
 	/**
 	 * Fill the Report (Chosen dropdown) field only.
-	 * Waits for the dropdown to close, confirming the selection was registered.
+	 * The selection is verified on both the select and the Chosen widget.
 	 */
 	public void fillReport(String reportType) {
-		wait.until(ExpectedConditions.elementToBeClickable(reportDD));
-		clickElement(reportDD);
-		wait.until(ExpectedConditions.visibilityOf(reportTB));
-		reportTB.sendKeys(reportType);
-		reportTB.sendKeys(Keys.ENTER);
-		// Wait for Chosen dropdown to close — confirmed by absence of 'chosen-with-drop' class
-		wait.until(ExpectedConditions.not(
-			ExpectedConditions.attributeContains(
-				org.openqa.selenium.By.id("crx_report_id_chosen"), "class", "chosen-with-drop")));
+		chosen.select(REPORT_SELECT, reportType);
 	}
 
 	/**
@@ -231,48 +223,35 @@ public class ReportsWriter extends BasePage {
 	 * e.g. when testing that Report is the first mandatory field.
 	 */
 	public void fillCompanyOnly(String companyName) {
-		wait.until(ExpectedConditions.elementToBeClickable(companyDD));
-		new Select(companyDD).selectByVisibleText(companyName);
-		waitForPageLoad();
+		chosen.select(COMPANY_SELECT, companyName);
 	}
 
 	/**
-	 * Fill the Company dropdown and wait for dependent fields to load.
+	 * Fill the Company dropdown and wait for the Reporting Set dropdown to repopulate.
 	 */
 	public void fillCompanyAndWait(String companyName) {
-		wait.until(ExpectedConditions.elementToBeClickable(companyDD));
-		new Select(companyDD).selectByVisibleText(companyName);
-		waitForPageLoad();
-		new org.openqa.selenium.support.ui.WebDriverWait(driver, java.time.Duration.ofSeconds(30))
-			.until(ExpectedConditions.elementToBeClickable(reportingSetDD));
+		chosen.apply(Choice.of(COMPANY_SELECT, companyName).awaiting(REPORTING_SET_SELECT));
 	}
 
 	/**
 	 * Fill the Ledger dropdown.
 	 */
 	public void fillLedger(String ledgerName) {
-		wait.until(ExpectedConditions.elementToBeClickable(ledgerDD));
-		Select ledgerSelect = new Select(ledgerDD);
-		ledgerSelect.selectByVisibleText(ledgerName);
-		lastSelectedLedger = ledgerSelect.getFirstSelectedOption().getText();
+		lastSelectedLedger = chosen.select(LEDGER_SELECT, ledgerName);
 	}
 
 	/**
 	 * Fill the Reporting Set dropdown.
 	 */
 	public void fillReportingSet(String reportingSet) {
-		wait.until(ExpectedConditions.elementToBeClickable(reportingSetDD));
-		new Select(reportingSetDD).selectByVisibleText(reportingSet);
+		chosen.select(REPORTING_SET_SELECT, reportingSet);
 	}
 
 	/**
 	 * Fill the Reporting Currency dropdown by visible text.
 	 */
 	public void fillCurrency(String currency) {
-		wait.until(ExpectedConditions.elementToBeClickable(reportingCurrencyDD));
-		Select currencySelect = new Select(reportingCurrencyDD);
-		currencySelect.selectByVisibleText(currency);
-		lastSelectedCurrency = currencySelect.getFirstSelectedOption().getText();
+		lastSelectedCurrency = chosen.select(CURRENCY_SELECT, currency);
 	}
 
 	/**
@@ -369,13 +348,24 @@ public class ReportsWriter extends BasePage {
 	/**
 	 * Switch to the new tab that opens directly after clicking Generate Report.
 	 * Waits up to 60 seconds for the new tab to appear, then switches to it.
+	 * The time from generateReport() to the loaded tab is recorded by ReportLatency.
 	 * @param parentWindow - Handle of the parent window captured before generateReport()
 	 */
 	public void switchToGeneratedReportTab(String parentWindow) {
-		new org.openqa.selenium.support.ui.WebDriverWait(driver, java.time.Duration.ofSeconds(60))
-			.until(ExpectedConditions.numberOfWindowsToBe(2));
-		switchToNewWindow(parentWindow);
-		waitForPageLoad();
+		ReportLatency.Timer timer = pendingGeneration;
+		pendingGeneration = null;
+		boolean generated = false;
+		try {
+			new org.openqa.selenium.support.ui.WebDriverWait(driver, java.time.Duration.ofSeconds(60))
+				.until(ExpectedConditions.numberOfWindowsToBe(2));
+			switchToNewWindow(parentWindow);
+			waitForPageLoad();
+			generated = true;
+		} finally {
+			if (timer != null) {
+				timer.stop(generated);
+			}
+		}
 	}
 
 	/**
@@ -581,4 +571,16 @@ public class ReportsWriter extends BasePage {
 		}
 		throw new RuntimeException("New window did not open within the expected time.");
 	}
+
+	private static Map<String, String> latencyFields() {
+		Map<String, String> fields = new LinkedHashMap<>();
+		fields.put(ReportLatency.REPORT, REPORT_SELECT);
+		fields.put(ReportLatency.COMPANY, COMPANY_SELECT);
+		fields.put(ReportLatency.LEDGER, LEDGER_SELECT);
+		fields.put(ReportLatency.CURRENCY, CURRENCY_SELECT);
+		fields.put(ReportLatency.NATURAL_ACCOUNT_SET, REPORTING_SET_SELECT);
+		fields.put(ReportLatency.START_DATE, "#datetimepicker1");
+		fields.put(ReportLatency.END_DATE, "#datetimepicker2");
+		return Collections.unmodifiableMap(fields);
+	}
 }
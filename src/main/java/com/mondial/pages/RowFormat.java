@@ -10,6 +10,7 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
+import com.mondial.utils.TestLog;
 
 /**
  * Row Format Page Object
@@ -18,6 +19,7 @@ import org.openqa.selenium.support.ui.Select;
 public class RowFormat extends BasePage {
 
     private JavascriptExecutor jse;
+    private final RowIndex listing;
 
     @FindBy(xpath = "//span[contains(text(), 'Report')]")
     private WebElement reportMenu;
@@ -90,6 +92,7 @@ public class RowFormat extends BasePage {
         super(driver);
         PageFactory.initElements(driver, this);
         jse = (JavascriptExecutor) driver;
+        listing = new RowIndex(driver, RowIndex.TABLE_ROWS);
     }
 
     // ============================================
@@ -165,9 +168,7 @@ public class RowFormat extends BasePage {
      * @return Updated name (original + "Updated")
      */
     public String editRowFormat(String name) {
-        WebElement editLink = driver.findElement(By.xpath(
-                "//table//tbody//td[contains(text(), '" + name
-                + "')]//preceding-sibling::td//div//a[1]"));
+        WebElement editLink = listing.get(name).getLink(0);
         editLink.click();
         wait.until(ExpectedConditions.visibilityOf(cancelBtn));
         String updatedName = name + "Updated";
@@ -185,9 +186,7 @@ public class RowFormat extends BasePage {
      * @return New copied name (original + "Copied")
      */
     public String copyRowFormat(String name) {
-        WebElement copyLink = driver.findElement(By.xpath(
-                "//table//tbody//td[contains(text(), '" + name
-                + "')]//preceding-sibling::td//div//a[2]"));
+        WebElement copyLink = listing.get(name).getLink(1);
         copyLink.click();
         wait.until(ExpectedConditions.visibilityOf(cancelBtn));
         String newName = name + "Copied";
@@ -207,9 +206,7 @@ public class RowFormat extends BasePage {
      * @param name - Name of the row format to delete
      */
     public void deleteRowFormat(String name) {
-        WebElement deleteLink = driver.findElement(By.xpath(
-                "//table//tbody//td[contains(text(), '" + name
-                + "')]//preceding-sibling::td//div//a[3]"));
+        WebElement deleteLink = listing.get(name).getLink(2);
         deleteLink.click();
         driver.switchTo().alert().accept();
         dismissAlert();
@@ -224,9 +221,7 @@ public class RowFormat extends BasePage {
         if (!verifyRecordPresent(name)) {
             return false;
         }
-        WebElement editLink = driver.findElement(By.xpath(
-                "//table//tbody//td[contains(text(), '" + name
-                + "')]//preceding-sibling::td//a[1]"));
+        WebElement editLink = listing.get(name).getLink(0);
         editLink.click();
         return true;
     }
@@ -289,9 +284,7 @@ public class RowFormat extends BasePage {
      */
     public boolean verifyRecordPresent(String name) {
         waitForPageLoad();
-        return driver.findElements(By.xpath(
-                "//table//tbody//td[contains(text(), '" + name + "')]"))
-                .size() > 0;
+        return listing.contains(name);
     }
 
     /**
@@ -334,7 +327,7 @@ public class RowFormat extends BasePage {
             java.io.File[] matches = dir.listFiles((d, name) ->
                     name.toLowerCase().contains(keyword.toLowerCase()) && name.endsWith(".csv"));
             if (matches != null && matches.length > 0) {
-                System.out.println("Found downloaded file: " + matches[0].getAbsolutePath());
+                TestLog.info("Found downloaded file: " + matches[0].getAbsolutePath());
                 return matches[0].getAbsolutePath();
             }
             try {
@@ -344,7 +337,7 @@ public class RowFormat extends BasePage {
                 break;
             }
         }
-        System.out.println("No file containing '" + keyword + "' found in " + downloadDir);
+        TestLog.info("No file containing '" + keyword + "' found in " + downloadDir);
         return null;
     }
 
@@ -0,0 +1,236 @@
+package com.mondial.pages;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.NoSuchElementException;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+
+/**
+ * Index of the rows of a listing table or AG Grid, read in one script call.
+ *
+ * Each row comes back with its text, cell texts and action handles (links, buttons,
+ * selects, icons and grid cells keyed by tooltip title, text or icon class), so finding
+ * a record and clicking its Edit/Delete link costs one round trip instead of one
+ * getAttribute per row. The browser keeps a MutationObserver on the table and the index
+ * is only re-read after the table changed (or the page navigated); otherwise the lookup
+ * is answered from the cached rows.
+ *
+ * Row and action handles are valid until the table changes, take a fresh lookup after
+ * any action that edits or deletes rows.
+ */
+public class RowIndex {
+	public static final String TABLE_ROWS = "table tbody tr";
+	public static final String STRIPED_TABLE_ROWS = "table.table-striped tr";
+	public static final String GRID_ROWS = "div[ref='eContainer'] div[role='row']";
+
+	private static final String INDEX_SCRIPT =
+			"var selector = arguments[0], known = arguments[1];" +
+			"var registry = window.__mondialRowIndex = window.__mondialRowIndex || {};" +
+			"var state = registry[selector];" +
+			"if (state && state.token === known && !state.dirty && state.root.isConnected) { return { token: known }; }" +
+			"if (state) { state.observer.disconnect(); }" +
+			"var rows = document.querySelectorAll(selector);" +
+			"var first = rows.length ? rows[0] : null;" +
+			"var root = first ? (first.closest('table') || first.closest('.ag-root-wrapper') || first.parentNode) : document.body;" +
+			"state = registry[selector] = { token: Date.now() + '-' + Math.random(), dirty: false, root: root };" +
+			"state.observer = new MutationObserver(function () { state.dirty = true; });" +
+			"state.observer.observe(root, { childList: true, subtree: true, characterData: true });" +
+			"function text(el) { return (el.innerText || el.textContent || '').trim(); }" +
+			// Innermost element carrying the whole text, e.g. the clickable div inside a grid cell
+			"function deepest(el) {" +
+			"  while (el.children.length === 1 && text(el.children[0]) === text(el)) { el = el.children[0]; }" +
+			"  return el;" +
+			"}" +
+			"function label(el) {" +
+			"  var title = el.getAttribute('data-original-title') || el.getAttribute('title') || el.getAttribute('aria-label');" +
+			"  if (title) { return title.trim(); }" +
+			"  if (el.tagName === 'SELECT') { return 'select'; }" +
+			"  if (el.tagName === 'INPUT') { return el.type; }" +
+			"  var icon = /\\b(ti|fa)-[\\w-]+/.exec(typeof el.className === 'string' ? el.className : '');" +
+			"  if (el.tagName === 'I' && icon) { return icon[0]; }" +
+			"  var own = text(el);" +
+			"  return own.length > 0 && own.length <= 40 ? own : null;" +
+			"}" +
+			"var result = [];" +
+			"for (var i = 0; i < rows.length; i++) {" +
+			"  var row = rows[i], cells = [], actions = [], links = [];" +
+			"  for (var c = 0; c < row.children.length; c++) { cells.push(text(row.children[c])); }" +
+			"  var candidates = row.querySelectorAll(\"a, button, select, input[type='checkbox'], i, [role='gridcell']\");" +
+			"  for (var k = 0; k < candidates.length; k++) {" +
+			"    var el = candidates[k].getAttribute('role') === 'gridcell' ? deepest(candidates[k]) : candidates[k];" +
+			"    var name = label(el);" +
+			"    if (name) { actions.push({ label: name, element: el }); }" +
+			"    if (el.tagName === 'A') { links.push(el); }" +
+			"  }" +
+			"  result.push({ element: row, text: text(row), cells: cells, actions: actions, links: links });" +
+			"}" +
+			"return { token: state.token, rows: result };";
+
+	private final WebDriver driver;
+	private final String rowSelector;
+	private String token;
+	private List<Row> rows = Collections.emptyList();
+
+	/**
+	 * One indexed row with its action handles
+	 */
+	public static class Row {
+		private final WebElement element;
+		private final String text;
+		private final List<String> cells;
+		private final Map<String, WebElement> actions;
+		private final List<WebElement> links;
+
+		private Row(WebElement element, String text, List<String> cells, Map<String, WebElement> actions,
+				List<WebElement> links) {
+			this.element = element;
+			this.text = text;
+			this.cells = cells;
+			this.actions = actions;
+			this.links = links;
+		}
+
+		public WebElement getElement() {
+			return element;
+		}
+
+		public String getText() {
+			return text;
+		}
+
+		public List<String> getCells() {
+			return cells;
+		}
+
+		/**
+		 * Get an action of the row by tooltip title, text, icon class ("ti-trash"), or "select"
+		 * @param label - Action label, compared ignoring case
+		 * @return Action element, or null if the row has no such action
+		 */
+		public WebElement getAction(String label) {
+			for (Map.Entry<String, WebElement> action : actions.entrySet()) {
+				if (action.getKey().equalsIgnoreCase(label)) {
+					return action.getValue();
+				}
+			}
+			return null;
+		}
+
+		/**
+		 * Get the nth link of the row, for action columns without titles
+		 * @param position - Zero based position among the row's links
+		 * @return Link element, or null if the row has fewer links
+		 */
+		public WebElement getLink(int position) {
+			return position < links.size() ? links.get(position) : null;
+		}
+	}
+
+	/**
+	 * @param driver - Session driver
+	 * @param rowSelector - CSS selector of the rows, e.g. TABLE_ROWS or GRID_ROWS
+	 */
+	public RowIndex(WebDriver driver, String rowSelector) {
+		this.driver = driver;
+		this.rowSelector = rowSelector;
+	}
+
+	/**
+	 * Find the first row whose text contains the given text
+	 * @param text - Name or other text identifying the record
+	 * @return Row, or null if no row matches
+	 */
+	public Row find(String text) {
+		for (Row row : rows()) {
+			if (row.text.contains(text)) {
+				return row;
+			}
+		}
+		return null;
+	}
+
+	/**
+	 * Get the first row whose text contains the given text
+	 * @param text - Name or other text identifying the record
+	 * @return Row
+	 * @throws NoSuchElementException if no row matches
+	 */
+	public Row get(String text) {
+		Row row = find(text);
+		if (row == null) {
+			throw new NoSuchElementException("No row containing '" + text + "' in " + rowSelector);
+		}
+		return row;
+	}
+
+	/**
+	 * Find the last row whose text contains the given text (newest record in append-ordered tables)
+	 * @param text - Name or other text identifying the record
+	 * @return Row, or null if no row matches
+	 */
+	public Row findLast(String text) {
+		List<Row> current = rows();
+		for (int i = current.size() - 1; i >= 0; i--) {
+			if (current.get(i).text.contains(text)) {
+				return current.get(i);
+			}
+		}
+		return null;
+	}
+
+	public boolean contains(String text) {
+		return find(text) != null;
+	}
+
+	/**
+	 * Map of the rows by the text of one cell, e.g. the name column
+	 * @param column - Zero based cell position
+	 * @return Cell text to row, in table order (first row wins on duplicates)
+	 */
+	public Map<String, Row> byCell(int column) {
+		Map<String, Row> map = new LinkedHashMap<>();
+		for (Row row : rows()) {
+			if (column < row.cells.size()) {
+				map.putIfAbsent(row.cells.get(column), row);
+			}
+		}
+		return map;
+	}
+
+	/**
+	 * Current rows, re-read only if the table changed since the last call
+	 * @return Indexed rows in table order
+	 */
+	@SuppressWarnings("unchecked")
+	public List<Row> rows() {
+		Map<String, Object> result = (Map<String, Object>) ((JavascriptExecutor) driver)
+				.executeScript(INDEX_SCRIPT, rowSelector, token);
+		token = (String) result.get("token");
+		if (result.containsKey("rows")) {
+			List<Row> fresh = new ArrayList<>();
+			for (Map<String, Object> row : (List<Map<String, Object>>) result.get("rows")) {
+				Map<String, WebElement> actions = new LinkedHashMap<>();
+				for (Map<String, Object> action : (List<Map<String, Object>>) row.get("actions")) {
+					actions.putIfAbsent((String) action.get("label"), (WebElement) action.get("element"));
+				}
+				fresh.add(new Row((WebElement) row.get("element"), (String) row.get("text"),
+						(List<String>) row.get("cells"), actions, (List<WebElement>) row.get("links")));
+			}
+			rows = fresh;
+		}
+		return rows;
+	}
+
+	/**
+	 * Drop the cached rows so the next lookup re-reads the table
+	 */
+	public void invalidate() {
+		token = null;
+	}
+}
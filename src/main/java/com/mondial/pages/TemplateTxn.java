@@ -71,9 +71,6 @@ public class TemplateTxn extends BasePage {
 	@FindBy(linkText = "Cancel")
 	private WebElement cancelBtn;
 
-	@FindBy(xpath = "//div[@class='alert alert-success']['Template accounting transaction was successfully created.']")
-	private WebElement successMessage;
-
 	@FindBy(xpath = "//div[@class='alert alert-warning']")
 	private WebElement warningMessage;
 
@@ -83,9 +80,6 @@ public class TemplateTxn extends BasePage {
 	@FindBy(xpath = "//input[contains(@name, '[account_name]')]")
 	private WebElement accountTb;
 
-	@FindBy(xpath = "//table//tr")
-	private List<WebElement> userTable;
-
 	@FindBy(xpath = "//h4[contains(text(), 'Pending Translation Adjustment Templates')]//preceding-sibling::table//tr")
 	private List<WebElement> pendingApiTable;
 
@@ -166,10 +160,13 @@ public class TemplateTxn extends BasePage {
 	@FindBy(xpath = "//a[@id='downloadTemplateCsvFile']")
 	private WebElement downloadTemplate;
 
+	private final RowIndex records;
+
 	// Constructor
 	public TemplateTxn(WebDriver driver) {
 		super(driver);
 		PageFactory.initElements(driver, this);
+		records = new RowIndex(driver, RowIndex.TABLE_ROWS);
 	}
 
 	// ============================================
@@ -280,20 +277,15 @@ public class TemplateTxn extends BasePage {
 	 * @param parentWindow - Parent window handle for window switching
 	 */
 	public void updateTemplateTxn(String currentDesc, String updatedDesc, String parentWindow) {
-		for (int i = 0; i < userTable.size(); i++) {
-			if (userTable.get(i).getAttribute("innerText").contains(currentDesc)) {
-				WebElement clickRecord = userTable.get(i).findElement(By.xpath(
-						"//td[contains(text(), '" + currentDesc
-						+ "')]//following-sibling::td//a[@data-original-title='Edit']"));
-				clickRecord.click();
-				switchToChildWindow(parentWindow);
-				waitForSpinner();
-				description.clear();
-				description.sendKeys(updatedDesc);
-				waitForSpinner();
-				clickElement(updateBtn);
-				return;
-			}
+		RowIndex.Row row = records.find(currentDesc);
+		if (row != null) {
+			row.getAction("Edit").click();
+			switchToChildWindow(parentWindow);
+			waitForSpinner();
+			description.clear();
+			description.sendKeys(updatedDesc);
+			waitForSpinner();
+			clickElement(updateBtn);
 		}
 	}
 
@@ -303,16 +295,11 @@ public class TemplateTxn extends BasePage {
 	 * @param parentWindow - Parent window handle for window switching
 	 */
 	public void clickEditRecord(String acDescription, String parentWindow) {
-		for (int i = 0; i < userTable.size(); i++) {
-			if (userTable.get(i).getAttribute("innerText").contains(acDescription)) {
-				WebElement clickRecord = userTable.get(i).findElement(By.xpath(
-						"//td[contains(text(), '" + acDescription
-						+ "')]//following-sibling::td//a[@data-original-title='Edit']"));
-				clickRecord.click();
-				switchToChildWindow(parentWindow);
-				waitForSpinner();
-				return;
-			}
+		RowIndex.Row row = records.find(acDescription);
+		if (row != null) {
+			row.getAction("Edit").click();
+			switchToChildWindow(parentWindow);
+			waitForSpinner();
 		}
 	}
 
@@ -321,16 +308,11 @@ public class TemplateTxn extends BasePage {
 	 * @param txnDescription - Description of the record to delete
 	 */
 	public void deleteTemplateTxn(String txnDescription) {
-		for (int i = 0; i < userTable.size(); i++) {
-			if (userTable.get(i).getAttribute("innerText").contains(txnDescription)) {
-				WebElement deleteBtn = userTable.get(i).findElement(By.xpath(
-						"//td[contains(text(), '" + txnDescription
-						+ "')]//parent::tr//i[@class='ti-trash ']"));
-				deleteBtn.click();
-				Alert alert = driver.switchTo().alert();
-				alert.accept();
-				return;
-			}
+		RowIndex.Row row = records.find(txnDescription);
+		if (row != null) {
+			row.getAction("ti-trash").click();
+			Alert alert = driver.switchTo().alert();
+			alert.accept();
 		}
 	}
 
@@ -456,12 +438,7 @@ public class TemplateTxn extends BasePage {
 	 */
 	public boolean isRecordPresent(String txnDescription) {
 		((JavascriptExecutor) driver).executeScript("window.scrollBy(0,document.body.scrollHeight)");
-		for (int i = 0; i < userTable.size(); i++) {
-			if (userTable.get(i).getAttribute("innerText").contains(txnDescription)) {
-				return true;
-			}
-		}
-		return false;
+		return records.contains(txnDescription);
 	}
 
 	/**
@@ -483,12 +460,11 @@ public class TemplateTxn extends BasePage {
 	}
 
 	/**
-	 * Get success message text
-	 * @return Success message text
+	 * Get success message text from the flash message buffer
+	 * @return Success message text or empty string if not found
 	 */
 	public String getSuccessMessage() {
-		wait.until(ExpectedConditions.visibilityOf(successMessage));
-		return successMessage.getAttribute("innerText");
+		return awaitFlashMessage("success");
 	}
 
 	/**
@@ -9,6 +9,7 @@ import org.openqa.selenium.support.FindBy;
 import org.openqa.selenium.support.PageFactory;
 import org.openqa.selenium.support.ui.ExpectedConditions;
 import org.openqa.selenium.support.ui.Select;
+import com.mondial.utils.TestLog;
 
 /**
  * User Roles Page Object
@@ -37,7 +38,7 @@ public class UserRolesPage extends BasePage {
     public void navigateToUserRoles(String userEmail) {
         this.currentUserEmail = userEmail;
         waitForPageLoad();
-        System.out.println("[UserRolesPage] Current URL before navigation: " + driver.getCurrentUrl());
+        TestLog.info("[UserRolesPage] Current URL before navigation: " + driver.getCurrentUrl());
 
         // Expand Enterprise Setup sidebar menu
         WebElement enterpriseSetup = wait.until(ExpectedConditions.elementToBeClickable(
@@ -57,7 +58,7 @@ public class UserRolesPage extends BasePage {
                 .until(ExpectedConditions.elementToBeClickable(
                         By.xpath("//div[@class='container']//a[contains(.,' User')]")));
         waitForPageLoad();
-        System.out.println("[UserRolesPage] Users page loaded. URL: " + driver.getCurrentUrl());
+        TestLog.info("[UserRolesPage] Users page loaded. URL: " + driver.getCurrentUrl());
     }
 
     /**
@@ -78,7 +79,7 @@ public class UserRolesPage extends BasePage {
         wait.until(ExpectedConditions.elementToBeClickable(dropdown));
         new Select(dropdown).selectByVisibleText(role);
         waitForPageLoad();
-        System.out.println("[UserRolesPage] Assigned role '" + role + "' for company: " + companyName);
+        TestLog.info("[UserRolesPage] Assigned role '" + role + "' for company: " + companyName);
     }
 
     /**
@@ -122,11 +123,11 @@ public class UserRolesPage extends BasePage {
     private int getCompanyColumnIndex(String companyName) {
         List<WebElement> headers = driver.findElements(
                 By.xpath("//table[@class='table table-striped']//thead//th"));
-        System.out.println("[UserRolesPage] Table headers found (" + headers.size() + "):");
+        TestLog.info("[UserRolesPage] Table headers found (" + headers.size() + "):");
         for (int i = 0; i < headers.size(); i++) {
-            System.out.println("  [" + (i + 1) + "] " + headers.get(i).getText());
+            TestLog.info("  [" + (i + 1) + "] " + headers.get(i).getText());
             if (headers.get(i).getText().contains(companyName)) {
-                System.out.println("[UserRolesPage] Found company '" + companyName
+                TestLog.info("[UserRolesPage] Found company '" + companyName
                         + "' at column index " + (i + 1));
                 return i + 1;
             }
@@ -134,9 +135,9 @@ public class UserRolesPage extends BasePage {
         // Also dump all rows to understand structure
         List<WebElement> rows = driver.findElements(
                 By.xpath("//table[@class='table table-striped']//tbody//tr"));
-        System.out.println("[UserRolesPage] Table rows found (" + rows.size() + "):");
+        TestLog.info("[UserRolesPage] Table rows found (" + rows.size() + "):");
         for (int i = 0; i < Math.min(rows.size(), 5); i++) {
-            System.out.println("  row[" + (i + 1) + "]: " + rows.get(i).getText());
+            TestLog.info("  row[" + (i + 1) + "]: " + rows.get(i).getText());
         }
         throw new RuntimeException("[UserRolesPage] Company column not found in header for: " + companyName);
     }
@@ -49,9 +49,6 @@ public class UsersPage extends BasePage {
 	@FindBy(xpath = "//table//tbody//tr//td[2]")
 	private List<WebElement> emailColumn;
 
-	@FindBy(xpath = "//div[@class='alert alert-success']")
-	private WebElement successMessage;
-
 	private static final By FAILURE_MSG_BY = By.xpath("//div[@class='alert alert-danger']");
 
 	// Constructor
@@ -254,19 +251,18 @@ public class UsersPage extends BasePage {
 	}
 
 	/**
-	 * Get the success message text
-	 * @return Success message inner text
+	 * Get success message text from the flash message buffer
+	 * @return Success message text or empty string if not found
 	 */
 	public String getSuccessMessage() {
-		wait.until(ExpectedConditions.visibilityOf(successMessage));
-		return successMessage.getAttribute("innerText");
+		return awaitFlashMessage("success");
 	}
 
 	/**
 	 * Wait for the success alert to disappear
 	 */
 	public void waitForSuccessMessageToDisappear() {
-		dismissAlert();
+		dismissFlashMessages();
 	}
 
 	/**
@@ -0,0 +1,18 @@
+package com.mondial.utils;
+
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Opt a test class back in to resource categories blocked by the lean rendering profile.
+ * Categories: analytics, helpWidget, fonts, images (see ResourceBlocker).
+ *
+ * Example: {@code @AllowResources({"helpWidget", "fonts"})}
+ */
+@Retention(RetentionPolicy.RUNTIME)
+@Target(ElementType.TYPE)
+public @interface AllowResources {
+    String[] value();
+}
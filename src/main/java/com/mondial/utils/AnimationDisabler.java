@@ -0,0 +1,51 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * Turns off CSS transitions/animations, smooth scrolling, jQuery fx and Bootstrap
+ * transition emulation in every document of a Chrome or Edge session, so fades,
+ * modals and alerts reach their final state immediately and visibility or
+ * clickability waits resolve on the first poll.
+ */
+public class AnimationDisabler {
+
+    private static final String SCRIPT =
+            "(function () {" +
+            "  var css = '*, *::before, *::after {' +" +
+            "    'transition: none !important; transition-duration: 0s !important; transition-delay: 0s !important;' +" +
+            "    'animation: none !important; animation-duration: 0s !important; animation-delay: 0s !important;' +" +
+            "    'scroll-behavior: auto !important; }';" +
+            "  function addStyle() {" +
+            "    if (document.getElementById('mondial-no-animations') || !document.documentElement) { return; }" +
+            "    var style = document.createElement('style');" +
+            "    style.id = 'mondial-no-animations';" +
+            "    style.textContent = css;" +
+            "    (document.head || document.documentElement).appendChild(style);" +
+            "  }" +
+            "  function disableFx() {" +
+            "    addStyle();" +
+            "    if (window.jQuery) {" +
+            "      jQuery.fx.off = true;" +
+            "      if (jQuery.support) { jQuery.support.transition = false; }" +
+            "    }" +
+            "  }" +
+            // <html> may already exist when the script runs; otherwise add the style as soon as it does
+            "  addStyle();" +
+            "  if (!document.getElementById('mondial-no-animations')) {" +
+            "    new MutationObserver(function (mutations, observer) {" +
+            "      if (document.documentElement) { addStyle(); observer.disconnect(); }" +
+            "    }).observe(document, { childList: true });" +
+            "  }" +
+            "  document.addEventListener('DOMContentLoaded', disableFx);" +
+            // Bootstrap 3 sets $.support.transition in its own ready handler, reset it after load
+            "  window.addEventListener('load', disableFx);" +
+            "})();";
+
+    private AnimationDisabler() {
+    }
+
+    public static void apply(WebDriver driver) {
+        DevToolsSupport.addScriptOnNewDocument(driver, SCRIPT);
+    }
+}
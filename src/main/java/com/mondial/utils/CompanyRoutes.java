@@ -0,0 +1,169 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.By;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+/**
+ * Per-session cache of the links in the company listing tables.
+ *
+ * Every company row carries tooltip links (Chart of Accounts, Customers, Reporting Segments, ...).
+ * The first lookup reads all rows of the listing on screen in one script call, later lookups
+ * are answered from the cache, so page objects can open a company page with a single
+ * driver.get instead of scrolling the table and clicking the tooltip link.
+ *
+ * Lookups that cannot be resolved return null and callers fall back to the UI path. Such misses
+ * are remembered for the listing document they were read from, so asking again on the same
+ * listing does not read the table again; a newly loaded listing (e.g. after creating a company)
+ * is read afresh.
+ * Set deepLinkNavigation=false to always use the UI path (menu navigation tests).
+ */
+public class CompanyRoutes {
+    private static final String SCRAPE_SCRIPT =
+            "var routes = [];" +
+            "var rows = document.querySelectorAll('table.table-striped tbody tr');" +
+            "for (var i = 0; i < rows.length; i++) {" +
+            "  var links = {}, anchors = rows[i].querySelectorAll('a[href]');" +
+            // Bootstrap tooltips move title to data-original-title once initialised
+            "  for (var j = 0; j < anchors.length; j++) {" +
+            "    var title = anchors[j].getAttribute('data-original-title') || anchors[j].getAttribute('title');" +
+            "    if (title && anchors[j].href.indexOf('javascript:') !== 0) { links[title] = anchors[j].href; }" +
+            "  }" +
+            "  routes.push({ text: rows[i].innerText, links: links });" +
+            "}" +
+            "return routes;";
+    // Identifies the document on screen; a reload of the same listing gets a new time origin
+    private static final String DOCUMENT_SCRIPT = "return location.pathname + '@' + performance.timeOrigin;";
+    // True once the navigated company page has loaded at its own path, not a redirect
+    private static final String ARRIVED_SCRIPT =
+            "var a = document.createElement('a'); a.href = arguments[0];" +
+            "return document.readyState === 'complete' && location.pathname === a.pathname;";
+
+    private final boolean enabled;
+    private final Duration pageLoadTimeout;
+    // Row text -> link title -> absolute URL, in table order
+    private final Map<String, Map<String, String>> rows = new LinkedHashMap<>();
+    // Lookups the listing document in missDocument could not answer
+    private final Set<String> misses = new HashSet<>();
+    private String missDocument;
+
+    public CompanyRoutes(boolean enabled, Duration pageLoadTimeout) {
+        this.enabled = enabled;
+        this.pageLoadTimeout = pageLoadTimeout;
+    }
+
+    /**
+     * Open a company's page directly when its link is known, returning once the page has loaded
+     * @param driver Session driver
+     * @param companyName Company name as shown in the listing
+     * @param linkTitle Tooltip title of the link, e.g. "Chart of Accounts"
+     * @return true if navigated, false if the caller has to use the UI path
+     */
+    public boolean navigate(WebDriver driver, String companyName, String linkTitle) {
+        String url = resolve(driver, companyName, linkTitle);
+        if (url == null) {
+            return false;
+        }
+        // get() returns at once under page load strategy none; wait for the company page itself
+        WebElement previous = driver.findElement(By.tagName("html"));
+        driver.get(url);
+        WebDriverWait wait = new WebDriverWait(driver, pageLoadTimeout);
+        wait.until(ExpectedConditions.stalenessOf(previous));
+        wait.until(d -> Boolean.TRUE.equals(((JavascriptExecutor) d).executeScript(ARRIVED_SCRIPT, url)));
+        TestLog.info("✓ Opened " + linkTitle + " for " + companyName + " by deep link");
+        return true;
+    }
+
+    /**
+     * Look up the URL of a company link, reading the listing on screen if the cache cannot answer
+     * @param driver Session driver
+     * @param companyName Company name as shown in the listing
+     * @param linkTitle Tooltip title of the link
+     * @return Absolute URL, or null if unknown or deep linking is disabled
+     */
+    public String resolve(WebDriver driver, String companyName, String linkTitle) {
+        if (!enabled) {
+            return null;
+        }
+        String url = lookup(companyName, linkTitle);
+        if (url != null) {
+            return url;
+        }
+        String miss = companyName + "\n" + linkTitle;
+        String document = currentDocument(driver);
+        if (!Objects.equals(document, missDocument)) {
+            misses.clear();
+            missDocument = document;
+        } else if (document != null && misses.contains(miss)) {
+            return null;
+        }
+        if (scrape(driver) > 0) {
+            url = lookup(companyName, linkTitle);
+        }
+        if (url == null) {
+            misses.add(miss);
+        }
+        return url;
+    }
+
+    /**
+     * Add every row of the company listing currently on screen to the cache
+     * @param driver Session driver
+     * @return Number of rows read
+     */
+    @SuppressWarnings("unchecked")
+    public int scrape(WebDriver driver) {
+        long started = System.currentTimeMillis();
+        List<Map<String, Object>> scraped;
+        try {
+            scraped = (List<Map<String, Object>>) ((JavascriptExecutor) driver).executeScript(SCRAPE_SCRIPT);
+        } catch (Exception e) {
+            TestLog.info("Company routes could not be read: " + e.getMessage());
+            return 0;
+        }
+        for (Map<String, Object> row : scraped) {
+            Map<String, Object> links = (Map<String, Object>) row.get("links");
+            if (links.isEmpty()) {
+                continue;
+            }
+            Map<String, String> titles = rows.computeIfAbsent(String.valueOf(row.get("text")), key -> new LinkedHashMap<>());
+            for (Map.Entry<String, Object> link : links.entrySet()) {
+                titles.put(link.getKey(), String.valueOf(link.getValue()));
+            }
+        }
+        if (!scraped.isEmpty()) {
+            TestLog.info("Company routes read: " + scraped.size() + " rows in "
+                    + (System.currentTimeMillis() - started) + " ms");
+        }
+        return scraped.size();
+    }
+
+    private String currentDocument(WebDriver driver) {
+        try {
+            return String.valueOf(((JavascriptExecutor) driver).executeScript(DOCUMENT_SCRIPT));
+        } catch (Exception e) {
+            return null;
+        }
+    }
+
+    private String lookup(String companyName, String linkTitle) {
+        // Same row match as the UI path: the row text contains the company name
+        for (Map.Entry<String, Map<String, String>> row : rows.entrySet()) {
+            if (row.getKey().contains(companyName) && row.getValue().containsKey(linkTitle)) {
+                return row.getValue().get(linkTitle);
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,301 @@
+package com.mondial.utils;
+
+import java.io.FileInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.MalformedURLException;
+import java.net.URL;
+import java.time.Duration;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Properties;
+import java.util.TreeSet;
+
+/**
+ * Immutable configuration loaded once per JVM.
+ *
+ * A key resolves through four layers, first non-empty value wins:
+ * system property (-Dkey=value), environment variable MONDIAL_&lt;KEY&gt; (explicitWait is
+ * MONDIAL_EXPLICIT_WAIT, base.url is MONDIAL_BASE_URL), the properties file picked by the
+ * os property (ubantu-config.properties, windows-config.properties, else config.properties),
+ * then the built-in defaults. Set configDump=true to print every value with its source.
+ *
+ * System properties are captured when the snapshot loads; code that changes them at runtime
+ * (the PF_ benchmarks) calls reload() to publish a new snapshot.
+ */
+public final class ConfigSnapshot {
+    private static final String RESOURCES = "src/main/resources/";
+    private static final String DEFAULT_FILE = "config.properties";
+    private static final String ENV_PREFIX = "MONDIAL_";
+    private static final Map<String, String> DEFAULTS = defaults();
+
+    private static volatile ConfigSnapshot current;
+
+    private final Map<String, String> systemProperties;
+    private final Map<String, String> environment;
+    private final Map<String, String> file;
+    private final String fileName;
+
+    private ConfigSnapshot(Map<String, String> systemProperties, Map<String, String> environment,
+            Map<String, String> file, String fileName) {
+        this.systemProperties = systemProperties;
+        this.environment = environment;
+        this.file = file;
+        this.fileName = fileName;
+    }
+
+    /**
+     * @return The JVM's configuration, loaded on first use
+     */
+    public static ConfigSnapshot get() {
+        ConfigSnapshot snapshot = current;
+        if (snapshot == null) {
+            synchronized (ConfigSnapshot.class) {
+                snapshot = current;
+                if (snapshot == null) {
+                    snapshot = load();
+                    current = snapshot;
+                }
+            }
+        }
+        return snapshot;
+    }
+
+    /**
+     * Load the layers again and publish the new snapshot, e.g. after System.setProperty
+     * @return The new snapshot
+     */
+    public static synchronized ConfigSnapshot reload() {
+        ConfigSnapshot snapshot = load();
+        current = snapshot;
+        return snapshot;
+    }
+
+    private static ConfigSnapshot load() {
+        long started = System.currentTimeMillis();
+        Map<String, String> systemProperties = new HashMap<>();
+        for (String name : System.getProperties().stringPropertyNames()) {
+            systemProperties.put(name, System.getProperty(name));
+        }
+        Map<String, String> environment = new HashMap<>();
+        for (Map.Entry<String, String> variable : System.getenv().entrySet()) {
+            if (variable.getKey().startsWith(ENV_PREFIX)) {
+                environment.put(variable.getKey(), variable.getValue());
+            }
+        }
+
+        String os = systemProperties.get("os");
+        if (os == null || os.isEmpty()) {
+            os = environment.get(ENV_PREFIX + "OS");
+        }
+        String fileName;
+        if (os != null && os.equalsIgnoreCase("ubuntu")) {
+            fileName = "ubantu-config.properties";
+        } else if (os != null && os.equalsIgnoreCase("windows")) {
+            fileName = "windows-config.properties";
+        } else {
+            fileName = DEFAULT_FILE;
+        }
+        Properties properties = new Properties();
+        try {
+            read(fileName, properties);
+        } catch (IOException e) {
+            System.out.println("Could not load " + RESOURCES + fileName + ", loading default config.properties");
+            fileName = DEFAULT_FILE;
+            try {
+                read(fileName, properties);
+            } catch (IOException ex) {
+                throw new RuntimeException("Failed to load any config.properties file", ex);
+            }
+        }
+        Map<String, String> file = new HashMap<>();
+        for (String name : properties.stringPropertyNames()) {
+            file.put(name, properties.getProperty(name).trim());
+        }
+
+        ConfigSnapshot snapshot = new ConfigSnapshot(Collections.unmodifiableMap(systemProperties),
+                Collections.unmodifiableMap(environment), Collections.unmodifiableMap(file), fileName);
+        System.out.println("Loaded configuration from: " + RESOURCES + fileName + " ("
+                + (System.currentTimeMillis() - started) + " ms)");
+        if (snapshot.getBoolean("configDump")) {
+            System.out.println(snapshot.describe());
+        }
+        return snapshot;
+    }
+
+    private static void read(String fileName, Properties properties) throws IOException {
+        try (InputStream in = new FileInputStream(RESOURCES + fileName)) {
+            properties.load(in);
+        }
+    }
+
+    private static Map<String, String> defaults() {
+        Map<String, String> defaults = new HashMap<>();
+        defaults.put("browser", "chrome");
+        defaults.put("headless", "false");
+        defaults.put("os", "windows");
+        defaults.put("implicitWait", "10");
+        defaults.put("explicitWait", "20");
+        defaults.put("pageLoadTimeout", "30");
+        defaults.put("captureScreenshotOnFailure", "true");
+        defaults.put("deepLinkNavigation", "true");
+        defaults.put("bulkDeleteConcurrency", "4");
+        defaults.put("fixtureConcurrency", "4");
+        defaults.put("driverResolution", "auto");
+        defaults.put("sharedDriverService", "true");
+        defaults.put("prewarmSessions", "0");
+        defaults.put("prewarmMaxAgeSeconds", "600");
+        defaults.put("configDump", "false");
+        defaults.put("logLevel", "info");
+        return Collections.unmodifiableMap(defaults);
+    }
+
+    /**
+     * @param key Property key, e.g. explicitWait
+     * @return Environment variable for the key, e.g. MONDIAL_EXPLICIT_WAIT
+     */
+    static String environmentName(String key) {
+        StringBuilder name = new StringBuilder(ENV_PREFIX);
+        for (int i = 0; i < key.length(); i++) {
+            char c = key.charAt(i);
+            if (Character.isUpperCase(c) && i > 0 && Character.isLowerCase(key.charAt(i - 1))) {
+                name.append('_');
+            }
+            name.append(Character.isLetterOrDigit(c) ? Character.toUpperCase(c) : '_');
+        }
+        return name.toString();
+    }
+
+    /**
+     * @param key Property key
+     * @return Resolved value, or null when no layer has the key
+     */
+    public String getString(String key) {
+        String value = systemProperties.get(key);
+        if (value != null && !value.isEmpty()) {
+            return value;
+        }
+        value = environment.get(environmentName(key));
+        if (value != null && !value.isEmpty()) {
+            return value;
+        }
+        value = file.get(key);
+        if (value != null) {
+            return value;
+        }
+        return DEFAULTS.get(key);
+    }
+
+    /**
+     * @param key Property key
+     * @return Where the key's value comes from, e.g. "file ubantu-config.properties"
+     */
+    public String sourceOf(String key) {
+        String value = systemProperties.get(key);
+        if (value != null && !value.isEmpty()) {
+            return "system property";
+        }
+        value = environment.get(environmentName(key));
+        if (value != null && !value.isEmpty()) {
+            return "environment " + environmentName(key);
+        }
+        if (file.containsKey(key)) {
+            return "file " + fileName;
+        }
+        return DEFAULTS.containsKey(key) ? "default" : "unset";
+    }
+
+    /**
+     * @param key Property key
+     * @param defaultValue Value when the key is unset or blank
+     * @return Integer value
+     */
+    public int getInt(String key, int defaultValue) {
+        String value = getString(key);
+        if (value == null || value.trim().isEmpty()) {
+            return defaultValue;
+        }
+        try {
+            return Integer.parseInt(value.trim());
+        } catch (NumberFormatException e) {
+            throw new IllegalStateException("Config " + key + "=" + value + " (" + sourceOf(key)
+                    + ") is not a whole number");
+        }
+    }
+
+    /**
+     * @param key Property key
+     * @return true only for "true", ignoring case
+     */
+    public boolean getBoolean(String key) {
+        return Boolean.parseBoolean(trimmed(getString(key)));
+    }
+
+    /**
+     * @param key Property key
+     * @param defaultValue Value when the key is unset or blank
+     * @return Boolean value; anything but "false" counts as true when the default is true
+     */
+    public boolean getBoolean(String key, boolean defaultValue) {
+        String value = trimmed(getString(key));
+        if (value == null || value.isEmpty()) {
+            return defaultValue;
+        }
+        return defaultValue ? !"false".equalsIgnoreCase(value) : "true".equalsIgnoreCase(value);
+    }
+
+    /**
+     * @param key Property key holding a number of seconds, e.g. explicitWait
+     * @return Duration of that many seconds
+     */
+    public Duration getSeconds(String key) {
+        int seconds = getInt(key, -1);
+        if (seconds < 0) {
+            throw new IllegalStateException("Config " + key + " is not set to a number of seconds");
+        }
+        return Duration.ofSeconds(seconds);
+    }
+
+    /**
+     * @param key Property key holding an absolute URL
+     * @return Parsed URL
+     */
+    public URL getUrl(String key) {
+        String value = getString(key);
+        try {
+            return new URL(trimmed(value));
+        } catch (MalformedURLException | NullPointerException e) {
+            throw new IllegalStateException("Config " + key + "=" + value + " (" + sourceOf(key)
+                    + ") is not a valid URL");
+        }
+    }
+
+    /**
+     * @return Properties file the file layer was read from
+     */
+    public String getFileName() {
+        return fileName;
+    }
+
+    /**
+     * @return Every configured key with its value and source; passwords are masked
+     */
+    public String describe() {
+        TreeSet<String> keys = new TreeSet<>(DEFAULTS.keySet());
+        keys.addAll(file.keySet());
+        StringBuilder dump = new StringBuilder("Configuration (" + fileName + "):");
+        for (String key : keys) {
+            String value = getString(key);
+            if (key.toLowerCase().contains("password") && value != null && !value.isEmpty()) {
+                value = "******";
+            }
+            dump.append(String.format("%n  %-28s = %-40s [%s]", key, value, sourceOf(key)));
+        }
+        return dump.toString();
+    }
+
+    private static String trimmed(String value) {
+        return value != null ? value.trim() : null;
+    }
+}
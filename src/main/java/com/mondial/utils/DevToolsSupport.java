@@ -0,0 +1,59 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.chromium.HasCdp;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.HasDevTools;
+
+import java.util.Collections;
+import java.util.Map;
+
+/**
+ * Thin helpers around the Chrome DevTools Protocol for Chrome and Edge sessions.
+ * Commands are sent by name so the framework is not tied to one CDP version module.
+ * Firefox sessions report isSupported() == false and callers skip their CDP features.
+ */
+public class DevToolsSupport {
+
+    private DevToolsSupport() {
+    }
+
+    public static boolean isSupported(WebDriver driver) {
+        return driver instanceof HasCdp && driver instanceof HasDevTools;
+    }
+
+    /**
+     * Execute a one-shot CDP command through the driver's own CDP session
+     * @param driver Chrome or Edge driver
+     * @param command CDP method name, e.g. "Page.addScriptToEvaluateOnNewDocument"
+     * @param params Command parameters
+     * @return Command result
+     */
+    public static Map<String, Object> execute(WebDriver driver, String command, Map<String, Object> params) {
+        return ((HasCdp) driver).executeCdpCommand(command, params);
+    }
+
+    public static Map<String, Object> execute(WebDriver driver, String command) {
+        return execute(driver, command, Collections.emptyMap());
+    }
+
+    /**
+     * Run a script in every document the tab loads from now on, before the page's own scripts
+     * @param driver Chrome or Edge driver
+     * @param source JavaScript source
+     */
+    public static void addScriptOnNewDocument(WebDriver driver, String source) {
+        execute(driver, "Page.addScriptToEvaluateOnNewDocument", Collections.singletonMap("source", source));
+    }
+
+    /**
+     * Open (or reuse) the DevTools websocket session, needed for CDP events
+     * @param driver Chrome or Edge driver
+     * @return DevTools connection attached to the current tab
+     */
+    public static DevTools openSession(WebDriver driver) {
+        DevTools devTools = ((HasDevTools) driver).getDevTools();
+        devTools.createSessionIfThereIsNotOne();
+        return devTools;
+    }
+}
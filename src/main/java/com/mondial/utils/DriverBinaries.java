@@ -0,0 +1,196 @@
+package com.mondial.utils;
+
+import io.github.bonigarcia.wdm.WebDriverManager;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Resolves the driver binary of each browser once per JVM.
+ *
+ * driverResolution=auto (default) runs WebDriverManager the first time a browser is
+ * requested (version detection, cache lookup, download on a miss) and reuses the
+ * resulting path for every later session. driverResolution=offline never touches the
+ * network: the binary comes from the &lt;driver&gt;.path key (e.g. chromedriver.path) or is
+ * searched in driverCacheDir, and a missing binary fails the first session with a
+ * message naming what was checked.
+ *
+ * The time the first resolution took is logged, and every reuse logs the time saved.
+ */
+public class DriverBinaries {
+    private static final Map<String, Resolution> RESOLVED = new ConcurrentHashMap<>();
+    private static final Pattern VERSION = Pattern.compile("\\d+(\\.\\d+)+");
+
+    private static class Resolution {
+        private final String path;
+        private final long millis;
+        private int reuses;
+
+        private Resolution(String path, long millis) {
+            this.path = path;
+            this.millis = millis;
+        }
+    }
+
+    private DriverBinaries() {
+    }
+
+    /**
+     * Make the driver binary of a browser available to Selenium, resolving it on first use
+     * @param browser chrome, firefox or edge
+     * @param config Configuration holding driverResolution, driverCacheDir and the path keys
+     * @return Absolute path of the driver binary
+     */
+    public static String ensure(String browser, ConfigReader config) {
+        String key = browser.toLowerCase();
+        Resolution resolution = RESOLVED.computeIfAbsent(key, name -> resolve(name, config));
+        // Selenium Manager and the driver services read the binary from this property
+        System.setProperty(systemProperty(key), resolution.path);
+        synchronized (resolution) {
+            if (resolution.reuses++ > 0) {
+                TestLog.info("✓ " + binaryName(key) + " reused from " + resolution.path + " (saved ~"
+                        + resolution.millis + " ms, " + resolution.millis * (resolution.reuses - 1)
+                        + " ms over " + (resolution.reuses - 1) + " sessions)");
+            }
+        }
+        return resolution.path;
+    }
+
+    private static Resolution resolve(String browser, ConfigReader config) {
+        long started = System.currentTimeMillis();
+        String mode = config.getProperty("driverResolution");
+        String path = "offline".equalsIgnoreCase(mode != null ? mode.trim() : "")
+                ? resolveOffline(browser, config)
+                : resolveOnline(browser, config);
+        long millis = System.currentTimeMillis() - started;
+        TestLog.info("✓ " + binaryName(browser) + " resolved in " + millis + " ms: " + path);
+        return new Resolution(path, millis);
+    }
+
+    private static String resolveOnline(String browser, ConfigReader config) {
+        WebDriverManager manager;
+        switch (browser) {
+            case "firefox":
+                manager = WebDriverManager.firefoxdriver();
+                break;
+            case "edge":
+                manager = WebDriverManager.edgedriver();
+                break;
+            default:
+                manager = WebDriverManager.chromedriver();
+                break;
+        }
+        String cacheDir = config.getProperty("driverCacheDir");
+        if (cacheDir != null && !cacheDir.trim().isEmpty()) {
+            manager.cachePath(cacheDir.trim());
+        }
+        manager.setup();
+        return manager.getDownloadedDriverPath();
+    }
+
+    private static String resolveOffline(String browser, ConfigReader config) {
+        String name = binaryName(browser);
+        String pathKey = name + ".path";
+        String configured = config.getProperty(pathKey);
+        if (configured != null && !configured.trim().isEmpty()) {
+            File file = new File(configured.trim());
+            if (file.isFile() && file.canExecute()) {
+                return file.getAbsolutePath();
+            }
+            throw new IllegalStateException("Offline driver resolution: " + pathKey + "=" + configured
+                    + " is not an executable file. Provision " + name + " on the runner or fix the path.");
+        }
+
+        String cacheDir = config.getProperty("driverCacheDir");
+        if (cacheDir == null || cacheDir.trim().isEmpty()) {
+            throw new IllegalStateException("Offline driver resolution: set " + pathKey
+                    + " or driverCacheDir to a pre-provisioned " + name + " (driverResolution=offline)");
+        }
+        Path root = Paths.get(cacheDir.trim());
+        if (!Files.isDirectory(root)) {
+            throw new IllegalStateException("Offline driver resolution: driverCacheDir " + root.toAbsolutePath()
+                    + " does not exist. Provision the driver cache in the runner image.");
+        }
+        String fileName = isWindows() ? name + ".exe" : name;
+        // WebDriverManager's cache layout nests binaries by OS and version, newest version wins
+        try (Stream<Path> files = Files.walk(root)) {
+            Optional<Path> found = files
+                    .filter(file -> file.getFileName().toString().equals(fileName))
+                    .filter(Files::isExecutable)
+                    .max(DriverBinaries::compareVersions);
+            if (found.isPresent()) {
+                return found.get().toAbsolutePath().toString();
+            }
+        } catch (IOException e) {
+            throw new IllegalStateException("Offline driver resolution: could not read driverCacheDir " + root, e);
+        }
+        throw new IllegalStateException("Offline driver resolution: no executable " + fileName + " under "
+                + root.toAbsolutePath() + ". Provision it there or set " + pathKey + ".");
+    }
+
+    /**
+     * Order cached binaries by the version directory in their path, numerically per segment
+     * (120.0.6099.71 is newer than 119.0.6045.105); paths without a version sort first
+     */
+    private static int compareVersions(Path a, Path b) {
+        long[] left = version(a);
+        long[] right = version(b);
+        for (int i = 0; i < Math.max(left.length, right.length); i++) {
+            long l = i < left.length ? left[i] : -1;
+            long r = i < right.length ? right[i] : -1;
+            if (l != r) {
+                return Long.compare(l, r);
+            }
+        }
+        return a.toString().compareTo(b.toString());
+    }
+
+    private static long[] version(Path path) {
+        for (int i = path.getNameCount() - 1; i >= 0; i--) {
+            String segment = path.getName(i).toString();
+            if (VERSION.matcher(segment).matches()) {
+                String[] parts = segment.split("\\.");
+                long[] numbers = new long[parts.length];
+                for (int j = 0; j < parts.length; j++) {
+                    numbers[j] = Long.parseLong(parts[j]);
+                }
+                return numbers;
+            }
+        }
+        return new long[0];
+    }
+
+    private static String binaryName(String browser) {
+        switch (browser) {
+            case "firefox":
+                return "geckodriver";
+            case "edge":
+                return "msedgedriver";
+            default:
+                return "chromedriver";
+        }
+    }
+
+    private static String systemProperty(String browser) {
+        switch (browser) {
+            case "firefox":
+                return "webdriver.gecko.driver";
+            case "edge":
+                return "webdriver.edge.driver";
+            default:
+                return "webdriver.chrome.driver";
+        }
+    }
+
+    private static boolean isWindows() {
+        return System.getProperty("os.name", "").toLowerCase().contains("win");
+    }
+}
@@ -1,7 +1,5 @@
 package com.mondial.utils;
 
-
-import io.github.bonigarcia.wdm.WebDriverManager;
 import org.openqa.selenium.WebDriver;
 import org.openqa.selenium.chrome.ChromeDriver;
 import org.openqa.selenium.chrome.ChromeOptions;
@@ -10,13 +8,22 @@ import org.openqa.selenium.edge.EdgeOptions;
 import org.openqa.selenium.firefox.FirefoxDriver;
 import org.openqa.selenium.firefox.FirefoxOptions;
 
-import java.time.Duration;
 import java.util.Arrays;
 import java.util.HashMap;
 import java.util.Map;
 
 public class DriverManager {
     private static ThreadLocal<WebDriver> driver = new ThreadLocal<>();
+    private static ThreadLocal<ScreencastRecorder> screencast = new ThreadLocal<>();
+    private static ThreadLocal<HarRecorder> har = new ThreadLocal<>();
+    private static ThreadLocal<SessionRegistry.Session> registration = new ThreadLocal<>();
+    private static ThreadLocal<ResourceBlocker> resourceBlocker = new ThreadLocal<>();
+    private static ThreadLocal<Boolean> animationsDisabled = ThreadLocal.withInitial(() -> false);
+    private static ThreadLocal<String[]> allowedResources = ThreadLocal.withInitial(() -> new String[0]);
+    private static ThreadLocal<CompanyRoutes> companyRoutes = new ThreadLocal<>();
+    private static ThreadLocal<String> prewarmedUrl = new ThreadLocal<>();
+    private static ThreadLocal<java.nio.file.Path> profileDir = new ThreadLocal<>();
+    private static ThreadLocal<String> requestedBrowser = new ThreadLocal<>();
     private static ConfigReader config = new ConfigReader();
     private static final String DOWNLOAD_DIR = System.getProperty("user.dir") + java.io.File.separator + "downloads";
 
@@ -28,10 +35,20 @@ public class DriverManager {
     }
 
     public static void setDriver(String browser) {
-        System.setProperty("browser", browser);
+        requestedBrowser.set(browser);
         initializeDriver();
     }
 
+    /**
+     * Initialize a driver, letting the lean rendering profile load the given categories
+     * @param browser Browser name
+     * @param allowed Resource categories to keep (see ResourceBlocker)
+     */
+    public static void setDriver(String browser, String... allowed) {
+        allowedResources.set(allowed);
+        setDriver(browser);
+    }
+
     private static void initializeDriver() {
         // Ensure download directory exists (needed for CI/CD environments like GitHub Actions)
         java.io.File downloadDir = new java.io.File(DOWNLOAD_DIR);
@@ -43,48 +60,209 @@ public class DriverManager {
         boolean headless = getHeadlessFromSystemOrConfig();
         String os = getOSFromSystemOrConfig();
 
-        System.out.println("=================================");
-        System.out.println("Initializing Driver...");
-        System.out.println("OS: " + os);
-        System.out.println("Browser: " + browser);
-        System.out.println("Headless: " + headless);
-        System.out.println("=================================");
+        TestLog.info("=================================");
+        TestLog.info("Initializing Driver...");
+        TestLog.info("OS: " + os);
+        TestLog.info("Browser: " + browser);
+        TestLog.info("Headless: " + headless);
+        TestLog.info("=================================");
 
+        String[] allowed = allowedResources.get();
+        DriverSession session = SessionPrewarmer.take(sessionKey(browser, headless, os, allowed), config);
+        if (session == null) {
+            session = launch(browser, headless, os, allowed);
+        }
+        driver.set(TraceRecorder.decorate(SessionRegistry.watch(session.driver, session.registration)));
+        registration.set(session.registration);
+        animationsDisabled.set(session.animationsDisabled);
+        resourceBlocker.set(session.resourceBlocker);
+        screencast.set(session.screencast);
+        har.set(session.har);
+        profileDir.set(session.profileDir);
+        prewarmedUrl.set(session.warmedUrl);
+
+        // Next class most likely runs with the same options and no @AllowResources
+        String[] none = new String[0];
+        SessionPrewarmer.prewarm(sessionKey(browser, headless, os, none),
+            () -> launch(browser, headless, os, none), ConfigReader.getBaseUrl(), config);
+    }
+
+    /**
+     * Launch a browser and attach the session helpers, without touching the thread's session.
+     * Runs on the test thread, or on the pre-warm thread for the next class.
+     */
+    private static DriverSession launch(String browser, boolean headless, String os, String[] allowed) {
+        long started = System.currentTimeMillis();
+        java.nio.file.Path profile = null;
+        if (WarmProfile.isEnabled(browser, config)) {
+            profile = WarmProfile.sessionCopy(config, "edge".equalsIgnoreCase(browser)
+                ? dir -> setupEdge(headless, os, dir)
+                : dir -> setupChrome(headless, os, dir));
+        }
+        WebDriver webDriver;
         switch (browser.toLowerCase()) {
             case "chrome":
-                setupChrome(headless, os);
+                webDriver = setupChrome(headless, os, profile);
                 break;
 
             case "firefox":
-                setupFirefox(headless, os);
+                webDriver = setupFirefox(headless, os);
                 break;
 
             case "edge":
-                setupEdge(headless, os);
+                webDriver = setupEdge(headless, os, profile);
                 break;
 
             default:
                 throw new IllegalArgumentException("Browser not supported: " + browser + 
                     ". Supported browsers: chrome, firefox, edge");
         }
+        // Track the browser and driver processes before anything else can fail
+        SessionRegistry.Session registered = SessionRegistry.register(webDriver, browser, started);
 
-        driver.get().manage().timeouts().implicitlyWait(
-            Duration.ofSeconds(Integer.parseInt(config.getProperty("implicitWait")))
+        webDriver.manage().timeouts().implicitlyWait(
+            config.getSeconds("implicitWait")
+        );
+        webDriver.manage().timeouts().pageLoadTimeout(
+            config.getSeconds("pageLoadTimeout")
         );
-        driver.get().manage().timeouts().pageLoadTimeout(
-            Duration.ofSeconds(Integer.parseInt(config.getProperty("pageLoadTimeout")))
+        // In-page waits (e.g. the flash message buffer) run as async scripts for up to explicitWait
+        webDriver.manage().timeouts().scriptTimeout(
+            config.getSeconds("explicitWait").plusSeconds(10)
         );
         // In headless mode maximize() uses the virtual display size (often 1024x768 in CI),
         // which collapses responsive sidebars. Force a fixed desktop size instead.
         if (headless) {
-            driver.get().manage().window().setSize(new org.openqa.selenium.Dimension(1920, 1080));
+            webDriver.manage().window().setSize(new org.openqa.selenium.Dimension(1920, 1080));
         } else {
-            driver.get().manage().window().maximize();
+            webDriver.manage().window().maximize();
+        }
+
+        DriverSession session = new DriverSession(webDriver, sessionKey(browser, headless, os, allowed));
+        session.registration = registered;
+        session.profileDir = profile;
+        session.animationsDisabled = disableAnimationsIfEnabled(webDriver);
+        installFlashMessageBufferIfEnabled(webDriver);
+        session.resourceBlocker = applyLeanProfileIfEnabled(webDriver, allowed);
+        session.screencast = startScreencastIfEnabled(webDriver);
+        session.har = startHarIfEnabled(webDriver);
+        session.launchMillis = System.currentTimeMillis() - started;
+        return session;
+    }
+
+    private static String sessionKey(String browser, boolean headless, String os, String[] allowed) {
+        return browser.toLowerCase() + "/" + (headless ? "headless" : "headed") + "/" + os + "/"
+            + String.join(",", allowed);
+    }
+
+    /**
+     * Inject the no-animation stylesheet and script into every document when disableAnimations=true
+     */
+    private static boolean disableAnimationsIfEnabled(WebDriver webDriver) {
+        if (!config.getBoolean("disableAnimations")) {
+            return false;
+        }
+        if (!DevToolsSupport.isSupported(webDriver)) {
+            TestLog.info("Animations left enabled: browser does not support CDP");
+            return false;
+        }
+        try {
+            AnimationDisabler.apply(webDriver);
+            return true;
+        } catch (Exception e) {
+            TestLog.info("Animations could not be disabled: " + e.getMessage());
+            return false;
+        }
+    }
+
+    /**
+     * Record flash messages from the first moment of every document when captureFlashMessages=true.
+     * Without CDP the buffer is installed lazily by BasePage on first use.
+     */
+    private static void installFlashMessageBufferIfEnabled(WebDriver webDriver) {
+        if (!config.getBoolean("captureFlashMessages")
+                || !DevToolsSupport.isSupported(webDriver)) {
+            return;
+        }
+        try {
+            FlashMessageBuffer.install(webDriver);
+        } catch (Exception e) {
+            TestLog.info("Flash message buffer could not be installed: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Block analytics, help widget, fonts and images when leanProfile=true.
+     * Test classes opt back in per category with @AllowResources.
+     */
+    private static ResourceBlocker applyLeanProfileIfEnabled(WebDriver webDriver, String[] allowed) {
+        if (!config.getBoolean("leanProfile")) {
+            return null;
+        }
+        if (!DevToolsSupport.isSupported(webDriver)) {
+            TestLog.info("Lean profile skipped: browser does not support CDP");
+            return null;
+        }
+        try {
+            ResourceBlocker blocker = ResourceBlocker.attach(webDriver);
+            blocker.block(Arrays.asList(allowed), config);
+            return blocker;
+        } catch (Exception e) {
+            TestLog.info("Lean profile could not be applied: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Start the failure-only screencast ring buffer when screencastOnFailure=true.
+     * Only Chrome and Edge expose Page.startScreencast.
+     */
+    private static ScreencastRecorder startScreencastIfEnabled(WebDriver webDriver) {
+        if (!config.getBoolean("screencastOnFailure")) {
+            return null;
+        }
+        if (!DevToolsSupport.isSupported(webDriver)) {
+            TestLog.info("Screencast skipped: browser does not support CDP");
+            return null;
+        }
+        int seconds = config.getInt("screencastSeconds", 10);
+        int maxFrames = config.getInt("screencastMaxFrames", 150);
+        try {
+            ScreencastRecorder recorder = ScreencastRecorder.start(webDriver, seconds, maxFrames);
+            TestLog.info("Screencast buffer started (last " + seconds + "s, max " + maxFrames + " frames)");
+            return recorder;
+        } catch (Exception e) {
+            TestLog.info("Screencast could not be started: " + e.getMessage());
+            return null;
         }
     }
 
-    private static void setupChrome(boolean headless, String os) {
-        WebDriverManager.chromedriver().setup();
+    /**
+     * Start the per-test network recorder when harCapture=true.
+     * HARs are kept for failed or slow tests only.
+     */
+    private static HarRecorder startHarIfEnabled(WebDriver webDriver) {
+        if (!config.getBoolean("harCapture")) {
+            return null;
+        }
+        if (!DevToolsSupport.isSupported(webDriver)) {
+            TestLog.info("HAR capture skipped: browser does not support CDP");
+            return null;
+        }
+        int slowMillis = config.getInt("harSlowMillis", 5000);
+        int maxBodyBytes = config.getBoolean("harBodies", false) ? config.getInt("harMaxBodyKb", 64) * 1024 : 0;
+        try {
+            HarRecorder recorder = HarRecorder.start(webDriver, slowMillis, maxBodyBytes);
+            TestLog.info("HAR capture started (kept on failure or requests over " + slowMillis + " ms)");
+            return recorder;
+        } catch (Exception e) {
+            TestLog.info("HAR capture could not be started: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static WebDriver setupChrome(boolean headless, String os, java.nio.file.Path profile) {
+        String driverPath = DriverBinaries.ensure("chrome", config);
         ChromeOptions options = new ChromeOptions();
         
         if (headless) {
@@ -97,6 +275,9 @@ public class DriverManager {
         options.addArguments("--disable-gpu");
         options.addArguments("--window-size=1920,1080");
         options.addArguments("--disable-blink-features=AutomationControlled");
+        if (profile != null) {
+            options.addArguments("--user-data-dir=" + profile.toAbsolutePath());
+        }
         
         // Set experimental options correctly
         options.setExperimentalOption("excludeSwitches", Arrays.asList("enable-automation"));
@@ -115,14 +296,18 @@ public class DriverManager {
         // OS specific options
         if (os.equalsIgnoreCase("ubuntu")) {
             options.addArguments("--disable-setuid-sandbox");
-            options.addArguments("--remote-debugging-port=9222");
+            // No fixed --remote-debugging-port: chromedriver picks a free one per browser, so a
+            // pre-warmed or load-test session never collides with the test's browser
         }
         
-        driver.set(new ChromeDriver(options));
+        if (DriverServices.isEnabled(config)) {
+            return new ChromeDriver(DriverServices.chrome(driverPath), options);
+        }
+        return new ChromeDriver(options);
     }
 
-    private static void setupFirefox(boolean headless, String os) {
-        WebDriverManager.firefoxdriver().setup();
+    private static WebDriver setupFirefox(boolean headless, String os) {
+        String driverPath = DriverBinaries.ensure("firefox", config);
         FirefoxOptions options = new FirefoxOptions();
         
         if (headless) {
@@ -137,11 +322,14 @@ public class DriverManager {
         options.addPreference("dom.webdriver.enabled", false);
         options.addPreference("useAutomationExtension", false);
         
-        driver.set(new FirefoxDriver(options));
+        if (DriverServices.isEnabled(config)) {
+            return new FirefoxDriver(DriverServices.gecko(driverPath), options);
+        }
+        return new FirefoxDriver(options);
     }
 
-    private static void setupEdge(boolean headless, String os) {
-        WebDriverManager.edgedriver().setup();
+    private static WebDriver setupEdge(boolean headless, String os, java.nio.file.Path profile) {
+        String driverPath = DriverBinaries.ensure("edge", config);
         EdgeOptions options = new EdgeOptions();
         
         if (headless) {
@@ -154,43 +342,66 @@ public class DriverManager {
         options.addArguments("--disable-gpu");
         options.addArguments("--window-size=1920,1080");
         options.addArguments("--disable-blink-features=AutomationControlled");
+        if (profile != null) {
+            options.addArguments("--user-data-dir=" + profile.toAbsolutePath());
+        }
         
         // Set experimental options correctly
         options.setExperimentalOption("excludeSwitches", Arrays.asList("enable-automation"));
         options.setExperimentalOption("useAutomationExtension", false);
         
-        driver.set(new EdgeDriver(options));
+        if (DriverServices.isEnabled(config)) {
+            return new EdgeDriver(DriverServices.edge(driverPath), options);
+        }
+        return new EdgeDriver(options);
     }
 
     private static String getBrowserFromSystemOrConfig() {
-        String browser = System.getProperty("browser");
-        if (browser == null || browser.isEmpty()) {
-            browser = config.getProperty("browser");
-        }
-        return browser != null ? browser : "chrome";
+        // The configuration snapshot does not see the system property setDriver sets
+        String browser = requestedBrowser.get();
+        return browser != null ? browser : ConfigReader.getBrowser();
     }
 
     private static boolean getHeadlessFromSystemOrConfig() {
-        String headless = System.getProperty("headless");
-        if (headless == null || headless.isEmpty()) {
-            headless = config.getProperty("headless");
-        }
-        return Boolean.parseBoolean(headless);
+        return config.getBoolean("headless");
     }
 
     private static String getOSFromSystemOrConfig() {
-        String os = System.getProperty("os");
-        if (os == null || os.isEmpty()) {
-            os = config.getProperty("os");
-        }
+        String os = config.getProperty("os");
         return os != null ? os : "windows";
     }
 
     public static void quitDriver() {
+        requestedBrowser.remove();
+        animationsDisabled.remove();
+        resourceBlocker.remove();
+        allowedResources.remove();
+        companyRoutes.remove();
+        prewarmedUrl.remove();
+        if (screencast.get() != null) {
+            screencast.get().stop();
+            screencast.remove();
+        }
+        if (har.get() != null) {
+            har.get().stop();
+            har.remove();
+        }
         if (driver.get() != null) {
-            driver.get().quit();
+            SessionRegistry.quit(driver.get(), registration.get());
             driver.remove();
         }
+        registration.remove();
+        WarmProfile.delete(profileDir.get());
+        profileDir.remove();
+    }
+
+    /**
+     * Check whether the current thread's session was pre-warmed and already loaded a URL
+     * @param url URL the caller is about to open
+     * @return true when the session came from the pre-warm pool with this URL loaded
+     */
+    public static boolean isPrewarmedAt(String url) {
+        return url != null && url.equals(prewarmedUrl.get());
     }
 
     public static String getBrowserName() {
@@ -201,6 +412,50 @@ public class DriverManager {
         return getOSFromSystemOrConfig();
     }
 
+    /**
+     * Get the screencast recorder of the current thread's session
+     * @return Recorder, or null when screencastOnFailure is off or unsupported
+     */
+    public static ScreencastRecorder getScreencastRecorder() {
+        return screencast.get();
+    }
+
+    /**
+     * Get the network recorder of the current thread's session
+     * @return Recorder, or null when harCapture is off or unsupported
+     */
+    public static HarRecorder getHarRecorder() {
+        return har.get();
+    }
+
+    /**
+     * Check whether the current thread's session runs with animations disabled
+     * @return true when the no-animation script is injected
+     */
+    public static boolean areAnimationsDisabled() {
+        return animationsDisabled.get();
+    }
+
+    /**
+     * Get the lean profile resource blocker of the current thread's session
+     * @return Blocker, or null when leanProfile is off or unsupported
+     */
+    public static ResourceBlocker getResourceBlocker() {
+        return resourceBlocker.get();
+    }
+
+    /**
+     * Get the company route cache of the current thread's session, created on first use
+     * @return Route cache, empty until a company listing has been read
+     */
+    public static CompanyRoutes getCompanyRoutes() {
+        if (companyRoutes.get() == null) {
+            companyRoutes.set(new CompanyRoutes(config.getBoolean("deepLinkNavigation", true),
+                    config.getSeconds("pageLoadTimeout")));
+        }
+        return companyRoutes.get();
+    }
+
     /**
      * Get the configured download directory path
      * Works on both Windows and Linux (CI)
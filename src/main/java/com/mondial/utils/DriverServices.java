@@ -0,0 +1,212 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.WebDriverException;
+import org.openqa.selenium.chrome.ChromeDriverService;
+import org.openqa.selenium.edge.EdgeDriverService;
+import org.openqa.selenium.firefox.GeckoDriverService;
+import org.openqa.selenium.remote.service.DriverService;
+
+import java.io.File;
+import java.io.IOException;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * One driver server process (chromedriver, msedgedriver, geckodriver) per browser per JVM.
+ *
+ * Without it every new ChromeDriver(options) starts its own chromedriver on a new port and
+ * quit() stops it again. Here the service is started on first use, every session of that
+ * browser is created against it, and a JVM shutdown hook stops it. Selenium stops a
+ * driver's service when the session quits, so the shared services ignore stop() and are
+ * only shut down by the hook.
+ *
+ * Set sharedDriverService=false to go back to a process per session.
+ */
+public class DriverServices {
+    private static final Map<String, DriverService> SERVICES = new HashMap<>();
+    private static boolean hookRegistered;
+
+    /**
+     * A service that outlives the sessions created against it
+     */
+    private interface Shared {
+        void shutdown();
+    }
+
+    private static final class SharedChromeService extends ChromeDriverService implements Shared {
+        SharedChromeService(File executable, int port, Duration timeout, List<String> args,
+                Map<String, String> environment) throws IOException {
+            super(executable, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            // Session quit; the process stays up for the next session
+        }
+
+        @Override
+        public void shutdown() {
+            super.stop();
+        }
+    }
+
+    private static final class SharedEdgeService extends EdgeDriverService implements Shared {
+        SharedEdgeService(File executable, int port, Duration timeout, List<String> args,
+                Map<String, String> environment) throws IOException {
+            super(executable, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            // Session quit; the process stays up for the next session
+        }
+
+        @Override
+        public void shutdown() {
+            super.stop();
+        }
+    }
+
+    private static final class SharedGeckoService extends GeckoDriverService implements Shared {
+        SharedGeckoService(File executable, int port, Duration timeout, List<String> args,
+                Map<String, String> environment) throws IOException {
+            super(executable, port, timeout, args, environment);
+        }
+
+        @Override
+        public void stop() {
+            // Session quit; the process stays up for the next session
+        }
+
+        @Override
+        public void shutdown() {
+            super.stop();
+        }
+    }
+
+    private DriverServices() {
+    }
+
+    public static boolean isEnabled(ConfigReader config) {
+        return config.getBoolean("sharedDriverService", true);
+    }
+
+    /**
+     * Get the JVM's chromedriver service, starting it on first use
+     * @param driverPath Path of the chromedriver binary
+     * @return Running service to create ChromeDriver sessions against
+     */
+    public static ChromeDriverService chrome(String driverPath) {
+        return (ChromeDriverService) get("chrome", () -> new ChromeDriverService.Builder() {
+            @Override
+            protected ChromeDriverService createDriverService(File exe, int port, Duration timeout, List<String> args,
+                    Map<String, String> environment) {
+                try {
+                    return new SharedChromeService(exe, port, timeout, args, environment);
+                } catch (IOException e) {
+                    throw new WebDriverException(e);
+                }
+            }
+        }.usingDriverExecutable(new File(driverPath)).usingAnyFreePort().build());
+    }
+
+    /**
+     * Get the JVM's msedgedriver service, starting it on first use
+     * @param driverPath Path of the msedgedriver binary
+     * @return Running service to create EdgeDriver sessions against
+     */
+    public static EdgeDriverService edge(String driverPath) {
+        return (EdgeDriverService) get("edge", () -> new EdgeDriverService.Builder() {
+            @Override
+            protected EdgeDriverService createDriverService(File exe, int port, Duration timeout, List<String> args,
+                    Map<String, String> environment) {
+                try {
+                    return new SharedEdgeService(exe, port, timeout, args, environment);
+                } catch (IOException e) {
+                    throw new WebDriverException(e);
+                }
+            }
+        }.usingDriverExecutable(new File(driverPath)).usingAnyFreePort().build());
+    }
+
+    /**
+     * Get the JVM's geckodriver service, starting it on first use.
+     * geckodriver serves one session at a time, so parallel Firefox runs should turn
+     * sharedDriverService off.
+     * @param driverPath Path of the geckodriver binary
+     * @return Running service to create FirefoxDriver sessions against
+     */
+    public static GeckoDriverService gecko(String driverPath) {
+        return (GeckoDriverService) get("firefox", () -> new GeckoDriverService.Builder() {
+            @Override
+            protected GeckoDriverService createDriverService(File exe, int port, Duration timeout, List<String> args,
+                    Map<String, String> environment) {
+                try {
+                    return new SharedGeckoService(exe, port, timeout, args, environment);
+                } catch (IOException e) {
+                    throw new WebDriverException(e);
+                }
+            }
+        }.usingDriverExecutable(new File(driverPath)).usingAnyFreePort().build());
+    }
+
+    private interface Factory {
+        DriverService create();
+    }
+
+    private static synchronized DriverService get(String browser, Factory factory) {
+        DriverService service = SERVICES.get(browser);
+        if (service != null && !service.isRunning()) {
+            // Driver process died (crash, killed by the runner): replace it
+            TestLog.warn("✗ Shared " + browser + " driver service is not running, restarting it");
+            ((Shared) service).shutdown();
+            service = null;
+        }
+        if (service == null) {
+            long started = System.currentTimeMillis();
+            service = factory.create();
+            try {
+                service.start();
+            } catch (IOException e) {
+                throw new WebDriverException("Could not start the shared " + browser + " driver service", e);
+            }
+            SERVICES.put(browser, service);
+            registerShutdownHook();
+            SessionRegistry.registerService(browser, service, started);
+            TestLog.info("✓ Shared " + browser + " driver service started at " + service.getUrl() + " in "
+                    + (System.currentTimeMillis() - started) + " ms");
+        }
+        return service;
+    }
+
+    private static void registerShutdownHook() {
+        if (hookRegistered) {
+            return;
+        }
+        hookRegistered = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(DriverServices::shutdownAll, "driver-services-shutdown"));
+    }
+
+    /**
+     * Stop every shared driver service; runs from the JVM shutdown hook
+     */
+    public static void shutdownAll() {
+        // Warm sessions still in the pool have to quit while their driver service is up.
+        // Outside the lock: a session still launching needs get() to finish.
+        SessionPrewarmer.shutdown();
+        stopServices();
+    }
+
+    private static synchronized void stopServices() {
+        for (Map.Entry<String, DriverService> entry : SERVICES.entrySet()) {
+            try {
+                ((Shared) entry.getValue()).shutdown();
+            } catch (Exception e) {
+                TestLog.info("Shared " + entry.getKey() + " driver service did not stop cleanly: " + e.getMessage());
+            }
+        }
+        SERVICES.clear();
+    }
+}
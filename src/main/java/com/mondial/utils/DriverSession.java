@@ -0,0 +1,49 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.WebDriver;
+
+import java.nio.file.Path;
+
+/**
+ * A launched browser session with the per-session helpers DriverManager attached to it.
+ * Built by DriverManager.launch, either on the test thread or by the SessionPrewarmer.
+ */
+class DriverSession {
+    final WebDriver driver;
+    final String key;
+    boolean animationsDisabled;
+    ResourceBlocker resourceBlocker;
+    ScreencastRecorder screencast;
+    HarRecorder har;
+    // Browser and driver processes, killed if the session hangs or is never quit
+    SessionRegistry.Session registration;
+    // Per-session copy of the warm profile template, deleted after quit
+    Path profileDir;
+    // Launch time, and for pre-warmed sessions the URL loaded and when it finished warming
+    long launchMillis;
+    String warmedUrl;
+    long warmedAt;
+
+    DriverSession(WebDriver driver, String key) {
+        this.driver = driver;
+        this.key = key;
+    }
+
+    /**
+     * Quit a session that never reached a test
+     */
+    void discard() {
+        try {
+            if (screencast != null) {
+                screencast.stop();
+            }
+            if (har != null) {
+                har.stop();
+            }
+            SessionRegistry.quit(driver, registration);
+        } catch (Exception e) {
+            TestLog.info("Pre-warmed session did not quit cleanly: " + e.getMessage());
+        }
+        WarmProfile.delete(profileDir);
+    }
+}
@@ -1,5 +1,246 @@
 package com.mondial.utils;
 
+import com.aventstack.extentreports.ExtentReports;
+import com.aventstack.extentreports.ExtentTest;
+import com.aventstack.extentreports.Status;
+import com.aventstack.extentreports.reporter.ExtentSparkReporter;
+import org.testng.ITestResult;
+
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.Date;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * ExtentReports (Spark HTML) report of the run at target/ExtentReports/ExtentReport.html.
+ *
+ * Test threads never touch the report: start, step, screenshot and result events are
+ * queued to one background thread that owns the ExtentReports instance, so no locking is
+ * needed and a test never waits for report generation. That thread rewrites the HTML
+ * every reportFlushSeconds when something changed, and once more at suite end and JVM
+ * exit, so an interrupted run still leaves a usable report.
+ *
+ * Each test keeps the lines it logged through TestLog as timed steps (capped at
+ * reportMaxSteps, the rest stay in the JSON log) and links its failure screenshot by
+ * relative path instead of embedding it as base64, so a test's share of the report stays
+ * small however long the suite is.
+ *
+ * Limit: ExtentReports keeps every test of the run in memory and each flush renders the
+ * whole report again; Spark cannot append to a written file, and removing finished tests
+ * would drop them from the HTML. Memory and flush time therefore still grow with the number
+ * of tests, only more slowly. For very long runs raise reportFlushSeconds so the rewrites
+ * stay rare.
+ */
 public class ExtentReportManager {
+    public static final String REPORT_PATH = "target/ExtentReports/ExtentReport.html";
+    private static final String TEST_ATTRIBUTE = "extentTest";
+
+    private static final ThreadLocal<ReportTest> currentTest = new ThreadLocal<>();
+    private static final ScheduledExecutorService reporter = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "extent-report-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final ConfigReader config = new ConfigReader();
+
+    // Only used on the reporter thread
+    private static ExtentReports extent;
+    private static boolean changed;
+
+    private static boolean started;
+    private static int maxSteps;
+
+    /**
+     * A test's report node; created and written on the reporter thread only
+     */
+    private static final class ReportTest {
+        private final String name;
+        private ExtentTest test;
+        private int steps;
+        private int droppedSteps;
+
+        private ReportTest(String name) {
+            this.name = name;
+        }
+    }
+
+    private ExtentReportManager() {
+    }
+
+    /**
+     * Create the test's report node; called from TestListener.onTestStart
+     * @param result TestNG result of the starting test
+     */
+    public static void startTest(ITestResult result) {
+        start();
+        String name = result.getTestClass().getRealClass().getSimpleName() + "." + result.getName();
+        String description = result.getMethod().getDescription();
+        String category = categoryOf(result.getTestClass().getRealClass());
+        ReportTest reportTest = new ReportTest(name);
+        currentTest.set(reportTest);
+        result.setAttribute(TEST_ATTRIBUTE, reportTest);
+        submit(() -> {
+            reportTest.test = extent.createTest(name, description != null ? description : "");
+            if (category != null) {
+                reportTest.test.assignCategory(category);
+            }
+        });
+    }
+
+    /**
+     * Record a line the current test logged as a timed step; called by TestLog
+     * @param level TestLog level
+     * @param elapsedMillis Time since the test started
+     * @param page Page method that logged it, or null
+     * @param message Log message without ANSI codes
+     */
+    static void step(int level, long elapsedMillis, String page, String message) {
+        ReportTest reportTest = currentTest.get();
+        if (reportTest == null || message.trim().isEmpty()) {
+            return;
+        }
+        Status status = level >= TestLog.WARN ? Status.WARNING : Status.INFO;
+        String text = "+" + elapsedMillis + " ms " + (page != null ? "[" + page + "] " : "") + message.trim();
+        submit(() -> {
+            if (reportTest.steps >= maxSteps) {
+                reportTest.droppedSteps++;
+                return;
+            }
+            reportTest.steps++;
+            reportTest.test.log(status, text);
+        });
+    }
+
+    /**
+     * Record the test's outcome and duration; called from TestListener when it passed,
+     * failed or was skipped
+     * @param result TestNG result of the finished test
+     */
+    public static void endTest(ITestResult result) {
+        ReportTest reportTest = currentTest.get();
+        currentTest.remove();
+        if (reportTest == null) {
+            return;
+        }
+        int status = result.getStatus();
+        Throwable throwable = result.getThrowable();
+        long start = result.getStartMillis();
+        long end = result.getEndMillis();
+        submit(() -> {
+            if (reportTest.droppedSteps > 0) {
+                reportTest.test.info(reportTest.droppedSteps + " more step(s) in " + TestLog.LOG_FILE);
+            }
+            String duration = " in " + (end - start) + " ms";
+            if (status == ITestResult.SUCCESS) {
+                reportTest.test.pass("Passed" + duration);
+            } else if (status == ITestResult.FAILURE) {
+                if (throwable != null) {
+                    reportTest.test.fail(throwable);
+                }
+                reportTest.test.fail("Failed" + duration);
+            } else {
+                reportTest.test.skip(throwable != null ? "Skipped: " + throwable.getMessage() : "Skipped");
+            }
+            reportTest.test.getModel().setStartTime(new Date(start));
+            reportTest.test.getModel().setEndTime(new Date(end > 0 ? end : System.currentTimeMillis()));
+        });
+    }
+
+    /**
+     * Where to link a screenshot written for this result
+     * @param result TestNG result the screenshot belongs to
+     * @return Consumer taking the screenshot's file path, or null when the test has no report node
+     */
+    static Consumer<String> screenshotTarget(ITestResult result) {
+        Object attribute = result.getAttribute(TEST_ATTRIBUTE);
+        if (!(attribute instanceof ReportTest)) {
+            return null;
+        }
+        ReportTest reportTest = (ReportTest) attribute;
+        return path -> submit(() -> reportTest.test.addScreenCaptureFromPath(relativeToReport(path),
+                reportTest.name));
+    }
+
+    /**
+     * Write the report now and wait for it, e.g. at the end of a suite
+     */
+    public static void flush() {
+        if (!isStarted()) {
+            return;
+        }
+        try {
+            reporter.submit(ExtentReportManager::write).get(60, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            TestLog.warn("✗ Extent report was not written: " + e.getMessage());
+        }
+    }
+
+    private static synchronized boolean isStarted() {
+        return started;
+    }
+
+    private static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        maxSteps = config.getInt("reportMaxSteps", 200);
+        int flushSeconds = Math.max(1, config.getInt("reportFlushSeconds", 30));
+        reporter.submit(() -> {
+            ExtentSparkReporter spark = new ExtentSparkReporter(REPORT_PATH);
+            spark.config().setDocumentTitle("Mondial Automation Report");
+            spark.config().setReportName("Mondial Automation");
+            extent = new ExtentReports();
+            extent.attachReporter(spark);
+            extent.setSystemInfo("Browser", ConfigReader.getBrowser());
+            extent.setSystemInfo("Base URL", String.valueOf(ConfigReader.getBaseUrl()));
+            extent.setSystemInfo("Configuration", ConfigSnapshot.get().getFileName());
+        });
+        reporter.scheduleWithFixedDelay(() -> {
+            if (changed) {
+                write();
+            }
+        }, flushSeconds, flushSeconds, TimeUnit.SECONDS);
+        Runtime.getRuntime().addShutdownHook(new Thread(ExtentReportManager::flush, "extent-report-flush"));
+        TestLog.info("Extent report: " + REPORT_PATH + " (written every " + flushSeconds + " s)");
+    }
+
+    private static void submit(Runnable event) {
+        reporter.submit(() -> {
+            try {
+                event.run();
+                changed = true;
+            } catch (Exception e) {
+                TestLog.warn("✗ Extent report event failed: " + e.getMessage());
+            }
+        });
+    }
+
+    private static void write() {
+        long started = System.currentTimeMillis();
+        try {
+            extent.flush();
+            changed = false;
+            TestLog.debug("Extent report written in " + (System.currentTimeMillis() - started) + " ms");
+        } catch (Exception e) {
+            TestLog.warn("✗ Extent report could not be written: " + e.getMessage());
+        }
+    }
+
+    private static String relativeToReport(String path) {
+        Path reportDir = Paths.get(REPORT_PATH).toAbsolutePath().getParent();
+        return reportDir.relativize(Paths.get(path).toAbsolutePath()).toString().replace('\\', '/');
+    }
 
+    /**
+     * @return Test area from the package, e.g. "company" for com.mondial.tests.company
+     */
+    private static String categoryOf(Class<?> testClass) {
+        String pkg = testClass.getPackage() != null ? testClass.getPackage().getName() : "";
+        int lastDot = pkg.lastIndexOf('.');
+        return lastDot >= 0 ? pkg.substring(lastDot + 1) : null;
+    }
 }
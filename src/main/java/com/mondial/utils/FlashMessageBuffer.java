@@ -0,0 +1,90 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.WebDriver;
+
+/**
+ * In-page buffer of Bootstrap flash messages (.alert elements).
+ *
+ * A MutationObserver records every alert as it is inserted, together with its
+ * type (success, danger, warning, info) and class, in window.__mondialFlash.
+ * Page objects read or await messages from the buffer in one call instead of
+ * waiting for the alert to appear and then vanish, and short-lived messages that
+ * fade before a poll would see them are still captured.
+ *
+ * On Chrome/Edge the script is registered for every new document through CDP.
+ * Other browsers get it on first use, which still sees alerts already on the page.
+ */
+public class FlashMessageBuffer {
+
+    public static final String INSTALL_SCRIPT =
+            "(function () {" +
+            "  if (window.__mondialFlash) { return; }" +
+            "  var entries = [];" +
+            "  function typeOf(el) {" +
+            "    var match = /\\balert-(success|danger|warning|info|primary|secondary|light|dark)\\b/.exec(el.className);" +
+            "    return match ? match[1] : 'alert';" +
+            "  }" +
+            "  function record(el) {" +
+            "    if (el.__mondialFlashSeen || !el.classList || !el.classList.contains('alert')) { return; }" +
+            "    el.__mondialFlashSeen = true;" +
+            "    entries.push({ element: el, type: typeOf(el), className: String(el.className)," +
+            "      url: location.href, at: Date.now(), consumed: false });" +
+            "  }" +
+            "  function scan(node) {" +
+            "    if (node.nodeType !== 1) { return; }" +
+            "    record(node);" +
+            "    var nested = node.getElementsByClassName('alert');" +
+            "    for (var i = 0; i < nested.length; i++) { record(nested[i]); }" +
+            "  }" +
+            // Text is read lazily, the alert's children may still be parsing when it is inserted
+            "  function text(entry) {" +
+            "    return (entry.element.innerText || entry.element.textContent || '').replace(/^[\\s\\u00d7]+|[\\s\\u00d7]+$/g, '');" +
+            "  }" +
+            "  function view(entry) {" +
+            "    return { text: text(entry), type: entry.type, className: entry.className, url: entry.url, at: entry.at };" +
+            "  }" +
+            "  new MutationObserver(function (mutations) {" +
+            "    for (var i = 0; i < mutations.length; i++) {" +
+            "      var added = mutations[i].addedNodes;" +
+            "      for (var j = 0; j < added.length; j++) { scan(added[j]); }" +
+            "    }" +
+            "  }).observe(document, { childList: true, subtree: true });" +
+            "  if (document.documentElement) { scan(document.documentElement); }" +
+            "  window.__mondialFlash = {" +
+            "    all: function () { return entries.map(view); }," +
+            // Newest unconsumed message of the type; older ones of that type are consumed with it
+            "    take: function (type) {" +
+            "      for (var i = entries.length - 1; i >= 0; i--) {" +
+            "        var entry = entries[i];" +
+            "        if (!entry.consumed && (!type || entry.type === type) && text(entry)) {" +
+            "          for (var k = 0; k <= i; k++) {" +
+            "            if (!type || entries[k].type === type) { entries[k].consumed = true; }" +
+            "          }" +
+            "          return view(entry);" +
+            "        }" +
+            "      }" +
+            "      return null;" +
+            "    }," +
+            // Only success and notice flashes; danger and warning alerts carry validation errors tests read
+            "    dismiss: function () {" +
+            "      var found = false;" +
+            "      for (var i = 0; i < entries.length; i++) {" +
+            "        if (entries[i].type === 'success' || entries[i].type === 'info') { entries[i].consumed = true; found = true; }" +
+            "      }" +
+            "      if (!found) { return false; }" +
+            "      var visible = document.querySelectorAll('.alert-success, .alert-info');" +
+            "      for (var j = 0; j < visible.length; j++) {" +
+            "        if (visible[j].parentNode) { visible[j].parentNode.removeChild(visible[j]); }" +
+            "      }" +
+            "      return true;" +
+            "    }" +
+            "  };" +
+            "})();";
+
+    private FlashMessageBuffer() {
+    }
+
+    public static void install(WebDriver driver) {
+        DevToolsSupport.addScriptOnNewDocument(driver, INSTALL_SCRIPT);
+    }
+}
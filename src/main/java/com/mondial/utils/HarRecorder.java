@@ -0,0 +1,473 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedReader;
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Per-test HAR of a Chrome/Edge session built from CDP Network events, so a slow or
+ * failed report or upload shows which backend call was responsible.
+ *
+ * Only requests still in flight are held in memory: each finished request is written
+ * straight away as one JSON line to a part file under target/har/. When the test fails,
+ * a request takes longer than harSlowMillis or a caller asks to keep() it (e.g. a report
+ * over its SLO), the background artifact writer wraps the lines into a HAR 1.2 file next
+ * to it (open in the browser's DevTools Network tab); otherwise the part file is deleted.
+ * Bodies are left out unless harBodies=true, and then cut at harMaxBodyKb.
+ */
+public class HarRecorder {
+    public static final String HAR_DIR = "target/har";
+    // Bounds the request map when a page never finishes its requests (e.g. long polling)
+    private static final int MAX_IN_FLIGHT = 2000;
+
+    private final DevTools devTools;
+    private final long slowMillis;
+    private final int maxBodyBytes;
+    private final Map<String, Entry> inFlight = new HashMap<>();
+    private final Object lock = new Object();
+    private volatile boolean stopped;
+    // Current test's part file; null between tests
+    private BufferedWriter out;
+    private Path partFile;
+    private String testName;
+    private int entries;
+    private String keepReason;
+
+    /**
+     * A request and, once it has them, its response and timings
+     */
+    private static final class Entry {
+        private final Map<String, Object> request;
+        private final double wallTime;
+        private final double timestamp;
+        private Map<String, Object> response;
+        private long dataLength;
+
+        private Entry(Map<String, Object> request, double wallTime, double timestamp) {
+            this.request = request;
+            this.wallTime = wallTime;
+            this.timestamp = timestamp;
+        }
+    }
+
+    private HarRecorder(DevTools devTools, long slowMillis, int maxBodyBytes) {
+        this.devTools = devTools;
+        this.slowMillis = slowMillis;
+        this.maxBodyBytes = maxBodyBytes;
+    }
+
+    /**
+     * Start listening to the network of a Chrome or Edge session; nothing is written until startTest()
+     * @param driver Chromium based driver
+     * @param slowMillis Keep the HAR of a test with a request slower than this
+     * @param maxBodyBytes Cap on each recorded body, 0 to leave bodies out
+     * @return Running recorder
+     */
+    public static HarRecorder start(WebDriver driver, long slowMillis, int maxBodyBytes) {
+        DevTools devTools = DevToolsSupport.openSession(driver);
+        HarRecorder recorder = new HarRecorder(devTools, slowMillis, maxBodyBytes);
+        devTools.addListener(event("Network.requestWillBeSent"), recorder::onRequest);
+        devTools.addListener(event("Network.responseReceived"), recorder::onResponse);
+        devTools.addListener(event("Network.dataReceived"), recorder::onData);
+        devTools.addListener(event("Network.loadingFinished"), recorder::onFinished);
+        devTools.addListener(event("Network.loadingFailed"), recorder::onFailed);
+        devTools.send(new Command<Void>("Network.enable",
+            Collections.singletonMap("maxPostDataSize", maxBodyBytes)));
+        return recorder;
+    }
+
+    /**
+     * Open a part file for a test; requests finishing from now on are written to it
+     * @param name Test name (used for the file name)
+     */
+    public void startTest(String name) {
+        synchronized (lock) {
+            closePart(true);
+            try {
+                Files.createDirectories(Paths.get(HAR_DIR));
+                partFile = Paths.get(HAR_DIR, ScreenshotPipeline.buildFileName(name, "part"));
+                out = Files.newBufferedWriter(partFile, StandardCharsets.UTF_8);
+                testName = name;
+                entries = 0;
+                keepReason = null;
+            } catch (IOException e) {
+                TestLog.warn("✗ HAR not recorded for " + name + ": " + e.getMessage());
+                out = null;
+                partFile = null;
+            }
+        }
+    }
+
+    /**
+     * Keep the current test's HAR even when it passes
+     * @param reason Logged with the saved file, e.g. "report generation over its SLO"
+     */
+    public void keep(String reason) {
+        synchronized (lock) {
+            if (out != null && keepReason == null) {
+                keepReason = reason;
+            }
+        }
+    }
+
+    /**
+     * Close the current test's part file; save it as a HAR when the test failed or
+     * something asked to keep it, delete it otherwise
+     * @param failed Whether the test failed
+     */
+    public void endTest(boolean failed) {
+        String name;
+        String reason;
+        Path part;
+        int written;
+        synchronized (lock) {
+            if (out == null) {
+                return;
+            }
+            name = testName;
+            reason = failed ? "test failed" : keepReason;
+            part = partFile;
+            written = entries;
+            closePart(reason == null);
+        }
+        if (reason == null) {
+            return;
+        }
+        String fileName = ScreenshotPipeline.buildFileName(name, "har");
+        ScreenshotPipeline.submit(() -> write(part, fileName, written, reason));
+    }
+
+    /**
+     * Stop recording; the session is being quit
+     */
+    public void stop() {
+        stopped = true;
+        synchronized (lock) {
+            closePart(true);
+            inFlight.clear();
+        }
+    }
+
+    private void closePart(boolean delete) {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            TestLog.debug("HAR part file not closed cleanly: " + e.getMessage());
+        }
+        if (delete) {
+            try {
+                Files.deleteIfExists(partFile);
+            } catch (IOException e) {
+                TestLog.debug("HAR part file not deleted: " + e.getMessage());
+            }
+        }
+        out = null;
+        partFile = null;
+        testName = null;
+    }
+
+    private static Event<Map<String, Object>> event(String name) {
+        return new Event<>(name, input -> input.read(Json.MAP_TYPE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onRequest(Map<String, Object> event) {
+        if (stopped) {
+            return;
+        }
+        String requestId = (String) event.get("requestId");
+        double timestamp = number(event.get("timestamp"));
+        Map<String, Object> redirect = (Map<String, Object>) event.get("redirectResponse");
+        Entry previous = null;
+        synchronized (lock) {
+            if (redirect != null) {
+                // A redirect ends the previous hop of the same request id
+                previous = inFlight.remove(requestId);
+                if (previous != null) {
+                    previous.response = redirect;
+                }
+            }
+            if (out != null && inFlight.size() < MAX_IN_FLIGHT) {
+                inFlight.put(requestId, new Entry((Map<String, Object>) event.get("request"),
+                    number(event.get("wallTime")), timestamp));
+            }
+        }
+        if (previous != null) {
+            finish(previous, timestamp, number(redirect.get("encodedDataLength")), null, null);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onResponse(Map<String, Object> event) {
+        synchronized (lock) {
+            Entry entry = inFlight.get((String) event.get("requestId"));
+            if (entry != null) {
+                entry.response = (Map<String, Object>) event.get("response");
+            }
+        }
+    }
+
+    private void onData(Map<String, Object> event) {
+        synchronized (lock) {
+            Entry entry = inFlight.get((String) event.get("requestId"));
+            if (entry != null) {
+                entry.dataLength += (long) number(event.get("dataLength"));
+            }
+        }
+    }
+
+    private void onFinished(Map<String, Object> event) {
+        String requestId = (String) event.get("requestId");
+        Entry entry;
+        synchronized (lock) {
+            entry = inFlight.remove(requestId);
+        }
+        if (entry == null) {
+            return;
+        }
+        String body = null;
+        if (maxBodyBytes > 0 && entry.response != null && isText((String) entry.response.get("mimeType"))) {
+            body = responseBody(requestId);
+        }
+        finish(entry, number(event.get("timestamp")), number(event.get("encodedDataLength")), body, null);
+    }
+
+    private void onFailed(Map<String, Object> event) {
+        Entry entry;
+        synchronized (lock) {
+            entry = inFlight.remove((String) event.get("requestId"));
+        }
+        if (entry != null) {
+            String error = (String) event.get("errorText");
+            if (Boolean.TRUE.equals(event.get("canceled"))) {
+                error = "canceled";
+            }
+            finish(entry, number(event.get("timestamp")), 0, null, error);
+        }
+    }
+
+    /**
+     * Turn a finished request into a HAR entry and append it to the part file
+     */
+    @SuppressWarnings("unchecked")
+    private void finish(Entry entry, double endTimestamp, double transferSize, String body, String error) {
+        Map<String, Object> response = entry.response != null ? entry.response : Collections.emptyMap();
+        long total = Math.round((endTimestamp - entry.timestamp) * 1000);
+        String method = (String) entry.request.get("method");
+        String url = (String) entry.request.get("url");
+
+        Map<String, Object> request = new LinkedHashMap<>();
+        request.put("method", method);
+        request.put("url", url);
+        request.put("httpVersion", response.getOrDefault("protocol", ""));
+        request.put("cookies", Collections.emptyList());
+        request.put("headers", headers((Map<String, Object>) entry.request.get("headers")));
+        request.put("queryString", Collections.emptyList());
+        String postData = (String) entry.request.get("postData");
+        if (postData != null && maxBodyBytes > 0) {
+            Map<String, Object> posted = new LinkedHashMap<>();
+            Map<String, Object> requestHeaders = (Map<String, Object>) entry.request.get("headers");
+            posted.put("mimeType", requestHeaders != null ? requestHeaders.getOrDefault("Content-Type", "") : "");
+            posted.put("text", cap(postData));
+            request.put("postData", posted);
+        }
+        request.put("headersSize", -1);
+        request.put("bodySize", postData != null ? postData.getBytes(StandardCharsets.UTF_8).length : 0);
+
+        Map<String, Object> responseHeaders = (Map<String, Object>) response.get("headers");
+        Map<String, Object> content = new LinkedHashMap<>();
+        content.put("size", entry.dataLength);
+        content.put("mimeType", response.getOrDefault("mimeType", ""));
+        if (body != null) {
+            content.put("text", cap(body));
+        }
+        Map<String, Object> har = new LinkedHashMap<>();
+        har.put("status", response.containsKey("status") ? (int) number(response.get("status")) : 0);
+        har.put("statusText", response.getOrDefault("statusText", ""));
+        har.put("httpVersion", response.getOrDefault("protocol", ""));
+        har.put("cookies", Collections.emptyList());
+        har.put("headers", headers(responseHeaders));
+        har.put("content", content);
+        har.put("redirectURL", responseHeaders != null ? String.valueOf(responseHeaders.getOrDefault("Location",
+            responseHeaders.getOrDefault("location", ""))) : "");
+        har.put("headersSize", -1);
+        har.put("bodySize", (long) transferSize);
+        har.put("_transferSize", (long) transferSize);
+        if (error != null) {
+            har.put("_error", error);
+        }
+
+        Map<String, Object> harEntry = new LinkedHashMap<>();
+        harEntry.put("startedDateTime", Instant.ofEpochMilli(Math.round(entry.wallTime * 1000)).toString());
+        harEntry.put("time", total);
+        harEntry.put("request", request);
+        harEntry.put("response", har);
+        harEntry.put("cache", Collections.emptyMap());
+        harEntry.put("timings", timings((Map<String, Object>) response.get("timing"), entry.timestamp,
+            endTimestamp, total));
+        if (response.get("remoteIPAddress") != null) {
+            harEntry.put("serverIPAddress", response.get("remoteIPAddress"));
+        }
+        String line = new Json().toJson(harEntry).replace("\n", "");
+
+        synchronized (lock) {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.write(line);
+                out.newLine();
+                entries++;
+            } catch (IOException e) {
+                TestLog.warn("✗ HAR entry not written for " + testName + ": " + e.getMessage());
+            }
+            if (total > slowMillis && keepReason == null) {
+                keepReason = method + " " + url + " took " + total + " ms";
+            }
+        }
+    }
+
+    /**
+     * HAR timings from CDP ResourceTiming: offsets in ms from timing.requestTime, -1 when a phase did not happen
+     */
+    private static Map<String, Object> timings(Map<String, Object> timing, double startTimestamp,
+            double endTimestamp, long total) {
+        Map<String, Object> har = new LinkedHashMap<>();
+        if (timing == null) {
+            // Served from cache, a data: URL or failed before a response
+            har.put("blocked", -1);
+            har.put("dns", -1);
+            har.put("connect", -1);
+            har.put("ssl", -1);
+            har.put("send", 0);
+            har.put("wait", total);
+            har.put("receive", 0);
+            return har;
+        }
+        double dnsStart = number(timing.get("dnsStart"));
+        double connectStart = number(timing.get("connectStart"));
+        double sslStart = number(timing.get("sslStart"));
+        double sendStart = number(timing.get("sendStart"));
+        double sendEnd = number(timing.get("sendEnd"));
+        double headersEnd = number(timing.get("receiveHeadersEnd"));
+        double queued = (number(timing.get("requestTime")) - startTimestamp) * 1000;
+        double firstPhase = dnsStart >= 0 ? dnsStart : connectStart >= 0 ? connectStart : sendStart;
+        har.put("blocked", Math.round(Math.max(0, queued + firstPhase)));
+        har.put("dns", phase(dnsStart, number(timing.get("dnsEnd"))));
+        har.put("connect", phase(connectStart, number(timing.get("connectEnd"))));
+        har.put("ssl", phase(sslStart, number(timing.get("sslEnd"))));
+        har.put("send", Math.round(Math.max(0, sendEnd - sendStart)));
+        har.put("wait", Math.round(Math.max(0, headersEnd - sendEnd)));
+        double requestTime = number(timing.get("requestTime"));
+        har.put("receive", Math.round(Math.max(0, (endTimestamp - requestTime) * 1000 - headersEnd)));
+        return har;
+    }
+
+    private static long phase(double start, double end) {
+        return start >= 0 && end >= start ? Math.round(end - start) : -1;
+    }
+
+    private static List<Map<String, Object>> headers(Map<String, Object> headers) {
+        List<Map<String, Object>> har = new ArrayList<>();
+        if (headers != null) {
+            for (Map.Entry<String, Object> header : headers.entrySet()) {
+                Map<String, Object> pair = new LinkedHashMap<>();
+                pair.put("name", header.getKey());
+                pair.put("value", String.valueOf(header.getValue()));
+                har.add(pair);
+            }
+        }
+        return har;
+    }
+
+    private String responseBody(String requestId) {
+        try {
+            Map<String, Object> result = devTools.send(new Command<>("Network.getResponseBody",
+                Collections.singletonMap("requestId", requestId), input -> input.read(Json.MAP_TYPE)));
+            // Binary bodies come base64 encoded and are left out
+            return Boolean.TRUE.equals(result.get("base64Encoded")) ? null : (String) result.get("body");
+        } catch (Exception e) {
+            // Bodies of documents replaced by a navigation are gone
+            return null;
+        }
+    }
+
+    /**
+     * Cut a body to maxBodyBytes of UTF-8; the body has already been fetched whole at this point
+     */
+    private String cap(String text) {
+        byte[] utf8 = text.getBytes(StandardCharsets.UTF_8);
+        if (utf8.length <= maxBodyBytes) {
+            return text;
+        }
+        // Back off to the start of a UTF-8 sequence so no character is split
+        int end = maxBodyBytes;
+        while (end > 0 && (utf8[end] & 0xC0) == 0x80) {
+            end--;
+        }
+        return new String(utf8, 0, end, StandardCharsets.UTF_8) + "…[truncated]";
+    }
+
+    private static boolean isText(String mimeType) {
+        return mimeType != null && (mimeType.startsWith("text/") || mimeType.contains("json")
+            || mimeType.contains("xml") || mimeType.contains("javascript"));
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : -1;
+    }
+
+    /**
+     * Wrap the part file's lines into a HAR document, on the artifact writer thread
+     */
+    private static void write(Path part, String fileName, int written, String reason) {
+        File destination = new File(HAR_DIR, fileName);
+        try (BufferedReader in = Files.newBufferedReader(part, StandardCharsets.UTF_8);
+             BufferedWriter har = Files.newBufferedWriter(destination.toPath(), StandardCharsets.UTF_8)) {
+            har.write("{\"log\":{\"version\":\"1.2\",\"creator\":{\"name\":\"selenium-testng-framework\","
+                + "\"version\":\"1.0\"},\"pages\":[],\"entries\":[");
+            boolean first = true;
+            String line;
+            while ((line = in.readLine()) != null) {
+                if (!first) {
+                    har.write(',');
+                }
+                har.newLine();
+                har.write(line);
+                first = false;
+            }
+            har.newLine();
+            har.write("]}}");
+            TestLog.info("✓ HAR saved (" + written + " requests, " + reason + "): " + destination.getPath());
+        } catch (Exception e) {
+            TestLog.warn("✗ Failed to write HAR " + fileName + ": " + e.getMessage());
+        } finally {
+            try {
+                Files.deleteIfExists(part);
+            } catch (IOException e) {
+                TestLog.debug("HAR part file not deleted: " + e.getMessage());
+            }
+        }
+    }
+}
@@ -0,0 +1,470 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import java.net.URI;
+import java.net.URLDecoder;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Base64;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Records the HTTP requests a UI flow makes (Chrome and Edge, CDP Network events) and
+ * turns them into an HttpScript for HttpReplayer.
+ *
+ * Only documents, XHR and fetch calls to the origin of the first document are kept;
+ * scripts, styles and images are the browser's business, not the backend's. Headers are
+ * reduced to those the backend reads (content type, accept, X-Requested-With, CSRF).
+ *
+ * Values registered with parameter() become ${name} variables. Other per-session values
+ * are correlated automatically: a number (2+ digits), UUID or token (16+ characters) sent
+ * in a URL, form field, JSON body or header that first appeared in an earlier response
+ * (a Location header, a CSRF meta tag, a created record's id in JSON) becomes a variable
+ * with an extractor on that response. The extractor matches the text just left of the
+ * value, so a replayed session reads its own token or id from the same place; a value that
+ * text would not pick out unambiguously (e.g. one of several option values) stays literal.
+ */
+public class HttpFlowRecorder {
+    private static final Set<String> RECORDED_TYPES = new HashSet<>(Arrays.asList("Document", "XHR", "Fetch"));
+    private static final Set<String> KEPT_HEADERS = new HashSet<>(Arrays.asList("content-type", "accept",
+        "x-requested-with", "x-csrf-token", "x-xsrf-token"));
+    private static final Pattern DIGITS = Pattern.compile("\\d{2,}");
+    private static final Pattern UUID = Pattern.compile("[0-9a-fA-F]{8}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{4}-[0-9a-fA-F]{12}");
+    private static final Pattern TOKEN = Pattern.compile("[A-Za-z0-9+/=_-]{16,}");
+    // Values inside a request: path segments, query and form values, JSON values
+    private static final Pattern FORM_VALUE = Pattern.compile("(?:^|&)[^=&]*=([^&]*)");
+    private static final Pattern JSON_VALUE = Pattern.compile(":\\s*\"?([^\",}\\]]+)");
+    private static final int MAX_BODY_CHARS = 512 * 1024;
+    private static final int LEFT_BOUNDARY_CHARS = 24;
+    private static final long SETTLE_MILLIS = 5000;
+
+    private final DevTools devTools;
+    private final Map<String, String> parameters = new LinkedHashMap<>();
+    // Exchanges in the order the requests were sent; the map holds each request id's current hop
+    private final List<Exchange> exchanges = new ArrayList<>();
+    private final Map<String, Exchange> inFlight = new LinkedHashMap<>();
+    private boolean listening;
+    private volatile boolean recording;
+
+    /**
+     * A request and, once finished, its response
+     */
+    private static final class Exchange {
+        private String method;
+        private String url;
+        private String type;
+        private Map<String, String> headers = new LinkedHashMap<>();
+        private String body;
+        private long sentMillis;
+        private int status;
+        private Map<String, String> responseHeaders = new LinkedHashMap<>();
+        private String mimeType;
+        private String responseBody;
+        private boolean finished;
+    }
+
+    private HttpFlowRecorder(DevTools devTools) {
+        this.devTools = devTools;
+    }
+
+    /**
+     * @param driver Chrome or Edge session the flow runs in
+     * @return Recorder, not yet recording
+     */
+    public static HttpFlowRecorder attach(WebDriver driver) {
+        if (!DevToolsSupport.isSupported(driver)) {
+            throw new IllegalStateException("HTTP flow recording needs Chrome or Edge");
+        }
+        return new HttpFlowRecorder(DevToolsSupport.openSession(driver));
+    }
+
+    /**
+     * Replace a value the flow sends with a variable, e.g. the user name, so each replayed
+     * user can send its own
+     * @param name Variable name
+     * @param value Value as typed in the flow
+     */
+    public HttpFlowRecorder parameter(String name, String value) {
+        parameters.put(name, value);
+        return this;
+    }
+
+    /**
+     * Start recording; requests already in flight are ignored
+     */
+    public void start() {
+        synchronized (exchanges) {
+            exchanges.clear();
+            inFlight.clear();
+        }
+        if (!listening) {
+            listening = true;
+            devTools.addListener(event("Network.requestWillBeSent"), this::onRequest);
+            devTools.addListener(event("Network.responseReceived"), this::onResponse);
+            devTools.addListener(event("Network.loadingFinished"), this::onFinished);
+            devTools.addListener(event("Network.loadingFailed"), this::onFailed);
+        }
+        devTools.send(new Command<Void>("Network.enable", Collections.singletonMap("maxPostDataSize", MAX_BODY_CHARS)));
+        recording = true;
+    }
+
+    /**
+     * Stop recording and build the script
+     * @param name Script name
+     * @return Correlated, parameterised script
+     */
+    public HttpScript stop(String name) {
+        long deadline = System.currentTimeMillis() + SETTLE_MILLIS;
+        while (System.currentTimeMillis() < deadline) {
+            synchronized (exchanges) {
+                if (inFlight.isEmpty()) {
+                    break;
+                }
+            }
+            try {
+                Thread.sleep(100);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        recording = false;
+        List<Exchange> recorded = new ArrayList<>();
+        String origin = null;
+        synchronized (exchanges) {
+            for (Exchange exchange : exchanges) {
+                if (origin == null && "Document".equals(exchange.type)) {
+                    origin = originOf(exchange.url);
+                }
+                if (exchange.finished && exchange.status > 0 && origin != null && origin.equals(originOf(exchange.url))) {
+                    recorded.add(exchange);
+                }
+            }
+        }
+        HttpScript script = correlate(name, recorded);
+        TestLog.info("Recorded " + script.getRequests().size() + " request(s) of " + origin + " as script " + name);
+        return script;
+    }
+
+    private static Event<Map<String, Object>> event(String name) {
+        return new Event<>(name, input -> input.read(Json.MAP_TYPE));
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onRequest(Map<String, Object> event) {
+        if (!recording) {
+            return;
+        }
+        String requestId = (String) event.get("requestId");
+        Map<String, Object> request = (Map<String, Object>) event.get("request");
+        Map<String, Object> redirect = (Map<String, Object>) event.get("redirectResponse");
+        Exchange exchange = new Exchange();
+        exchange.method = (String) request.get("method");
+        exchange.url = (String) request.get("url");
+        exchange.type = (String) event.get("type");
+        exchange.sentMillis = System.currentTimeMillis();
+        exchange.body = (String) request.get("postData");
+        for (Map.Entry<String, Object> header : ((Map<String, Object>) request.get("headers")).entrySet()) {
+            if (KEPT_HEADERS.contains(header.getKey().toLowerCase())) {
+                exchange.headers.put(header.getKey(), String.valueOf(header.getValue()));
+            }
+        }
+        if (exchange.body == null && Boolean.TRUE.equals(request.get("hasPostData"))) {
+            exchange.body = postData(requestId);
+        }
+        synchronized (exchanges) {
+            // A redirect ends the previous hop of the same request id
+            Exchange previous = inFlight.get(requestId);
+            if (previous != null && redirect != null) {
+                response(previous, redirect);
+                previous.finished = true;
+            }
+            if (RECORDED_TYPES.contains(exchange.type)) {
+                exchanges.add(exchange);
+                inFlight.put(requestId, exchange);
+            } else {
+                inFlight.remove(requestId);
+            }
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private void onResponse(Map<String, Object> event) {
+        synchronized (exchanges) {
+            Exchange exchange = inFlight.get((String) event.get("requestId"));
+            if (exchange != null) {
+                response(exchange, (Map<String, Object>) event.get("response"));
+            }
+        }
+    }
+
+    private void onFinished(Map<String, Object> event) {
+        String requestId = (String) event.get("requestId");
+        Exchange exchange;
+        synchronized (exchanges) {
+            exchange = inFlight.get(requestId);
+        }
+        if (exchange == null) {
+            return;
+        }
+        if (exchange.mimeType != null && (exchange.mimeType.startsWith("text/") || exchange.mimeType.contains("json")
+                || exchange.mimeType.contains("xml"))) {
+            exchange.responseBody = responseBody(requestId);
+        }
+        synchronized (exchanges) {
+            exchange.finished = true;
+            inFlight.remove(requestId);
+        }
+    }
+
+    private void onFailed(Map<String, Object> event) {
+        synchronized (exchanges) {
+            inFlight.remove((String) event.get("requestId"));
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    private static void response(Exchange exchange, Map<String, Object> response) {
+        exchange.status = ((Number) response.get("status")).intValue();
+        exchange.mimeType = (String) response.get("mimeType");
+        Map<String, Object> headers = (Map<String, Object>) response.get("headers");
+        if (headers != null) {
+            for (Map.Entry<String, Object> header : headers.entrySet()) {
+                exchange.responseHeaders.put(header.getKey(), String.valueOf(header.getValue()));
+            }
+        }
+    }
+
+    private String postData(String requestId) {
+        try {
+            Map<String, Object> result = devTools.send(new Command<>("Network.getRequestPostData",
+                Collections.singletonMap("requestId", requestId), input -> input.read(Json.MAP_TYPE)));
+            return (String) result.get("postData");
+        } catch (Exception e) {
+            TestLog.debug("Request body not recorded: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private String responseBody(String requestId) {
+        try {
+            Map<String, Object> result = devTools.send(new Command<>("Network.getResponseBody",
+                Collections.singletonMap("requestId", requestId), input -> input.read(Json.MAP_TYPE)));
+            String body = (String) result.get("body");
+            if (body != null && Boolean.TRUE.equals(result.get("base64Encoded"))) {
+                body = new String(Base64.getDecoder().decode(body), StandardCharsets.UTF_8);
+            }
+            return body != null && body.length() > MAX_BODY_CHARS ? body.substring(0, MAX_BODY_CHARS) : body;
+        } catch (Exception e) {
+            // Bodies of documents replaced by a navigation are gone; correlation skips them
+            return null;
+        }
+    }
+
+    /**
+     * Turn recorded exchanges into templates, replacing parameters and correlated values
+     */
+    private HttpScript correlate(String name, List<Exchange> recorded) {
+        Map<String, String> variables = new LinkedHashMap<>();
+        for (Map.Entry<String, String> parameter : parameters.entrySet()) {
+            variables.put(parameter.getValue(), parameter.getKey());
+        }
+        List<List<HttpScript.Extractor>> extractors = new ArrayList<>();
+        for (int i = 0; i < recorded.size(); i++) {
+            extractors.add(new ArrayList<>());
+        }
+        int correlated = 0;
+        for (int i = 0; i < recorded.size(); i++) {
+            for (String value : dynamicValues(recorded.get(i))) {
+                if (variables.containsKey(value)) {
+                    continue;
+                }
+                String variable = (DIGITS.matcher(value).matches() ? "id" : "token") + (correlated + 1);
+                for (int j = i - 1; j >= 0; j--) {
+                    HttpScript.Extractor extractor = extractor(recorded.get(j), value, variable);
+                    if (extractor != null) {
+                        extractors.get(j).add(extractor);
+                        variables.put(value, variable);
+                        correlated++;
+                        break;
+                    }
+                }
+            }
+        }
+
+        List<HttpScript.Request> requests = new ArrayList<>();
+        long firstSent = recorded.isEmpty() ? 0 : recorded.get(0).sentMillis;
+        for (int i = 0; i < recorded.size(); i++) {
+            Exchange exchange = recorded.get(i);
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (Map.Entry<String, String> header : exchange.headers.entrySet()) {
+                headers.put(header.getKey(), template(header.getValue(), variables));
+            }
+            // Only the path and query are templated, never the host or port
+            String origin = originOf(exchange.url);
+            String url = origin + template(exchange.url.substring(origin.length()), variables);
+            requests.add(new HttpScript.Request(exchange.method, url, headers,
+                template(exchange.body, variables), exchange.status, exchange.sentMillis - firstSent,
+                extractors.get(i)));
+        }
+        return new HttpScript(name, requests);
+    }
+
+    /**
+     * @return Values in the request's URL, body and headers that look generated per session
+     */
+    private static Set<String> dynamicValues(Exchange exchange) {
+        Set<String> values = new LinkedHashSet<>();
+        URI uri = URI.create(exchange.url);
+        for (String segment : uri.getRawPath().split("/")) {
+            addIfDynamic(values, decode(segment));
+        }
+        if (uri.getRawQuery() != null) {
+            addFormValues(values, uri.getRawQuery());
+        }
+        if (exchange.body != null) {
+            String contentType = String.valueOf(headerValue(exchange.headers, "content-type"));
+            if (contentType.contains("json")) {
+                Matcher matcher = JSON_VALUE.matcher(exchange.body);
+                while (matcher.find()) {
+                    addIfDynamic(values, matcher.group(1).trim());
+                }
+            } else if (contentType.contains("x-www-form-urlencoded")) {
+                addFormValues(values, exchange.body);
+            }
+        }
+        for (String header : exchange.headers.values()) {
+            addIfDynamic(values, header);
+        }
+        return values;
+    }
+
+    private static void addFormValues(Set<String> values, String form) {
+        Matcher matcher = FORM_VALUE.matcher(form);
+        while (matcher.find()) {
+            addIfDynamic(values, decode(matcher.group(1)));
+        }
+    }
+
+    private static void addIfDynamic(Set<String> values, String value) {
+        if (DIGITS.matcher(value).matches() || UUID.matcher(value).matches()
+                || (TOKEN.matcher(value).matches() && !value.matches("[a-z_-]+"))) {
+            values.add(value);
+        }
+    }
+
+    /**
+     * Build an extractor reading the value from the response, by a header or the body
+     * @return Extractor whose first match is the value, or null when the response does not
+     * contain it or another match comes first
+     */
+    private static HttpScript.Extractor extractor(Exchange source, String value, String variable) {
+        String capture = DIGITS.matcher(value).matches() ? "(\\d+)"
+            : UUID.matcher(value).matches() ? "([0-9a-fA-F-]{36})" : "([^\"'&<>\\s]+)";
+        for (Map.Entry<String, String> header : source.responseHeaders.entrySet()) {
+            String left = leftBoundary(header.getValue(), value);
+            if (left != null) {
+                HttpScript.Extractor extractor = new HttpScript.Extractor(variable, header.getKey(),
+                    Pattern.quote(left) + capture);
+                if (value.equals(extractor.extract(header.getValue()))) {
+                    return extractor;
+                }
+            }
+        }
+        String left = leftBoundary(source.responseBody, value);
+        if (left == null) {
+            return null;
+        }
+        HttpScript.Extractor extractor = new HttpScript.Extractor(variable, HttpScript.Extractor.BODY,
+            Pattern.quote(left) + capture);
+        return value.equals(extractor.extract(source.responseBody)) ? extractor : null;
+    }
+
+    /**
+     * @return Up to LEFT_BOUNDARY_CHARS of text before the value's first whole occurrence,
+     * cut after the last digit or line break so other per-session values stay out of it;
+     * null when the text does not contain the value
+     */
+    private static String leftBoundary(String text, String value) {
+        if (text == null) {
+            return null;
+        }
+        Matcher matcher = Pattern.compile("(?<![A-Za-z0-9])" + Pattern.quote(value) + "(?![A-Za-z0-9])").matcher(text);
+        if (!matcher.find() || matcher.start() == 0) {
+            return null;
+        }
+        String left = text.substring(Math.max(0, matcher.start() - LEFT_BOUNDARY_CHARS), matcher.start());
+        for (int i = left.length() - 1; i >= 0; i--) {
+            char c = left.charAt(i);
+            if (Character.isDigit(c) || c == '\n' || c == '\r') {
+                left = left.substring(i + 1);
+                break;
+            }
+        }
+        return left.isEmpty() ? null : left;
+    }
+
+    /**
+     * Replace every whole occurrence of a known value, raw or URL-encoded, with its variable
+     */
+    private static String template(String text, Map<String, String> variables) {
+        if (text == null) {
+            return null;
+        }
+        String templated = text;
+        for (Map.Entry<String, String> variable : variables.entrySet()) {
+            String encoded = URLEncoder.encode(variable.getKey(), StandardCharsets.UTF_8);
+            if (!encoded.equals(variable.getKey())) {
+                templated = replaceWhole(templated, encoded, "${" + variable.getValue() + ":url}");
+            }
+            templated = replaceWhole(templated, variable.getKey(), "${" + variable.getValue() + "}");
+        }
+        return templated;
+    }
+
+    private static String replaceWhole(String text, String value, String replacement) {
+        return text.replaceAll("(?<![A-Za-z0-9])" + Pattern.quote(value) + "(?![A-Za-z0-9])",
+            Matcher.quoteReplacement(replacement));
+    }
+
+    private static Object headerValue(Map<String, String> headers, String name) {
+        for (Map.Entry<String, String> header : headers.entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static String decode(String value) {
+        try {
+            return URLDecoder.decode(value, StandardCharsets.UTF_8);
+        } catch (IllegalArgumentException e) {
+            return value;
+        }
+    }
+
+    private static String originOf(String url) {
+        try {
+            URI uri = URI.create(url);
+            return uri.getScheme() + "://" + uri.getRawAuthority();
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,479 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.IntFunction;
+
+/**
+ * Replays an HttpScript with many concurrent virtual users from one JVM, to load the
+ * backend far beyond what browser sessions can.
+ *
+ * Every user is a chain of asynchronous HttpClient requests on a small shared thread
+ * pool, so thousands of users cost sockets rather than threads. A user replays the whole
+ * script per iteration with a fresh cookie jar and variables: its parameters first, then
+ * whatever the script's extractors read from the responses. Redirects are not followed;
+ * each recorded hop is sent as recorded. A response with another status than recorded, or
+ * an extractor without a match, counts as an error and ends the iteration.
+ *
+ * Latency is kept per request (method and path template) in lock-free log-linear
+ * histograms, about 3% precision, so memory does not grow with the request count.
+ */
+public class HttpReplayer {
+    private final HttpScript script;
+    private int users;
+    private int iterations;
+    private Duration rampUp;
+    private Duration timeout;
+    private double thinkScale;
+    private IntFunction<Map<String, String>> parameters = user -> Collections.emptyMap();
+
+    /**
+     * Requests, errors and latency of one script request
+     */
+    public static final class RequestStats {
+        // Micros below 64 have a bucket each, above that 32 buckets per power of two
+        private static final int BUCKETS = 64 + 40 * 32;
+
+        private final String label;
+        private final AtomicLongArray buckets = new AtomicLongArray(BUCKETS);
+        private final AtomicLong count = new AtomicLong();
+        private final AtomicLong errors = new AtomicLong();
+        private final AtomicLong maxMicros = new AtomicLong();
+        private volatile String firstError;
+
+        private RequestStats(String label) {
+            this.label = label;
+        }
+
+        private void record(long nanos, String error) {
+            long micros = Math.max(0, nanos / 1000);
+            buckets.incrementAndGet(bucket(micros));
+            count.incrementAndGet();
+            maxMicros.accumulateAndGet(micros, Math::max);
+            if (error != null && errors.incrementAndGet() == 1) {
+                firstError = error;
+            }
+        }
+
+        private static int bucket(long micros) {
+            if (micros < 64) {
+                return (int) micros;
+            }
+            int exponent = 63 - Long.numberOfLeadingZeros(micros);
+            int mantissa = (int) (micros >>> (exponent - 5));
+            return Math.min(BUCKETS - 1, 64 + (exponent - 6) * 32 + (mantissa - 32));
+        }
+
+        private static long midpoint(int bucket) {
+            if (bucket < 64) {
+                return bucket;
+            }
+            int exponent = (bucket - 64) / 32 + 6;
+            long mantissa = (bucket - 64) % 32 + 32;
+            return (mantissa << (exponent - 5)) + (1L << (exponent - 6));
+        }
+
+        public String getLabel() {
+            return label;
+        }
+
+        public long getCount() {
+            return count.get();
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public String getFirstError() {
+            return firstError;
+        }
+
+        /**
+         * @param percent Percentile, e.g. 99
+         * @return Latency in milliseconds, errors included
+         */
+        public double percentileMillis(double percent) {
+            long total = count.get();
+            if (total == 0) {
+                return 0;
+            }
+            if (percent >= 100) {
+                return maxMicros.get() / 1000.0;
+            }
+            long rank = Math.max(1, (long) Math.ceil(percent / 100.0 * total));
+            long seen = 0;
+            for (int i = 0; i < BUCKETS; i++) {
+                seen += buckets.get(i);
+                if (seen >= rank) {
+                    return Math.min(midpoint(i), maxMicros.get()) / 1000.0;
+                }
+            }
+            return maxMicros.get() / 1000.0;
+        }
+    }
+
+    /**
+     * Statistics of a finished replay
+     */
+    public static final class Result {
+        private final Map<String, RequestStats> requests;
+        private final int users;
+        private final long iterations;
+        private final long completedIterations;
+        private final double seconds;
+
+        private Result(Map<String, RequestStats> requests, int users, long iterations, long completedIterations,
+                double seconds) {
+            this.requests = requests;
+            this.users = users;
+            this.iterations = iterations;
+            this.completedIterations = completedIterations;
+            this.seconds = seconds;
+        }
+
+        /**
+         * @return Statistics per request label, in script order
+         */
+        public Map<String, RequestStats> getRequests() {
+            return requests;
+        }
+
+        public int getUsers() {
+            return users;
+        }
+
+        public long getIterations() {
+            return iterations;
+        }
+
+        /**
+         * @return Iterations in which every request got its recorded status
+         */
+        public long getCompletedIterations() {
+            return completedIterations;
+        }
+
+        public double getSeconds() {
+            return seconds;
+        }
+
+        public long getRequestCount() {
+            long total = 0;
+            for (RequestStats stats : requests.values()) {
+                total += stats.getCount();
+            }
+            return total;
+        }
+
+        public long getErrors() {
+            long total = 0;
+            for (RequestStats stats : requests.values()) {
+                total += stats.getErrors();
+            }
+            return total;
+        }
+    }
+
+    /**
+     * One virtual user's replay state; only touched by the user's own request chain
+     */
+    private final class User {
+        private final int id;
+        private final Map<String, String> cookies = new LinkedHashMap<>();
+        private final Map<String, String> variables = new HashMap<>();
+        private final CompletableFuture<Void> done = new CompletableFuture<>();
+        private int iteration;
+
+        private User(int id) {
+            this.id = id;
+        }
+    }
+
+    /**
+     * @param script Recorded script
+     * @param config Configuration the replay settings are read from
+     */
+    public HttpReplayer(HttpScript script, ConfigReader config) {
+        this.script = script;
+        this.users = config.getInt("replayUsers", 200);
+        this.iterations = config.getInt("replayIterations", 5);
+        this.rampUp = Duration.ofSeconds(config.getInt("replayRampUpSeconds", 10));
+        this.timeout = Duration.ofSeconds(config.getInt("replayTimeoutSeconds", 60));
+        this.thinkScale = config.getInt("replayThinkPct", 0) / 100.0;
+    }
+
+    public HttpReplayer users(int users) {
+        this.users = users;
+        return this;
+    }
+
+    public HttpReplayer iterations(int iterations) {
+        this.iterations = iterations;
+        return this;
+    }
+
+    public HttpReplayer rampUp(Duration rampUp) {
+        this.rampUp = rampUp;
+        return this;
+    }
+
+    /**
+     * @param thinkScale Share of the recorded pause before each request to keep; 0 sends back to back
+     */
+    public HttpReplayer thinkScale(double thinkScale) {
+        this.thinkScale = thinkScale;
+        return this;
+    }
+
+    /**
+     * @param parameters Variables per user number (1-based), e.g. its user name
+     */
+    public HttpReplayer parameters(IntFunction<Map<String, String>> parameters) {
+        this.parameters = parameters;
+        return this;
+    }
+
+    /**
+     * Replay the script with every user and wait for them
+     * @return Statistics per request
+     */
+    public Result run() {
+        List<HttpScript.Request> requests = script.getRequests();
+        Map<String, RequestStats> stats = new LinkedHashMap<>();
+        for (HttpScript.Request request : requests) {
+            stats.computeIfAbsent(request.label(), RequestStats::new);
+        }
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(2, Runtime.getRuntime().availableProcessors()),
+            runnable -> {
+                Thread thread = new Thread(runnable, "http-replay-" + threads.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            });
+        HttpClient client = HttpClient.newBuilder()
+            .executor(executor)
+            .followRedirects(HttpClient.Redirect.NEVER)
+            .connectTimeout(timeout)
+            .build();
+        AtomicLong completed = new AtomicLong();
+        AtomicLong started = new AtomicLong();
+
+        TestLog.info("Replaying " + script.getName() + " (" + requests.size() + " requests) with " + users
+            + " user(s) x " + iterations + " iteration(s)");
+        long startNanos = System.nanoTime();
+        List<CompletableFuture<Void>> all = new ArrayList<>();
+        for (int i = 0; i < users; i++) {
+            User user = new User(i + 1);
+            all.add(user.done);
+            long delay = users > 1 ? rampUp.toMillis() * i / (users - 1) : 0;
+            CompletableFuture.delayedExecutor(delay, TimeUnit.MILLISECONDS, executor)
+                .execute(() -> startIteration(client, executor, user, stats, started, completed));
+        }
+        try {
+            CompletableFuture.allOf(all.toArray(new CompletableFuture[0]))
+                .get(rampUp.toMillis() + timeout.toMillis() * requests.size() * Math.max(1, iterations),
+                    TimeUnit.MILLISECONDS);
+        } catch (TimeoutException e) {
+            TestLog.warn("✗ Replay of " + script.getName() + " did not finish in time");
+        } catch (Exception e) {
+            TestLog.warn("✗ Replay of " + script.getName() + " failed: " + e.getMessage());
+        } finally {
+            executor.shutdownNow();
+        }
+
+        double seconds = (System.nanoTime() - startNanos) / 1e9;
+        Result result = new Result(Collections.unmodifiableMap(stats), users, started.get(), completed.get(), seconds);
+        TestLog.info(describe(script.getName(), result));
+        write(script.getName(), result);
+        return result;
+    }
+
+    private void startIteration(HttpClient client, ExecutorService executor, User user,
+            Map<String, RequestStats> stats, AtomicLong started, AtomicLong completed) {
+        if (user.iteration >= iterations) {
+            user.done.complete(null);
+            return;
+        }
+        user.iteration++;
+        started.incrementAndGet();
+        user.cookies.clear();
+        user.variables.clear();
+        user.variables.putAll(parameters.apply(user.id));
+        send(client, executor, user, 0, stats, started, completed);
+    }
+
+    private void send(HttpClient client, ExecutorService executor, User user, int index,
+            Map<String, RequestStats> stats, AtomicLong started, AtomicLong completed) {
+        List<HttpScript.Request> requests = script.getRequests();
+        if (index == requests.size()) {
+            completed.incrementAndGet();
+            startIteration(client, executor, user, stats, started, completed);
+            return;
+        }
+        HttpScript.Request recorded = requests.get(index);
+        RequestStats requestStats = stats.get(recorded.label());
+        HttpRequest request;
+        try {
+            request = build(recorded, user);
+        } catch (RuntimeException e) {
+            requestStats.record(0, e.getMessage());
+            startIteration(client, executor, user, stats, started, completed);
+            return;
+        }
+        // Bodies nothing is extracted from are read and dropped, not kept in memory
+        HttpResponse.BodyHandler<String> body = recorded.getExtractors().isEmpty()
+            ? HttpResponse.BodyHandlers.replacing(null) : HttpResponse.BodyHandlers.ofString();
+        long sent = System.nanoTime();
+        client.sendAsync(request, body).whenComplete((response, failure) -> {
+            long nanos = System.nanoTime() - sent;
+            String error = failure != null ? failure.getClass().getSimpleName() + ": " + failure.getMessage()
+                : check(recorded, response, user);
+            requestStats.record(nanos, error);
+            if (error != null) {
+                startIteration(client, executor, user, stats, started, completed);
+                return;
+            }
+            long pause = index + 1 < requests.size()
+                ? (long) ((requests.get(index + 1).getOffsetMillis() - recorded.getOffsetMillis()) * thinkScale) : 0;
+            if (pause > 0) {
+                CompletableFuture.delayedExecutor(pause, TimeUnit.MILLISECONDS, executor)
+                    .execute(() -> send(client, executor, user, index + 1, stats, started, completed));
+            } else {
+                send(client, executor, user, index + 1, stats, started, completed);
+            }
+        });
+    }
+
+    private HttpRequest build(HttpScript.Request recorded, User user) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(HttpScript.substitute(recorded.getUrl(),
+            user.variables))).timeout(timeout);
+        for (Map.Entry<String, String> header : recorded.getHeaders().entrySet()) {
+            builder.header(header.getKey(), HttpScript.substitute(header.getValue(), user.variables));
+        }
+        if (!user.cookies.isEmpty()) {
+            StringBuilder cookie = new StringBuilder();
+            for (Map.Entry<String, String> entry : user.cookies.entrySet()) {
+                cookie.append(cookie.length() > 0 ? "; " : "").append(entry.getKey()).append('=').append(entry.getValue());
+            }
+            builder.header("Cookie", cookie.toString());
+        }
+        String body = HttpScript.substitute(recorded.getBody(), user.variables);
+        builder.method(recorded.getMethod(), body != null
+            ? HttpRequest.BodyPublishers.ofString(body) : HttpRequest.BodyPublishers.noBody());
+        return builder.build();
+    }
+
+    /**
+     * Keep the response's cookies and variables
+     * @return Error, or null when the response is as recorded
+     */
+    private static String check(HttpScript.Request recorded, HttpResponse<String> response, User user) {
+        for (String setCookie : response.headers().allValues("set-cookie")) {
+            String pair = setCookie.split(";", 2)[0];
+            int equals = pair.indexOf('=');
+            if (equals > 0) {
+                String name = pair.substring(0, equals).trim();
+                if (setCookie.toLowerCase().contains("max-age=0")) {
+                    user.cookies.remove(name);
+                } else {
+                    user.cookies.put(name, pair.substring(equals + 1).trim());
+                }
+            }
+        }
+        if (response.statusCode() != recorded.getStatus()) {
+            return "HTTP " + response.statusCode() + " instead of " + recorded.getStatus();
+        }
+        for (HttpScript.Extractor extractor : recorded.getExtractors()) {
+            String text = HttpScript.Extractor.BODY.equals(extractor.getSource()) ? response.body()
+                : response.headers().firstValue(extractor.getSource()).orElse(null);
+            String value = extractor.extract(text);
+            if (value == null) {
+                return "No ${" + extractor.getName() + "} in " + extractor.getSource();
+            }
+            user.variables.put(extractor.getName(), value);
+        }
+        return null;
+    }
+
+    /**
+     * @return Table of the replay's requests
+     */
+    public static String describe(String name, Result result) {
+        StringBuilder table = new StringBuilder(String.format(
+            "%nReplay %s: %d user(s), %d/%d iteration(s) complete, %d request(s) in %.1f s (%.0f/s)%n", name,
+            result.getUsers(), result.getCompletedIterations(), result.getIterations(), result.getRequestCount(),
+            result.getSeconds(), result.getSeconds() > 0 ? result.getRequestCount() / result.getSeconds() : 0));
+        table.append(String.format("  %-50s %8s %8s %9s %9s %9s %9s %9s%n", "Request", "Count", "Errors", "p50 ms",
+            "p90 ms", "p95 ms", "p99 ms", "Max ms"));
+        for (RequestStats stats : result.getRequests().values()) {
+            table.append(String.format("%s %-50s %8d %8d %9.1f %9.1f %9.1f %9.1f %9.1f%n",
+                stats.getErrors() > 0 ? "✗" : " ", stats.getLabel(), stats.getCount(), stats.getErrors(),
+                stats.percentileMillis(50), stats.percentileMillis(90), stats.percentileMillis(95),
+                stats.percentileMillis(99), stats.percentileMillis(100)));
+            if (stats.getFirstError() != null) {
+                table.append("    first error: ").append(stats.getFirstError()).append(String.format("%n"));
+            }
+        }
+        return table.toString();
+    }
+
+    private static void write(String name, Result result) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("name", name);
+        json.put("time", Instant.now().toString());
+        json.put("users", result.getUsers());
+        json.put("iterations", result.getIterations());
+        json.put("completedIterations", result.getCompletedIterations());
+        json.put("seconds", result.getSeconds());
+        List<Map<String, Object>> requests = new ArrayList<>();
+        for (RequestStats stats : result.getRequests().values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("request", stats.getLabel());
+            entry.put("count", stats.getCount());
+            entry.put("errors", stats.getErrors());
+            entry.put("p50Ms", stats.percentileMillis(50));
+            entry.put("p90Ms", stats.percentileMillis(90));
+            entry.put("p95Ms", stats.percentileMillis(95));
+            entry.put("p99Ms", stats.percentileMillis(99));
+            entry.put("maxMs", stats.percentileMillis(100));
+            entry.put("firstError", stats.getFirstError());
+            requests.add(entry);
+        }
+        json.put("requests", requests);
+        Path file = Paths.get(LoadRunner.RESULT_DIR, "replay-" + name.replaceAll("[^A-Za-z0-9_-]", "_") + "-"
+            + Instant.now().toString().replace(':', '-') + ".json");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+            TestLog.info("Replay results: " + file);
+        } catch (IOException e) {
+            TestLog.warn("✗ Replay results not written: " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,265 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Parameterised HTTP request script recorded from a UI flow by HttpFlowRecorder and
+ * replayed by HttpReplayer.
+ *
+ * URLs, header values and bodies are templates: ${name} is replaced with a variable's
+ * value and ${name:url} with its URL-encoded value. Variables come from the replay's
+ * parameters (e.g. the user of each virtual user) or from extractors, which read a
+ * per-session value such as a CSRF token or a new record's id from an earlier response.
+ * Scripts are saved as JSON under target/http-scripts/ so a flow is recorded once and
+ * replayed many times.
+ */
+public class HttpScript {
+    public static final String SCRIPT_DIR = "target/http-scripts";
+    private static final Pattern VARIABLE = Pattern.compile("\\$\\{([A-Za-z0-9_]+)(:url)?}");
+
+    private final String name;
+    private final List<Request> requests;
+
+    /**
+     * Reads a variable from a response, e.g. body &lt;meta name="csrf-token" content="([^"]+)
+     */
+    public static final class Extractor {
+        public static final String BODY = "body";
+
+        private final String name;
+        private final String source;
+        private final Pattern pattern;
+
+        /**
+         * @param name Variable the first group is stored in
+         * @param source BODY, or the response header to read, e.g. Location
+         * @param regex Regular expression with one capturing group
+         */
+        public Extractor(String name, String source, String regex) {
+            this.name = name;
+            this.source = source;
+            this.pattern = Pattern.compile(regex);
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public String getSource() {
+            return source;
+        }
+
+        public String getRegex() {
+            return pattern.pattern();
+        }
+
+        /**
+         * @param text Response body or header value
+         * @return First group of the first match, or null
+         */
+        public String extract(String text) {
+            if (text == null) {
+                return null;
+            }
+            Matcher matcher = pattern.matcher(text);
+            return matcher.find() ? matcher.group(1) : null;
+        }
+    }
+
+    /**
+     * One recorded request with its templates and the response it got when recorded
+     */
+    public static final class Request {
+        private final String method;
+        private final String url;
+        private final Map<String, String> headers;
+        private final String body;
+        private final int status;
+        private final long offsetMillis;
+        private final List<Extractor> extractors;
+
+        /**
+         * @param method HTTP method
+         * @param url URL template
+         * @param headers Header name to value template
+         * @param body Body template, or null
+         * @param status Status the request got when recorded
+         * @param offsetMillis When it was sent, relative to the first request
+         * @param extractors Variables read from its response
+         */
+        public Request(String method, String url, Map<String, String> headers, String body, int status,
+                long offsetMillis, List<Extractor> extractors) {
+            this.method = method;
+            this.url = url;
+            this.headers = Collections.unmodifiableMap(new LinkedHashMap<>(headers));
+            this.body = body;
+            this.status = status;
+            this.offsetMillis = offsetMillis;
+            this.extractors = Collections.unmodifiableList(new ArrayList<>(extractors));
+        }
+
+        public String getMethod() {
+            return method;
+        }
+
+        public String getUrl() {
+            return url;
+        }
+
+        public Map<String, String> getHeaders() {
+            return headers;
+        }
+
+        public String getBody() {
+            return body;
+        }
+
+        public int getStatus() {
+            return status;
+        }
+
+        public long getOffsetMillis() {
+            return offsetMillis;
+        }
+
+        public List<Extractor> getExtractors() {
+            return extractors;
+        }
+
+        /**
+         * @return Method and path template, the name latencies are reported under
+         */
+        public String label() {
+            String path = url.replaceFirst("^[a-z]+://[^/]+", "");
+            int query = path.indexOf('?');
+            return method + " " + (query >= 0 ? path.substring(0, query) : path);
+        }
+    }
+
+    public HttpScript(String name, List<Request> requests) {
+        this.name = name;
+        this.requests = Collections.unmodifiableList(new ArrayList<>(requests));
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Request> getRequests() {
+        return requests;
+    }
+
+    /**
+     * @return Script with every URL moved to another origin, e.g. from a recording host to a test host
+     */
+    public HttpScript withOrigin(String origin) {
+        List<Request> moved = new ArrayList<>();
+        String base = origin.endsWith("/") ? origin.substring(0, origin.length() - 1) : origin;
+        for (Request request : requests) {
+            moved.add(new Request(request.method, request.url.replaceFirst("^[a-z]+://[^/]+", base), request.headers,
+                request.body, request.status, request.offsetMillis, request.extractors));
+        }
+        return new HttpScript(name, moved);
+    }
+
+    /**
+     * Fill in a template
+     * @param template URL, header value or body with ${name} / ${name:url} variables
+     * @param variables Variable values
+     * @return Filled in text
+     * @throws IllegalStateException when a variable has no value
+     */
+    public static String substitute(String template, Map<String, String> variables) {
+        if (template == null || template.indexOf("${") < 0) {
+            return template;
+        }
+        Matcher matcher = VARIABLE.matcher(template);
+        StringBuffer filled = new StringBuffer();
+        while (matcher.find()) {
+            String value = variables.get(matcher.group(1));
+            if (value == null) {
+                throw new IllegalStateException("No value for ${" + matcher.group(1) + "}");
+            }
+            if (matcher.group(2) != null) {
+                value = URLEncoder.encode(value, StandardCharsets.UTF_8);
+            }
+            matcher.appendReplacement(filled, Matcher.quoteReplacement(value));
+        }
+        matcher.appendTail(filled);
+        return filled.toString();
+    }
+
+    /**
+     * Save under SCRIPT_DIR as &lt;name&gt;.json
+     * @return Written file
+     */
+    public Path save() throws IOException {
+        Path file = Paths.get(SCRIPT_DIR, name.replaceAll("[^A-Za-z0-9_-]", "_") + ".json");
+        Files.createDirectories(file.getParent());
+        List<Map<String, Object>> entries = new ArrayList<>();
+        for (Request request : requests) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("method", request.method);
+            entry.put("url", request.url);
+            entry.put("headers", request.headers);
+            entry.put("body", request.body);
+            entry.put("status", request.status);
+            entry.put("offsetMillis", request.offsetMillis);
+            List<Map<String, Object>> extractors = new ArrayList<>();
+            for (Extractor extractor : request.extractors) {
+                Map<String, Object> json = new LinkedHashMap<>();
+                json.put("name", extractor.name);
+                json.put("source", extractor.source);
+                json.put("regex", extractor.getRegex());
+                extractors.add(json);
+            }
+            entry.put("extractors", extractors);
+            entries.add(entry);
+        }
+        Map<String, Object> script = new LinkedHashMap<>();
+        script.put("name", name);
+        script.put("requests", entries);
+        Files.write(file, new Json().toJson(script).getBytes(StandardCharsets.UTF_8));
+        return file;
+    }
+
+    /**
+     * @param file Script written by save()
+     * @return Loaded script
+     */
+    @SuppressWarnings("unchecked")
+    public static HttpScript load(Path file) throws IOException {
+        Map<String, Object> script = new Json().toType(new String(Files.readAllBytes(file), StandardCharsets.UTF_8),
+            Json.MAP_TYPE);
+        List<Request> requests = new ArrayList<>();
+        for (Map<String, Object> entry : (List<Map<String, Object>>) script.get("requests")) {
+            List<Extractor> extractors = new ArrayList<>();
+            for (Map<String, Object> json : (List<Map<String, Object>>) entry.get("extractors")) {
+                extractors.add(new Extractor((String) json.get("name"), (String) json.get("source"),
+                    (String) json.get("regex")));
+            }
+            Map<String, String> headers = new LinkedHashMap<>();
+            for (Map.Entry<String, Object> header : ((Map<String, Object>) entry.get("headers")).entrySet()) {
+                headers.put(header.getKey(), String.valueOf(header.getValue()));
+            }
+            requests.add(new Request((String) entry.get("method"), (String) entry.get("url"), headers,
+                (String) entry.get("body"), ((Number) entry.get("status")).intValue(),
+                ((Number) entry.get("offsetMillis")).longValue(), extractors));
+        }
+        return new HttpScript((String) script.get("name"), requests);
+    }
+}
@@ -0,0 +1,553 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.IOException;
+import java.lang.management.ManagementFactory;
+import java.lang.management.OperatingSystemMXBean;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Virtual-user load runner: concurrent headless browser sessions repeat a scenario written
+ * with the page objects, e.g. log in and generate a report, so the backend sees what N
+ * accountants working at once would send.
+ *
+ * Users start evenly over the ramp-up, pause for a random think time (0.5x to 1.5x
+ * loadThinkMillis) after every step, and start new iterations until the duration is over.
+ * Every step is timed; the result has throughput, error rate and latency percentiles per
+ * step and is written to target/load/.
+ *
+ * The runner throttles itself to the machine it runs on: users are capped by CPU cores
+ * (loadUsersPerCore) and free memory (loadSessionMemoryMb per browser), and the ramp-up
+ * waits while system CPU load is above loadMaxCpuPct, so a laptop run measures the
+ * backend instead of the laptop. Sessions come from DriverManager, forced headless and
+ * without pre-warming.
+ */
+public class LoadRunner {
+    public static final String RESULT_DIR = "target/load";
+    private static final String SESSION_STEP = "session";
+    private static final long MAX_RAMP_PAUSE_MILLIS = 30_000;
+
+    private final ConfigReader config;
+    private int users;
+    private Duration rampUp;
+    private Duration duration;
+    private Duration thinkTime;
+    private String baseUrl;
+
+    /**
+     * A scenario run once per iteration by every virtual user
+     */
+    public interface Scenario {
+        void run(VirtualUser user) throws Exception;
+    }
+
+    /**
+     * A timed step of a scenario
+     */
+    public interface Step {
+        void run() throws Exception;
+    }
+
+    /**
+     * One simulated user with its own browser session
+     */
+    public final class VirtualUser {
+        private final int id;
+        private final Run run;
+        private WebDriver driver;
+        private int iteration;
+        private boolean newSession;
+
+        private VirtualUser(int id, Run run) {
+            this.id = id;
+            this.run = run;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        public int getIteration() {
+            return iteration;
+        }
+
+        public WebDriver getDriver() {
+            return driver;
+        }
+
+        /**
+         * @return true until an iteration completes on the current session, e.g. to log in
+         * again after a lost session was replaced
+         */
+        public boolean isNewSession() {
+            return newSession;
+        }
+
+        /**
+         * @return Application URL the scenario should open
+         */
+        public String getBaseUrl() {
+            return baseUrl;
+        }
+
+        /**
+         * Time a step, then pause for the think time. A failing step counts as an error and
+         * ends the iteration.
+         * @param name Step name the statistics are kept under
+         * @param step Page object calls of the step
+         */
+        public void step(String name, Step step) throws Exception {
+            long started = System.nanoTime();
+            try {
+                step.run();
+                run.record(name, System.nanoTime() - started, null);
+            } catch (Exception | AssertionError e) {
+                run.record(name, System.nanoTime() - started, e);
+                throw e;
+            }
+            think();
+        }
+
+        private void think() throws InterruptedException {
+            long millis = thinkTime.toMillis();
+            if (millis <= 0) {
+                return;
+            }
+            long pause = ThreadLocalRandom.current().nextLong(millis / 2, millis * 3 / 2 + 1);
+            Thread.sleep(Math.max(0, Math.min(pause, run.deadline - System.currentTimeMillis())));
+        }
+    }
+
+    /**
+     * Latency samples and errors of one step
+     */
+    public static final class StepResult {
+        private final String name;
+        private final List<Long> micros = new ArrayList<>();
+        private final AtomicLong errors = new AtomicLong();
+        private volatile String firstError;
+        private long[] sorted = new long[0];
+        private double seconds;
+
+        private StepResult(String name) {
+            this.name = name;
+        }
+
+        private synchronized void add(long nanos, Throwable error) {
+            micros.add(nanos / 1000);
+            if (error != null && errors.incrementAndGet() == 1) {
+                firstError = error.getClass().getSimpleName() + ": " + error.getMessage();
+            }
+        }
+
+        private synchronized void complete(double runSeconds) {
+            sorted = new long[micros.size()];
+            for (int i = 0; i < sorted.length; i++) {
+                sorted[i] = micros.get(i);
+            }
+            Arrays.sort(sorted);
+            seconds = runSeconds;
+        }
+
+        public String getName() {
+            return name;
+        }
+
+        public int getCount() {
+            return sorted.length;
+        }
+
+        public long getErrors() {
+            return errors.get();
+        }
+
+        public double getErrorRate() {
+            return sorted.length == 0 ? 0 : (double) errors.get() / sorted.length;
+        }
+
+        /**
+         * @return Completed steps per second over the run
+         */
+        public double getThroughput() {
+            return seconds > 0 ? sorted.length / seconds : 0;
+        }
+
+        /**
+         * @param percent Percentile, e.g. 95
+         * @return Nearest-rank latency in milliseconds, errors included
+         */
+        public double percentileMillis(double percent) {
+            if (sorted.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percent / 100.0 * sorted.length);
+            return sorted[Math.max(0, Math.min(sorted.length - 1, rank - 1))] / 1000.0;
+        }
+
+        public String getFirstError() {
+            return firstError;
+        }
+    }
+
+    /**
+     * Statistics of a finished run
+     */
+    public static final class Result {
+        private final Map<String, StepResult> steps;
+        private final int users;
+        private final int iterations;
+        private final double seconds;
+
+        private Result(Map<String, StepResult> steps, int users, int iterations, double seconds) {
+            this.steps = steps;
+            this.users = users;
+            this.iterations = iterations;
+            this.seconds = seconds;
+        }
+
+        /**
+         * @return Step results in the order the steps first ran
+         */
+        public Map<String, StepResult> getSteps() {
+            return steps;
+        }
+
+        public StepResult getStep(String name) {
+            return steps.get(name);
+        }
+
+        /**
+         * @return Users that ran, after throttling
+         */
+        public int getUsers() {
+            return users;
+        }
+
+        public int getIterations() {
+            return iterations;
+        }
+
+        public double getSeconds() {
+            return seconds;
+        }
+    }
+
+    /**
+     * State shared by the users of one run
+     */
+    private static final class Run {
+        private final Map<String, StepResult> steps = Collections.synchronizedMap(new LinkedHashMap<>());
+        private final AtomicInteger iterations = new AtomicInteger();
+        private final long deadline;
+
+        private Run(long deadline) {
+            this.deadline = deadline;
+        }
+
+        private void record(String name, long nanos, Throwable error) {
+            StepResult step;
+            synchronized (steps) {
+                step = steps.computeIfAbsent(name, StepResult::new);
+            }
+            step.add(nanos, error);
+            if (error != null) {
+                TestLog.debug("Load step " + name + " failed: " + error.getMessage());
+            }
+        }
+    }
+
+    /**
+     * @param config Configuration the load settings are read from
+     */
+    public LoadRunner(ConfigReader config) {
+        this.config = config;
+        this.users = config.getInt("loadUsers", 10);
+        this.rampUp = Duration.ofSeconds(config.getInt("loadRampUpSeconds", 30));
+        this.duration = Duration.ofSeconds(config.getInt("loadDurationSeconds", 300));
+        this.thinkTime = Duration.ofMillis(config.getInt("loadThinkMillis", 2000));
+        this.baseUrl = ConfigReader.getBaseUrl();
+    }
+
+    public LoadRunner users(int users) {
+        this.users = users;
+        return this;
+    }
+
+    public LoadRunner rampUp(Duration rampUp) {
+        this.rampUp = rampUp;
+        return this;
+    }
+
+    public LoadRunner duration(Duration duration) {
+        this.duration = duration;
+        return this;
+    }
+
+    public LoadRunner thinkTime(Duration thinkTime) {
+        this.thinkTime = thinkTime;
+        return this;
+    }
+
+    /**
+     * @param baseUrl Application URL handed to the scenario, e.g. a local stand-in server
+     */
+    public LoadRunner baseUrl(String baseUrl) {
+        this.baseUrl = baseUrl;
+        return this;
+    }
+
+    /**
+     * Run the scenario with the configured users until the duration is over
+     * @param name Name of the run, used for the result file
+     * @param scenario Steps every user repeats
+     * @return Statistics per step
+     */
+    public Result run(String name, Scenario scenario) {
+        int running = capacity(users);
+        String previousHeadless = System.getProperty("headless");
+        String previousPrewarm = System.getProperty("prewarmSessions");
+        System.setProperty("headless", "true");
+        System.setProperty("prewarmSessions", "0");
+        ConfigSnapshot.reload();
+
+        long started = System.currentTimeMillis();
+        Run run = new Run(started + duration.toMillis());
+        TestLog.info("Load run " + name + ": " + running + " user(s), ramp-up " + rampUp.getSeconds() + " s, duration "
+            + duration.getSeconds() + " s, think time " + thinkTime.toMillis() + " ms");
+        AtomicInteger threads = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(running, runnable -> {
+            Thread thread = new Thread(runnable, "load-user-" + threads.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        try {
+            long spacing = running > 1 ? rampUp.toMillis() / (running - 1) : 0;
+            for (int i = 0; i < running; i++) {
+                if (i > 0) {
+                    Thread.sleep(spacing);
+                    awaitCpu();
+                }
+                if (System.currentTimeMillis() >= run.deadline) {
+                    TestLog.warn("✗ Load run " + name + " ended during ramp-up, " + i + " user(s) started");
+                    break;
+                }
+                VirtualUser user = new VirtualUser(i + 1, run);
+                pool.submit(() -> runUser(user, scenario));
+            }
+            pool.shutdown();
+            // Users finish the step they are in after the deadline
+            pool.awaitTermination(duration.toMillis() + TimeUnit.MINUTES.toMillis(10), TimeUnit.MILLISECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            pool.shutdownNow();
+            restore("headless", previousHeadless);
+            restore("prewarmSessions", previousPrewarm);
+            ConfigSnapshot.reload();
+        }
+
+        double seconds = (System.currentTimeMillis() - started) / 1000.0;
+        Map<String, StepResult> steps;
+        synchronized (run.steps) {
+            steps = new LinkedHashMap<>(run.steps);
+        }
+        for (StepResult step : steps.values()) {
+            step.complete(seconds);
+        }
+        Result result = new Result(Collections.unmodifiableMap(steps), running, run.iterations.get(), seconds);
+        TestLog.info(describe(name, result));
+        write(name, result);
+        return result;
+    }
+
+    private void runUser(VirtualUser user, Scenario scenario) {
+        try {
+            while (System.currentTimeMillis() < user.run.deadline && !Thread.currentThread().isInterrupted()) {
+                if (user.driver == null) {
+                    long started = System.nanoTime();
+                    try {
+                        DriverManager.setDriver(ConfigReader.getBrowser());
+                        user.driver = DriverManager.getDriver();
+                        user.newSession = true;
+                        user.run.record(SESSION_STEP, System.nanoTime() - started, null);
+                    } catch (Exception e) {
+                        user.run.record(SESSION_STEP, System.nanoTime() - started, e);
+                        DriverManager.quitDriver();
+                        user.think();
+                        continue;
+                    }
+                }
+                user.iteration++;
+                user.run.iterations.incrementAndGet();
+                try {
+                    scenario.run(user);
+                    user.newSession = false;
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                } catch (Exception | AssertionError e) {
+                    // Recorded by the failing step; start over with a new session if this one is gone
+                    if (!isAlive(user.driver)) {
+                        DriverManager.quitDriver();
+                        user.driver = null;
+                    }
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } finally {
+            try {
+                DriverManager.quitDriver();
+            } catch (Exception e) {
+                TestLog.debug("Load user " + user.id + " session not quit: " + e.getMessage());
+            }
+        }
+    }
+
+    private static boolean isAlive(WebDriver driver) {
+        try {
+            driver.getWindowHandle();
+            return true;
+        } catch (Exception e) {
+            return false;
+        }
+    }
+
+    /**
+     * @return Users this machine can run: requested, capped by cores and free memory
+     */
+    private int capacity(int requested) {
+        int cores = Runtime.getRuntime().availableProcessors();
+        int byCpu = Math.max(1, cores * config.getInt("loadUsersPerCore", 2));
+        int byMemory = Integer.MAX_VALUE;
+        double freeBytes = osMetric("getFreeMemorySize", "getFreePhysicalMemorySize");
+        if (freeBytes >= 0) {
+            long freeMb = (long) (freeBytes / (1024 * 1024));
+            byMemory = (int) Math.max(1, freeMb / Math.max(1, config.getInt("loadSessionMemoryMb", 350)));
+        }
+        int capacity = Math.max(1, Math.min(requested, Math.min(byCpu, byMemory)));
+        if (capacity < requested) {
+            TestLog.warn("✗ Load users throttled from " + requested + " to " + capacity + " (" + cores + " cores, room for "
+                + (byMemory == Integer.MAX_VALUE ? "?" : String.valueOf(byMemory)) + " sessions in free memory)");
+        }
+        return capacity;
+    }
+
+    /**
+     * Hold the ramp-up while the machine is saturated, for at most 30 s
+     */
+    private void awaitCpu() throws InterruptedException {
+        double limit = config.getInt("loadMaxCpuPct", 85) / 100.0;
+        long waited = 0;
+        while (osMetric("getCpuLoad", "getSystemCpuLoad") > limit && waited < MAX_RAMP_PAUSE_MILLIS) {
+            if (waited == 0) {
+                TestLog.info("Load ramp-up paused: system CPU above " + Math.round(limit * 100) + "%");
+            }
+            Thread.sleep(1000);
+            waited += 1000;
+        }
+    }
+
+    /**
+     * Read a com.sun.management OS metric by its JDK 14+ name, or by the name deprecated
+     * since then on older JVMs; the build targets 11, so neither is called directly
+     * @return Metric value, or -1 when the JVM does not expose it
+     */
+    private static double osMetric(String name, String legacyName) {
+        OperatingSystemMXBean os = ManagementFactory.getOperatingSystemMXBean();
+        if (!(os instanceof com.sun.management.OperatingSystemMXBean)) {
+            return -1;
+        }
+        for (String method : new String[] {name, legacyName}) {
+            try {
+                return ((Number) com.sun.management.OperatingSystemMXBean.class.getMethod(method).invoke(os))
+                    .doubleValue();
+            } catch (NoSuchMethodException e) {
+                // JDK before 14: try the legacy name
+            } catch (ReflectiveOperationException e) {
+                return -1;
+            }
+        }
+        return -1;
+    }
+
+    private static void restore(String key, String previous) {
+        if (previous == null) {
+            System.clearProperty(key);
+        } else {
+            System.setProperty(key, previous);
+        }
+    }
+
+    /**
+     * @return Table of the run's steps
+     */
+    public static String describe(String name, Result result) {
+        StringBuilder table = new StringBuilder(String.format("%nLoad run %s: %d user(s), %d iteration(s) in %.0f s%n",
+            name, result.getUsers(), result.getIterations(), result.getSeconds()));
+        table.append(String.format("  %-28s %7s %7s %8s %9s %9s %9s %9s %9s%n", "Step", "Count", "Errors", "Per sec",
+            "p50 ms", "p90 ms", "p95 ms", "p99 ms", "Max ms"));
+        for (StepResult step : result.getSteps().values()) {
+            table.append(String.format("%s %-28s %7d %6.1f%% %8.2f %9.0f %9.0f %9.0f %9.0f %9.0f%n",
+                step.getErrors() > 0 ? "✗" : " ", step.getName(), step.getCount(), step.getErrorRate() * 100,
+                step.getThroughput(), step.percentileMillis(50), step.percentileMillis(90),
+                step.percentileMillis(95), step.percentileMillis(99), step.percentileMillis(100)));
+            if (step.getFirstError() != null) {
+                table.append("    first error: ").append(step.getFirstError()).append(String.format("%n"));
+            }
+        }
+        return table.toString();
+    }
+
+    private static void write(String name, Result result) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("name", name);
+        json.put("time", Instant.now().toString());
+        json.put("users", result.getUsers());
+        json.put("iterations", result.getIterations());
+        json.put("seconds", result.getSeconds());
+        List<Map<String, Object>> steps = new ArrayList<>();
+        for (StepResult step : result.getSteps().values()) {
+            Map<String, Object> entry = new LinkedHashMap<>();
+            entry.put("step", step.getName());
+            entry.put("count", step.getCount());
+            entry.put("errors", step.getErrors());
+            entry.put("perSecond", step.getThroughput());
+            entry.put("p50Ms", step.percentileMillis(50));
+            entry.put("p90Ms", step.percentileMillis(90));
+            entry.put("p95Ms", step.percentileMillis(95));
+            entry.put("p99Ms", step.percentileMillis(99));
+            entry.put("maxMs", step.percentileMillis(100));
+            entry.put("firstError", step.getFirstError());
+            steps.add(entry);
+        }
+        json.put("steps", steps);
+        Path file = Paths.get(RESULT_DIR, name.replaceAll("[^A-Za-z0-9_-]", "_") + "-"
+            + Instant.now().toString().replace(':', '-') + ".json");
+        try {
+            Files.createDirectories(file.getParent());
+            Files.write(file, new Json().toJson(json).getBytes(StandardCharsets.UTF_8));
+            TestLog.info("Load results: " + file);
+        } catch (IOException e) {
+            TestLog.warn("✗ Load results not written: " + e.getMessage());
+        }
+    }
+}
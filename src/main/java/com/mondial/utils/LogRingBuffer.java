@@ -0,0 +1,89 @@
+package com.mondial.utils;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Bounded lock-free queue between the logging threads and the single log writer.
+ *
+ * Each slot carries a sequence number: a producer claims the next position with one CAS
+ * and publishes its record by advancing the slot's sequence, the writer takes records in
+ * order and hands the slot back by advancing the sequence again. A full buffer makes the
+ * producer wait for the writer instead of dropping lines.
+ */
+class LogRingBuffer<T> {
+    private final int mask;
+    private final Object[] slots;
+    private final AtomicLongArray sequences;
+    private final AtomicLong tail = new AtomicLong();
+    // Only the writer thread moves head; volatile so flush() can compare it with tail
+    private volatile long head;
+
+    /**
+     * @param capacity Number of slots, rounded up to a power of two
+     */
+    LogRingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        mask = size - 1;
+        slots = new Object[size];
+        sequences = new AtomicLongArray(size);
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+
+    /**
+     * Add a record; safe from any number of threads
+     */
+    void offer(T record) {
+        while (true) {
+            long position = tail.get();
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots[index] = record;
+                    // Volatile write publishes the slot to the writer
+                    sequences.set(index, position + 1);
+                    return;
+                }
+            } else if (difference < 0) {
+                // Full: the writer has not taken this slot back yet
+                LockSupport.parkNanos(50_000);
+            }
+        }
+    }
+
+    /**
+     * Take the oldest record; only called by the writer thread
+     * @return Next record, or null when the buffer is empty
+     */
+    @SuppressWarnings("unchecked")
+    T poll() {
+        long position = head;
+        int index = (int) (position & mask);
+        if (sequences.get(index) != position + 1) {
+            return null;
+        }
+        T record = (T) slots[index];
+        slots[index] = null;
+        sequences.set(index, position + mask + 1);
+        head = position + 1;
+        return record;
+    }
+
+    /**
+     * @return Position the next offered record will take
+     */
+    long offered() {
+        return tail.get();
+    }
+
+    /**
+     * @return Number of records the writer has taken
+     */
+    long taken() {
+        return head;
+    }
+}
@@ -0,0 +1,339 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.regex.Pattern;
+
+/**
+ * App performance numbers collected by the functional suite.
+ *
+ * BasePage.waitForPageLoad reads performance.timeOrigin together with document.readyState;
+ * the first time a thread sees a new document it calls capture(), which reads Navigation
+ * Timing, Resource Timing and the buffered LCP and long-task entries in one script. Samples
+ * are tagged with the page object and the route (ids replaced by :id) and appended to
+ * target/perf/page-performance-&lt;run&gt;.jsonl by a background writer.
+ *
+ * At JVM exit the run's medians per page are compared with the median of the previous
+ * pagePerfBaselineRuns runs in pagePerfHistory (kept outside target/ so it survives mvn
+ * clean); a page slower than pagePerfTolerancePct (and at least 100 ms) is flagged ✗.
+ */
+public class PagePerformance {
+    /**
+     * Wait condition for BasePage: the document's timeOrigin once it is complete, else null
+     */
+    public static final String READY_SCRIPT =
+        "return document.readyState === 'complete' ? performance.timeOrigin : null;";
+
+    private static final String CAPTURE_SCRIPT =
+        "var nav = performance.getEntriesByType('navigation')[0];" +
+        "if (!nav) { return null; }" +
+        "var r = { route: location.pathname, ttfb: nav.responseStart, dcl: nav.domContentLoadedEventEnd," +
+        "  load: nav.loadEventEnd, bytes: nav.transferSize || 0, resources: 0, slowest: null, slowestMs: 0," +
+        "  lcp: null, longTasks: 0, longTaskMs: 0 };" +
+        "var resources = performance.getEntriesByType('resource');" +
+        "for (var i = 0; i < resources.length; i++) {" +
+        "  r.resources++; r.bytes += resources[i].transferSize || 0;" +
+        "  if (resources[i].duration > r.slowestMs) { r.slowestMs = resources[i].duration; r.slowest = resources[i].name; }" +
+        "}" +
+        // Buffered entries are in the observer's buffer right after observe(), takeRecords() reads them
+        "function read(type, handle) {" +
+        "  try {" +
+        "    var po = new PerformanceObserver(function () {});" +
+        "    po.observe({ type: type, buffered: true });" +
+        "    po.takeRecords().forEach(handle); po.disconnect();" +
+        "  } catch (e) { }" +
+        "}" +
+        "read('largest-contentful-paint', function (e) { r.lcp = e.renderTime || e.loadTime || e.startTime; });" +
+        "read('longtask', function (e) { r.longTasks++; r.longTaskMs += e.duration; });" +
+        "return r;";
+
+    private static final String[] METRICS = {"loadMs", "lcpMs", "ttfbMs", "longTaskMs", "transferKb"};
+    private static final Pattern ID_SEGMENT = Pattern.compile("/(\\d+|[0-9a-fA-F-]{32,36})(?=/|$)");
+    private static final String RUN_ID = Instant.now().toString().replace(":", "-");
+    private static final String RUN_FILE = "target/perf/page-performance-" + RUN_ID + ".jsonl";
+
+    private static final ConfigReader config = new ConfigReader();
+    private static final boolean ENABLED = config.getBoolean("pagePerformance");
+    private static final ThreadLocal<Object> lastOrigin = new ThreadLocal<>();
+    // Page and route -> metric -> values of this run
+    private static final Map<String, Map<String, List<Double>>> samples = new ConcurrentHashMap<>();
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "page-perf-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static boolean hookRegistered;
+
+    private PagePerformance() {
+    }
+
+    /**
+     * @return true when pagePerformance is on
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Record the current document's timings if this thread has not recorded it yet
+     * @param driver Session showing the page
+     * @param pageName Logical page name, the page object's class
+     * @param timeOrigin performance.timeOrigin returned by READY_SCRIPT
+     */
+    @SuppressWarnings("unchecked")
+    public static void capture(WebDriver driver, String pageName, Object timeOrigin) {
+        if (!ENABLED || timeOrigin == null || timeOrigin.equals(lastOrigin.get())) {
+            return;
+        }
+        lastOrigin.set(timeOrigin);
+        Map<String, Object> timing;
+        try {
+            timing = (Map<String, Object>) ((JavascriptExecutor) driver).executeScript(CAPTURE_SCRIPT);
+        } catch (Exception e) {
+            TestLog.debug("Page timings not read: " + e.getMessage());
+            return;
+        }
+        if (timing == null || number(timing.get("load")) <= 0) {
+            return;
+        }
+        String route = ID_SEGMENT.matcher(String.valueOf(timing.get("route"))).replaceAll("/:id");
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("page", pageName);
+        sample.put("route", route);
+        sample.put("time", Instant.now().toString());
+        sample.put("loadMs", Math.round(number(timing.get("load"))));
+        sample.put("dclMs", Math.round(number(timing.get("dcl"))));
+        sample.put("ttfbMs", Math.round(number(timing.get("ttfb"))));
+        if (timing.get("lcp") != null) {
+            sample.put("lcpMs", Math.round(number(timing.get("lcp"))));
+        }
+        sample.put("longTasks", Math.round(number(timing.get("longTasks"))));
+        sample.put("longTaskMs", Math.round(number(timing.get("longTaskMs"))));
+        sample.put("resources", Math.round(number(timing.get("resources"))));
+        sample.put("transferKb", Math.round(number(timing.get("bytes")) / 1024));
+        sample.put("slowestResource", timing.get("slowest"));
+        sample.put("slowestResourceMs", Math.round(number(timing.get("slowestMs"))));
+
+        Map<String, List<Double>> metrics = samples.computeIfAbsent(pageName + " " + route,
+            key -> new ConcurrentHashMap<>());
+        for (String metric : METRICS) {
+            Object value = sample.get(metric);
+            if (value != null) {
+                metrics.computeIfAbsent(metric, key -> Collections.synchronizedList(new ArrayList<>()))
+                    .add(number(value));
+            }
+        }
+        registerHook();
+        String line = new Json().toJson(sample).replace("\n", "");
+        try {
+            writer.submit(() -> append(Paths.get(RUN_FILE), Collections.singletonList(line)));
+        } catch (RejectedExecutionException e) {
+            // JVM exit: the run has already been reported
+        }
+        TestLog.debug("Page timings " + pageName + " " + route + ": load " + sample.get("loadMs") + " ms, LCP "
+            + sample.get("lcpMs") + " ms");
+    }
+
+    private static synchronized void registerHook() {
+        if (hookRegistered) {
+            return;
+        }
+        hookRegistered = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(PagePerformance::report, "page-perf-report"));
+    }
+
+    /**
+     * Compare this run with the baseline, print the table and add the run to the history
+     */
+    static void report() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        if (samples.isEmpty()) {
+            return;
+        }
+        Path history = Paths.get(config.getProperty("pagePerfHistory") != null
+            && !config.getProperty("pagePerfHistory").trim().isEmpty()
+            ? config.getProperty("pagePerfHistory").trim() : "perf-history/page-performance.jsonl");
+        int baselineRuns = Math.max(1, config.getInt("pagePerfBaselineRuns", 10));
+        double tolerance = config.getInt("pagePerfTolerancePct", 25) / 100.0;
+
+        List<Map<String, Object>> previous = readHistory(history);
+        Set<String> runs = new LinkedHashSet<>();
+        for (Map<String, Object> entry : previous) {
+            runs.add(String.valueOf(entry.get("run")));
+        }
+        List<String> runOrder = new ArrayList<>(runs);
+        Set<String> baselineSet = new LinkedHashSet<>(runOrder.subList(Math.max(0, runOrder.size() - baselineRuns),
+            runOrder.size()));
+
+        // Page and route -> metric -> per-run medians of the baseline runs
+        Map<String, Map<String, List<Double>>> baseline = new TreeMap<>();
+        for (Map<String, Object> entry : previous) {
+            if (!baselineSet.contains(String.valueOf(entry.get("run")))) {
+                continue;
+            }
+            Map<String, List<Double>> metrics = baseline.computeIfAbsent(entry.get("page") + " " + entry.get("route"),
+                key -> new LinkedHashMap<>());
+            for (String metric : METRICS) {
+                if (entry.get(metric) != null) {
+                    metrics.computeIfAbsent(metric, key -> new ArrayList<>()).add(number(entry.get(metric)));
+                }
+            }
+        }
+
+        List<String> lines = new ArrayList<>();
+        StringBuilder table = new StringBuilder(String.format("%nPage performance (%d page(s), baseline: %d run(s))%n",
+            samples.size(), baselineSet.size()));
+        table.append(String.format("  %-60s %8s %10s %8s %10s%n", "Page / route", "Load", "Baseline", "LCP", "Baseline"));
+        int regressions = 0;
+        for (Map.Entry<String, Map<String, List<Double>>> page : new TreeMap<>(samples).entrySet()) {
+            Map<String, Object> runEntry = new LinkedHashMap<>();
+            String[] pageAndRoute = page.getKey().split(" ", 2);
+            runEntry.put("run", RUN_ID);
+            runEntry.put("page", pageAndRoute[0]);
+            runEntry.put("route", pageAndRoute.length > 1 ? pageAndRoute[1] : "");
+            runEntry.put("samples", page.getValue().getOrDefault("loadMs", Collections.emptyList()).size());
+            for (String metric : METRICS) {
+                List<Double> values = page.getValue().get(metric);
+                if (values != null && !values.isEmpty()) {
+                    runEntry.put(metric, Math.round(median(values)));
+                }
+            }
+            lines.add(new Json().toJson(runEntry).replace("\n", ""));
+
+            Map<String, List<Double>> base = baseline.getOrDefault(page.getKey(), Collections.emptyMap());
+            boolean regressed = false;
+            String[] cells = new String[4];
+            String[] shown = {"loadMs", "lcpMs"};
+            for (int i = 0; i < shown.length; i++) {
+                Object current = runEntry.get(shown[i]);
+                List<Double> baseValues = base.get(shown[i]);
+                cells[i * 2] = current != null ? current + " ms" : "-";
+                cells[i * 2 + 1] = baseValues != null && !baseValues.isEmpty()
+                    ? Math.round(median(baseValues)) + " ms" : "-";
+                if (current != null && baseValues != null && !baseValues.isEmpty()) {
+                    double expected = median(baseValues);
+                    double actual = number(current);
+                    if (actual > expected * (1 + tolerance) && actual - expected >= 100) {
+                        regressed = true;
+                    }
+                }
+            }
+            if (regressed) {
+                regressions++;
+            }
+            table.append(String.format("%s %-60s %8s %10s %8s %10s%n", regressed ? "✗" : " ",
+                truncate(page.getKey(), 60), cells[0], cells[1], cells[2], cells[3]));
+        }
+        table.append(regressions == 0 ? "✓ No page slower than its baseline" : "✗ " + regressions
+            + " page(s) slower than baseline by more than " + Math.round(tolerance * 100) + "%");
+        if (regressions == 0) {
+            TestLog.info(table.toString());
+        } else {
+            TestLog.warn(table.toString());
+        }
+
+        // Keep the history bounded: this run plus the runs a later baseline can still use
+        Set<String> keep = new LinkedHashSet<>(runOrder.subList(Math.max(0, runOrder.size() - baselineRuns * 2),
+            runOrder.size()));
+        List<String> kept = new ArrayList<>();
+        for (Map<String, Object> entry : previous) {
+            if (keep.contains(String.valueOf(entry.get("run")))) {
+                kept.add(new Json().toJson(entry).replace("\n", ""));
+            }
+        }
+        kept.addAll(lines);
+        try {
+            if (history.getParent() != null) {
+                Files.createDirectories(history.getParent());
+            }
+            Files.write(history, kept, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            TestLog.warn("✗ Page performance history not updated: " + e.getMessage());
+        }
+    }
+
+    private static List<Map<String, Object>> readHistory(Path history) {
+        List<Map<String, Object>> entries = new ArrayList<>();
+        if (!Files.exists(history)) {
+            return entries;
+        }
+        try {
+            Json json = new Json();
+            for (String line : Files.readAllLines(history, StandardCharsets.UTF_8)) {
+                if (!line.trim().isEmpty()) {
+                    entries.add(json.toType(line, Json.MAP_TYPE));
+                }
+            }
+        } catch (Exception e) {
+            TestLog.warn("✗ Page performance history unreadable, no baseline this run: " + e.getMessage());
+            entries.clear();
+        }
+        return entries;
+    }
+
+    private static void append(Path file, List<String> lines) {
+        try {
+            File parent = file.toFile().getParentFile();
+            if (parent != null) {
+                parent.mkdirs();
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                for (String line : lines) {
+                    out.write(line);
+                    out.newLine();
+                }
+            }
+        } catch (IOException e) {
+            TestLog.warn("✗ Page timings not written: " + e.getMessage());
+        }
+    }
+
+    private static double median(List<Double> values) {
+        List<Double> sorted;
+        synchronized (values) {
+            sorted = new ArrayList<>(values);
+        }
+        Collections.sort(sorted);
+        int n = sorted.size();
+        return n % 2 == 1 ? sorted.get(n / 2) : (sorted.get(n / 2 - 1) + sorted.get(n / 2)) / 2;
+    }
+
+    private static double number(Object value) {
+        return value instanceof Number ? ((Number) value).doubleValue() : 0;
+    }
+
+    private static String truncate(String text, int length) {
+        return text.length() <= length ? text : text.substring(0, length - 3) + "...";
+    }
+}
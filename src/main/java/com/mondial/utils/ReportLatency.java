@@ -0,0 +1,330 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.json.Json;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Report generation latency: time from clicking Generate to the first result row (or the
+ * generated report tab), keyed by report type, company, ledger, currency, natural account
+ * set and date range.
+ *
+ * Each generation is appended to reportLatencyHistory (outside target/ so it survives mvn
+ * clean) as it happens. A generation slower than its SLO is logged as a warning on the
+ * test even when the test passes: reportSloSeconds, or reportSloSeconds.&lt;ReportType&gt;
+ * with the spaces removed (reportSloSeconds.DetailedTrialBalance=120). At JVM exit the
+ * run is summarised per parameter set with p50/p90/p95 over the history.
+ */
+public class ReportLatency {
+    /**
+     * Reads the current value of each form field; selectors starting with / are XPath
+     */
+    public static final String FORM_VALUES_SCRIPT =
+        "var fields = arguments[0], out = {};" +
+        "for (var key in fields) {" +
+        "  var el = fields[key].charAt(0) === '/'" +
+        "    ? document.evaluate(fields[key], document, null, XPathResult.FIRST_ORDERED_NODE_TYPE, null).singleNodeValue" +
+        "    : document.querySelector(fields[key]);" +
+        "  if (!el) { continue; }" +
+        "  out[key] = el.tagName === 'SELECT'" +
+        "    ? (el.selectedIndex >= 0 ? el.options[el.selectedIndex].text.trim() : null) : el.value;" +
+        "}" +
+        "return out;";
+
+    // Key fields in display order
+    public static final String REPORT = "report";
+    public static final String COMPANY = "company";
+    public static final String LEDGER = "ledger";
+    public static final String CURRENCY = "currency";
+    public static final String NATURAL_ACCOUNT_SET = "nas";
+    public static final String START_DATE = "start";
+    public static final String END_DATE = "end";
+    private static final String[] KEY_FIELDS = {REPORT, COMPANY, LEDGER, CURRENCY, NATURAL_ACCOUNT_SET, START_DATE, END_DATE};
+    private static final int SAMPLES_KEPT_PER_KEY = 50;
+    private static final String RUN_ID = Instant.now().toString();
+
+    private static final ConfigReader config = new ConfigReader();
+    private static final List<Map<String, Object>> runSamples = Collections.synchronizedList(new ArrayList<>());
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "report-latency-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private static boolean hookRegistered;
+
+    /**
+     * A generation in progress
+     */
+    public static class Timer {
+        private final Map<String, String> parameters;
+        private final long startNanos = System.nanoTime();
+        private boolean stopped;
+
+        private Timer(Map<String, String> parameters) {
+            this.parameters = parameters;
+        }
+
+        /**
+         * Record the generation
+         * @param generated true when the first row / report tab appeared, false on timeout or error
+         * @return Milliseconds from Generate to the result
+         */
+        public long stop(boolean generated) {
+            long millis = (System.nanoTime() - startNanos) / 1_000_000;
+            if (stopped) {
+                return millis;
+            }
+            stopped = true;
+            record(parameters, millis, generated);
+            return millis;
+        }
+    }
+
+    private ReportLatency() {
+    }
+
+    /**
+     * Start timing a generation; call right before clicking Generate
+     * @param parameters Report parameters by key field (REPORT, COMPANY, ...); missing ones are blank
+     * @return Timer to stop once the result shows
+     */
+    public static Timer start(Map<String, String> parameters) {
+        return new Timer(new LinkedHashMap<>(parameters));
+    }
+
+    /**
+     * Read report parameters from the form, so the key matches what is actually generated
+     * @param driver Session showing the report form
+     * @param selectors Key field to CSS selector or XPath of its input/select
+     * @return Field values; fields not on the form are left out
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, String> readForm(WebDriver driver, Map<String, String> selectors) {
+        Map<String, String> values = new LinkedHashMap<>();
+        try {
+            Map<String, Object> read = (Map<String, Object>) ((JavascriptExecutor) driver)
+                .executeScript(FORM_VALUES_SCRIPT, selectors);
+            for (Map.Entry<String, Object> entry : read.entrySet()) {
+                if (entry.getValue() != null && !String.valueOf(entry.getValue()).isEmpty()) {
+                    values.put(entry.getKey(), String.valueOf(entry.getValue()));
+                }
+            }
+        } catch (Exception e) {
+            TestLog.debug("Report parameters not read: " + e.getMessage());
+        }
+        return values;
+    }
+
+    /**
+     * @param reportType Report type, e.g. "Detailed Trial Balance"
+     * @return SLO in seconds for this report type
+     */
+    public static int sloSeconds(String reportType) {
+        String specific = reportType != null ? "reportSloSeconds." + reportType.replace(" ", "") : null;
+        int fallback = config.getInt("reportSloSeconds", 60);
+        return specific != null ? config.getInt(specific, fallback) : fallback;
+    }
+
+    private static void record(Map<String, String> parameters, long millis, boolean generated) {
+        String key = key(parameters);
+        int slo = sloSeconds(parameters.get(REPORT));
+        Map<String, Object> sample = new LinkedHashMap<>();
+        sample.put("run", RUN_ID);
+        sample.put("time", Instant.now().toString());
+        for (String field : KEY_FIELDS) {
+            sample.put(field, parameters.getOrDefault(field, ""));
+        }
+        sample.put("ms", millis);
+        sample.put("generated", generated);
+        runSamples.add(sample);
+
+        if (!generated) {
+            TestLog.warn("✗ Report generation failed after " + millis + " ms: " + key);
+        } else if (millis > slo * 1000L) {
+            TestLog.warn("✗ Report generation SLO exceeded (" + millis + " ms > " + slo + " s): " + key);
+        } else {
+            TestLog.info("✓ Report generated in " + millis + " ms: " + key);
+        }
+        // Keep the backend calls behind a failed or slow report
+        HarRecorder har = DriverManager.getHarRecorder();
+        if (har != null && (!generated || millis > slo * 1000L)) {
+            har.keep(generated ? "report over its " + slo + " s SLO" : "report generation failed");
+        }
+
+        registerHook();
+        String line = new Json().toJson(sample).replace("\n", "");
+        try {
+            writer.submit(() -> append(history(), line));
+        } catch (RejectedExecutionException e) {
+            // JVM exit: the run has already been summarised
+        }
+    }
+
+    private static synchronized void registerHook() {
+        if (hookRegistered) {
+            return;
+        }
+        hookRegistered = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(ReportLatency::summarise, "report-latency-summary"));
+    }
+
+    /**
+     * Print this run's generations with percentiles over the history, then trim the history
+     */
+    static void summarise() {
+        writer.shutdown();
+        try {
+            writer.awaitTermination(10, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        List<Map<String, Object>> current;
+        synchronized (runSamples) {
+            current = new ArrayList<>(runSamples);
+        }
+        if (current.isEmpty()) {
+            return;
+        }
+
+        // Successful generations per key over the whole history (this run included)
+        Map<String, List<Map<String, Object>>> byKey = new TreeMap<>();
+        Json json = new Json();
+        try {
+            for (String line : Files.readAllLines(history(), StandardCharsets.UTF_8)) {
+                if (!line.trim().isEmpty()) {
+                    Map<String, Object> sample = json.toType(line, Json.MAP_TYPE);
+                    byKey.computeIfAbsent(key(sample), k -> new ArrayList<>()).add(sample);
+                }
+            }
+        } catch (Exception e) {
+            TestLog.warn("✗ Report latency history unreadable, summarising this run only: " + e.getMessage());
+            byKey.clear();
+            for (Map<String, Object> sample : current) {
+                byKey.computeIfAbsent(key(sample), k -> new ArrayList<>()).add(sample);
+            }
+        }
+
+        Map<String, List<Long>> runMillis = new TreeMap<>();
+        for (Map<String, Object> sample : current) {
+            if (Boolean.TRUE.equals(sample.get("generated"))) {
+                runMillis.computeIfAbsent(key(sample), k -> new ArrayList<>()).add(((Number) sample.get("ms")).longValue());
+            }
+        }
+        StringBuilder table = new StringBuilder(String.format("%nReport generation latency (%d generation(s) this run)%n",
+            current.size()));
+        table.append(String.format("  %-90s %9s %9s %9s %9s %5s %6s%n", "Report | company | ledger | currency | NAS | dates",
+            "This run", "p50", "p90", "p95", "n", "SLO"));
+        int breaches = 0;
+        for (Map.Entry<String, List<Long>> entry : runMillis.entrySet()) {
+            List<Long> history = new ArrayList<>();
+            String reportType = null;
+            for (Map<String, Object> sample : byKey.getOrDefault(entry.getKey(), Collections.emptyList())) {
+                reportType = String.valueOf(sample.get(REPORT));
+                if (Boolean.TRUE.equals(sample.get("generated"))) {
+                    history.add(((Number) sample.get("ms")).longValue());
+                }
+            }
+            if (history.isEmpty()) {
+                history.addAll(entry.getValue());
+            }
+            Collections.sort(history);
+            long worst = Collections.max(entry.getValue());
+            int slo = sloSeconds(reportType);
+            boolean breached = worst > slo * 1000L;
+            if (breached) {
+                breaches++;
+            }
+            table.append(String.format("%s %-90s %9s %9s %9s %9s %5d %5ds%n", breached ? "✗" : " ",
+                entry.getKey().length() > 90 ? entry.getKey().substring(0, 87) + "..." : entry.getKey(),
+                worst + " ms", percentile(history, 50) + " ms", percentile(history, 90) + " ms",
+                percentile(history, 95) + " ms", history.size(), slo));
+        }
+        table.append(breaches == 0 ? "✓ All report generations within SLO"
+            : "✗ " + breaches + " report parameter set(s) slower than their SLO");
+        if (breaches == 0) {
+            TestLog.info(table.toString());
+        } else {
+            TestLog.warn(table.toString());
+        }
+
+        // Keep the most recent samples per key
+        List<String> kept = new ArrayList<>();
+        for (List<Map<String, Object>> samples : byKey.values()) {
+            for (Map<String, Object> sample : samples.subList(Math.max(0, samples.size() - SAMPLES_KEPT_PER_KEY),
+                samples.size())) {
+                kept.add(json.toJson(sample).replace("\n", ""));
+            }
+        }
+        try {
+            Files.write(history(), kept, StandardCharsets.UTF_8);
+        } catch (IOException e) {
+            TestLog.warn("✗ Report latency history not trimmed: " + e.getMessage());
+        }
+    }
+
+    private static String key(Map<String, ?> parameters) {
+        StringBuilder key = new StringBuilder();
+        for (String field : KEY_FIELDS) {
+            Object value = parameters.get(field);
+            String text = value != null ? String.valueOf(value) : "";
+            if (field.equals(END_DATE)) {
+                key.append('-').append(text);
+                continue;
+            }
+            if (key.length() > 0) {
+                key.append(" | ");
+            }
+            key.append(text.isEmpty() ? "-" : text);
+        }
+        return key.toString();
+    }
+
+    /**
+     * Nearest-rank percentile of sorted values
+     */
+    private static long percentile(List<Long> sorted, int percent) {
+        int rank = (int) Math.ceil(percent / 100.0 * sorted.size());
+        return sorted.get(Math.max(0, Math.min(sorted.size() - 1, rank - 1)));
+    }
+
+    private static Path history() {
+        String configured = config.getProperty("reportLatencyHistory");
+        return Paths.get(configured != null && !configured.trim().isEmpty()
+            ? configured.trim() : "perf-history/report-latency.jsonl");
+    }
+
+    private static void append(Path file, String line) {
+        try {
+            if (file.getParent() != null) {
+                Files.createDirectories(file.getParent());
+            }
+            try (BufferedWriter out = Files.newBufferedWriter(file, StandardCharsets.UTF_8,
+                StandardOpenOption.CREATE, StandardOpenOption.APPEND)) {
+                out.write(line);
+                out.newLine();
+            }
+        } catch (IOException e) {
+            TestLog.warn("✗ Report latency not written: " + e.getMessage());
+        }
+    }
+}
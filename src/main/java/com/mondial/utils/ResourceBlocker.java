@@ -0,0 +1,125 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lean rendering profile for Chrome and Edge sessions.
+ *
+ * Blocks third-party and heavy resources by category:
+ * - URL patterns go to CDP Network.setBlockedURLs
+ * - Resource types (fonts, images) are caught by Fetch request interception,
+ *   which also covers assets served without a file extension
+ *
+ * Patterns per category can be overridden with leanProfileBlock.&lt;category&gt; in config,
+ * as a comma separated list of wildcard URL patterns.
+ */
+public class ResourceBlocker {
+    public static final String ANALYTICS = "analytics";
+    public static final String HELP_WIDGET = "helpWidget";
+    public static final String FONTS = "fonts";
+    public static final String IMAGES = "images";
+
+    private static final Map<String, String> DEFAULT_PATTERNS = new LinkedHashMap<>();
+    private static final Map<String, String> RESOURCE_TYPES = new HashMap<>();
+
+    static {
+        DEFAULT_PATTERNS.put(ANALYTICS, "*google-analytics.com*,*googletagmanager.com*,*hotjar.com*,*segment.io*");
+        DEFAULT_PATTERNS.put(HELP_WIDGET, "*zdassets.com*,*zendesk.com/embeddable*,*zopim*");
+        DEFAULT_PATTERNS.put(FONTS, "*fonts.googleapis.com*,*fonts.gstatic.com*,*.woff*,*.ttf*,*.otf*,*.eot*");
+        DEFAULT_PATTERNS.put(IMAGES, "*.png*,*.jpg*,*.jpeg*,*.gif*,*.webp*,*.ico*");
+        RESOURCE_TYPES.put(FONTS, "Font");
+        RESOURCE_TYPES.put(IMAGES, "Image");
+    }
+
+    private final WebDriver driver;
+    private final DevTools devTools;
+    private boolean interceptionListenerAdded;
+
+    private ResourceBlocker(WebDriver driver) {
+        this.driver = driver;
+        this.devTools = DevToolsSupport.openSession(driver);
+    }
+
+    public static ResourceBlocker attach(WebDriver driver) {
+        return new ResourceBlocker(driver);
+    }
+
+    /**
+     * Block every category except the allowed ones
+     * @param allowed Categories the current test class opted back in to
+     * @param config Configuration used for pattern overrides
+     */
+    public void block(Collection<String> allowed, ConfigReader config) {
+        List<String> urlPatterns = new ArrayList<>();
+        List<Map<String, Object>> interceptPatterns = new ArrayList<>();
+        for (Map.Entry<String, String> category : DEFAULT_PATTERNS.entrySet()) {
+            if (allowed.contains(category.getKey())) {
+                continue;
+            }
+            String patterns = config.getProperty("leanProfileBlock." + category.getKey());
+            if (patterns == null || patterns.isEmpty()) {
+                patterns = category.getValue();
+            }
+            for (String pattern : patterns.split(",")) {
+                if (!pattern.trim().isEmpty()) {
+                    urlPatterns.add(pattern.trim());
+                }
+            }
+            String resourceType = RESOURCE_TYPES.get(category.getKey());
+            if (resourceType != null) {
+                Map<String, Object> interceptPattern = new HashMap<>();
+                interceptPattern.put("urlPattern", "*");
+                interceptPattern.put("resourceType", resourceType);
+                interceptPatterns.add(interceptPattern);
+            }
+        }
+
+        DevToolsSupport.execute(driver, "Network.enable");
+        DevToolsSupport.execute(driver, "Network.setBlockedURLs",
+                Collections.singletonMap("urls", urlPatterns));
+
+        if (!interceptPatterns.isEmpty()) {
+            if (!interceptionListenerAdded) {
+                devTools.addListener(new Event<Map<String, Object>>("Fetch.requestPaused",
+                        input -> input.read(Json.MAP_TYPE)), this::failRequest);
+                interceptionListenerAdded = true;
+            }
+            devTools.send(new Command<Void>("Fetch.enable",
+                    Collections.singletonMap("patterns", interceptPatterns)));
+        }
+        TestLog.info("Lean profile: blocking " + urlPatterns.size() + " URL pattern(s) and "
+                + interceptPatterns.size() + " resource type(s); allowed: " + allowed);
+    }
+
+    /**
+     * Lift all blocking, e.g. for benchmarks or tests that switch mid-class
+     */
+    public void unblock() {
+        DevToolsSupport.execute(driver, "Network.setBlockedURLs",
+                Collections.singletonMap("urls", Collections.emptyList()));
+        devTools.send(new Command<Void>("Fetch.disable", new HashMap<>()));
+    }
+
+    private void failRequest(Map<String, Object> pausedRequest) {
+        Map<String, Object> params = new HashMap<>();
+        params.put("requestId", pausedRequest.get("requestId"));
+        params.put("errorReason", "BlockedByClient");
+        try {
+            devTools.send(new Command<Void>("Fetch.failRequest", params));
+        } catch (Exception e) {
+            // Request already finished or the tab navigated away
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.devtools.Command;
+import org.openqa.selenium.devtools.DevTools;
+import org.openqa.selenium.devtools.Event;
+import org.openqa.selenium.json.Json;
+
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the last few seconds of a Chrome/Edge session as low resolution JPEG frames
+ * using CDP Page.startScreencast. Frames live in a bounded in-memory ring buffer and are
+ * only written to disk when a test fails, passing tests just drop them.
+ *
+ * Persisted recordings are Motion JPEG streams (concatenated JPEG frames),
+ * playable with e.g. "ffplay -f mjpeg file.mjpeg" or VLC.
+ */
+public class ScreencastRecorder {
+    public static final String SCREENCAST_DIR = ScreenshotPipeline.SCREENSHOT_DIR + File.separator + "screencast";
+
+    private final DevTools devTools;
+    private final long windowMillis;
+    private final int maxFrames;
+    private final ArrayDeque<Frame> frames = new ArrayDeque<>();
+
+    private static class Frame {
+        private final long capturedAt;
+        private final String base64Jpeg;
+
+        private Frame(long capturedAt, String base64Jpeg) {
+            this.capturedAt = capturedAt;
+            this.base64Jpeg = base64Jpeg;
+        }
+    }
+
+    private ScreencastRecorder(DevTools devTools, int windowSeconds, int maxFrames) {
+        this.devTools = devTools;
+        this.windowMillis = windowSeconds * 1000L;
+        this.maxFrames = Math.max(1, maxFrames);
+    }
+
+    /**
+     * Start recording the current tab of a Chrome or Edge session
+     * @param driver Chromium based driver
+     * @param windowSeconds How many seconds of frames to keep
+     * @param maxFrames Hard cap on frames held in memory
+     * @return Running recorder
+     */
+    public static ScreencastRecorder start(WebDriver driver, int windowSeconds, int maxFrames) {
+        DevTools devTools = DevToolsSupport.openSession(driver);
+        ScreencastRecorder recorder = new ScreencastRecorder(devTools, windowSeconds, maxFrames);
+
+        devTools.addListener(new Event<Map<String, Object>>("Page.screencastFrame", input -> input.read(Json.MAP_TYPE)),
+                recorder::onFrame);
+
+        Map<String, Object> params = new HashMap<>();
+        params.put("format", "jpeg");
+        params.put("quality", 40);
+        params.put("maxWidth", 960);
+        params.put("maxHeight", 540);
+        params.put("everyNthFrame", 2);
+        devTools.send(new Command<Void>("Page.startScreencast", params));
+        return recorder;
+    }
+
+    private void onFrame(Map<String, Object> frame) {
+        // Chrome stops sending frames until the previous one is acknowledged
+        Map<String, Object> ack = new HashMap<>();
+        ack.put("sessionId", frame.get("sessionId"));
+        try {
+            devTools.send(new Command<Void>("Page.screencastFrameAck", ack));
+        } catch (Exception e) {
+            return;
+        }
+
+        long now = System.currentTimeMillis();
+        synchronized (frames) {
+            frames.addLast(new Frame(now, (String) frame.get("data")));
+            while (frames.size() > maxFrames || now - frames.peekFirst().capturedAt > windowMillis) {
+                frames.removeFirst();
+            }
+        }
+    }
+
+    /**
+     * Drop buffered frames, called when a test passes
+     */
+    public void discard() {
+        synchronized (frames) {
+            frames.clear();
+        }
+    }
+
+    /**
+     * Hand the buffered frames to the background artifact writer and start a fresh buffer
+     * @param testName Name of the failed test (used for the file name)
+     */
+    public void persist(String testName) {
+        List<Frame> snapshot;
+        synchronized (frames) {
+            snapshot = new ArrayList<>(frames);
+            frames.clear();
+        }
+        if (snapshot.isEmpty()) {
+            TestLog.info("No screencast frames buffered for " + testName);
+            return;
+        }
+        String fileName = ScreenshotPipeline.buildFileName(testName, "mjpeg");
+        ScreenshotPipeline.submit(() -> write(snapshot, fileName));
+    }
+
+    public void stop() {
+        try {
+            devTools.send(new Command<Void>("Page.stopScreencast", new HashMap<>()));
+        } catch (Exception e) {
+            // Session may already be gone
+        }
+        discard();
+    }
+
+    private static void write(List<Frame> snapshot, String fileName) {
+        try {
+            ByteArrayOutputStream stream = new ByteArrayOutputStream();
+            for (Frame frame : snapshot) {
+                stream.write(Base64.getDecoder().decode(frame.base64Jpeg));
+            }
+            File screencastDir = new File(SCREENCAST_DIR);
+            if (!screencastDir.exists()) {
+                screencastDir.mkdirs();
+            }
+            File destination = new File(screencastDir, fileName);
+            Files.write(destination.toPath(), stream.toByteArray());
+            long seconds = (snapshot.get(snapshot.size() - 1).capturedAt - snapshot.get(0).capturedAt) / 1000;
+            TestLog.info("✓ Screencast saved (" + snapshot.size() + " frames, " + seconds + "s): "
+                    + destination.getPath());
+        } catch (Exception e) {
+            TestLog.warn("✗ Failed to write screencast " + fileName + ": " + e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,198 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.OutputType;
+import org.openqa.selenium.TakesScreenshot;
+import org.openqa.selenium.WebDriver;
+import org.testng.ITestResult;
+
+import javax.imageio.IIOImage;
+import javax.imageio.ImageIO;
+import javax.imageio.ImageWriteParam;
+import javax.imageio.ImageWriter;
+import javax.imageio.stream.ImageOutputStream;
+import java.awt.Color;
+import java.awt.Graphics2D;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.text.SimpleDateFormat;
+import java.util.Base64;
+import java.util.Date;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+/**
+ * Single artifact pipeline for failure screenshots.
+ *
+ * The test thread only grabs the screenshot as base64 from the browser and hands it
+ * to a background writer, so a failing test returns to the runner immediately.
+ * The writer decodes, de-duplicates identical captures by SHA-256 and re-encodes
+ * them as JPEG before writing to the screenshots directory.
+ */
+public class ScreenshotPipeline {
+    public static final String SCREENSHOT_DIR = "screenshots";
+    private static final String CAPTURED_ATTRIBUTE = "screenshotCaptured";
+    private static final float JPEG_QUALITY = 0.8f;
+
+    private static final Map<String, String> writtenByHash = new ConcurrentHashMap<>();
+    private static final AtomicLong sequence = new AtomicLong();
+    private static final ExecutorService writer = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "screenshot-writer");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    static {
+        Runtime.getRuntime().addShutdownHook(new Thread(ScreenshotPipeline::flush, "screenshot-writer-flush"));
+    }
+
+    private ScreenshotPipeline() {
+    }
+
+    /**
+     * Capture a failure screenshot once per test result.
+     * Both BaseTest and TestListener report failures, only the first caller captures.
+     * @param driver Driver of the failing test
+     * @param result TestNG test result object
+     */
+    public static void captureOnFailure(WebDriver driver, ITestResult result) {
+        synchronized (result) {
+            if (result.getAttribute(CAPTURED_ATTRIBUTE) != null) {
+                return;
+            }
+            result.setAttribute(CAPTURED_ATTRIBUTE, Boolean.TRUE);
+        }
+        capture(driver, result.getName(), ExtentReportManager.screenshotTarget(result));
+    }
+
+    /**
+     * Grab a screenshot and queue it for the background writer.
+     * @param driver Driver to capture from
+     * @param testName Name of the test (used for screenshot filename)
+     */
+    public static void capture(WebDriver driver, String testName) {
+        capture(driver, testName, null);
+    }
+
+    /**
+     * Grab a screenshot, queue it and report where it was written
+     * @param written Receives the path of the screenshot file once written (or of the identical
+     *                earlier one), e.g. to link it from the report; may be null
+     */
+    static void capture(WebDriver driver, String testName, Consumer<String> written) {
+        if (driver == null) {
+            TestLog.warn("✗ Cannot capture screenshot: driver is null");
+            return;
+        }
+        String base64;
+        try {
+            base64 = ((TakesScreenshot) driver).getScreenshotAs(OutputType.BASE64);
+        } catch (Exception e) {
+            TestLog.warn("✗ Failed to capture screenshot (session issue): " + e.getMessage());
+            return;
+        }
+        String fileName = buildFileName(testName, "jpg");
+        submit(() -> write(base64, fileName, written));
+    }
+
+    /**
+     * Block until every queued screenshot has been written.
+     */
+    public static void flush() {
+        try {
+            writer.submit(() -> { }).get(30, TimeUnit.SECONDS);
+        } catch (Exception e) {
+            TestLog.warn("✗ Screenshot writer did not drain: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Queue work for the screenshot writer thread, used by other failure artifacts
+     */
+    static void submit(Runnable task) {
+        writer.submit(task);
+    }
+
+    static String buildFileName(String testName, String extension) {
+        String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss_SSS").format(new Date());
+        String safeName = testName.replaceAll("[^A-Za-z0-9._-]", "_");
+        return safeName + "_t" + Thread.currentThread().getId() + "_" + timestamp
+                + "_" + sequence.incrementAndGet() + "." + extension;
+    }
+
+    private static void write(String base64, String fileName, Consumer<String> written) {
+        try {
+            byte[] png = Base64.getDecoder().decode(base64);
+            String hash = sha256(png);
+            String existing = writtenByHash.putIfAbsent(hash, fileName);
+            if (existing != null) {
+                TestLog.info("Screenshot identical to " + existing + ", skipped " + fileName);
+                if (written != null) {
+                    written.accept(new File(SCREENSHOT_DIR, existing).getPath());
+                }
+                return;
+            }
+
+            File screenshotDir = new File(SCREENSHOT_DIR);
+            if (!screenshotDir.exists()) {
+                screenshotDir.mkdirs();
+            }
+            File destination = new File(screenshotDir, fileName);
+            Files.write(destination.toPath(), toJpeg(png));
+            TestLog.info("✓ Screenshot captured: " + destination.getPath());
+            if (written != null) {
+                written.accept(destination.getPath());
+            }
+        } catch (Exception e) {
+            TestLog.warn("✗ Failed to write screenshot " + fileName + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Re-encode the PNG as JPEG, which is several times smaller for app screenshots.
+     * Falls back to the original bytes if the image cannot be decoded.
+     */
+    private static byte[] toJpeg(byte[] png) throws IOException {
+        BufferedImage source = ImageIO.read(new ByteArrayInputStream(png));
+        if (source == null) {
+            return png;
+        }
+        // JPEG has no alpha channel, flatten onto white first
+        BufferedImage rgb = new BufferedImage(source.getWidth(), source.getHeight(), BufferedImage.TYPE_INT_RGB);
+        Graphics2D graphics = rgb.createGraphics();
+        graphics.drawImage(source, 0, 0, Color.WHITE, null);
+        graphics.dispose();
+
+        ImageWriter jpegWriter = ImageIO.getImageWritersByFormatName("jpg").next();
+        ImageWriteParam param = jpegWriter.getDefaultWriteParam();
+        param.setCompressionMode(ImageWriteParam.MODE_EXPLICIT);
+        param.setCompressionQuality(JPEG_QUALITY);
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        try (ImageOutputStream ios = ImageIO.createImageOutputStream(out)) {
+            jpegWriter.setOutput(ios);
+            jpegWriter.write(null, new IIOImage(rgb, null, null), param);
+        } finally {
+            jpegWriter.dispose();
+        }
+        return out.toByteArray();
+    }
+
+    private static String sha256(byte[] data) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(data);
+        StringBuilder hex = new StringBuilder();
+        for (byte b : digest) {
+            hex.append(String.format("%02x", b));
+        }
+        return hex.toString();
+    }
+}
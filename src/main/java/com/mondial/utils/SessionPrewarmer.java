@@ -0,0 +1,217 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Starts the next browser session in the background while the current test class runs.
+ *
+ * After DriverManager hands a session to a class it asks for the next one to be warmed:
+ * a background thread launches the browser with the same options, attaches the session
+ * helpers and loads the base URL. The next class's setUp takes the ready session instead
+ * of launching one. At most prewarmSessions sessions are held (0, the default, turns
+ * pre-warming off: the session warmed after the last class is never used),
+ * and a warm session older than prewarmMaxAgeSeconds is discarded rather than handed out,
+ * so a login page does not go stale.
+ *
+ * Hits, misses and the launch time saved are logged on every take and summarised at exit.
+ */
+public class SessionPrewarmer {
+    private static final ExecutorService WARMER = Executors.newSingleThreadExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "session-prewarmer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static final List<Pending> POOL = new LinkedList<>();
+
+    private static int hits;
+    private static int misses;
+    private static int mismatched;
+    private static int expired;
+    private static int failed;
+    private static long savedMillis;
+    private static boolean hookRegistered;
+    private static boolean shutDown;
+
+    private static class Pending {
+        private final String key;
+        private final Future<DriverSession> session;
+
+        private Pending(String key, Future<DriverSession> session) {
+            this.key = key;
+            this.session = session;
+        }
+    }
+
+    private SessionPrewarmer() {
+    }
+
+    /**
+     * Queue a session to be launched and warmed in the background, unless the pool is full
+     * @param key Browser, headless, OS and resource options the session is launched with
+     * @param launcher Launches the session (DriverManager.launch)
+     * @param url Page to load in the warm session
+     * @param config Configuration holding prewarmSessions
+     */
+    static synchronized void prewarm(String key, Supplier<DriverSession> launcher, String url, ConfigReader config) {
+        int cap = config.getInt("prewarmSessions", 0);
+        if (shutDown || cap <= 0 || POOL.size() >= cap) {
+            return;
+        }
+        POOL.add(new Pending(key, WARMER.submit(() -> warm(launcher, url, config))));
+        registerShutdownHook();
+    }
+
+    /**
+     * Take a warm session launched with the same options, waiting for it if it is still starting
+     * @param key Browser, headless, OS and resource options wanted
+     * @param config Configuration holding prewarmMaxAgeSeconds
+     * @return Ready session, or null when the caller has to launch one
+     */
+    static DriverSession take(String key, ConfigReader config) {
+        Pending pending = null;
+        List<Pending> stale = new ArrayList<>();
+        synchronized (SessionPrewarmer.class) {
+            for (Iterator<Pending> it = POOL.iterator(); it.hasNext(); ) {
+                Pending candidate = it.next();
+                if (candidate.key.equals(key)) {
+                    if (pending == null) {
+                        pending = candidate;
+                        it.remove();
+                    }
+                } else {
+                    // Options changed during the run; sessions for the old ones will not be asked for
+                    stale.add(candidate);
+                    it.remove();
+                }
+            }
+            if (pending == null) {
+                misses++;
+                mismatched += stale.isEmpty() ? 0 : 1;
+            }
+        }
+        for (Pending old : stale) {
+            discardLater(old);
+        }
+        if (pending == null) {
+            TestLog.info("Pre-warm miss: no warm session for " + key + " " + summary());
+            return null;
+        }
+
+        long waitStarted = System.currentTimeMillis();
+        DriverSession session;
+        try {
+            session = pending.session.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            discardLater(pending);
+            return null;
+        } catch (ExecutionException e) {
+            synchronized (SessionPrewarmer.class) {
+                failed++;
+                misses++;
+            }
+            TestLog.info("Pre-warm miss: warm session failed to start: " + e.getCause());
+            return null;
+        }
+        long waited = System.currentTimeMillis() - waitStarted;
+        long ageSeconds = (System.currentTimeMillis() - session.warmedAt) / 1000;
+        if (ageSeconds > config.getInt("prewarmMaxAgeSeconds", 600)) {
+            synchronized (SessionPrewarmer.class) {
+                expired++;
+                misses++;
+            }
+            TestLog.info("Pre-warm miss: warm session was idle " + ageSeconds + "s, discarding it");
+            WARMER.submit(session::discard);
+            return null;
+        }
+        long saved = Math.max(0, session.launchMillis - waited);
+        synchronized (SessionPrewarmer.class) {
+            hits++;
+            savedMillis += saved;
+        }
+        TestLog.info("✓ Pre-warm hit: waited " + waited + " ms, saved ~" + saved + " ms " + summary());
+        return session;
+    }
+
+    /**
+     * @return Hit/miss counters and total launch time saved so far
+     */
+    public static synchronized String summary() {
+        return "[hits=" + hits + ", misses=" + misses + " (mismatched=" + mismatched + ", expired=" + expired
+                + ", failed=" + failed + "), saved=" + savedMillis + " ms]";
+    }
+
+    /**
+     * Quit every session still in the pool; runs from the JVM shutdown hook before the
+     * shared driver services stop
+     */
+    public static void shutdown() {
+        List<Pending> unused;
+        synchronized (SessionPrewarmer.class) {
+            if (shutDown) {
+                return;
+            }
+            shutDown = true;
+            unused = new ArrayList<>(POOL);
+            POOL.clear();
+        }
+        for (Pending pending : unused) {
+            try {
+                pending.session.get(30, TimeUnit.SECONDS).discard();
+            } catch (Exception e) {
+                pending.session.cancel(true);
+            }
+        }
+        WARMER.shutdownNow();
+        TestLog.info("Session pre-warming " + summary() + ", unused at exit: " + unused.size());
+    }
+
+    private static DriverSession warm(Supplier<DriverSession> launcher, String url, ConfigReader config) {
+        long started = System.currentTimeMillis();
+        DriverSession session = launcher.get();
+        if (url != null && !url.isEmpty()) {
+            try {
+                session.driver.get(url);
+                new WebDriverWait(session.driver, config.getSeconds("pageLoadTimeout")).until(d ->
+                        "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState")));
+                session.warmedUrl = url;
+            } catch (Exception e) {
+                // Browser is up; the class navigates itself
+                TestLog.info("Pre-warmed session could not load " + url + ": " + e.getMessage());
+            }
+        }
+        session.launchMillis = System.currentTimeMillis() - started;
+        session.warmedAt = System.currentTimeMillis();
+        return session;
+    }
+
+    private static void discardLater(Pending pending) {
+        WARMER.submit(() -> {
+            try {
+                pending.session.get().discard();
+            } catch (Exception e) {
+                // Never started, nothing to quit
+            }
+        });
+    }
+
+    private static void registerShutdownHook() {
+        if (hookRegistered) {
+            return;
+        }
+        hookRegistered = true;
+        Runtime.getRuntime().addShutdownHook(new Thread(SessionPrewarmer::shutdown, "session-prewarmer-shutdown"));
+    }
+}
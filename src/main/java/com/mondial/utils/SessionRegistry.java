@@ -0,0 +1,485 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.Capabilities;
+import org.openqa.selenium.HasCapabilities;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.remote.service.DriverService;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.stream.Collectors;
+
+/**
+ * Browser and driver processes of every session DriverManager launches, so none outlive the run.
+ *
+ * - Each session's browser process (and its driver process, unless the driver server is
+ *   shared) is found by the profile directory or process id the browser reports in its
+ *   capabilities, and listed in a PID file per JVM under the user's temp directory. Shared
+ *   driver servers (DriverServices) are listed from when they start until the JVM exits.
+ * - quit() gives WebDriver.quit() quitTimeoutSeconds, then kills the processes, and also
+ *   kills a browser that is still running after a clean quit.
+ * - A watchdog kills the processes of a session whose WebDriver command has been running for
+ *   longer than sessionHangSeconds, so the blocked test thread gets an error instead of hanging.
+ * - A JVM shutdown hook kills sessions that were never quit (e.g. a test thread died).
+ * - On first use, PID files of JVMs that are no longer running (killed CI jobs) are swept and
+ *   their leftover processes killed. A process is only killed when its start time and
+ *   executable are known and still match the PID file, so a reused PID is left alone.
+ *
+ * Set reapOrphanedSessions=false to turn the registry off.
+ */
+public class SessionRegistry {
+    private static final ConfigReader config = new ConfigReader();
+    private static final boolean ENABLED = config.getBoolean("reapOrphanedSessions", true);
+    private static final long HANG_MILLIS = config.getInt("sessionHangSeconds", 120) * 1000L;
+    private static final long QUIT_TIMEOUT_SECONDS = config.getInt("quitTimeoutSeconds", 30);
+    private static final Path PID_DIR = Paths.get(System.getProperty("java.io.tmpdir"), "mondial-sessions");
+    private static final ProcessHandle JVM = ProcessHandle.current();
+    private static final Path PID_FILE = PID_DIR.resolve(JVM.pid() + "-" + startMillis(JVM) + ".pids");
+    private static final Map<Integer, Session> SESSIONS = new ConcurrentHashMap<>();
+    // Shared driver server process per browser
+    private static final Map<String, ProcessHandle> SERVICES = new ConcurrentHashMap<>();
+    private static final AtomicInteger ids = new AtomicInteger();
+    private static final ExecutorService quitter = Executors.newCachedThreadPool(runnable -> {
+        Thread thread = new Thread(runnable, "session-quit");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private static ScheduledExecutorService watchdog;
+    private static boolean started;
+
+    /**
+     * A registered session: its processes and the WebDriver command it is running, if any
+     */
+    public static final class Session {
+        private final int id;
+        private final String browserName;
+        private final ProcessHandle browser;
+        // Null when the driver server is shared by all sessions or could not be found
+        private final ProcessHandle driver;
+        private final AtomicInteger depth = new AtomicInteger();
+        private volatile long commandStartedMillis;
+        private volatile String command;
+        private volatile boolean killed;
+
+        private Session(String browserName, ProcessHandle browser, ProcessHandle driver) {
+            this.id = ids.incrementAndGet();
+            this.browserName = browserName;
+            this.browser = browser;
+            this.driver = driver;
+        }
+
+        public int getId() {
+            return id;
+        }
+
+        /**
+         * @return true when the session's processes were killed by the watchdog or a timed out quit
+         */
+        public boolean isKilled() {
+            return killed;
+        }
+
+        @Override
+        public String toString() {
+            return "session " + id + " (" + browserName + ", browser pid " + (browser != null ? browser.pid() : "?")
+                + (driver != null ? ", driver pid " + driver.pid() : "") + ")";
+        }
+    }
+
+    /**
+     * Marks each WebDriver command as running on its session, for the watchdog
+     */
+    private static final class CommandListener implements WebDriverListener {
+        private final Session session;
+
+        private CommandListener(Session session) {
+            this.session = session;
+        }
+
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            if (session.depth.getAndIncrement() == 0) {
+                session.command = method.getName();
+                session.commandStartedMillis = System.currentTimeMillis();
+            }
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            done();
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            done();
+        }
+
+        private void done() {
+            if (session.depth.decrementAndGet() <= 0) {
+                session.depth.set(0);
+                session.commandStartedMillis = 0;
+            }
+        }
+    }
+
+    private SessionRegistry() {
+    }
+
+    /**
+     * Register a launched session's processes; the first call also sweeps leftovers of earlier runs
+     * @param driver Session just created
+     * @param browserName chrome, edge or firefox
+     * @param launchStarted When the launch started (epoch millis)
+     * @return Registered session, or null when the registry is off
+     */
+    public static Session register(WebDriver driver, String browserName, long launchStarted) {
+        if (!ENABLED) {
+            return null;
+        }
+        start();
+        ProcessHandle browser = findBrowser(driver, launchStarted);
+        ProcessHandle driverProcess = null;
+        if (browser != null && !DriverServices.isEnabled(config)) {
+            driverProcess = browser.parent().filter(parent -> parent.pid() != JVM.pid()).orElse(null);
+        }
+        Session session = new Session(browserName.toLowerCase(), browser, driverProcess);
+        SESSIONS.put(session.id, session);
+        writePidFile();
+        if (browser == null) {
+            TestLog.debug("Browser process of " + session + " not found; it is quit but cannot be killed");
+        }
+        return session;
+    }
+
+    /**
+     * Register the process of a shared driver server, so a killed run's server is swept too
+     * @param browserName chrome, edge or firefox
+     * @param service Service just started
+     * @param startedAt When it was started (epoch millis)
+     */
+    public static void registerService(String browserName, DriverService service, long startedAt) {
+        if (!ENABLED) {
+            return;
+        }
+        start();
+        String port = "--port=" + service.getUrl().getPort();
+        List<ProcessHandle> candidates = JVM.children()
+            .filter(SessionRegistry::isDriver)
+            .filter(process -> !SERVICES.containsValue(process))
+            .collect(Collectors.toList());
+        ProcessHandle process = candidates.stream()
+            .filter(candidate -> candidate.info().commandLine().map(line -> line.contains(port)).orElse(false))
+            .findFirst()
+            .orElse(null);
+        if (process == null) {
+            // No command lines (e.g. Windows): the one driver started since, or none rather than a wrong one
+            List<ProcessHandle> started = candidates.stream()
+                .filter(candidate -> startMillis(candidate) >= startedAt - 1000)
+                .collect(Collectors.toList());
+            process = started.size() == 1 ? started.get(0) : null;
+        }
+        if (process == null) {
+            TestLog.debug("Process of the shared " + browserName + " driver service not found; it is not swept");
+            return;
+        }
+        SERVICES.put(browserName.toLowerCase(), process);
+        writePidFile();
+    }
+
+    /**
+     * Decorate a session's driver so the watchdog sees its commands
+     * @param driver Registered session's driver
+     * @param session Session returned by register(), or null
+     * @return Decorated driver, or the driver itself when there is nothing to watch
+     */
+    public static WebDriver watch(WebDriver driver, Session session) {
+        if (session == null || HANG_MILLIS <= 0) {
+            return driver;
+        }
+        return new EventFiringDecorator<>(new CommandListener(session)).decorate(driver);
+    }
+
+    /**
+     * Quit a session, killing its processes when quit() does not return within quitTimeoutSeconds
+     * @param driver Session's driver
+     * @param session Session returned by register(), or null
+     */
+    public static void quit(WebDriver driver, Session session) {
+        if (session == null) {
+            driver.quit();
+            return;
+        }
+        Future<?> quit = quitter.submit(driver::quit);
+        try {
+            quit.get(QUIT_TIMEOUT_SECONDS, TimeUnit.SECONDS);
+        } catch (TimeoutException e) {
+            TestLog.warn("✗ quit() of " + session + " did not return in " + QUIT_TIMEOUT_SECONDS + " s, killing it");
+            quit.cancel(true);
+            kill(session);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            kill(session);
+        } catch (Exception e) {
+            // Session already gone (e.g. killed by the watchdog); make sure its processes are too
+            TestLog.info("quit() of " + session + " failed: " + e.getMessage());
+        }
+        if (!session.killed && session.browser != null && session.browser.isAlive()) {
+            try {
+                session.browser.onExit().get(2, TimeUnit.SECONDS);
+            } catch (Exception e) {
+                TestLog.info("Browser of " + session + " still running after quit, killing it");
+                kill(session);
+            }
+        }
+        SESSIONS.remove(session.id);
+        writePidFile();
+    }
+
+    private static synchronized void start() {
+        if (started) {
+            return;
+        }
+        started = true;
+        int reaped = sweep(PID_DIR);
+        if (reaped > 0) {
+            TestLog.info("✓ Killed " + reaped + " browser/driver process(es) left behind by earlier runs");
+        }
+        Runtime.getRuntime().addShutdownHook(new Thread(SessionRegistry::shutdown, "session-reaper"));
+        if (HANG_MILLIS > 0) {
+            watchdog = Executors.newSingleThreadScheduledExecutor(runnable -> {
+                Thread thread = new Thread(runnable, "session-watchdog");
+                thread.setDaemon(true);
+                return thread;
+            });
+            long period = Math.max(1000, Math.min(HANG_MILLIS / 4, 10000));
+            watchdog.scheduleWithFixedDelay(SessionRegistry::checkHung, period, period, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static void checkHung() {
+        long now = System.currentTimeMillis();
+        for (Session session : SESSIONS.values()) {
+            long startedAt = session.commandStartedMillis;
+            if (!session.killed && startedAt > 0 && now - startedAt > HANG_MILLIS) {
+                TestLog.warn("✗ " + session + " unresponsive for " + (now - startedAt) / 1000 + " s in "
+                    + session.command + "(), killing it");
+                kill(session);
+            }
+        }
+    }
+
+    private static void shutdown() {
+        List<Session> remaining = new ArrayList<>(SESSIONS.values());
+        for (Session session : remaining) {
+            kill(session);
+        }
+        if (!remaining.isEmpty()) {
+            TestLog.warn("✗ Killed " + remaining.size() + " browser session(s) that were never quit");
+        }
+        try {
+            Files.deleteIfExists(PID_FILE);
+        } catch (IOException e) {
+            // Swept by the next run
+        }
+    }
+
+    private static void kill(Session session) {
+        session.killed = true;
+        killTree(session.browser);
+        if (session.driver != null) {
+            killTree(session.driver);
+        }
+    }
+
+    private static void killTree(ProcessHandle process) {
+        if (process == null) {
+            return;
+        }
+        process.descendants().forEach(ProcessHandle::destroyForcibly);
+        process.destroyForcibly();
+    }
+
+    /**
+     * Find the browser's main process among the JVM's descendants
+     */
+    private static ProcessHandle findBrowser(WebDriver driver, long launchStarted) {
+        if (!(driver instanceof HasCapabilities)) {
+            return null;
+        }
+        Capabilities capabilities = ((HasCapabilities) driver).getCapabilities();
+        Object firefoxPid = capabilities.getCapability("moz:processID");
+        if (firefoxPid instanceof Number) {
+            return ProcessHandle.of(((Number) firefoxPid).longValue()).orElse(null);
+        }
+        String userDataDir = null;
+        for (String vendor : new String[] {"chrome", "msedge"}) {
+            Object details = capabilities.getCapability(vendor);
+            if (details instanceof Map && ((Map<?, ?>) details).get("userDataDir") != null) {
+                userDataDir = String.valueOf(((Map<?, ?>) details).get("userDataDir"));
+            }
+        }
+        List<ProcessHandle> candidates = JVM.descendants()
+            .filter(process -> isBrowser(process) && !isRenderer(process))
+            .collect(Collectors.toList());
+        if (userDataDir != null) {
+            String profile = userDataDir;
+            Optional<ProcessHandle> match = candidates.stream()
+                .filter(process -> process.info().commandLine().map(line -> line.contains(profile)).orElse(false))
+                .findFirst();
+            if (match.isPresent()) {
+                return match.get();
+            }
+        }
+        // No command lines (e.g. Windows): take the one unregistered browser started since the launch;
+        // with several (parallel launches) none is attributed rather than a wrong one
+        List<ProcessHandle> started = candidates.stream()
+            .filter(process -> startMillis(process) >= launchStarted - 1000)
+            .filter(process -> SESSIONS.values().stream().noneMatch(s -> s.browser != null && s.browser.pid() == process.pid()))
+            .filter(process -> process.parent().map(parent -> !isBrowser(parent)).orElse(true))
+            .collect(Collectors.toList());
+        return started.size() == 1 ? started.get(0) : null;
+    }
+
+    private static boolean isBrowser(ProcessHandle process) {
+        String name = executable(process);
+        return name.startsWith("chrome") || name.startsWith("google-chrome") || name.startsWith("chromium")
+            || name.startsWith("msedge") || name.startsWith("microsoft-edge") || name.startsWith("firefox");
+    }
+
+    private static boolean isDriver(ProcessHandle process) {
+        String name = executable(process);
+        return name.startsWith("chromedriver") || name.startsWith("msedgedriver") || name.startsWith("geckodriver");
+    }
+
+    private static boolean isRenderer(ProcessHandle process) {
+        return process.info().commandLine().map(line -> line.contains("--type=")).orElse(false)
+            || process.parent().map(SessionRegistry::isBrowser).orElse(false);
+    }
+
+    private static String executable(ProcessHandle process) {
+        String command = process.info().command().orElse("");
+        return Paths.get(command).getFileName() != null
+            ? Paths.get(command).getFileName().toString().toLowerCase() : "";
+    }
+
+    private static long startMillis(ProcessHandle process) {
+        return process.info().startInstant().map(Instant::toEpochMilli).orElse(0L);
+    }
+
+    /**
+     * List this JVM's live session processes as "pid startMillis executable" lines
+     */
+    private static synchronized void writePidFile() {
+        List<String> lines = new ArrayList<>();
+        for (ProcessHandle service : SERVICES.values()) {
+            if (service.isAlive()) {
+                lines.add(service.pid() + " " + startMillis(service) + " " + executable(service));
+            }
+        }
+        for (Session session : SESSIONS.values()) {
+            for (ProcessHandle process : new ProcessHandle[] {session.browser, session.driver}) {
+                if (process != null && !session.killed) {
+                    lines.add(process.pid() + " " + startMillis(process) + " " + executable(process));
+                }
+            }
+        }
+        try {
+            if (lines.isEmpty()) {
+                Files.deleteIfExists(PID_FILE);
+            } else {
+                Files.createDirectories(PID_DIR);
+                Files.write(PID_FILE, lines, StandardCharsets.UTF_8);
+            }
+        } catch (IOException e) {
+            TestLog.debug("Session PID file not written: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Kill the processes listed by JVMs that are no longer running; this JVM's file is skipped.
+     * Runs on the temp directory at first use; public so the sweep can be checked on its own.
+     * @param directory Directory of *.pids files
+     * @return Number of processes killed
+     */
+    public static int sweep(Path directory) {
+        if (!Files.isDirectory(directory)) {
+            return 0;
+        }
+        int reaped = 0;
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, "*.pids")) {
+            for (Path file : files) {
+                if (file.getFileName().equals(PID_FILE.getFileName()) || isOwnerRunning(file)) {
+                    continue;
+                }
+                for (String line : Files.readAllLines(file, StandardCharsets.UTF_8)) {
+                    String[] fields = line.trim().split(" ", 3);
+                    if (fields.length < 3) {
+                        continue;
+                    }
+                    try {
+                        Optional<ProcessHandle> process = ProcessHandle.of(Long.parseLong(fields[0]));
+                        if (process.isPresent() && isSameProcess(process.get(), Long.parseLong(fields[1]), fields[2])) {
+                            killTree(process.get());
+                            reaped++;
+                        }
+                    } catch (NumberFormatException e) {
+                        TestLog.debug("Unreadable line in " + file + ": " + line);
+                    }
+                }
+                Files.deleteIfExists(file);
+            }
+        } catch (IOException e) {
+            TestLog.warn("✗ Leftover session sweep incomplete: " + e.getMessage());
+        }
+        return reaped;
+    }
+
+    /**
+     * PID files are named "jvmPid-jvmStartMillis.pids". An owner whose start time cannot be
+     * read counts as running: its file is left for a later sweep rather than reaping a live run.
+     */
+    private static boolean isOwnerRunning(Path file) {
+        String[] owner = file.getFileName().toString().replace(".pids", "").split("-");
+        try {
+            Optional<ProcessHandle> jvm = ProcessHandle.of(Long.parseLong(owner[0]));
+            if (!jvm.isPresent()) {
+                return false;
+            }
+            long start = startMillis(jvm.get());
+            long recordedStart = Long.parseLong(owner[1]);
+            return start == 0 || recordedStart == 0 || start == recordedStart;
+        } catch (RuntimeException e) {
+            return false;
+        }
+    }
+
+    /**
+     * Positive match only: both start times known and equal, executable known and equal
+     */
+    private static boolean isSameProcess(ProcessHandle process, long recordedStart, String recordedExecutable) {
+        long start = startMillis(process);
+        String name = executable(process);
+        return start > 0 && start == recordedStart && !name.isEmpty() && name.equals(recordedExecutable);
+    }
+}
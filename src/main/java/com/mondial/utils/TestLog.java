@@ -0,0 +1,380 @@
+package com.mondial.utils;
+
+import org.testng.ITestResult;
+import org.testng.Reporter;
+
+import java.io.BufferedWriter;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.time.Instant;
+import java.util.Optional;
+import java.util.concurrent.locks.LockSupport;
+import java.util.regex.Pattern;
+
+/**
+ * Asynchronous log for pages, framework classes and tests.
+ *
+ * Callers only format a record and put it on a lock-free ring buffer; a background writer
+ * appends every record as a JSON line (time, level, thread, test, page method, elapsed ms
+ * since the test started, message) to target/logs/test-log.jsonl and prints the console
+ * output. Lines logged while a test runs are held back and printed as one block when the
+ * test ends, so parallel tests no longer interleave, and the block is attached to the
+ * test result (TestNG Reporter output and the "testLog" attribute).
+ *
+ * captureSystemOut() routes the remaining System.out.println calls (test classes) through
+ * the same path. logLevel (debug, info, warn, error) sets the verbosity.
+ */
+public class TestLog {
+    public static final String LOG_FILE = "target/logs/test-log.jsonl";
+    public static final String LOG_ATTRIBUTE = "testLog";
+
+    public static final int DEBUG = 0;
+    public static final int INFO = 1;
+    public static final int WARN = 2;
+    public static final int ERROR = 3;
+    private static final String[] LEVEL_NAMES = {"DEBUG", "INFO", "WARN", "ERROR"};
+
+    private static final Pattern ANSI = Pattern.compile("\u001B\\[[;\\d]*m");
+    private static final StackWalker WALKER = StackWalker.getInstance(StackWalker.Option.RETAIN_CLASS_REFERENCE);
+    private static final LogRingBuffer<Entry> BUFFER = new LogRingBuffer<>(8192);
+    private static final PrintStream CONSOLE = System.out;
+    private static final ThreadLocal<TestContext> currentTest = new ThreadLocal<>();
+
+    private static volatile int threshold = -1;
+    private static volatile boolean closed;
+    private static boolean captured;
+    private static volatile Thread writer;
+    private static BufferedWriter jsonLines;
+
+    private static final class TestContext {
+        private final String name;
+        private final long startedNanos = System.nanoTime();
+        private final StringBuilder block = new StringBuilder();
+
+        private TestContext(String name) {
+            this.name = name;
+        }
+    }
+
+    /**
+     * One queued record; console-only blocks carry the whole output of a finished test
+     */
+    private static final class Entry {
+        private final long time = System.currentTimeMillis();
+        private final int level;
+        private final String thread;
+        private final String test;
+        private final String page;
+        private final long elapsedMillis;
+        private final String message;
+        private final boolean consoleOnly;
+        private final boolean heldForTest;
+
+        private Entry(int level, String test, String page, long elapsedMillis, String message,
+                boolean consoleOnly, boolean heldForTest) {
+            this.level = level;
+            this.thread = Thread.currentThread().getName();
+            this.test = test;
+            this.page = page;
+            this.elapsedMillis = elapsedMillis;
+            this.message = message;
+            this.consoleOnly = consoleOnly;
+            this.heldForTest = heldForTest;
+        }
+    }
+
+    private TestLog() {
+    }
+
+    public static void debug(String message) {
+        log(DEBUG, message);
+    }
+
+    public static void info(String message) {
+        log(INFO, message);
+    }
+
+    public static void warn(String message) {
+        log(WARN, message);
+    }
+
+    public static void error(String message) {
+        log(ERROR, message);
+    }
+
+    /**
+     * Queue one record; returns without waiting for any I/O
+     * @param level DEBUG, INFO, WARN or ERROR
+     * @param message Message as it should appear on the console
+     */
+    public static void log(int level, String message) {
+        if (level < threshold()) {
+            return;
+        }
+        if (closed) {
+            // Writer already drained at JVM exit
+            CONSOLE.println(message);
+            return;
+        }
+        ensureWriter();
+        TestContext test = currentTest.get();
+        String page = pageMethod();
+        long elapsed = -1;
+        if (test != null) {
+            test.block.append(message).append(System.lineSeparator());
+            elapsed = (System.nanoTime() - test.startedNanos) / 1_000_000;
+            ExtentReportManager.step(level, elapsed, page, ANSI.matcher(message).replaceAll(""));
+        }
+        BUFFER.offer(new Entry(level, test != null ? test.name : null, page, elapsed, message, false, test != null));
+    }
+
+    /**
+     * Start holding this thread's output for a test; called from TestListener.onTestStart
+     * @param testName Name the JSON records carry in their "test" field
+     */
+    public static void startTest(String testName) {
+        currentTest.set(new TestContext(testName));
+    }
+
+    /**
+     * Print the test's output as one block and attach it to the result;
+     * called from TestListener when the test passed, failed or was skipped
+     * @param result TestNG result of the finished test
+     */
+    public static void endTest(ITestResult result) {
+        TestContext test = currentTest.get();
+        currentTest.remove();
+        if (test == null || test.block.length() == 0) {
+            return;
+        }
+        String block = test.block.toString();
+        result.setAttribute(LOG_ATTRIBUTE, block);
+        Reporter.setCurrentTestResult(result);
+        Reporter.log(ANSI.matcher(block).replaceAll(""));
+        if (closed) {
+            CONSOLE.print(block);
+            return;
+        }
+        ensureWriter();
+        BUFFER.offer(new Entry(INFO, test.name, null, -1, block, true, false));
+    }
+
+    /**
+     * Route System.out.println through the log, so test classes that print directly
+     * get the same buffering and JSON records. Safe to call more than once.
+     */
+    public static synchronized void captureSystemOut() {
+        if (captured) {
+            return;
+        }
+        captured = true;
+        // Load the configuration first: it reports its own loading on the real console
+        threshold();
+        System.setOut(new CapturingStream());
+    }
+
+    /**
+     * Block until every queued record has been written, e.g. at the end of a suite
+     */
+    public static void flush() {
+        long target = BUFFER.offered();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (writer != null && BUFFER.taken() < target && System.currentTimeMillis() < deadline) {
+            LockSupport.parkNanos(1_000_000);
+        }
+        synchronized (TestLog.class) {
+            if (jsonLines != null) {
+                try {
+                    jsonLines.flush();
+                } catch (IOException e) {
+                    CONSOLE.println("✗ Test log file could not be flushed: " + e.getMessage());
+                }
+            }
+        }
+        CONSOLE.flush();
+    }
+
+    private static int threshold() {
+        int level = threshold;
+        if (level < 0) {
+            String configured = ConfigSnapshot.get().getString("logLevel");
+            level = INFO;
+            for (int i = 0; i < LEVEL_NAMES.length; i++) {
+                if (LEVEL_NAMES[i].equalsIgnoreCase(configured != null ? configured.trim() : "")) {
+                    level = i;
+                }
+            }
+            threshold = level;
+        }
+        return level;
+    }
+
+    private static void ensureWriter() {
+        if (writer != null) {
+            return;
+        }
+        synchronized (TestLog.class) {
+            if (writer != null) {
+                return;
+            }
+            try {
+                File file = new File(LOG_FILE);
+                file.getParentFile().mkdirs();
+                jsonLines = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+            } catch (IOException e) {
+                CONSOLE.println("✗ Test log file unavailable, console only: " + e.getMessage());
+            }
+            Thread thread = new Thread(TestLog::drain, "test-log-writer");
+            thread.setDaemon(true);
+            thread.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> {
+                flush();
+                closed = true;
+            }, "test-log-flush"));
+            writer = thread;
+        }
+    }
+
+    private static void drain() {
+        while (true) {
+            Entry entry = BUFFER.poll();
+            if (entry == null) {
+                synchronized (TestLog.class) {
+                    try {
+                        if (jsonLines != null) {
+                            jsonLines.flush();
+                        }
+                    } catch (IOException e) {
+                        // Keep logging to the console
+                    }
+                }
+                LockSupport.parkNanos(2_000_000);
+                continue;
+            }
+            if (entry.consoleOnly) {
+                CONSOLE.print(entry.message);
+                continue;
+            }
+            if (!entry.heldForTest) {
+                CONSOLE.println(entry.message);
+            }
+            synchronized (TestLog.class) {
+                if (jsonLines != null) {
+                    try {
+                        jsonLines.write(toJson(entry));
+                        jsonLines.newLine();
+                    } catch (IOException e) {
+                        CONSOLE.println("✗ Test log file write failed, console only: " + e.getMessage());
+                        jsonLines = null;
+                    }
+                }
+            }
+        }
+    }
+
+    /**
+     * @return SimpleClassName.method of the innermost page object frame, or null outside pages
+     */
+    private static String pageMethod() {
+        Optional<StackWalker.StackFrame> frame = WALKER.walk(frames -> frames
+                .filter(f -> f.getDeclaringClass().getName().startsWith("com.mondial.pages."))
+                .findFirst());
+        return frame.map(f -> f.getDeclaringClass().getSimpleName() + "." + f.getMethodName()).orElse(null);
+    }
+
+    private static String toJson(Entry entry) {
+        StringBuilder json = new StringBuilder(160);
+        json.append("{\"time\":\"").append(Instant.ofEpochMilli(entry.time)).append('"');
+        json.append(",\"level\":\"").append(LEVEL_NAMES[entry.level]).append('"');
+        json.append(",\"thread\":");
+        appendString(json, entry.thread);
+        json.append(",\"test\":");
+        appendString(json, entry.test);
+        json.append(",\"page\":");
+        appendString(json, entry.page);
+        json.append(",\"elapsedMs\":").append(entry.elapsedMillis >= 0 ? String.valueOf(entry.elapsedMillis) : "null");
+        json.append(",\"message\":");
+        appendString(json, ANSI.matcher(entry.message).replaceAll("").trim());
+        return json.append('}').toString();
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        if (value == null) {
+            json.append("null");
+            return;
+        }
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            switch (c) {
+                case '"':
+                    json.append("\\\"");
+                    break;
+                case '\\':
+                    json.append("\\\\");
+                    break;
+                case '\n':
+                    json.append("\\n");
+                    break;
+                case '\r':
+                    json.append("\\r");
+                    break;
+                case '\t':
+                    json.append("\\t");
+                    break;
+                default:
+                    if (c < 0x20) {
+                        json.append(String.format("\\u%04x", (int) c));
+                    } else {
+                        json.append(c);
+                    }
+            }
+        }
+        json.append('"');
+    }
+
+    /**
+     * System.out replacement: println goes straight to the log, other writes are
+     * collected per thread until a line is complete
+     */
+    private static final class CapturingStream extends PrintStream {
+        private static final ThreadLocal<ByteArrayOutputStream> partial =
+                ThreadLocal.withInitial(ByteArrayOutputStream::new);
+
+        private CapturingStream() {
+            super(new OutputStream() {
+                @Override
+                public void write(int b) {
+                    ByteArrayOutputStream line = partial.get();
+                    if (b == '\n') {
+                        String text = new String(line.toByteArray(), StandardCharsets.UTF_8);
+                        line.reset();
+                        log(INFO, text.endsWith("\r") ? text.substring(0, text.length() - 1) : text);
+                    } else {
+                        line.write(b);
+                    }
+                }
+            }, true, StandardCharsets.UTF_8);
+        }
+
+        @Override
+        public void println(String x) {
+            log(INFO, String.valueOf(x));
+        }
+
+        @Override
+        public void println(Object x) {
+            log(INFO, String.valueOf(x));
+        }
+
+        @Override
+        public void println() {
+            log(INFO, "");
+        }
+    }
+}
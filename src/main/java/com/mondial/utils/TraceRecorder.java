@@ -0,0 +1,408 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WebElement;
+import org.openqa.selenium.support.events.EventFiringDecorator;
+import org.openqa.selenium.support.events.WebDriverListener;
+import org.testng.ITestResult;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.InvocationTargetException;
+import java.lang.reflect.Method;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.locks.LockSupport;
+import java.util.stream.Collectors;
+
+/**
+ * Suite timeline in Chrome trace-event format (open in Perfetto or chrome://tracing).
+ *
+ * With traceTimeline=true every worker thread gets a track with nested spans: test class
+ * (BaseTest setUp to tearDown, with setup and teardown spans), test method (TestListener),
+ * page step (page object method the WebDriver commands came from) and WebDriver command
+ * (driver decorated with a listener). Idle gaps on a track are time a worker did not work.
+ *
+ * Spans are queued on a lock-free ring buffer and serialized by a background writer to
+ * target/trace/suite-trace.json. Recording stops at traceMaxMb; the file stays valid JSON
+ * even when the run is killed (the closing bracket is optional in this format).
+ */
+public class TraceRecorder {
+    public static final String TRACE_FILE = "target/trace/suite-trace.json";
+    private static final String SPAN_ATTRIBUTE = "traceSpan";
+
+    private static final ConfigReader config = new ConfigReader();
+    private static final boolean ENABLED = config.getBoolean("traceTimeline");
+    private static final long MAX_BYTES = config.getInt("traceMaxMb", 100) * 1024L * 1024L;
+    private static final long ORIGIN_NANOS = System.nanoTime();
+    private static final StackWalker WALKER = StackWalker.getInstance();
+    private static final LogRingBuffer<Event> BUFFER = new LogRingBuffer<>(16384);
+    private static final ThreadLocal<ThreadTrack> track = ThreadLocal.withInitial(TraceRecorder::register);
+
+    private static volatile boolean full;
+    private static volatile Thread writer;
+    private static BufferedWriter out;
+    private static long bytesWritten;
+
+    /**
+     * An open span; end() records it
+     */
+    public static class Span {
+        private static final Span NOOP = new Span(null, null);
+        private final String category;
+        private final String name;
+        private final long startNanos = System.nanoTime();
+
+        private Span(String category, String name) {
+            this.category = category;
+            this.name = name;
+        }
+
+        public void end() {
+            if (this == NOOP) {
+                return;
+            }
+            ThreadTrack current = track.get();
+            current.closePageSteps();
+            record(new Event("X", category, name, current.id, startNanos, System.nanoTime(), null));
+        }
+    }
+
+    private static final class Event {
+        private final String phase;
+        private final String category;
+        private final String name;
+        private final long threadId;
+        private final long startNanos;
+        private final long endNanos;
+        private final String detail;
+
+        private Event(String phase, String category, String name, long threadId, long startNanos, long endNanos,
+                String detail) {
+            this.phase = phase;
+            this.category = category;
+            this.name = name;
+            this.threadId = threadId;
+            this.startNanos = startNanos;
+            this.endNanos = endNanos;
+            this.detail = detail;
+        }
+    }
+
+    /**
+     * Per-thread state: open page steps (outermost first) and open WebDriver commands
+     */
+    private static final class ThreadTrack {
+        private final long id = Thread.currentThread().getId();
+        private final List<String> pageSteps = new ArrayList<>();
+        private final List<Long> pageStepStarts = new ArrayList<>();
+        private final Deque<Long> commandStarts = new ArrayDeque<>();
+        private long lastCommandEnd;
+
+        /**
+         * Close the steps that are no longer on the call stack and open the new ones
+         * @param frames Page object methods on the stack, outermost first
+         */
+        private void enterPageSteps(List<String> frames, long now) {
+            int common = 0;
+            while (common < pageSteps.size() && common < frames.size()
+                    && pageSteps.get(common).equals(frames.get(common))) {
+                common++;
+            }
+            closePageSteps(common);
+            for (int i = common; i < frames.size(); i++) {
+                pageSteps.add(frames.get(i));
+                pageStepStarts.add(now);
+            }
+        }
+
+        private void closePageSteps() {
+            closePageSteps(0);
+        }
+
+        private void closePageSteps(int keep) {
+            for (int i = pageSteps.size() - 1; i >= keep; i--) {
+                long start = pageStepStarts.remove(i);
+                record(new Event("X", "page", pageSteps.remove(i), id, start, Math.max(start, lastCommandEnd), null));
+            }
+        }
+    }
+
+    /**
+     * Records every WebDriver and WebElement call as a command span under its page step
+     */
+    private static final class CommandListener implements WebDriverListener {
+        @Override
+        public void beforeAnyCall(Object target, Method method, Object[] args) {
+            ThreadTrack current = track.get();
+            long now = System.nanoTime();
+            if (current.commandStarts.isEmpty()) {
+                current.enterPageSteps(pageFrames(), now);
+            }
+            current.commandStarts.push(now);
+        }
+
+        @Override
+        public void afterAnyCall(Object target, Method method, Object[] args, Object result) {
+            endCommand(target, method, args, null);
+        }
+
+        @Override
+        public void onError(Object target, Method method, Object[] args, InvocationTargetException e) {
+            Throwable cause = e.getCause() != null ? e.getCause() : e;
+            endCommand(target, method, args, cause.getClass().getSimpleName());
+        }
+
+        private void endCommand(Object target, Method method, Object[] args, String error) {
+            ThreadTrack current = track.get();
+            Long start = current.commandStarts.poll();
+            if (start == null) {
+                return;
+            }
+            long now = System.nanoTime();
+            current.lastCommandEnd = now;
+            String type = target instanceof WebElement ? "WebElement" : target instanceof WebDriver ? "WebDriver"
+                    : target.getClass().getSimpleName();
+            String detail = args != null && args.length > 0 && args[0] != null && !(args[0] instanceof Object[])
+                    ? args[0].toString() : null;
+            if (detail != null && detail.length() > 120) {
+                detail = detail.substring(0, 120) + "...";
+            }
+            if (error != null) {
+                detail = (detail != null ? detail + " " : "") + "failed: " + error;
+            }
+            record(new Event("X", "webdriver", type + "." + method.getName(), current.id, start, now, detail));
+        }
+    }
+
+    private TraceRecorder() {
+    }
+
+    /**
+     * @return true when traceTimeline is on
+     */
+    public static boolean isEnabled() {
+        return ENABLED;
+    }
+
+    /**
+     * Open a span on the current thread's track
+     * @param category class, method or lifecycle
+     * @param name Span name, e.g. the test class or method
+     * @return Span to end(); a no-op when tracing is off
+     */
+    public static Span begin(String category, String name) {
+        if (!ENABLED || full) {
+            return Span.NOOP;
+        }
+        return new Span(category, name);
+    }
+
+    /**
+     * Open the test method's span; called from TestListener.onTestStart
+     * @param result TestNG result of the starting test
+     */
+    public static void startTest(ITestResult result) {
+        if (ENABLED) {
+            result.setAttribute(SPAN_ATTRIBUTE, begin("method",
+                    result.getTestClass().getRealClass().getSimpleName() + "." + result.getName()));
+        }
+    }
+
+    /**
+     * Close the test method's span; called from TestListener when the test finished
+     * @param result TestNG result of the finished test
+     */
+    public static void endTest(ITestResult result) {
+        Object span = result.getAttribute(SPAN_ATTRIBUTE);
+        if (span instanceof Span) {
+            ((Span) span).end();
+        }
+    }
+
+    /**
+     * Wrap a new session's driver so its commands appear on the timeline
+     * @param webDriver Driver as launched
+     * @return Decorated driver, or the same driver when tracing is off
+     */
+    public static WebDriver decorate(WebDriver webDriver) {
+        if (!ENABLED) {
+            return webDriver;
+        }
+        return new EventFiringDecorator<>(new CommandListener()).decorate(webDriver);
+    }
+
+    /**
+     * Block until queued spans are written, e.g. at the end of a suite
+     */
+    public static void flush() {
+        if (writer == null) {
+            return;
+        }
+        long target = BUFFER.offered();
+        long deadline = System.currentTimeMillis() + 5000;
+        while (BUFFER.taken() < target && System.currentTimeMillis() < deadline) {
+            LockSupport.parkNanos(1_000_000);
+        }
+        synchronized (TraceRecorder.class) {
+            try {
+                if (out != null) {
+                    out.flush();
+                }
+            } catch (IOException e) {
+                TestLog.warn("✗ Trace file could not be flushed: " + e.getMessage());
+            }
+        }
+    }
+
+    private static ThreadTrack register() {
+        ThreadTrack created = new ThreadTrack();
+        record(new Event("M", null, Thread.currentThread().getName(), created.id, 0, 0, null));
+        return created;
+    }
+
+    /**
+     * @return Page object methods on the current stack, outermost first
+     */
+    private static List<String> pageFrames() {
+        List<String> frames = WALKER.walk(stack -> stack
+                .filter(f -> f.getClassName().startsWith("com.mondial.pages."))
+                .map(f -> f.getClassName().substring(f.getClassName().lastIndexOf('.') + 1) + "." + f.getMethodName())
+                .collect(Collectors.toList()));
+        List<String> outermostFirst = new ArrayList<>(frames.size());
+        for (int i = frames.size() - 1; i >= 0; i--) {
+            outermostFirst.add(frames.get(i));
+        }
+        return outermostFirst;
+    }
+
+    private static void record(Event event) {
+        if (full) {
+            return;
+        }
+        ensureWriter();
+        BUFFER.offer(event);
+    }
+
+    private static void ensureWriter() {
+        if (writer != null) {
+            return;
+        }
+        synchronized (TraceRecorder.class) {
+            if (writer != null) {
+                return;
+            }
+            try {
+                File file = new File(TRACE_FILE);
+                file.getParentFile().mkdirs();
+                out = Files.newBufferedWriter(file.toPath(), StandardCharsets.UTF_8);
+                out.write("[\n{\"name\":\"process_name\",\"ph\":\"M\",\"pid\":1,\"tid\":0,\"args\":{\"name\":\"Mondial test suite\"}}");
+                bytesWritten = 100;
+            } catch (IOException e) {
+                TestLog.warn("✗ Trace file unavailable, timeline not recorded: " + e.getMessage());
+                full = true;
+            }
+            Thread thread = new Thread(TraceRecorder::drain, "trace-writer");
+            thread.setDaemon(true);
+            thread.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(TraceRecorder::close, "trace-writer-close"));
+            writer = thread;
+            TestLog.info("Timeline trace: " + TRACE_FILE + " (max " + MAX_BYTES / (1024 * 1024) + " MB)");
+        }
+    }
+
+    private static void drain() {
+        while (true) {
+            Event event = BUFFER.poll();
+            if (event == null) {
+                LockSupport.parkNanos(5_000_000);
+                continue;
+            }
+            synchronized (TraceRecorder.class) {
+                if (out == null) {
+                    continue;
+                }
+                try {
+                    String json = toJson(event);
+                    out.write(",\n");
+                    out.write(json);
+                    bytesWritten += json.length() + 2;
+                    if (bytesWritten >= MAX_BYTES) {
+                        full = true;
+                        out.write(",\n{\"name\":\"trace size cap reached (traceMaxMb)\",\"ph\":\"i\",\"s\":\"g\",\"pid\":1,\"tid\":0,\"ts\":"
+                                + micros(System.nanoTime()) + "}");
+                        out.flush();
+                        TestLog.warn("✗ Timeline trace reached traceMaxMb, recording stopped");
+                    }
+                } catch (IOException e) {
+                    TestLog.warn("✗ Trace file write failed, recording stopped: " + e.getMessage());
+                    full = true;
+                    out = null;
+                }
+            }
+        }
+    }
+
+    private static void close() {
+        flush();
+        full = true;
+        synchronized (TraceRecorder.class) {
+            if (out == null) {
+                return;
+            }
+            try {
+                out.write("\n]\n");
+                out.close();
+            } catch (IOException e) {
+                // The array format is still readable without the closing bracket
+            }
+            out = null;
+        }
+    }
+
+    private static String toJson(Event event) {
+        StringBuilder json = new StringBuilder(160);
+        if ("M".equals(event.phase)) {
+            json.append("{\"name\":\"thread_name\",\"ph\":\"M\",\"pid\":1,\"tid\":").append(event.threadId)
+                    .append(",\"args\":{\"name\":");
+            appendString(json, event.name);
+            return json.append("}}").toString();
+        }
+        json.append("{\"name\":");
+        appendString(json, event.name);
+        json.append(",\"cat\":\"").append(event.category).append("\",\"ph\":\"X\",\"pid\":1,\"tid\":")
+                .append(event.threadId)
+                .append(",\"ts\":").append(micros(event.startNanos))
+                .append(",\"dur\":").append((event.endNanos - event.startNanos) / 1000);
+        if (event.detail != null) {
+            json.append(",\"args\":{\"detail\":");
+            appendString(json, event.detail);
+            json.append('}');
+        }
+        return json.append('}').toString();
+    }
+
+    private static long micros(long nanos) {
+        return (nanos - ORIGIN_NANOS) / 1000;
+    }
+
+    private static void appendString(StringBuilder json, String value) {
+        json.append('"');
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                json.append('\\').append(c);
+            } else if (c < 0x20) {
+                json.append(String.format("\\u%04x", (int) c));
+            } else {
+                json.append(c);
+            }
+        }
+        json.append('"');
+    }
+}
@@ -0,0 +1,246 @@
+package com.mondial.utils;
+
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.net.HttpURLConnection;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.FileVisitResult;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.SimpleFileVisitor;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.BasicFileAttributes;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Function;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+
+/**
+ * Chrome/Edge profile template holding a warm HTTP cache of the app's static assets.
+ *
+ * With warmProfile=true each session starts from a private copy of the template's cache
+ * directories (--user-data-dir in a temp dir, deleted at quit), so parallel sessions stay
+ * isolated and the first pages load the JS/CSS bundles from disk. Only the caches are
+ * copied; cookies and storage are not, every session still starts logged out.
+ *
+ * The template lives in warmProfileDir and records the asset fingerprint it was built for:
+ * the digested script and stylesheet URLs of the base page. Once per JVM the fingerprint is
+ * compared with the app's current one and the template is rebuilt after a deploy.
+ */
+public class WarmProfile {
+    private static final String FINGERPRINT_FILE = "asset-fingerprint.txt";
+    // Cache directories of a Chromium profile; everything else is left for the browser to create
+    private static final String[] CACHE_DIRS = {
+            "Default/Cache", "Default/Code Cache", "Default/GPUCache", "GrShaderCache", "ShaderCache"
+    };
+    private static final Pattern ASSET = Pattern.compile(
+            "(?:src|href)\\s*=\\s*[\"']([^\"']+\\.(?:js|css)(?:\\?[^\"']*)?)[\"']", Pattern.CASE_INSENSITIVE);
+
+    private static boolean templateChecked;
+
+    private WarmProfile() {
+    }
+
+    /**
+     * @param browser Browser name
+     * @param config Configuration holding warmProfile
+     * @return true when sessions of this browser start from the warm template
+     */
+    public static boolean isEnabled(String browser, ConfigReader config) {
+        if (!config.getBoolean("warmProfile")) {
+            return false;
+        }
+        if (!"chrome".equalsIgnoreCase(browser) && !"edge".equalsIgnoreCase(browser)) {
+            TestLog.info("Warm profile skipped: only Chrome and Edge profiles are supported");
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * Copy the template's caches into a new per-session profile directory, building or
+     * refreshing the template first when needed
+     * @param config Configuration holding warmProfileDir and the base URL
+     * @param launcher Starts a browser on a given --user-data-dir, used to build the template
+     * @return Profile directory for --user-data-dir, or null if no template could be prepared
+     */
+    public static Path sessionCopy(ConfigReader config, Function<Path, WebDriver> launcher) {
+        Path template = templateDir(config);
+        try {
+            ensureTemplate(template, config, launcher);
+            if (!Files.isDirectory(template)) {
+                return null;
+            }
+            long started = System.currentTimeMillis();
+            Path session = Files.createTempDirectory("mondial-profile-");
+            long bytes = 0;
+            for (String cacheDir : CACHE_DIRS) {
+                bytes += copyTree(template.resolve(cacheDir), session.resolve(cacheDir));
+            }
+            TestLog.info("✓ Warm profile copied (" + bytes / (1024 * 1024) + " MB) in "
+                    + (System.currentTimeMillis() - started) + " ms: " + session);
+            return session;
+        } catch (Exception e) {
+            TestLog.info("Warm profile not used: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Delete a per-session profile directory after its browser quit
+     * @param profile Directory returned by sessionCopy, may be null
+     */
+    public static void delete(Path profile) {
+        if (profile == null) {
+            return;
+        }
+        try {
+            deleteTree(profile);
+        } catch (IOException e) {
+            TestLog.info("Session profile " + profile + " could not be deleted: " + e.getMessage());
+        }
+    }
+
+    private static synchronized void ensureTemplate(Path template, ConfigReader config,
+            Function<Path, WebDriver> launcher) throws IOException {
+        if (templateChecked) {
+            return;
+        }
+        templateChecked = true;
+        String baseUrl = ConfigReader.getBaseUrl();
+        String current = fingerprint(baseUrl);
+        Path recorded = template.resolve(FINGERPRINT_FILE);
+        if (Files.exists(recorded)) {
+            String built = new String(Files.readAllBytes(recorded), StandardCharsets.UTF_8).trim();
+            if (current == null || current.equals(built)) {
+                TestLog.info("✓ Warm profile template is current (" + built + ")");
+                return;
+            }
+            TestLog.info("Warm profile template is stale (assets " + built + " -> " + current + "), rebuilding");
+        } else {
+            TestLog.info("Warm profile template missing, building it in " + template);
+        }
+
+        long started = System.currentTimeMillis();
+        Path building = Files.createTempDirectory("mondial-profile-template-");
+        WebDriver driver = launcher.apply(building);
+        try {
+            driver.get(baseUrl);
+            new WebDriverWait(driver, config.getSeconds("pageLoadTimeout")).until(d ->
+                    "complete".equals(((JavascriptExecutor) d).executeScript("return document.readyState")));
+        } finally {
+            // A clean quit flushes the disk cache
+            driver.quit();
+        }
+        Files.write(building.resolve(FINGERPRINT_FILE),
+                (current != null ? current : "unknown").getBytes(StandardCharsets.UTF_8));
+        if (Files.exists(template)) {
+            deleteTree(template);
+        }
+        Files.createDirectories(template.getParent());
+        try {
+            Files.move(building, template, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            // Temp dir on another file system: copy instead
+            copyTree(building, template);
+            deleteTree(building);
+        }
+        TestLog.info("✓ Warm profile template built in " + (System.currentTimeMillis() - started) + " ms");
+    }
+
+    /**
+     * Hash of the script and stylesheet URLs on the base page; Rails digests change with every asset change
+     * @param baseUrl Application URL
+     * @return Short hex fingerprint, or null if the page could not be read
+     */
+    static String fingerprint(String baseUrl) {
+        try {
+            HttpURLConnection connection = (HttpURLConnection) new URL(baseUrl).openConnection();
+            connection.setConnectTimeout(10000);
+            connection.setReadTimeout(20000);
+            connection.setInstanceFollowRedirects(true);
+            String html;
+            try (InputStream in = connection.getInputStream()) {
+                ByteArrayOutputStream out = new ByteArrayOutputStream();
+                byte[] buffer = new byte[8192];
+                int read;
+                while ((read = in.read(buffer)) != -1 && out.size() < 4 * 1024 * 1024) {
+                    out.write(buffer, 0, read);
+                }
+                html = new String(out.toByteArray(), StandardCharsets.UTF_8);
+            }
+            List<String> assets = new ArrayList<>();
+            Matcher matcher = ASSET.matcher(html);
+            while (matcher.find()) {
+                assets.add(matcher.group(1));
+            }
+            Collections.sort(assets);
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            byte[] hash = digest.digest(String.join("\n", assets).getBytes(StandardCharsets.UTF_8));
+            StringBuilder hex = new StringBuilder();
+            for (int i = 0; i < 8; i++) {
+                hex.append(String.format("%02x", hash[i]));
+            }
+            return hex.toString();
+        } catch (IOException | NoSuchAlgorithmException e) {
+            TestLog.info("Asset fingerprint unavailable: " + e.getMessage());
+            return null;
+        }
+    }
+
+    private static Path templateDir(ConfigReader config) {
+        String configured = config.getProperty("warmProfileDir");
+        if (configured != null && !configured.trim().isEmpty()) {
+            return Paths.get(configured.trim());
+        }
+        return Paths.get(System.getProperty("user.home"), ".cache", "mondial", "chrome-profile-template");
+    }
+
+    private static long copyTree(Path source, Path target) throws IOException {
+        if (!Files.isDirectory(source)) {
+            return 0;
+        }
+        long[] bytes = {0};
+        Files.walkFileTree(source, new SimpleFileVisitor<Path>() {
+            @Override
+            public FileVisitResult preVisitDirectory(Path dir, BasicFileAttributes attrs) throws IOException {
+                Files.createDirectories(target.resolve(source.relativize(dir).toString()));
+                return FileVisitResult.CONTINUE;
+            }
+
+            @Override
+            public FileVisitResult visitFile(Path file, BasicFileAttributes attrs) throws IOException {
+                Files.copy(file, target.resolve(source.relativize(file).toString()), StandardCopyOption.REPLACE_EXISTING);
+                bytes[0] += attrs.size();
+                return FileVisitResult.CONTINUE;
+            }
+        });
+        return bytes[0];
+    }
+
+    private static void deleteTree(Path root) throws IOException {
+        if (!Files.exists(root)) {
+            return;
+        }
+        try (Stream<Path> paths = Files.walk(root)) {
+            List<Path> all = new ArrayList<>();
+            paths.forEach(all::add);
+            Collections.reverse(all);
+            for (Path path : all) {
+                Files.deleteIfExists(path);
+            }
+        }
+    }
+}
@@ -3,6 +3,7 @@ package com.mondial.drilldown;
 import com.mondial.tests.BaseTest;
 import com.mondial.pages.HomePage;
 import com.mondial.pages.LoginPage;
+import com.mondial.pages.ReportRequest;
 import com.mondial.pages.ReportsPage;
 import org.testng.Assert;
 import org.testng.annotations.BeforeClass;
@@ -37,20 +38,13 @@ public class DrilldownTrialBalanceTest extends BaseTest {
     public void generateTrialBalanceReport() throws InterruptedException {
         rp.navigateToTemplatedReport();
         rp.waitForVisible(rp.templatedReportHeading);
-        rp.selectCompany("Shaneel Perfume Shop 13");
-        rp.waitForLoad();
-        rp.selectReport("Trial Balance");
-        rp.waitForLoad();
-        rp.selectCurrency("USD");
-        rp.waitForLoad();
-        rp.selectNaturalAccountSets("Local");
-        rp.waitForLoad();
-        rp.selectLedger("Default");
-        rp.waitForLoad();
-        rp.selectOutputType("Screen");
-        rp.waitForLoad();
-        rp.selectDatesJS("01/01/2025", "01/31/2025");
-        rp.checkTxnType("source");
+        rp.apply(ReportRequest.of("Shaneel Perfume Shop 13", "Trial Balance")
+                .withCurrency("USD")
+                .withNaturalAccountSet("Local")
+                .withLedger("Default")
+                .withOutputType("Screen")
+                .withDates("01/01/2025", "01/31/2025")
+                .withTransactionTypes("source"));
         rp.generateReport("Trial Balance");
     }
 
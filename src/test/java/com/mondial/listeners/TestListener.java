@@ -1,18 +1,16 @@
 package com.mondial.listeners;
 
-import org.apache.commons.io.FileUtils;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
 import org.testng.ITestContext;
 import org.testng.ITestListener;
 import org.testng.ITestResult;
 import com.mondial.utils.ConfigReader;
 import com.mondial.utils.DriverManager;
-
-import java.io.File;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import com.mondial.utils.ExtentReportManager;
+import com.mondial.utils.HarRecorder;
+import com.mondial.utils.ScreencastRecorder;
+import com.mondial.utils.ScreenshotPipeline;
+import com.mondial.utils.TestLog;
+import com.mondial.utils.TraceRecorder;
 
 public class TestListener implements ITestListener {
     
@@ -20,69 +18,92 @@ public class TestListener implements ITestListener {
 
     @Override
     public void onTestStart(ITestResult result) {
-        System.out.println("=================================");
-        System.out.println("Starting Test: " + result.getName());
-        System.out.println("=================================");
+        TestLog.startTest(result.getTestClass().getRealClass().getSimpleName() + "." + result.getName());
+        ExtentReportManager.startTest(result);
+        TraceRecorder.startTest(result);
+        HarRecorder har = DriverManager.getHarRecorder();
+        if (har != null) {
+            har.startTest(result.getName());
+        }
+        TestLog.info("=================================");
+        TestLog.info("Starting Test: " + result.getName());
+        TestLog.info("=================================");
     }
 
     @Override
     public void onTestSuccess(ITestResult result) {
-        System.out.println("✓ Test PASSED: " + result.getName());
+        TestLog.info("✓ Test PASSED: " + result.getName());
+        ScreencastRecorder recorder = DriverManager.getScreencastRecorder();
+        if (recorder != null) {
+            recorder.discard();
+        }
+        endHar(false);
+        TraceRecorder.endTest(result);
+        ExtentReportManager.endTest(result);
+        TestLog.endTest(result);
     }
 
     @Override
     public void onTestFailure(ITestResult result) {
-        System.out.println("✗ Test FAILED: " + result.getName());
-        System.out.println("Failure Reason: " + result.getThrowable().getMessage());
+        TestLog.warn("✗ Test FAILED: " + result.getName());
+        TestLog.info("Failure Reason: " + result.getThrowable().getMessage());
         
-        if (Boolean.parseBoolean(config.getProperty("captureScreenshotOnFailure"))) {
-            captureScreenshot(result.getName());
+        if (config.getBoolean("captureScreenshotOnFailure")) {
+            ScreenshotPipeline.captureOnFailure(DriverManager.getDriver(), result);
         }
+        ScreencastRecorder recorder = DriverManager.getScreencastRecorder();
+        if (recorder != null) {
+            recorder.persist(result.getName());
+        }
+        endHar(true);
+        TraceRecorder.endTest(result);
+        ExtentReportManager.endTest(result);
+        TestLog.endTest(result);
     }
 
     @Override
     public void onTestSkipped(ITestResult result) {
-        System.out.println("⊘ Test SKIPPED: " + result.getName());
+        TestLog.info("⊘ Test SKIPPED: " + result.getName());
+        ScreencastRecorder recorder = DriverManager.getScreencastRecorder();
+        if (recorder != null) {
+            recorder.discard();
+        }
+        endHar(false);
+        TraceRecorder.endTest(result);
+        ExtentReportManager.endTest(result);
+        TestLog.endTest(result);
+    }
+
+    /**
+     * Save the test's HAR when it failed or had a slow request, drop it otherwise
+     */
+    private void endHar(boolean failed) {
+        HarRecorder har = DriverManager.getHarRecorder();
+        if (har != null) {
+            har.endTest(failed);
+        }
     }
 
     @Override
     public void onStart(ITestContext context) {
-        System.out.println("\n========================================");
-        System.out.println("Starting Test Suite: " + context.getName());
-        System.out.println("========================================\n");
+        TestLog.captureSystemOut();
+        TestLog.info("\n========================================");
+        TestLog.info("Starting Test Suite: " + context.getName());
+        TestLog.info("========================================\n");
     }
 
     @Override
     public void onFinish(ITestContext context) {
-        System.out.println("\n========================================");
-        System.out.println("Finished Test Suite: " + context.getName());
-        System.out.println("Total Tests: " + context.getAllTestMethods().length);
-        System.out.println("Passed: " + context.getPassedTests().size());
-        System.out.println("Failed: " + context.getFailedTests().size());
-        System.out.println("Skipped: " + context.getSkippedTests().size());
-        System.out.println("========================================\n");
-    }
-
-    private void captureScreenshot(String testName) {
-        try {
-            TakesScreenshot ts = (TakesScreenshot) DriverManager.getDriver();
-            File source = ts.getScreenshotAs(OutputType.FILE);
-            
-            String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-            String fileName = testName + "_" + timestamp + ".png";
-            
-            // Create screenshots directory if it doesn't exist
-            File screenshotsDir = new File("screenshots");
-            if (!screenshotsDir.exists()) {
-                screenshotsDir.mkdirs();
-            }
-            
-            File destination = new File("screenshots/" + fileName);
-            FileUtils.copyFile(source, destination);
-            
-            System.out.println("Screenshot captured: " + destination.getAbsolutePath());
-        } catch (Exception e) {
-            System.out.println("Failed to capture screenshot: " + e.getMessage());
-        }
+        TestLog.info("\n========================================");
+        TestLog.info("Finished Test Suite: " + context.getName());
+        TestLog.info("Total Tests: " + context.getAllTestMethods().length);
+        TestLog.info("Passed: " + context.getPassedTests().size());
+        TestLog.info("Failed: " + context.getFailedTests().size());
+        TestLog.info("Skipped: " + context.getSkippedTests().size());
+        TestLog.info("========================================\n");
+        ScreenshotPipeline.flush();
+        ExtentReportManager.flush();
+        TraceRecorder.flush();
+        TestLog.flush();
     }
 }
@@ -3,15 +3,13 @@ package com.mondial.tests;
 import org.testng.annotations.*;
 import org.testng.ITestResult;
 import org.openqa.selenium.WebDriver;
-import org.openqa.selenium.OutputType;
-import org.openqa.selenium.TakesScreenshot;
-import org.apache.commons.io.FileUtils;
-import java.io.File;
-import java.io.IOException;
-import java.text.SimpleDateFormat;
-import java.util.Date;
+import com.mondial.utils.AllowResources;
 import com.mondial.utils.DriverManager;
 import com.mondial.utils.ConfigReader;
+import com.mondial.utils.ConfigSnapshot;
+import com.mondial.utils.ScreenshotPipeline;
+import com.mondial.utils.TestLog;
+import com.mondial.utils.TraceRecorder;
 
 /**
  * Base Test Class
@@ -28,7 +26,8 @@ public class BaseTest {
     
     protected WebDriver driver;
     protected ConfigReader config = new ConfigReader();
-    protected static final String SCREENSHOT_DIR = "screenshots/";
+    protected static final String SCREENSHOT_DIR = ScreenshotPipeline.SCREENSHOT_DIR + "/";
+    private TraceRecorder.Span classSpan;
     
     /**
      * Setup method executed before each test class
@@ -36,38 +35,43 @@ public class BaseTest {
      */
     @BeforeClass(alwaysRun = true)
     public void setUp() {
-        System.out.println("\n========================================");
-        System.out.println("Starting Test Suite Setup");
-        System.out.println("========================================");
+        // Also when the class runs without TestListener (e.g. -Dtest=...)
+        TestLog.captureSystemOut();
+        classSpan = TraceRecorder.begin("class", getClass().getSimpleName());
+        TraceRecorder.Span setupSpan = TraceRecorder.begin("lifecycle", "setUp");
+        TestLog.info("\n========================================");
+        TestLog.info("Starting Test Suite Setup");
+        TestLog.info("========================================");
         
-        // Get browser from system property (for CI/CD) or config file
-        String browser = System.getProperty("browser");
-        if (browser == null || browser.isEmpty()) {
-            browser = ConfigReader.getBrowser();
-            System.out.println("Using browser from config: " + browser);
-        } else {
-            System.out.println("Using browser from system property: " + browser);
-        }
+        // Browser from system property (for CI/CD), environment or config file
+        String browser = ConfigReader.getBrowser();
+        TestLog.info("Using browser from " + ConfigSnapshot.get().sourceOf("browser") + ": " + browser);
         
         // Initialize WebDriver
-        System.out.println("Initializing WebDriver...");
-        DriverManager.setDriver(browser);
+        TestLog.info("Initializing WebDriver...");
+        AllowResources allowResources = getClass().getAnnotation(AllowResources.class);
+        DriverManager.setDriver(browser, allowResources != null ? allowResources.value() : new String[0]);
         driver = DriverManager.getDriver();
-        System.out.println("✓ WebDriver initialized successfully");
+        TestLog.info("✓ WebDriver initialized successfully");
         
         // Get base URL from config
         String baseUrl = getBaseUrl();
-        System.out.println("Navigating to: " + baseUrl);
+        TestLog.info("Navigating to: " + baseUrl);
         
-        // Navigate to application
-        driver.get(baseUrl);
+        // Navigate to application (a pre-warmed session has already loaded it)
+        if (DriverManager.isPrewarmedAt(baseUrl)) {
+            TestLog.info("✓ Pre-warmed session already on " + baseUrl);
+        } else {
+            driver.get(baseUrl);
+        }
 
         // Print test environment info
         printTestEnvironment(browser, baseUrl);
         
-        System.out.println("========================================");
-        System.out.println("Test Suite Setup Complete");
-        System.out.println("========================================\n");
+        TestLog.info("========================================");
+        TestLog.info("Test Suite Setup Complete");
+        TestLog.info("========================================\n");
+        setupSpan.end();
     }
     
     /**
@@ -76,20 +80,26 @@ public class BaseTest {
      */
     @AfterClass(alwaysRun = true)
     public void tearDown() {
-        System.out.println("\n========================================");
-        System.out.println("Starting Test Suite Teardown");
-        System.out.println("========================================");
+        TraceRecorder.Span teardownSpan = TraceRecorder.begin("lifecycle", "tearDown");
+        TestLog.info("\n========================================");
+        TestLog.info("Starting Test Suite Teardown");
+        TestLog.info("========================================");
         
         if (driver != null) {
-            System.out.println("Closing browser...");
+            TestLog.info("Closing browser...");
             DriverManager.quitDriver();
             driver = null;
-            System.out.println("✓ Browser closed successfully");
+            TestLog.info("✓ Browser closed successfully");
         }
         
-        System.out.println("========================================");
-        System.out.println("Test Suite Teardown Complete");
-        System.out.println("========================================\n");
+        TestLog.info("========================================");
+        TestLog.info("Test Suite Teardown Complete");
+        TestLog.info("========================================\n");
+        teardownSpan.end();
+        if (classSpan != null) {
+            classSpan.end();
+            classSpan = null;
+        }
     }
     
     /**
@@ -102,14 +112,14 @@ public class BaseTest {
         String testName = result.getName();
         
         if (result.getStatus() == ITestResult.FAILURE) {
-            System.out.println("\n✗ TEST FAILED: " + testName);
+            TestLog.info("\n✗ TEST FAILED: " + testName);
             String failureMsg = result.getThrowable() != null ? result.getThrowable().getMessage() : "Unknown failure";
-            System.out.println("Failure Reason: " + failureMsg);
-            captureScreenshot(testName);
+            TestLog.info("Failure Reason: " + failureMsg);
+            ScreenshotPipeline.captureOnFailure(driver, result);
         } else if (result.getStatus() == ITestResult.SUCCESS) {
-            System.out.println("\n✓ TEST PASSED: " + testName);
+            TestLog.info("\n✓ TEST PASSED: " + testName);
         } else if (result.getStatus() == ITestResult.SKIP) {
-            System.out.println("\n⊘ TEST SKIPPED: " + testName);
+            TestLog.info("\n⊘ TEST SKIPPED: " + testName);
         }
     }
     
@@ -120,16 +130,16 @@ public class BaseTest {
      */
     @BeforeMethod(alwaysRun = true)
     public void beforeMethod(java.lang.reflect.Method method) {
-        System.out.println("\n----------------------------------------");
-        System.out.println("Starting Test: " + method.getName());
+        TestLog.info("\n----------------------------------------");
+        TestLog.info("Starting Test: " + method.getName());
         
         // Get test description if available
         Test testAnnotation = method.getAnnotation(Test.class);
         if (testAnnotation != null && !testAnnotation.description().isEmpty()) {
-            System.out.println("Description: " + testAnnotation.description());
+            TestLog.info("Description: " + testAnnotation.description());
         }
         
-        System.out.println("----------------------------------------");
+        TestLog.info("----------------------------------------");
     }
     
     /**
@@ -137,70 +147,23 @@ public class BaseTest {
      * @return Base URL string
      */
     private String getBaseUrl() {
-        // Try system property first (for CI/CD override)
-        String baseUrl = System.getProperty("baseUrl");
-        if (baseUrl != null && !baseUrl.isEmpty()) {
-            return baseUrl;
-        }
-        
-        // Try base.url property
-        baseUrl = config.getProperty("base.url");
-        if (baseUrl != null && !baseUrl.isEmpty()) {
-            return baseUrl;
-        }
-
-        // Try baseUrl property (alternative naming)
-        baseUrl = config.getProperty("baseUrl");
-        if (baseUrl != null && !baseUrl.isEmpty()) {
-            return baseUrl;
-        }
-
-        // Fallback to getBaseUrl method
-        baseUrl = ConfigReader.getBaseUrl();
+        // System property (for CI/CD override), environment, then baseUrl / base.url in the config file
+        String baseUrl = ConfigReader.getBaseUrl();
         if (baseUrl != null && !baseUrl.isEmpty()) {
             return baseUrl;
         }
         
         // Final fallback
-        System.out.println("WARNING: Base URL not found in config, using default");
+        TestLog.warn("WARNING: Base URL not found in config, using default");
         return "https://f6a9211c-8880-4c32-9bc6-6a6019d10bd6.dev.mondialsoftware.com";
     }
     
     /**
-     * Capture screenshot and save to file
+     * Capture screenshot and queue it for the background screenshot writer
      * @param testName Name of the test (used for screenshot filename)
      */
     protected void captureScreenshot(String testName) {
-        if (driver == null) {
-            System.out.println("✗ Cannot capture screenshot: driver is null");
-            return;
-        }
-        try {
-            // Create screenshots directory if it doesn't exist
-            File screenshotDir = new File(SCREENSHOT_DIR);
-            if (!screenshotDir.exists()) {
-                screenshotDir.mkdirs();
-            }
-
-            // Take screenshot
-            TakesScreenshot ts = (TakesScreenshot) driver;
-            File source = ts.getScreenshotAs(OutputType.FILE);
-            
-            // Generate filename with timestamp
-            String timestamp = new SimpleDateFormat("yyyyMMdd_HHmmss").format(new Date());
-            String fileName = testName + "_" + timestamp + ".png";
-            String destination = SCREENSHOT_DIR + fileName;
-            
-            // Copy screenshot to destination
-            File finalDestination = new File(destination);
-            FileUtils.copyFile(source, finalDestination);
-            
-            System.out.println("✓ Screenshot captured: " + destination);
-        } catch (IOException e) {
-            System.out.println("✗ Failed to capture screenshot: " + e.getMessage());
-        } catch (Exception e) {
-            System.out.println("✗ Failed to capture screenshot (session issue): " + e.getMessage());
-        }
+        ScreenshotPipeline.capture(driver, testName);
     }
     
     /**
@@ -209,20 +172,20 @@ public class BaseTest {
      * @param baseUrl Application URL
      */
     private void printTestEnvironment(String browser, String baseUrl) {
-        System.out.println("\n--- Test Environment ---");
-        System.out.println("Browser: " + browser);
-        System.out.println("URL: " + baseUrl);
-        System.out.println("OS: " + System.getProperty("os.name"));
-        System.out.println("Java Version: " + System.getProperty("java.version"));
+        TestLog.info("\n--- Test Environment ---");
+        TestLog.info("Browser: " + browser);
+        TestLog.info("URL: " + baseUrl);
+        TestLog.info("OS: " + System.getProperty("os.name"));
+        TestLog.info("Java Version: " + System.getProperty("java.version"));
         
         // Check if running in CI
         String ciEnv = System.getenv("CI");
         if (ciEnv != null && !ciEnv.isEmpty()) {
-            System.out.println("CI/CD Mode: YES (Headless)");
+            TestLog.info("CI/CD Mode: YES (Headless)");
         } else {
-            System.out.println("CI/CD Mode: NO (Normal)");
+            TestLog.info("CI/CD Mode: NO (Normal)");
         }
-        System.out.println("------------------------\n");
+        TestLog.info("------------------------\n");
     }
     
     /**
@@ -239,7 +202,7 @@ public class BaseTest {
      * @param url URL to navigate to
      */
     protected void navigateTo(String url) {
-        System.out.println("Navigating to: " + url);
+        TestLog.info("Navigating to: " + url);
         driver.get(url);
     }
     
@@ -247,7 +210,7 @@ public class BaseTest {
      * Refresh the current page
      */
     protected void refreshPage() {
-        System.out.println("Refreshing page...");
+        TestLog.info("Refreshing page...");
         driver.navigate().refresh();
     }
     
@@ -255,7 +218,7 @@ public class BaseTest {
      * Navigate back to previous page
      */
     protected void navigateBack() {
-        System.out.println("Navigating back...");
+        TestLog.info("Navigating back...");
         driver.navigate().back();
     }
     
@@ -263,7 +226,7 @@ public class BaseTest {
      * Navigate forward to next page
      */
     protected void navigateForward() {
-        System.out.println("Navigating forward...");
+        TestLog.info("Navigating forward...");
         driver.navigate().forward();
     }
     
@@ -292,7 +255,7 @@ public class BaseTest {
         try {
             Thread.sleep(milliseconds);
         } catch (InterruptedException e) {
-            System.out.println("Sleep interrupted: " + e.getMessage());
+            TestLog.info("Sleep interrupted: " + e.getMessage());
         }
     }
     
@@ -300,7 +263,7 @@ public class BaseTest {
      * Close current browser window
      */
     protected void closeCurrentWindow() {
-        System.out.println("Closing current window...");
+        TestLog.info("Closing current window...");
         driver.close();
     }
     
@@ -312,9 +275,9 @@ public class BaseTest {
         Object[] windows = driver.getWindowHandles().toArray();
         if (windowIndex < windows.length) {
             driver.switchTo().window(windows[windowIndex].toString());
-            System.out.println("Switched to window: " + windowIndex);
+            TestLog.info("Switched to window: " + windowIndex);
         } else {
-            System.out.println("Window index " + windowIndex + " does not exist");
+            TestLog.info("Window index " + windowIndex + " does not exist");
         }
     }
     
@@ -330,7 +293,7 @@ public class BaseTest {
      * Delete all cookies
      */
     protected void deleteAllCookies() {
-        System.out.println("Deleting all cookies...");
+        TestLog.info("Deleting all cookies...");
         driver.manage().deleteAllCookies();
     }
     
@@ -51,7 +51,7 @@ public class CR_AccountingPeriod extends BaseTest {
         companyName     = "AccPeriodCo_" + ts;
         reportingSymbol = "rs" + (ts % 100000);
         System.out.println("Creating test company: " + companyName + " (symbol: " + reportingSymbol + ")");
-        homePage.createCompany(companyName, CURRENCY, NUM_SEGMENTS, reportingSymbol);
+        homePage.seedCompany(companyName, CURRENCY, NUM_SEGMENTS, reportingSymbol);
         System.out.println("Test company created: " + companyName);
 
         System.out.println("=== CR_AccountingPeriod Test Setup Complete ===\n");
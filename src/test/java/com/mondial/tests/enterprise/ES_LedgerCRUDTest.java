@@ -133,8 +133,8 @@ public class ES_LedgerCRUDTest extends BaseTest {
         // (no-op when running as part of the full chain; enables standalone execution)
         ledgerPage.navigateToLedgerPage();
         if (!ledgerPage.verifyRecordPresent(ledgerName)) {
-            System.out.println("[TEST 4] Ledger not found, creating: " + ledgerName);
-            ledgerPage.createLedger(ledgerName);
+            System.out.println("[TEST 4] Ledger not found, seeding: " + ledgerName);
+            ledgerPage.seedLedgers(ledgerName);
             ledgerPage.verifyRecordPresent(ledgerName); // waits for listing to reload
         }
 
@@ -9,6 +9,8 @@ import org.testng.annotations.BeforeClass;
 import org.testng.annotations.Test;
 import com.mondial.pages.HomePage;
 import com.mondial.pages.LoginPage;
+import com.mondial.utils.AllowResources;
+import com.mondial.utils.ResourceBlocker;
 
 /**
  * Zendesk Test Class
@@ -16,7 +18,9 @@ import com.mondial.pages.LoginPage;
  *
  * Prerequisites:
  * - Valid admin credentials in config.properties (validUsername, validPassword)
+ * - Help widget and icon fonts stay enabled under the lean rendering profile
  */
+@AllowResources({ResourceBlocker.HELP_WIDGET, ResourceBlocker.FONTS})
 public class ZendeskTest extends BaseTest {
 
     private HomePage homePage;
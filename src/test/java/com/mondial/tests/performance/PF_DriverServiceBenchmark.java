@@ -0,0 +1,124 @@
+package com.mondial.tests.performance;
+
+import com.mondial.utils.ConfigReader;
+import com.mondial.utils.ConfigSnapshot;
+import com.mondial.utils.DriverManager;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.WrapsDriver;
+import org.openqa.selenium.remote.RemoteWebDriver;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Driver Service Benchmark
+ * Compares session start and quit latency with a driver process per session
+ * (sharedDriverService=false) and with the JVM-wide shared driver service.
+ * The first session of each mode is reported separately: it resolves the driver
+ * binary, and in shared mode starts the service.
+ *
+ * Run on demand: mvn test -Dtest=PF_DriverServiceBenchmark
+ */
+public class PF_DriverServiceBenchmark {
+
+    private static final int SESSIONS_PER_MODE = 5;
+    private final String previousSetting = System.getProperty("sharedDriverService");
+    private final String previousPrewarm = System.getProperty("prewarmSessions");
+    private final Set<String> sessionIds = new HashSet<>();
+
+    @Test(description = "Compare session creation latency with and without the shared driver service")
+    public void compareSessionCreation() {
+        // Measure real launches, not sessions taken from the pre-warm pool
+        System.setProperty("prewarmSessions", "0");
+        ConfigSnapshot.reload();
+        String browser = ConfigReader.getBrowser();
+        long[][] perSession = measure(browser, false);
+        long[][] shared = measure(browser, true);
+
+        System.out.println(String.format("%-22s %12s %14s %12s", "Mode (" + browser + ")", "First (ms)",
+                "Start med (ms)", "Quit med (ms)"));
+        print("Process per session", perSession);
+        print("Shared service", shared);
+        long saved = median(perSession[0]) - median(shared[0]);
+        System.out.println("Session start saved per session: " + saved + " ms");
+
+        for (long[][] mode : new long[][][] { perSession, shared }) {
+            Assert.assertTrue(mode[2][0] > 0, "The first session's start time should be recorded");
+            for (long start : mode[0]) {
+                Assert.assertTrue(start > 0, "Every session's start time should be recorded");
+            }
+        }
+        Assert.assertEquals(sessionIds.size(), 2 * SESSIONS_PER_MODE,
+                "Every launch should create a new session, got ids " + sessionIds);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void restoreSetting() {
+        DriverManager.quitDriver();
+        if (previousSetting == null) {
+            System.clearProperty("sharedDriverService");
+        } else {
+            System.setProperty("sharedDriverService", previousSetting);
+        }
+        if (previousPrewarm == null) {
+            System.clearProperty("prewarmSessions");
+        } else {
+            System.setProperty("prewarmSessions", previousPrewarm);
+        }
+        ConfigSnapshot.reload();
+    }
+
+    /**
+     * @return start times and quit times of the sessions after the first, then the first start time
+     */
+    private long[][] measure(String browser, boolean sharedService) {
+        System.setProperty("sharedDriverService", String.valueOf(sharedService));
+        ConfigSnapshot.reload();
+        long[] starts = new long[SESSIONS_PER_MODE - 1];
+        long[] quits = new long[SESSIONS_PER_MODE - 1];
+        long first = 0;
+        for (int i = 0; i < SESSIONS_PER_MODE; i++) {
+            long started = System.nanoTime();
+            DriverManager.setDriver(browser);
+            long startMillis = (System.nanoTime() - started) / 1_000_000;
+            sessionIds.add(sessionId(DriverManager.getDriver()));
+            started = System.nanoTime();
+            DriverManager.quitDriver();
+            long quitMillis = (System.nanoTime() - started) / 1_000_000;
+            if (i == 0) {
+                first = startMillis;
+            } else {
+                starts[i - 1] = startMillis;
+                quits[i - 1] = quitMillis;
+            }
+        }
+        return new long[][] { starts, quits, { first } };
+    }
+
+    private String sessionId(WebDriver driver) {
+        while (driver instanceof WrapsDriver) {
+            driver = ((WrapsDriver) driver).getWrappedDriver();
+        }
+        return String.valueOf(((RemoteWebDriver) driver).getSessionId());
+    }
+
+    private void print(String mode, long[][] samples) {
+        System.out.println(String.format("%-22s %12d %14d %12d", mode, samples[2][0], median(samples[0]),
+                median(samples[1])));
+    }
+
+    private long median(long[] samples) {
+        List<Long> sorted = new ArrayList<>();
+        for (long sample : samples) {
+            sorted.add(sample);
+        }
+        Collections.sort(sorted);
+        return sorted.get(sorted.size() / 2);
+    }
+}
@@ -0,0 +1,318 @@
+package com.mondial.tests.performance;
+
+import com.mondial.pages.HomePage;
+import com.mondial.pages.LoginPage;
+import com.mondial.pages.ReportsPage;
+import com.mondial.utils.ConfigReader;
+import com.mondial.utils.DevToolsSupport;
+import com.mondial.utils.DriverManager;
+import com.mondial.utils.HttpFlowRecorder;
+import com.mondial.utils.HttpReplayer;
+import com.mondial.utils.HttpScript;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.By;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.security.SecureRandom;
+import java.time.Duration;
+import java.util.Base64;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * HTTP Record and Replay
+ * Records the requests of a UI flow with HttpFlowRecorder and replays them with many
+ * concurrent users through HttpReplayer.
+ *
+ * recordAndReplayAgainstStub drives a browser through a local stub that behaves like the
+ * application where it matters for replay: a CSRF token per session that rotates at login,
+ * a company id per session in the redirect after login, and a report id created by a JSON
+ * POST. The stub rejects any request carrying another session's token or ids, so an
+ * error-free replay shows the correlation works. The stub serves everything under /stub/
+ * so its pages never share a route with the application's in the page performance history.
+ * recordTransactionHistory records ReportsPage.generateTxnHistory against base.url and
+ * replays it with replayUsers users; it only runs with -DloadRun=true.
+ *
+ * Run on demand: mvn test -Dtest=PF_HttpReplay [-DloadRun=true -DreplayUsers=500]
+ */
+public class PF_HttpReplay {
+
+    private static final Pattern COMPANY_REPORTS = Pattern.compile("/stub/companies/(\\d+)/reports");
+    private static final Pattern REPORT = Pattern.compile("/stub/reports/(\\d+)");
+    private static final Pattern VARIABLE = Pattern.compile("\\$\\{([A-Za-z0-9_]+)(:url)?}");
+    private static final int USERS = 500;
+    private static final int ITERATIONS = 3;
+    private final ConfigReader config = new ConfigReader();
+    private final SecureRandom random = new SecureRandom();
+    private final Map<String, StubSession> sessions = new ConcurrentHashMap<>();
+    private HttpServer stub;
+    private ExecutorService stubThreads;
+    private String stubUrl;
+    private WebDriver driver;
+
+    private static final class StubSession {
+        private volatile String csrf;
+        private volatile String companyId;
+        private final Set<String> reports = ConcurrentHashMap.newKeySet();
+    }
+
+    @BeforeClass
+    public void initialise() throws IOException {
+        DriverManager.setDriver(ConfigReader.getBrowser());
+        driver = DriverManager.getDriver();
+        if (!DevToolsSupport.isSupported(driver)) {
+            throw new SkipException("HTTP flow recording needs Chrome or Edge");
+        }
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 1024);
+        stubThreads = Executors.newFixedThreadPool(32);
+        stub.setExecutor(stubThreads);
+        stub.createContext("/", this::handle);
+        stub.start();
+        stubUrl = "http://127.0.0.1:" + stub.getAddress().getPort();
+        System.out.println("Stub server: " + stubUrl);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() {
+        DriverManager.quitDriver();
+        if (stub != null) {
+            stub.stop(0);
+            stubThreads.shutdownNow();
+        }
+    }
+
+    @Test(description = "Record a login and report flow from the browser and replay it against a local stub")
+    public void recordAndReplayAgainstStub() throws IOException {
+        HttpFlowRecorder recorder = HttpFlowRecorder.attach(driver).parameter("user", "replay@example.com");
+        recorder.start();
+        driver.get(stubUrl + "/stub/login");
+        new LoginPage(driver).login("replay@example.com", "secret");
+        new WebDriverWait(driver, Duration.ofSeconds(20))
+                .until(ExpectedConditions.elementToBeClickable(By.id("generate"))).click();
+        new WebDriverWait(driver, Duration.ofSeconds(20))
+                .until(ExpectedConditions.presenceOfElementLocated(By.cssSelector("#result tr")));
+        HttpScript script = recorder.stop("stub-report");
+        System.out.println("Script: " + script.save());
+
+        for (HttpScript.Request request : script.getRequests()) {
+            System.out.println(request.getMethod() + " " + request.getUrl() + " " + request.getHeaders() + " "
+                    + request.getBody());
+        }
+        // Each per-session value must be sent as a variable that an earlier response provides
+        int login = indexOf(script, "POST", "/stub/session");
+        String loginToken = correlated(script, login,
+                part(script.getRequests().get(login).getBody(), "authenticity_token=([^&]*)"), "Login CSRF token");
+        int create = indexOf(script, "POST", "/stub/companies/");
+        HttpScript.Request createReport = script.getRequests().get(create);
+        correlated(script, create, part(createReport.getUrl(), "/stub/companies/([^/]*)/reports"), "Company id");
+        String reportToken = correlated(script, create, header(createReport, "X-CSRF-Token"), "Report CSRF token");
+        Assert.assertNotEquals(reportToken, loginToken, "The token rotated at login should be read after login");
+        int read = indexOf(script, "GET", "/stub/reports/");
+        correlated(script, read, part(script.getRequests().get(read).getUrl(), "/stub/reports/([^/?]*)"), "Report id");
+
+        HttpReplayer.Result result = new HttpReplayer(script, config)
+                .users(USERS)
+                .iterations(ITERATIONS)
+                .rampUp(Duration.ofSeconds(2))
+                .thinkScale(0)
+                .parameters(user -> Map.of("user", "replay" + user + "@example.com"))
+                .run();
+        Assert.assertEquals(result.getErrors(), 0, HttpReplayer.describe(script.getName(), result));
+        Assert.assertEquals(result.getCompletedIterations(), (long) USERS * ITERATIONS, "Every iteration completes");
+        Assert.assertEquals(result.getRequestCount(), (long) USERS * ITERATIONS * script.getRequests().size());
+    }
+
+    @Test(description = "Record Transaction History generation against base.url and replay it concurrently")
+    public void recordTransactionHistory() throws IOException, InterruptedException {
+        if (!Boolean.getBoolean("loadRun")) {
+            throw new SkipException("Replay against the application only runs with -DloadRun=true");
+        }
+        String username = config.getProperty("validUsername");
+        String password = config.getProperty("validPassword");
+        HttpFlowRecorder recorder = HttpFlowRecorder.attach(driver)
+                .parameter("user", username)
+                .parameter("password", password);
+        recorder.start();
+        driver.get(ConfigReader.getBaseUrl());
+        HomePage home = new LoginPage(driver).login(username, password);
+        Assert.assertTrue(home.isCompanyHeadingDisplayed(), "Should be on home page after login");
+        ReportsPage reports = new ReportsPage(driver);
+        reports.navigateToTemplatedReport();
+        reports.waitForVisible(reports.templatedReportHeading);
+        reports.generateTxnHistory(config.getProperty("companyReport"), "Transaction History");
+        HttpScript script = recorder.stop("transaction-history");
+        System.out.println("Script: " + script.save());
+
+        Map<String, String> credentials = new HashMap<>();
+        credentials.put("user", username);
+        credentials.put("password", password);
+        HttpReplayer.Result result = new HttpReplayer(script, config).parameters(user -> credentials).run();
+        Assert.assertTrue(result.getRequestCount() > 0, "Requests should have been replayed");
+    }
+
+    private static int indexOf(HttpScript script, String method, String urlPart) {
+        List<HttpScript.Request> requests = script.getRequests();
+        for (int i = 0; i < requests.size(); i++) {
+            if (requests.get(i).getMethod().equals(method) && requests.get(i).getUrl().contains(urlPart)) {
+                return i;
+            }
+        }
+        throw new AssertionError(method + " " + urlPart + " should have been recorded");
+    }
+
+    /**
+     * @return Name of the variable the value is templated as, after checking an earlier request extracts it
+     */
+    private static String correlated(HttpScript script, int index, String value, String what) {
+        Matcher variable = value != null ? VARIABLE.matcher(value) : null;
+        Assert.assertTrue(variable != null && variable.matches(), what + " should be a variable, was " + value);
+        for (HttpScript.Request earlier : script.getRequests().subList(0, index)) {
+            for (HttpScript.Extractor extractor : earlier.getExtractors()) {
+                if (extractor.getName().equals(variable.group(1))) {
+                    return extractor.getName();
+                }
+            }
+        }
+        throw new AssertionError(what + " uses " + value + ", which no earlier request extracts");
+    }
+
+    private static String part(String text, String regex) {
+        Matcher matcher = Pattern.compile(regex).matcher(text != null ? text : "");
+        return matcher.find() ? matcher.group(1) : null;
+    }
+
+    private static String header(HttpScript.Request request, String name) {
+        for (Map.Entry<String, String> header : request.getHeaders().entrySet()) {
+            if (header.getKey().equalsIgnoreCase(name)) {
+                return header.getValue();
+            }
+        }
+        return null;
+    }
+
+    private void handle(HttpExchange exchange) throws IOException {
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+        String body = new String(exchange.getRequestBody().readAllBytes(), StandardCharsets.UTF_8);
+        StubSession session = sessions.get(cookie(exchange, "sid"));
+        Matcher companyReports = COMPANY_REPORTS.matcher(path);
+        Matcher report = REPORT.matcher(path);
+
+        if ("GET".equals(method) && "/stub/login".equals(path)) {
+            String sid = token();
+            StubSession created = new StubSession();
+            created.csrf = token();
+            sessions.put(sid, created);
+            exchange.getResponseHeaders().add("Set-Cookie", "sid=" + sid + "; Path=/; HttpOnly");
+            respond(exchange, 200, "text/html", "<html><head><title>Login</title>"
+                    + "<meta name=\"csrf-token\" content=\"" + created.csrf + "\"></head><body><h1>Login</h1>"
+                    + "<form method=\"post\" action=\"/stub/session\">"
+                    + "<input type=\"hidden\" name=\"authenticity_token\" value=\"" + created.csrf + "\">"
+                    + "<input id=\"email\" name=\"email\"><input id=\"password\" name=\"password\" type=\"password\">"
+                    + "<input type=\"submit\" value=\"Log in\"></form></body></html>");
+        } else if ("POST".equals(method) && "/stub/session".equals(path)) {
+            Map<String, String> form = form(body);
+            if (session == null || !session.csrf.equals(form.get("authenticity_token"))
+                    || !form.getOrDefault("email", "").contains("@")) {
+                respond(exchange, 422, "text/plain", "Invalid login");
+                return;
+            }
+            session.companyId = String.valueOf(100 + random.nextInt(900));
+            session.csrf = token();
+            exchange.getResponseHeaders().add("Location", "/stub/companies/" + session.companyId + "/reports");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        } else if (companyReports.matches() && session != null && companyReports.group(1).equals(session.companyId)) {
+            if ("GET".equals(method)) {
+                respond(exchange, 200, "text/html", "<html><head><title>Reports</title>"
+                        + "<meta name=\"csrf-token\" content=\"" + session.csrf + "\"></head><body>"
+                        + "<button id=\"generate\">Generate</button><table id=\"result\"></table><script>"
+                        + "document.getElementById('generate').onclick = function () {"
+                        + "  fetch(location.pathname, { method: 'POST', headers: { 'Content-Type': 'application/json',"
+                        + "    'X-CSRF-Token': document.querySelector('meta[name=csrf-token]').content },"
+                        + "    body: JSON.stringify({ report: 'Transaction History' }) })"
+                        + "  .then(function (r) { return r.json(); })"
+                        + "  .then(function (created) { return fetch('/stub/reports/' + created.id); })"
+                        + "  .then(function (r) { return r.json(); })"
+                        + "  .then(function (report) { report.rows.forEach(function (row) {"
+                        + "    document.getElementById('result').insertRow().insertCell().textContent = row.join(' ');"
+                        + "  }); });"
+                        + "};</script></body></html>");
+            } else if ("POST".equals(method)
+                    && session.csrf.equals(exchange.getRequestHeaders().getFirst("X-CSRF-Token"))) {
+                String reportId = String.valueOf(1000 + random.nextInt(9000));
+                session.reports.add(reportId);
+                respond(exchange, 200, "application/json", "{\"id\":" + reportId + "}");
+            } else {
+                respond(exchange, 403, "text/plain", "Invalid CSRF token");
+            }
+        } else if ("GET".equals(method) && report.matches() && session != null
+                && session.reports.contains(report.group(1))) {
+            respond(exchange, 200, "application/json", "{\"rows\":[[\"1000\",\"Cash\",\"250.00\"]]}");
+        } else {
+            respond(exchange, 403, "text/plain", "Forbidden");
+        }
+    }
+
+    private String token() {
+        byte[] bytes = new byte[24];
+        random.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static String cookie(HttpExchange exchange, String name) {
+        String header = exchange.getRequestHeaders().getFirst("Cookie");
+        if (header == null) {
+            return "";
+        }
+        for (String pair : header.split(";")) {
+            String[] parts = pair.trim().split("=", 2);
+            if (parts.length == 2 && parts[0].equals(name)) {
+                return parts[1];
+            }
+        }
+        return "";
+    }
+
+    private static Map<String, String> form(String body) {
+        Map<String, String> form = new HashMap<>();
+        for (String pair : body.split("&")) {
+            String[] parts = pair.split("=", 2);
+            if (parts.length == 2) {
+                form.put(URLDecoder.decode(parts[0], StandardCharsets.UTF_8),
+                        URLDecoder.decode(parts[1], StandardCharsets.UTF_8));
+            }
+        }
+        return form;
+    }
+
+    private static void respond(HttpExchange exchange, int status, String contentType, String body)
+            throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", contentType + "; charset=utf-8");
+        exchange.sendResponseHeaders(status, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
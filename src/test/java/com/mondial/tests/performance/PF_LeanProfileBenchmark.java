@@ -0,0 +1,102 @@
+package com.mondial.tests.performance;
+
+import com.mondial.pages.HomePage;
+import com.mondial.pages.LoginPage;
+import com.mondial.pages.ReportsPage;
+import com.mondial.tests.BaseTest;
+import com.mondial.utils.DevToolsSupport;
+import com.mondial.utils.DriverManager;
+import com.mondial.utils.ResourceBlocker;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Lean Profile Benchmark
+ * Compares per-page load time with and without the lean rendering profile
+ * in the same session, with the HTTP cache disabled so both runs download everything.
+ *
+ * Run on demand: mvn test -Dtest=PF_LeanProfileBenchmark
+ */
+public class PF_LeanProfileBenchmark extends BaseTest {
+
+    private static final int RUNS_PER_PAGE = 3;
+    private final Map<String, String> pages = new LinkedHashMap<>();
+    private ResourceBlocker blocker;
+
+    @BeforeClass
+    public void initialise() {
+        if (!DevToolsSupport.isSupported(driver)) {
+            throw new SkipException("Lean profile benchmark needs Chrome or Edge");
+        }
+        LoginPage loginPage = new LoginPage(driver);
+        HomePage homePage = new HomePage(driver);
+        ReportsPage rp = new ReportsPage(driver);
+        loginPage.login(config.getProperty("validUsername"), config.getProperty("validPassword"));
+        Assert.assertTrue(homePage.isCompanyHeadingDisplayed(), "Should be on home page after login");
+        pages.put("Companies", driver.getCurrentUrl());
+        rp.navigateToTemplatedReport();
+        rp.waitForVisible(rp.templatedReportHeading);
+        pages.put("Templated Report", driver.getCurrentUrl());
+
+        blocker = DriverManager.getResourceBlocker();
+        if (blocker == null) {
+            blocker = ResourceBlocker.attach(driver);
+        }
+        DevToolsSupport.execute(driver, "Network.enable");
+        DevToolsSupport.execute(driver, "Network.setCacheDisabled", Collections.singletonMap("cacheDisabled", true));
+    }
+
+    @Test(description = "Compare page load time with and without the lean rendering profile")
+    public void comparePageLoadTimes() {
+        System.out.println(String.format("%-20s %12s %12s %8s", "Page", "Full (ms)", "Lean (ms)", "Saved"));
+        for (Map.Entry<String, String> page : pages.entrySet()) {
+            blocker.unblock();
+            long full = medianLoadTime(page.getValue());
+            blocker.block(Collections.emptyList(), config);
+            long lean = medianLoadTime(page.getValue());
+            long saved = full > 0 ? (full - lean) * 100 / full : 0;
+            System.out.println(String.format("%-20s %12d %12d %7d%%", page.getKey(), full, lean, saved));
+        }
+        DevToolsSupport.execute(driver, "Network.setCacheDisabled", Collections.singletonMap("cacheDisabled", false));
+    }
+
+    private long medianLoadTime(String url) {
+        List<Long> samples = new ArrayList<>();
+        for (int i = 0; i < RUNS_PER_PAGE; i++) {
+            samples.add(loadTime(url));
+        }
+        Collections.sort(samples);
+        return samples.get(samples.size() / 2);
+    }
+
+    /**
+     * Navigate and read loadEventEnd from the new document's Navigation Timing entry.
+     * navigate() returns before the page loads (page load strategy none), so until the
+     * time origin changes the entry still belongs to the previous document.
+     */
+    private long loadTime(String url) {
+        Object previousOrigin = ((JavascriptExecutor) driver).executeScript("return performance.timeOrigin;");
+        driver.navigate().to(url);
+        Object value = new WebDriverWait(driver, Duration.ofSeconds(60)).until(d -> {
+            Object end = ((JavascriptExecutor) d).executeScript(
+                    "if (performance.timeOrigin === arguments[0] || location.protocol.indexOf('http') !== 0) {" +
+                    "  return null;" +
+                    "}" +
+                    "var nav = performance.getEntriesByType('navigation')[0];" +
+                    "return nav && nav.loadEventEnd > 0 ? Math.round(nav.loadEventEnd) : null;", previousOrigin);
+            return end;
+        });
+        return ((Number) value).longValue();
+    }
+}
@@ -0,0 +1,177 @@
+package com.mondial.tests.performance;
+
+import com.mondial.pages.HomePage;
+import com.mondial.pages.LoginPage;
+import com.mondial.pages.ReportsPage;
+import com.mondial.utils.ConfigReader;
+import com.mondial.utils.LoadRunner;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.Assert;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Load Harness
+ * Concurrent virtual users driving the page objects with LoadRunner.
+ *
+ * selfTestAgainstStandIn runs the harness against a local stand-in server (login form and
+ * a report page that fails every 5th request), so the runner itself can be checked
+ * without the application. reportGenerationUnderLoad logs in and generates Transaction
+ * History reports with loadUsers users against base.url; it only runs with -DloadRun=true.
+ * The stand-in serves everything under /stand-in/ so its pages never share a route with
+ * the application's; add -DpagePerformance=false to keep load timings out of the page
+ * performance baseline.
+ *
+ * Run on demand: mvn test -Dtest=PF_LoadHarness [-DloadRun=true -DloadUsers=20]
+ */
+public class PF_LoadHarness {
+
+    private static final int FAIL_EVERY = 5;
+    private static final long REPORT_DELAY_MILLIS = 150;
+    private final ConfigReader config = new ConfigReader();
+    private final AtomicInteger reportRequests = new AtomicInteger();
+    private HttpServer standIn;
+    private ExecutorService standInThreads;
+    private String standInUrl;
+
+    @BeforeClass
+    public void startStandIn() throws IOException {
+        standIn = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        standInThreads = Executors.newCachedThreadPool();
+        standIn.setExecutor(standInThreads);
+        standIn.createContext("/stand-in/", exchange -> respond(exchange, 200, "Login",
+                "<h1>Login</h1><form method='post' action='/stand-in/login'>"
+                        + "<input id='email' name='email'><input id='password' name='password' type='password'>"
+                        + "<input type='submit' value='Log in'></form>"));
+        standIn.createContext("/stand-in/login", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            exchange.getResponseHeaders().add("Location", "/stand-in/companies");
+            exchange.sendResponseHeaders(302, -1);
+            exchange.close();
+        });
+        standIn.createContext("/stand-in/companies", exchange -> respond(exchange, 200, "Companies",
+                "<h4>Companies</h4><a href='/stand-in/report'>Report</a>"));
+        standIn.createContext("/stand-in/report", exchange -> {
+            try {
+                Thread.sleep(REPORT_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            if (reportRequests.incrementAndGet() % FAIL_EVERY == 0) {
+                respond(exchange, 500, "Error", "<h1>Report failed</h1>");
+            } else {
+                respond(exchange, 200, "Report", "<table><tr><td>1000</td><td>Cash</td></tr></table>");
+            }
+        });
+        standIn.start();
+        standInUrl = "http://127.0.0.1:" + standIn.getAddress().getPort() + "/stand-in";
+        System.out.println("Stand-in server: " + standInUrl);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopStandIn() {
+        if (standIn != null) {
+            standIn.stop(0);
+            standInThreads.shutdownNow();
+        }
+    }
+
+    @Test(description = "Run the load harness against a local stand-in server")
+    public void selfTestAgainstStandIn() {
+        LoadRunner.Result result = new LoadRunner(config)
+                .users(3)
+                .rampUp(Duration.ofSeconds(2))
+                .duration(Duration.ofSeconds(30))
+                .thinkTime(Duration.ofMillis(200))
+                .baseUrl(standInUrl)
+                .run("stand-in", user -> {
+                    WebDriver driver = user.getDriver();
+                    user.step("login", () -> {
+                        driver.get(user.getBaseUrl() + "/");
+                        new LoginPage(driver).login("load" + user.getId() + "@example.com", "secret");
+                        awaitTitle(driver, "Companies");
+                    });
+                    user.step("report", () -> {
+                        // get() returns before the page loads (page load strategy none)
+                        driver.get(user.getBaseUrl() + "/report");
+                        Assert.assertEquals(awaitTitle(driver, "Report", "Error"), "Report", "Report page should render");
+                    });
+                });
+
+        LoadRunner.StepResult login = result.getStep("login");
+        LoadRunner.StepResult report = result.getStep("report");
+        Assert.assertNotNull(login, "Login step should have run");
+        Assert.assertNotNull(report, "Report step should have run");
+        Assert.assertEquals(login.getErrors(), 0, "Stand-in login never fails");
+        Assert.assertTrue(report.getErrors() > 0, "Every " + FAIL_EVERY + "th stand-in report fails");
+        Assert.assertTrue(report.getErrors() < report.getCount(), "Most stand-in reports succeed");
+        Assert.assertTrue(report.percentileMillis(50) >= REPORT_DELAY_MILLIS,
+                "Report latency should include the stand-in delay");
+        Assert.assertTrue(report.getThroughput() > 0, "Throughput should be measured");
+    }
+
+    @Test(description = "Generate Transaction History reports with concurrent users against base.url")
+    public void reportGenerationUnderLoad() {
+        if (!Boolean.getBoolean("loadRun")) {
+            throw new SkipException("Load against the application only runs with -DloadRun=true");
+        }
+        String username = config.getProperty("validUsername");
+        String password = config.getProperty("validPassword");
+        String company = config.getProperty("companyReport");
+        LoadRunner.Result result = new LoadRunner(config).run("transaction-history", user -> {
+            WebDriver driver = user.getDriver();
+            ReportsPage reports = new ReportsPage(driver);
+            if (user.isNewSession()) {
+                user.step("login", () -> {
+                    driver.get(user.getBaseUrl());
+                    HomePage home = new LoginPage(driver).login(username, password);
+                    Assert.assertTrue(home.isCompanyHeadingDisplayed(), "Should be on home page after login");
+                });
+            }
+            user.step("open templated report", () -> {
+                reports.navigateToTemplatedReport();
+                reports.waitForVisible(reports.templatedReportHeading);
+            });
+            user.step("generate transaction history", () ->
+                    reports.generateTxnHistory(company, "Transaction History"));
+        });
+
+        Assert.assertNotNull(result.getStep("generate transaction history"), "Reports should have been generated");
+    }
+
+    /**
+     * Wait for the document with one of the given titles; only the page navigated to has them
+     * @return Title of the loaded page
+     */
+    private static String awaitTitle(WebDriver driver, String... titles) {
+        return new WebDriverWait(driver, Duration.ofSeconds(20)).until(d -> {
+            String title = d.getTitle();
+            return Arrays.asList(titles).contains(title) ? title : null;
+        });
+    }
+
+    private static void respond(HttpExchange exchange, int status, String title, String body) throws IOException {
+        byte[] html = ("<html><head><title>" + title + "</title></head><body>" + body + "</body></html>")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(status, html.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(html);
+        }
+    }
+}
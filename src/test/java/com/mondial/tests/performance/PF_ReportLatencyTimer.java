@@ -0,0 +1,111 @@
+package com.mondial.tests.performance;
+
+import com.mondial.pages.ReportsPage;
+import com.mondial.utils.ConfigReader;
+import com.mondial.utils.DriverManager;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.ExpectedConditions;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Report Latency Timer
+ * Checks that ReportsPage times a generation up to the new result, not the page it was
+ * clicked on: with page load strategy none the click returns at once, and the previous
+ * document (the form, or an earlier result with rows) is still there.
+ *
+ * A local stub serves the Templated Report form and answers Generate only after
+ * GENERATE_DELAY_MILLIS, with a result heading and a first grid row. The recorded latency
+ * must be at least that delay, from the form and from a page that already shows a result.
+ * The stub serves everything under /stub/ so its pages stay out of the page performance
+ * history; its report type is not an application report, so its latency samples stay
+ * apart from the real ones.
+ *
+ * Run on demand: mvn test -Dtest=PF_ReportLatencyTimer
+ */
+public class PF_ReportLatencyTimer {
+
+    private static final String REPORT_TYPE = "Stub Report";
+    private static final long GENERATE_DELAY_MILLIS = 1500;
+    private static final String FORM = "<form method='post' action='/stub/generate'>"
+            + "<input type='submit' id='generateReport' value='Generate'></form>";
+    private HttpServer stub;
+    private ExecutorService stubThreads;
+    private String stubUrl;
+    private WebDriver driver;
+
+    @BeforeClass
+    public void initialise() throws IOException {
+        stub = HttpServer.create(new InetSocketAddress("127.0.0.1", 0), 0);
+        stubThreads = Executors.newCachedThreadPool();
+        stub.setExecutor(stubThreads);
+        stub.createContext("/stub/form", exchange -> respond(exchange, "Templated Report",
+                "<div><h3>Templated Report</h3></div>" + FORM));
+        stub.createContext("/stub/generate", exchange -> {
+            exchange.getRequestBody().readAllBytes();
+            try {
+                Thread.sleep(GENERATE_DELAY_MILLIS);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            respond(exchange, REPORT_TYPE, "<div><h3>" + REPORT_TYPE + "</h3></div>" + FORM
+                    + "<div ref='eContainer'><div role='row' row-index='0'>1000 Cash</div></div>");
+        });
+        stub.start();
+        stubUrl = "http://127.0.0.1:" + stub.getAddress().getPort() + "/stub";
+        DriverManager.setDriver(ConfigReader.getBrowser());
+        driver = DriverManager.getDriver();
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void tearDown() {
+        DriverManager.quitDriver();
+        if (stub != null) {
+            stub.stop(0);
+            stubThreads.shutdownNow();
+        }
+    }
+
+    @Test(description = "A delayed report is timed up to the new result, from the form and from an earlier result")
+    public void generationIsTimedToTheNewResult() {
+        driver.get(stubUrl + "/form");
+        new WebDriverWait(driver, Duration.ofSeconds(20)).until(ExpectedConditions.titleIs("Templated Report"));
+        ReportsPage reports = new ReportsPage(driver);
+
+        reports.generateReport(REPORT_TYPE);
+        long fromForm = reports.getLastGenerationMillis();
+        System.out.println("Generation from the form: " + fromForm + " ms");
+        Assert.assertTrue(fromForm >= GENERATE_DELAY_MILLIS,
+                "Generation from the form should include the " + GENERATE_DELAY_MILLIS + " ms delay, was " + fromForm);
+
+        // The result page is already loaded and has a first row; only the next document may stop the timer
+        reports.generateReport(REPORT_TYPE);
+        long fromResult = reports.getLastGenerationMillis();
+        System.out.println("Generation from an earlier result: " + fromResult + " ms");
+        Assert.assertTrue(fromResult >= GENERATE_DELAY_MILLIS,
+                "Generation from a result should include the " + GENERATE_DELAY_MILLIS + " ms delay, was " + fromResult);
+    }
+
+    private static void respond(HttpExchange exchange, String title, String body) throws IOException {
+        byte[] html = ("<html><head><title>" + title + "</title></head><body>" + body + "</body></html>")
+                .getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().add("Content-Type", "text/html; charset=utf-8");
+        exchange.sendResponseHeaders(200, html.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(html);
+        }
+    }
+}
@@ -0,0 +1,128 @@
+package com.mondial.tests.performance;
+
+import com.mondial.utils.SessionRegistry;
+import org.testng.Assert;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.BeforeClass;
+import org.testng.annotations.Test;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Session Reaper
+ * Runs the SessionRegistry leftover sweep against fabricated PID files and checks it kills
+ * only processes that positively match their entry. No browser is started.
+ *
+ * Four sleeping JVMs stand in for leftover processes. A file owned by a JVM that has
+ * exited lists one with a wrong start time, one with an unknown start time, one with the
+ * wrong executable and one that matches exactly; only the last may be killed. A file owned
+ * by a still running process (one of the sleepers) must be left alone entirely.
+ *
+ * Run on demand: mvn test -Dtest=PF_SessionReaper
+ */
+public class PF_SessionReaper {
+
+    private final List<Process> sleepers = new ArrayList<>();
+    private Path pidDir;
+
+    /**
+     * A process that stays alive until killed
+     */
+    public static class Sleeper {
+        public static void main(String[] args) throws InterruptedException {
+            Thread.sleep(TimeUnit.MINUTES.toMillis(2));
+        }
+    }
+
+    @BeforeClass
+    public void startSleepers() throws IOException {
+        pidDir = Files.createTempDirectory("session-reaper");
+        for (int i = 0; i < 4; i++) {
+            sleepers.add(java(Sleeper.class.getName()));
+        }
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void stopSleepers() throws IOException {
+        for (Process sleeper : sleepers) {
+            sleeper.destroyForcibly();
+        }
+        try (java.util.stream.Stream<Path> files = Files.list(pidDir)) {
+            for (Path file : (Iterable<Path>) files::iterator) {
+                Files.deleteIfExists(file);
+            }
+        }
+        Files.deleteIfExists(pidDir);
+    }
+
+    @Test(description = "The leftover sweep kills only processes whose start time and executable match")
+    public void sweepKillsOnlyPositiveMatches() throws Exception {
+        ProcessHandle wrongStart = sleepers.get(0).toHandle();
+        ProcessHandle unknownStart = sleepers.get(1).toHandle();
+        ProcessHandle wrongExecutable = sleepers.get(2).toHandle();
+        ProcessHandle match = sleepers.get(3).toHandle();
+        long matchStart = startMillis(match);
+
+        // Owner: a JVM that has exited
+        Process exited = java("-version");
+        exited.waitFor(30, TimeUnit.SECONDS);
+        Files.write(pidDir.resolve(exited.pid() + "-" + startMillis(exited.toHandle()) + ".pids"), Arrays.asList(
+                wrongStart.pid() + " " + (startMillis(wrongStart) - 60000) + " " + executable(wrongStart),
+                unknownStart.pid() + " 0 " + executable(unknownStart),
+                wrongExecutable.pid() + " " + startMillis(wrongExecutable) + " chromedriver",
+                match.pid() + " " + matchStart + " " + executable(match)), StandardCharsets.UTF_8);
+
+        // Owner: still running, so nothing it lists may be touched
+        Path liveOwner = pidDir.resolve(wrongStart.pid() + "-" + startMillis(wrongStart) + ".pids");
+        Files.write(liveOwner, Arrays.asList(
+                unknownStart.pid() + " " + startMillis(unknownStart) + " " + executable(unknownStart)),
+                StandardCharsets.UTF_8);
+
+        int reaped = SessionRegistry.sweep(pidDir);
+        if (matchStart > 0) {
+            match.onExit().get(10, TimeUnit.SECONDS);
+        }
+
+        Assert.assertTrue(wrongStart.isAlive(), "A process with another start time is a reused PID");
+        Assert.assertTrue(unknownStart.isAlive(), "A process recorded without a start time is not a positive match");
+        Assert.assertTrue(wrongExecutable.isAlive(), "A process running another executable is a reused PID");
+        Assert.assertTrue(Files.exists(liveOwner), "A running owner's PID file must be kept");
+        if (matchStart > 0) {
+            Assert.assertEquals(reaped, 1, "Only the exact match should be killed");
+            Assert.assertFalse(match.isAlive(), "The exact match is a leftover and should be killed");
+        } else {
+            // This platform does not report start times, so nothing can be matched positively
+            Assert.assertEquals(reaped, 0, "Nothing should be killed without start times");
+        }
+    }
+
+    private static Process java(String... args) throws IOException {
+        List<String> command = new ArrayList<>();
+        command.add(Paths.get(System.getProperty("java.home"), "bin", "java").toString());
+        if (!"-version".equals(args[0])) {
+            command.add("-cp");
+            command.add(System.getProperty("java.class.path"));
+        }
+        command.addAll(Arrays.asList(args));
+        return new ProcessBuilder(command).redirectErrorStream(true)
+                .redirectOutput(ProcessBuilder.Redirect.DISCARD).start();
+    }
+
+    private static long startMillis(ProcessHandle process) {
+        return process.info().startInstant().map(Instant::toEpochMilli).orElse(0L);
+    }
+
+    private static String executable(ProcessHandle process) {
+        Path command = Paths.get(process.info().command().orElse(""));
+        return command.getFileName() != null ? command.getFileName().toString().toLowerCase() : "";
+    }
+}
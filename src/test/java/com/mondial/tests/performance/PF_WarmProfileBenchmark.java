@@ -0,0 +1,128 @@
+package com.mondial.tests.performance;
+
+import com.mondial.utils.ConfigReader;
+import com.mondial.utils.ConfigSnapshot;
+import com.mondial.utils.DriverManager;
+import org.openqa.selenium.JavascriptExecutor;
+import org.openqa.selenium.WebDriver;
+import org.openqa.selenium.support.ui.WebDriverWait;
+import org.testng.SkipException;
+import org.testng.annotations.AfterClass;
+import org.testng.annotations.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Warm Profile Benchmark
+ * Compares the first page load of fresh sessions started with an empty profile
+ * (warmProfile=false) and with a copy of the warm profile template. Each sample is a new
+ * session; load time comes from Navigation Timing and the bytes from Resource Timing
+ * (transferSize is 0 for responses served from the disk cache).
+ *
+ * Run on demand: mvn test -Dtest=PF_WarmProfileBenchmark
+ */
+public class PF_WarmProfileBenchmark {
+
+    private static final int SESSIONS_PER_MODE = 3;
+    // Null until the document that replaced the one with time origin arguments[0] (the session's
+    // data:, page) has loaded; driver.get() returns before that under page load strategy none
+    private static final String FIRST_LOAD_SCRIPT =
+            "if (performance.timeOrigin === arguments[0] || location.protocol.indexOf('http') !== 0) { return null; }" +
+            "var nav = performance.getEntriesByType('navigation')[0];" +
+            "if (!nav || nav.loadEventEnd <= 0) { return null; }" +
+            "var bytes = nav.transferSize || 0, cached = 0, resources = performance.getEntriesByType('resource');" +
+            "for (var i = 0; i < resources.length; i++) {" +
+            "  bytes += resources[i].transferSize || 0;" +
+            "  if (resources[i].transferSize === 0 && resources[i].decodedBodySize > 0) { cached++; }" +
+            "}" +
+            "return { load: Math.round(nav.loadEventEnd), bytes: bytes, cached: cached, resources: resources.length };";
+
+    private final String previousWarmProfile = System.getProperty("warmProfile");
+    private final String previousPrewarm = System.getProperty("prewarmSessions");
+
+    @Test(description = "Compare first page load with a cold and a warm browser profile")
+    public void compareFirstPageLoad() {
+        String browser = ConfigReader.getBrowser();
+        if (!"chrome".equalsIgnoreCase(browser) && !"edge".equalsIgnoreCase(browser)) {
+            throw new SkipException("Warm profile benchmark needs Chrome or Edge");
+        }
+        // Every sample has to be a freshly launched session
+        System.setProperty("prewarmSessions", "0");
+        ConfigSnapshot.reload();
+        String url = ConfigReader.getBaseUrl();
+
+        List<long[]> cold = measure(browser, url, false);
+        List<long[]> warm = measure(browser, url, true);
+
+        System.out.println(String.format("%-8s %14s %14s %16s", "Profile", "Load med (ms)", "KB transferred",
+                "From disk cache"));
+        print("Cold", cold);
+        print("Warm", warm);
+    }
+
+    @AfterClass(alwaysRun = true)
+    public void restoreSettings() {
+        DriverManager.quitDriver();
+        restore("warmProfile", previousWarmProfile);
+        restore("prewarmSessions", previousPrewarm);
+        ConfigSnapshot.reload();
+    }
+
+    /**
+     * @return load time, bytes transferred, cached resources and total resources per session
+     */
+    @SuppressWarnings("unchecked")
+    private List<long[]> measure(String browser, String url, boolean warmProfile) {
+        System.setProperty("warmProfile", String.valueOf(warmProfile));
+        ConfigSnapshot.reload();
+        List<long[]> samples = new ArrayList<>();
+        for (int i = 0; i < SESSIONS_PER_MODE; i++) {
+            DriverManager.setDriver(browser);
+            WebDriver driver = DriverManager.getDriver();
+            try {
+                Object startOrigin = ((JavascriptExecutor) driver).executeScript("return performance.timeOrigin;");
+                driver.get(url);
+                Map<String, Object> timing = (Map<String, Object>) new WebDriverWait(driver, Duration.ofSeconds(60))
+                        .until(d -> ((JavascriptExecutor) d).executeScript(FIRST_LOAD_SCRIPT, startOrigin));
+                samples.add(new long[] {
+                        ((Number) timing.get("load")).longValue(),
+                        ((Number) timing.get("bytes")).longValue(),
+                        ((Number) timing.get("cached")).longValue(),
+                        ((Number) timing.get("resources")).longValue()
+                });
+            } finally {
+                DriverManager.quitDriver();
+            }
+        }
+        return samples;
+    }
+
+    private void print(String mode, List<long[]> samples) {
+        List<Long> loads = new ArrayList<>();
+        long bytes = 0;
+        long cached = 0;
+        long resources = 0;
+        for (long[] sample : samples) {
+            loads.add(sample[0]);
+            bytes += sample[1];
+            cached += sample[2];
+            resources += sample[3];
+        }
+        Collections.sort(loads);
+        int n = samples.size();
+        System.out.println(String.format("%-8s %14d %14d %11d / %d", mode, loads.get(n / 2), bytes / n / 1024,
+                cached / n, resources / n));
+    }
+
+    private void restore(String key, String value) {
+        if (value == null) {
+            System.clearProperty(key);
+        } else {
+            System.setProperty(key, value);
+        }
+    }
+}
@@ -2,6 +2,7 @@ package com.mondial.tests.templated.report;
 
 import com.mondial.pages.HomePage;
 import com.mondial.pages.LoginPage;
+import com.mondial.pages.ReportRequest;
 import com.mondial.pages.ReportsPage;
 import com.mondial.tests.BaseTest;
 import org.testng.Assert;
@@ -31,7 +32,8 @@ public class IX_VerifyTrialBalance_AllNaturalAccountSets extends BaseTest {
     public void verifyReportForAllNaturalAccountSets() throws InterruptedException {
         rp.navigateToTemplatedReport();
         rp.waitForVisible(rp.templatedReportHeading);
-        rp.selectRequiredValues(config.getProperty("companyReport"), REPORT_TYPE);
+        ReportRequest request = rp.defaultRequest(config.getProperty("companyReport"), REPORT_TYPE);
+        rp.apply(request);
         List<String> nasList = rp.getNaturalAccountSets();
         System.out.println("Available Natural Account Sets: " + nasList);
         String templatedReportUrl = driver.getCurrentUrl();
@@ -40,8 +42,8 @@ public class IX_VerifyTrialBalance_AllNaturalAccountSets extends BaseTest {
             System.out.println("\n--- Testing Natural Account Set: " + nas + " ---");
             driver.navigate().to(templatedReportUrl);
             rp.waitForVisible(rp.templatedReportHeading);
-            rp.selectRequiredValues(config.getProperty("companyReport"), REPORT_TYPE);
-            rp.verifyBalanceGeneration_NAS(nas, REPORT_TYPE);
+            rp.apply(request.withNaturalAccountSet(nas));
+            rp.generateReport(REPORT_TYPE);
             rp.waitForVisible(rp.firstRecord);
             System.out.println("Trial Balance generated successfully for Natural Account Set: " + nas);
         }
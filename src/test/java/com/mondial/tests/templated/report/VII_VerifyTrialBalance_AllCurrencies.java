@@ -2,6 +2,7 @@ package com.mondial.tests.templated.report;
 
 import com.mondial.pages.HomePage;
 import com.mondial.pages.LoginPage;
+import com.mondial.pages.ReportRequest;
 import com.mondial.pages.ReportsPage;
 import com.mondial.tests.BaseTest;
 import org.testng.Assert;
@@ -31,7 +32,8 @@ public class VII_VerifyTrialBalance_AllCurrencies extends BaseTest {
     public void verifyReportForAllCurrencies() throws InterruptedException {
         rp.navigateToTemplatedReport();
         rp.waitForVisible(rp.templatedReportHeading);
-        rp.selectRequiredValues(config.getProperty("companyReport"), REPORT_TYPE);
+        ReportRequest request = rp.defaultRequest(config.getProperty("companyReport"), REPORT_TYPE);
+        rp.apply(request);
         List<String> currencies = rp.getCurrencies();
         System.out.println("Available Currencies: " + currencies);
         String templatedReportUrl = driver.getCurrentUrl();
@@ -40,8 +42,8 @@ public class VII_VerifyTrialBalance_AllCurrencies extends BaseTest {
             System.out.println("\n--- Testing Currency: " + currency + " ---");
             driver.navigate().to(templatedReportUrl);
             rp.waitForVisible(rp.templatedReportHeading);
-            rp.selectRequiredValues(config.getProperty("companyReport"), REPORT_TYPE);
-            rp.verifyBalanceGeneration_Currencies(currency, REPORT_TYPE);
+            rp.apply(request.withCurrency(currency));
+            rp.generateReport(REPORT_TYPE);
             rp.waitForVisible(rp.firstRecord);
             System.out.println("Trial Balance generated successfully for Currency: " + currency);
         }